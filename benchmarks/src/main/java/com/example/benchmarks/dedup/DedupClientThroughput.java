@@ -0,0 +1,218 @@
+package com.example.benchmarks.dedup;
+
+import com.example.common.id.TimeOrderedIdGenerator;
+import com.example.notification.repository.BucketedEventIdStore;
+import com.example.notification.repository.PipelinedEventIdStore;
+import com.example.notification.repository.ProcessedEventRepository;
+import com.example.notification.repository.RecentEventIdCache;
+import com.example.notification.repository.ShardedEventIdStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// eventId 예약(reserveIfAbsent)을 동시성 단계별로 돌려 처리량과 지연 분포를 비교한다.
+//   BLOCKING       : 지금 경로. StringRedisTemplate 로 SET NX EX 후 응답까지 스레드가 대기
+//   PIPELINED      : app.dedup.async.enabled 경로의 동기 호출. 여러 스레드의 명령이 auto-flush 배치로 묶임
+//   PIPELINED_ASYNC: 스레드마다 --window 개의 예약을 한 번에 보내고 앞에서부터 결과를 받음(배치 처리 경로, 지연은 보낸 시점부터 각 응답까지)
+// 측정마다 지정한 DB 를 FLUSHDB 하므로 반드시 비어 있는 전용 DB 번호를 넘긴다.
+//
+// java -cp benchmarks/target/benchmarks.jar com.example.benchmarks.dedup.DedupClientThroughput \
+//      --host localhost --port 6379 --db 15 --threads 1,4,16,64 --duration 5s --window 16
+public final class DedupClientThroughput {
+
+    private static final int MAX_SAMPLES_PER_THREAD = 200_000;
+
+    private DedupClientThroughput() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        String host = option(args, "--host", "localhost");
+        int port = Integer.parseInt(option(args, "--port", "6379"));
+        int database = Integer.parseInt(option(args, "--db", "15"));
+        int[] threadCounts = Arrays.stream(option(args, "--threads", "1,4,16,64").split(",")).mapToInt(Integer::parseInt).toArray();
+        Duration duration = DurationStyle.detectAndParse(option(args, "--duration", "5s"));
+        int window = Integer.parseInt(option(args, "--window", "16"));
+        int flushMaxCommands = Integer.parseInt(option(args, "--flush-max-commands", "64"));
+        Duration flushInterval = DurationStyle.detectAndParse(option(args, "--flush-interval", "100us"));
+
+        RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration(host, port);
+        configuration.setDatabase(database);
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(configuration);
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        PipelinedEventIdStore pipelinedStore = new PipelinedEventIdStore(connectionFactory, flushMaxCommands, flushInterval, Duration.ofSeconds(3));
+        pipelinedStore.start();
+        try {
+            StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+            StaticListableBeanFactory noBeans = new StaticListableBeanFactory();
+            ProcessedEventRepository blocking = new ProcessedEventRepository(
+                    redisTemplate,
+                    noBeans.getBeanProvider(RecentEventIdCache.class),
+                    noBeans.getBeanProvider(BucketedEventIdStore.class),
+                    noBeans.getBeanProvider(ShardedEventIdStore.class),
+                    noBeans.getBeanProvider(PipelinedEventIdStore.class),
+                    new SimpleMeterRegistry()
+            );
+            StaticListableBeanFactory pipelinedBeans = new StaticListableBeanFactory();
+            pipelinedBeans.addBean("pipelinedEventIdStore", pipelinedStore);
+            ProcessedEventRepository pipelined = new ProcessedEventRepository(
+                    redisTemplate,
+                    noBeans.getBeanProvider(RecentEventIdCache.class),
+                    noBeans.getBeanProvider(BucketedEventIdStore.class),
+                    noBeans.getBeanProvider(ShardedEventIdStore.class),
+                    pipelinedBeans.getBeanProvider(PipelinedEventIdStore.class),
+                    new SimpleMeterRegistry()
+            );
+
+            System.out.printf("duration=%s, window=%d, flushMaxCommands=%d, flushInterval=%s%n", duration, window, flushMaxCommands, flushInterval);
+            System.out.printf("%-16s %8s %12s %10s %10s %10s%n", "mode", "threads", "ops/s", "p50(us)", "p99(us)", "p99.9(us)");
+            for (int threads : threadCounts) {
+                report("BLOCKING", threads, run(connectionFactory, threads, duration, (generator, samples) -> {
+                    long start = System.nanoTime();
+                    blocking.reserveIfAbsent(generator.nextString());
+                    samples.add(System.nanoTime() - start);
+                    return 1;
+                }));
+                report("PIPELINED", threads, run(connectionFactory, threads, duration, (generator, samples) -> {
+                    long start = System.nanoTime();
+                    pipelined.reserveIfAbsent(generator.nextString());
+                    samples.add(System.nanoTime() - start);
+                    return 1;
+                }));
+                report("PIPELINED_ASYNC", threads, run(connectionFactory, threads, duration, (generator, samples) -> {
+                    List<String> eventIds = new ArrayList<>(window);
+                    for (int i = 0; i < window; i++) {
+                        eventIds.add(generator.nextString());
+                    }
+                    long start = System.nanoTime();
+                    List<CompletionStage<Boolean>> reservations = pipelined.reserveEachIfAbsentAsync(eventIds);
+                    for (CompletionStage<Boolean> reservation : reservations) {
+                        ProcessedEventRepository.await(reservation);
+                        samples.add(System.nanoTime() - start);
+                    }
+                    return window;
+                }));
+            }
+        } finally {
+            pipelinedStore.stop();
+            connectionFactory.destroy();
+        }
+    }
+
+    private static Result run(LettuceConnectionFactory connectionFactory, int threads, Duration duration, Operation operation) throws InterruptedException {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.serverCommands().flushDb();
+        }
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        long[] operations = new long[threads];
+        Samples[] samples = new Samples[threads];
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            int index = t;
+            samples[index] = new Samples();
+            Thread worker = new Thread(() -> {
+                TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(index);
+                ready.countDown();
+                try {
+                    start.await();
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long count = 0;
+                while (running.get()) {
+                    count += operation.execute(generator, samples[index]);
+                }
+                operations[index] = count;
+            }, "dedup-client-" + t);
+            workers.add(worker);
+            worker.start();
+        }
+        ready.await();
+        long began = System.nanoTime();
+        start.countDown();
+        Thread.sleep(duration.toMillis());
+        running.set(false);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        double seconds = (System.nanoTime() - began) / 1_000_000_000.0;
+        long total = Arrays.stream(operations).sum();
+        return new Result(total / seconds, Samples.merge(samples));
+    }
+
+    private static void report(String mode, int threads, Result result) {
+        long[] latencies = result.latencies();
+        System.out.printf(
+                "%-16s %8d %12.0f %10.1f %10.1f %10.1f%n",
+                mode, threads, result.opsPerSecond(), percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 0.999)
+        );
+    }
+
+    private static double percentile(long[] sortedNanos, double quantile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sortedNanos.length - 1, Math.ceil(quantile * sortedNanos.length) - 1);
+        return sortedNanos[Math.max(0, index)] / 1_000.0;
+    }
+
+    private static String option(String[] args, String name, String defaultValue) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals(name)) {
+                return args[i + 1];
+            }
+        }
+        return defaultValue;
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        // 수행한 예약 수를 돌려준다.
+        int execute(TimeOrderedIdGenerator generator, Samples samples);
+    }
+
+    private record Result(double opsPerSecond, long[] latencies) {
+    }
+
+    // 스레드별 지연 표본. 상한을 넘으면 링으로 덮어써 최근 표본만 남긴다.
+    private static final class Samples {
+
+        private final long[] values = new long[MAX_SAMPLES_PER_THREAD];
+        private long count;
+
+        void add(long nanos) {
+            values[(int) (count++ % values.length)] = nanos;
+        }
+
+        static long[] merge(Samples[] all) {
+            int size = 0;
+            for (Samples samples : all) {
+                size += (int) Math.min(samples.count, samples.values.length);
+            }
+            long[] merged = new long[size];
+            int offset = 0;
+            for (Samples samples : all) {
+                int length = (int) Math.min(samples.count, samples.values.length);
+                System.arraycopy(samples.values, 0, merged, offset, length);
+                offset += length;
+            }
+            Arrays.sort(merged);
+            return merged;
+        }
+    }
+}
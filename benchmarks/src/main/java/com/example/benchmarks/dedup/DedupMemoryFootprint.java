@@ -0,0 +1,119 @@
+package com.example.benchmarks.dedup;
+
+import com.example.common.id.TimeOrderedIdGenerator;
+import com.example.notification.repository.BucketedEventIdStore;
+import com.example.notification.repository.PipelinedEventIdStore;
+import com.example.notification.repository.ProcessedEventRepository;
+import com.example.notification.repository.RecentEventIdCache;
+import com.example.notification.repository.ShardedEventIdStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+// 같은 수의 eventId 를 STRING_KEY / BUCKETED 레이아웃으로 각각 예약하고 Redis used_memory 증가분을 비교한다.
+// 측정 전후로 지정한 DB 를 FLUSHDB 하므로 반드시 비어 있는 전용 DB 번호를 넘긴다.
+//
+// java -cp benchmarks/target/benchmarks.jar com.example.benchmarks.dedup.DedupMemoryFootprint \
+//      --host localhost --port 6379 --db 15 --events 1000000 --bucket-width 1d --shards 1024
+public final class DedupMemoryFootprint {
+
+    private static final int CHUNK = 500;
+
+    private DedupMemoryFootprint() {
+    }
+
+    public static void main(String[] args) {
+        String host = option(args, "--host", "localhost");
+        int port = Integer.parseInt(option(args, "--port", "6379"));
+        int database = Integer.parseInt(option(args, "--db", "15"));
+        int events = Integer.parseInt(option(args, "--events", "1000000"));
+        Duration bucketWidth = DurationStyle.detectAndParse(option(args, "--bucket-width", "1d"));
+        int shards = Integer.parseInt(option(args, "--shards", "1024"));
+
+        RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration(host, port);
+        configuration.setDatabase(database);
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(configuration);
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        try {
+            StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+            List<String> eventIds = eventIds(events);
+
+            StaticListableBeanFactory noBeans = new StaticListableBeanFactory();
+            ProcessedEventRepository stringKeyLayout = new ProcessedEventRepository(
+                    redisTemplate,
+                    noBeans.getBeanProvider(RecentEventIdCache.class),
+                    noBeans.getBeanProvider(BucketedEventIdStore.class),
+                    noBeans.getBeanProvider(ShardedEventIdStore.class),
+                    noBeans.getBeanProvider(PipelinedEventIdStore.class),
+                    new SimpleMeterRegistry()
+            );
+            StaticListableBeanFactory bucketBeans = new StaticListableBeanFactory();
+            bucketBeans.addBean("bucketedEventIdStore", new BucketedEventIdStore(redisTemplate, bucketWidth, Duration.ofDays(7), shards));
+            ProcessedEventRepository bucketedLayout = new ProcessedEventRepository(
+                    redisTemplate,
+                    noBeans.getBeanProvider(RecentEventIdCache.class),
+                    bucketBeans.getBeanProvider(BucketedEventIdStore.class),
+                    noBeans.getBeanProvider(ShardedEventIdStore.class),
+                    noBeans.getBeanProvider(PipelinedEventIdStore.class),
+                    new SimpleMeterRegistry()
+            );
+
+            long stringKeyBytes = measure(connectionFactory, stringKeyLayout, eventIds);
+            long bucketedBytes = measure(connectionFactory, bucketedLayout, eventIds);
+
+            System.out.printf("events=%d, bucketWidth=%s, shards=%d%n", events, bucketWidth, shards);
+            System.out.printf("%-10s %14s %12s%n", "layout", "used_memory", "bytes/event");
+            System.out.printf("%-10s %14d %12.1f%n", "STRING_KEY", stringKeyBytes, (double) stringKeyBytes / events);
+            System.out.printf("%-10s %14d %12.1f%n", "BUCKETED", bucketedBytes, (double) bucketedBytes / events);
+            System.out.printf("ratio=%.2fx%n", (double) stringKeyBytes / Math.max(1L, bucketedBytes));
+        } finally {
+            connectionFactory.destroy();
+        }
+    }
+
+    private static long measure(LettuceConnectionFactory connectionFactory, ProcessedEventRepository repository, List<String> eventIds) {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.serverCommands().flushDb();
+            long before = usedMemory(connection);
+            for (int from = 0; from < eventIds.size(); from += CHUNK) {
+                repository.reserveAllIfAbsent(eventIds.subList(from, Math.min(from + CHUNK, eventIds.size())));
+            }
+            long after = usedMemory(connection);
+            connection.serverCommands().flushDb();
+            return after - before;
+        }
+    }
+
+    private static long usedMemory(RedisConnection connection) {
+        Properties memory = connection.serverCommands().info("memory");
+        return Long.parseLong(memory.getProperty("used_memory"));
+    }
+
+    private static List<String> eventIds(int count) {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(1);
+        List<String> eventIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            eventIds.add(generator.nextString());
+        }
+        return eventIds;
+    }
+
+    private static String option(String[] args, String name, String defaultValue) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals(name)) {
+                return args[i + 1];
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.benchmarks.dedup;
+
+import com.example.common.id.TimeOrderedIdGenerator;
+import com.example.notification.repository.ConsistentHashRing;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Redis 없이 consistent hash 링만으로 eventId 가 노드별로 얼마나 고르게 나뉘는지, 노드 하나를 건너뛸 때 몇 % 의 키가 옮겨 가는지 본다.
+// virtual node 수를 바꿔 가며 최대/최소 비율 차이를 비교하는 용도.
+//
+// java -cp benchmarks/target/benchmarks.jar com.example.benchmarks.dedup.DedupShardDistribution \
+//      --nodes localhost:6380,localhost:6381,localhost:6382 --virtual-nodes 160 --keys 1000000
+public final class DedupShardDistribution {
+
+    private static final String KEY_PREFIX = "notification:processed:event:";
+
+    private DedupShardDistribution() {
+    }
+
+    public static void main(String[] args) {
+        List<String> nodes = List.of(option(args, "--nodes", "localhost:6380,localhost:6381,localhost:6382").split(","));
+        int virtualNodes = Integer.parseInt(option(args, "--virtual-nodes", "160"));
+        int keyCount = Integer.parseInt(option(args, "--keys", "1000000"));
+
+        ConsistentHashRing<String> ring = new ConsistentHashRing<>(nodes, node -> node, virtualNodes);
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(1);
+        List<String> keys = new ArrayList<>(keyCount);
+        for (int i = 0; i < keyCount; i++) {
+            keys.add(KEY_PREFIX + generator.nextString());
+        }
+
+        Map<String, Integer> counts = new HashMap<>();
+        List<String> owners = new ArrayList<>(keyCount);
+        for (String key : keys) {
+            String owner = ring.route(key);
+            owners.add(owner);
+            counts.merge(owner, 1, Integer::sum);
+        }
+        Map<String, Double> ownership = ring.ownership();
+        System.out.printf("virtualNodes=%d, keys=%d%n", virtualNodes, keyCount);
+        System.out.printf("%-24s %10s %10s %10s%n", "node", "keys", "key%", "ring%");
+        for (String node : nodes) {
+            int count = counts.getOrDefault(node, 0);
+            System.out.printf("%-24s %10d %9.2f%% %9.2f%%%n", node, count, count * 100.0 / keyCount, ownership.getOrDefault(node, 0.0) * 100);
+        }
+
+        // 노드를 하나씩 빼 보고, 빠진 노드 몫 외의 키가 움직였는지 확인한다(0 이어야 한다).
+        for (String down : nodes) {
+            int moved = 0;
+            int movedFromHealthy = 0;
+            for (int i = 0; i < keyCount; i++) {
+                String owner = ring.route(keys.get(i), node -> !node.equals(down));
+                if (!owner.equals(owners.get(i))) {
+                    moved++;
+                    if (!owners.get(i).equals(down)) {
+                        movedFromHealthy++;
+                    }
+                }
+            }
+            System.out.printf("without %-16s moved=%.2f%% (from other nodes=%d)%n", down, moved * 100.0 / keyCount, movedFromHealthy);
+        }
+    }
+
+    private static String option(String[] args, String name, String defaultValue) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals(name)) {
+                return args[i + 1];
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.benchmarks.id;
+
+import com.example.common.id.TimeOrderedId;
+import com.example.common.id.TimeOrderedIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdGeneratorBenchmark {
+
+    private final TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(1);
+
+    @Benchmark
+    public UUID randomUuid() {
+        return UUID.randomUUID();
+    }
+
+    @Benchmark
+    public String randomUuidString() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public TimeOrderedId timeOrderedId() {
+        return generator.next();
+    }
+
+    @Benchmark
+    public String timeOrderedIdString() {
+        return generator.nextString();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String randomUuidStringContended() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String timeOrderedIdStringContended() {
+        return generator.nextString();
+    }
+}
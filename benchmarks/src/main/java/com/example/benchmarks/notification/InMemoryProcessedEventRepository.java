@@ -0,0 +1,60 @@
+package com.example.benchmarks.notification;
+
+import com.example.notification.dto.RecordPosition;
+import com.example.notification.repository.BucketedEventIdStore;
+import com.example.notification.repository.PipelinedEventIdStore;
+import com.example.notification.repository.ProcessedEventRepository;
+import com.example.notification.repository.RecentEventIdCache;
+import com.example.notification.repository.ShardedEventIdStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Redis 왕복을 빼고 NotificationService 자체 비용만 재기 위한 대체 저장소.
+class InMemoryProcessedEventRepository extends ProcessedEventRepository {
+
+    private final Set<String> reserved = ConcurrentHashMap.newKeySet();
+
+    InMemoryProcessedEventRepository() {
+        super(
+                null,
+                new StaticListableBeanFactory().getBeanProvider(RecentEventIdCache.class),
+                new StaticListableBeanFactory().getBeanProvider(BucketedEventIdStore.class),
+                new StaticListableBeanFactory().getBeanProvider(ShardedEventIdStore.class),
+                new StaticListableBeanFactory().getBeanProvider(PipelinedEventIdStore.class),
+                new SimpleMeterRegistry()
+        );
+    }
+
+    @Override
+    public boolean reserveIfAbsent(RecordPosition position, String eventId) {
+        return reserved.add(eventId);
+    }
+
+    @Override
+    public void releaseReservation(RecordPosition position, String eventId) {
+        reserved.remove(eventId);
+    }
+
+    @Override
+    public boolean[] reserveAllIfAbsent(List<RecordPosition> positions, List<String> eventIds) {
+        boolean[] results = new boolean[eventIds.size()];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = reserved.add(eventIds.get(i));
+        }
+        return results;
+    }
+
+    @Override
+    public void releaseReservations(List<RecordPosition> positions, Collection<String> eventIds) {
+        reserved.removeAll(eventIds);
+    }
+
+    void clear() {
+        reserved.clear();
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.benchmarks.notification;
+
+import com.example.common.event.OrderCreatedEvent;
+import com.example.common.event.OrderShippedEvent;
+import com.example.common.event.ProductCreatedEvent;
+import com.example.common.id.TimeOrderedIdGenerator;
+import com.example.notification.config.DedupMode;
+import com.example.notification.dto.NotificationResult;
+import com.example.notification.repository.OffsetWatermarkRepository;
+import com.example.notification.repository.PartitionLocalEventIdStore;
+import com.example.notification.service.EventLatencyMetrics;
+import com.example.notification.service.NotificationChannelGuard;
+import com.example.notification.service.NotificationDispatchPipeline;
+import com.example.notification.service.NotificationSender;
+import com.example.notification.service.NotificationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+// 신규 이벤트는 미리 만든 EVENT_POOL 개를 순환하며, 한 바퀴 돌 때마다 저장소를 비워 항상 SENT 경로를 타게 한다.
+// duplicate 벤치마크는 이미 예약된 eventId 를 반복해 DUPLICATE 경로를 잰다.
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotificationServiceBenchmark {
+
+    private static final int EVENT_POOL = 4096;
+    private static final int EVENT_POOL_MASK = EVENT_POOL - 1;
+
+    private final InMemoryProcessedEventRepository repository = new InMemoryProcessedEventRepository();
+    private final NotificationService notificationService = new NotificationService(
+            repository,
+            new NotificationSender(new StaticListableBeanFactory().getBeanProvider(NotificationDispatchPipeline.class)),
+            new StaticListableBeanFactory().getBeanProvider(OffsetWatermarkRepository.class),
+            new StaticListableBeanFactory().getBeanProvider(PartitionLocalEventIdStore.class),
+            new EventLatencyMetrics(new SimpleMeterRegistry()),
+            new NotificationChannelGuard(new SimpleMeterRegistry(), false, 20, 10, 50, Duration.ofSeconds(30), 3, 32, Duration.ofMillis(500)),
+            DedupMode.EVENT_ID,
+            false
+    );
+
+    private final OrderCreatedEvent[] orderCreatedEvents = new OrderCreatedEvent[EVENT_POOL];
+    private final OrderShippedEvent[] orderShippedEvents = new OrderShippedEvent[EVENT_POOL];
+    private final ProductCreatedEvent[] productCreatedEvents = new ProductCreatedEvent[EVENT_POOL];
+    private OrderCreatedEvent duplicateEvent;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(1);
+        Instant now = Instant.now();
+        for (int i = 0; i < EVENT_POOL; i++) {
+            String orderId = generator.nextString();
+            orderCreatedEvents[i] = new OrderCreatedEvent(
+                    generator.nextString(), orderId, "customer-" + i, "customer-" + i + "@example.com", new BigDecimal("129000.50"), "KRW", now
+            );
+            orderShippedEvents[i] = new OrderShippedEvent(
+                    generator.nextString(), orderId, "customer-" + i, "customer-" + i + "@example.com", 20, 25, now
+            );
+            productCreatedEvents[i] = new ProductCreatedEvent(
+                    generator.nextString(), generator.nextString(), "product-" + i, new BigDecimal("39000"), "KRW", 100, now
+            );
+        }
+        duplicateEvent = orderCreatedEvents[0];
+    }
+
+    @Setup(Level.Iteration)
+    public void resetRepository() {
+        repository.clear();
+        repository.reserveIfAbsent(duplicateEvent.eventId());
+        cursor = 1;
+    }
+
+    @Benchmark
+    public NotificationResult processOrderCreated() {
+        return notificationService.processOrderCreated(orderCreatedEvents[next()]);
+    }
+
+    @Benchmark
+    public NotificationResult processOrderShipped() {
+        return notificationService.processOrderShipped(orderShippedEvents[next()]);
+    }
+
+    @Benchmark
+    public NotificationResult processProductCreated() {
+        return notificationService.processProductCreated(productCreatedEvents[next()]);
+    }
+
+    @Benchmark
+    public NotificationResult processOrderCreatedDuplicate() {
+        return notificationService.processOrderCreated(duplicateEvent);
+    }
+
+    private int next() {
+        int index = cursor++ & EVENT_POOL_MASK;
+        if (index == 0) {
+            repository.clear();
+            repository.reserveIfAbsent(duplicateEvent.eventId());
+            index = cursor++ & EVENT_POOL_MASK;
+        }
+        return index;
+    }
+}
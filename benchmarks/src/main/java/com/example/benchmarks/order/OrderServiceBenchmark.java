@@ -0,0 +1,84 @@
+package com.example.benchmarks.order;
+
+import com.example.common.id.TimeOrderedIdGenerator;
+import com.example.common.publication.PublicationTracker;
+import com.example.order.dto.CreateOrderRequest;
+import com.example.order.dto.CreateOrderResponse;
+import com.example.order.dto.UpdateOrderStatusRequest;
+import com.example.order.dto.UpdateOrderStatusResponse;
+import com.example.order.outbox.OrderEventOutbox;
+import com.example.order.producer.OrderEventProducer;
+import com.example.order.service.OrderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+// Throughput 와 SampleTime(p50/p90/p99/p99.9) 를 함께 낸다. 할당량은 -prof gc 로 본다.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderServiceBenchmark {
+
+    private static final String ORDER_CREATED_TOPIC = "order-created";
+    private static final String ORDER_SHIPPED_TOPIC = "order-shipped";
+
+    private OrderService orderService;
+    private CreateOrderRequest createRequest;
+    private UpdateOrderStatusRequest shippingRequest;
+    private String orderId;
+
+    @Setup
+    public void setUp() {
+        PublicationTracker publicationTracker = new PublicationTracker(65536);
+        OrderEventProducer producer = new OrderEventProducer(
+                new StubKafkaTemplate(),
+                new StubKafkaTemplate(),
+                publicationTracker,
+                ORDER_CREATED_TOPIC,
+                ORDER_SHIPPED_TOPIC,
+                new SimpleMeterRegistry(),
+                false
+        );
+        orderService = new OrderService(
+                producer,
+                new StaticListableBeanFactory().getBeanProvider(OrderEventOutbox.class),
+                publicationTracker,
+                Runnable::run,
+                new TimeOrderedIdGenerator(1),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                500,
+                10000L,
+                5000L,
+                30000L
+        );
+        createRequest = new CreateOrderRequest("customer-1024", "customer-1024@example.com", new BigDecimal("129000.50"), "KRW");
+        shippingRequest = new UpdateOrderStatusRequest("customer-1024", "customer-1024@example.com", 20, 25);
+        orderId = orderService.createOrderAsync(createRequest, null, null).join().orderId();
+    }
+
+    @Benchmark
+    public CreateOrderResponse createOrder() {
+        return orderService.createOrderAsync(createRequest, null, null).join();
+    }
+
+    @Benchmark
+    public UpdateOrderStatusResponse updateOrderStatus() {
+        return orderService.updateOrderStatusAsync(orderId, shippingRequest).join();
+    }
+}
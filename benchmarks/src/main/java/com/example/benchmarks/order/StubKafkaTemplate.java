@@ -0,0 +1,28 @@
+package com.example.benchmarks.order;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 브로커 없이 즉시 ack 된 것처럼 완료된 future 를 돌려준다. 측정 대상은 서비스/프로듀서 코드 경로뿐이다.
+class StubKafkaTemplate extends KafkaTemplate<String, Object> {
+
+    private final AtomicLong offset = new AtomicLong();
+
+    StubKafkaTemplate() {
+        super(() -> {
+            throw new UnsupportedOperationException("Stub template does not create producers");
+        });
+    }
+
+    @Override
+    public CompletableFuture<SendResult<String, Object>> send(String topic, String key, Object data) {
+        RecordMetadata metadata = new RecordMetadata(new TopicPartition(topic, 0), offset.getAndIncrement(), 0, System.currentTimeMillis(), -1, -1);
+        return CompletableFuture.completedFuture(new SendResult<>(new ProducerRecord<>(topic, key, data), metadata));
+    }
+}
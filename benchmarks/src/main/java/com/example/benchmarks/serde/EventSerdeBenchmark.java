@@ -0,0 +1,129 @@
+package com.example.benchmarks.serde;
+
+import com.example.common.event.OrderCreatedEvent;
+import com.example.common.event.OrderShippedEvent;
+import com.example.common.event.ProductCreatedEvent;
+import com.example.common.serde.BinaryEventDeserializer;
+import com.example.common.serde.BinaryEventSerializer;
+import com.example.common.serde.PooledJsonEventDeserializer;
+import com.example.common.serde.PooledJsonEventSerializer;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+// 이벤트 3종 x 직렬화 방식 조합별 처리량/지연 분포. 할당량은 -prof gc 로 함께 본다.
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventSerdeBenchmark {
+
+    private static final String TOPIC = "benchmark";
+
+    public enum EventType {
+        ORDER_CREATED,
+        ORDER_SHIPPED,
+        PRODUCT_CREATED
+    }
+
+    public enum Codec {
+        SPRING_JSON,
+        POOLED_JSON,
+        BINARY
+    }
+
+    @Param
+    private EventType eventType;
+
+    @Param
+    private Codec codec;
+
+    private final RecordHeaders headers = new RecordHeaders();
+
+    private Object event;
+    private byte[] payload;
+    private Serializer<Object> serializer;
+    private Deserializer<?> deserializer;
+
+    @Setup
+    public void setUp() {
+        event = sampleEvent(eventType);
+        serializer = serializer(codec);
+        deserializer = deserializer(codec, event.getClass());
+        payload = serializer.serialize(TOPIC, headers, event);
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializer.close();
+        deserializer.close();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(TOPIC, headers, event);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return deserializer.deserialize(TOPIC, headers, payload);
+    }
+
+    private static Object sampleEvent(EventType eventType) {
+        Instant now = Instant.parse("2024-10-18T09:30:15.123456Z");
+        return switch (eventType) {
+            case ORDER_CREATED -> new OrderCreatedEvent(
+                    "0192a4f1-7c3e-7a10-8000-3f2b9c4d5e6f", "0192a4f1-7c3e-7a10-8001-9a8b7c6d5e4f",
+                    "customer-1024", "customer-1024@example.com", new BigDecimal("129000.50"), "KRW", now
+            );
+            case ORDER_SHIPPED -> new OrderShippedEvent(
+                    "0192a4f1-7c3e-7a10-8002-1b2c3d4e5f60", "0192a4f1-7c3e-7a10-8001-9a8b7c6d5e4f",
+                    "customer-1024", "customer-1024@example.com", 20, 25, now
+            );
+            case PRODUCT_CREATED -> new ProductCreatedEvent(
+                    "0192a4f1-7c3e-7a10-8003-2c3d4e5f6071", "0192a4f1-7c3e-7a10-8004-3d4e5f607182",
+                    "Mechanical Keyboard", new BigDecimal("89000"), "KRW", 120, now
+            );
+        };
+    }
+
+    private static Serializer<Object> serializer(Codec codec) {
+        return switch (codec) {
+            case SPRING_JSON -> new JsonSerializer<>();
+            case POOLED_JSON -> new PooledJsonEventSerializer();
+            case BINARY -> new BinaryEventSerializer();
+        };
+    }
+
+    private static <T> Deserializer<T> deserializer(Codec codec, Class<T> type) {
+        return switch (codec) {
+            case SPRING_JSON -> {
+                JsonDeserializer<T> jsonDeserializer = new JsonDeserializer<>(type);
+                jsonDeserializer.addTrustedPackages("com.example.common.event");
+                yield jsonDeserializer;
+            }
+            case POOLED_JSON -> new PooledJsonEventDeserializer<>(type);
+            case BINARY -> new BinaryEventDeserializer<>(type, new PooledJsonEventDeserializer<>(type));
+        };
+    }
+}
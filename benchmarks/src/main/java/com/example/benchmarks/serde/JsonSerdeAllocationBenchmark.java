@@ -0,0 +1,94 @@
+package com.example.benchmarks.serde;
+
+import com.example.common.event.OrderCreatedEvent;
+import com.example.common.serde.KafkaEventSerDe;
+import com.example.common.serde.PooledJsonEventDeserializer;
+import com.example.common.serde.PooledJsonEventSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.JacksonUtils;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+// 할당량 비교가 목적이므로 gc 프로파일러와 함께 실행한다: java -jar benchmarks/target/benchmarks.jar JsonSerdeAllocation -prof gc
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerdeAllocationBenchmark {
+
+    private static final String TOPIC = "order-created";
+
+    private final ObjectMapper objectMapper = JacksonUtils.enhancedObjectMapper();
+    private final JsonSerializer<Object> springSerializer = new JsonSerializer<>(objectMapper);
+    private final PooledJsonEventSerializer pooledSerializer = new PooledJsonEventSerializer();
+    private final JsonDeserializer<OrderCreatedEvent> springDeserializer = new JsonDeserializer<>(OrderCreatedEvent.class, objectMapper, false);
+    private final PooledJsonEventDeserializer<OrderCreatedEvent> pooledDeserializer = new PooledJsonEventDeserializer<>(OrderCreatedEvent.class);
+
+    private final RecordHeaders headers = new RecordHeaders();
+
+    private OrderCreatedEvent event;
+    private byte[] payload;
+    private ByteBuffer recordSlice;
+
+    @Setup
+    public void setUp() {
+        event = new OrderCreatedEvent(
+                "0192a4f1-7c3e-7a10-8000-3f2b9c4d5e6f",
+                "0192a4f1-7c3e-7a10-8001-9a8b7c6d5e4f",
+                "customer-1024",
+                "customer-1024@example.com",
+                new BigDecimal("129000.50"),
+                "KRW",
+                Instant.parse("2024-10-18T09:30:15.123456Z")
+        );
+        payload = pooledSerializer.serialize(TOPIC, event);
+        // 컨슈머가 Deserializer 에 넘겨주는 것처럼 fetch 버퍼 중간 구간을 가리키는 슬라이스를 만든다.
+        byte[] fetchBuffer = new byte[payload.length + 64];
+        System.arraycopy(payload, 0, fetchBuffer, 32, payload.length);
+        recordSlice = ByteBuffer.wrap(fetchBuffer, 32, payload.length).slice();
+    }
+
+    @Benchmark
+    public byte[] serializeViaString() {
+        return KafkaEventSerDe.toJson(objectMapper, event).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] serializeSpringJson() {
+        return springSerializer.serialize(TOPIC, headers, event);
+    }
+
+    @Benchmark
+    public byte[] serializePooledJson() {
+        return pooledSerializer.serialize(TOPIC, headers, event);
+    }
+
+    @Benchmark
+    public OrderCreatedEvent deserializeSpringJson() {
+        return springDeserializer.deserialize(TOPIC, headers, recordSlice);
+    }
+
+    @Benchmark
+    public OrderCreatedEvent deserializePooledJson() {
+        return pooledDeserializer.deserialize(TOPIC, headers, recordSlice);
+    }
+}
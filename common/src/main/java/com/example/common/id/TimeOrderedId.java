@@ -0,0 +1,151 @@
+package com.example.common.id;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.UUID;
+
+// RFC 9562 UUIDv7 레이아웃: 48bit unix ms | ver(7) | 12bit 시퀀스 | variant | 14bit 노드 | 48bit 랜덤
+public final class TimeOrderedId implements Comparable<TimeOrderedId> {
+
+    public static final int BINARY_LENGTH = 16;
+    public static final int CANONICAL_LENGTH = 36;
+    public static final int COMPACT_LENGTH = 26;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final char[] CROCKFORD = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final byte[] CROCKFORD_LOOKUP = new byte[128];
+
+    static {
+        Arrays.fill(CROCKFORD_LOOKUP, (byte) -1);
+        for (int i = 0; i < CROCKFORD.length; i++) {
+            CROCKFORD_LOOKUP[CROCKFORD[i]] = (byte) i;
+            CROCKFORD_LOOKUP[Character.toLowerCase(CROCKFORD[i])] = (byte) i;
+        }
+    }
+
+    private final long mostSignificantBits;
+    private final long leastSignificantBits;
+
+    public TimeOrderedId(long mostSignificantBits, long leastSignificantBits) {
+        this.mostSignificantBits = mostSignificantBits;
+        this.leastSignificantBits = leastSignificantBits;
+    }
+
+    public static TimeOrderedId fromBytes(byte[] bytes) {
+        if (bytes.length != BINARY_LENGTH) {
+            throw new IllegalArgumentException("TimeOrderedId requires 16 bytes. length=" + bytes.length);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new TimeOrderedId(buffer.getLong(), buffer.getLong());
+    }
+
+    public static TimeOrderedId parse(String value) {
+        if (value.length() == CANONICAL_LENGTH) {
+            UUID uuid = UUID.fromString(value);
+            return new TimeOrderedId(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        }
+        if (value.length() == COMPACT_LENGTH) {
+            return parseCompact(value);
+        }
+        throw new IllegalArgumentException("Unsupported id format. value=" + value);
+    }
+
+    public long timestampMillis() {
+        return mostSignificantBits >>> 16;
+    }
+
+    public int nodeId() {
+        return (int) ((leastSignificantBits >>> 48) & TimeOrderedIdGenerator.NODE_MASK);
+    }
+
+    public long mostSignificantBits() {
+        return mostSignificantBits;
+    }
+
+    public long leastSignificantBits() {
+        return leastSignificantBits;
+    }
+
+    public byte[] toBytes() {
+        return ByteBuffer.allocate(BINARY_LENGTH)
+                .putLong(mostSignificantBits)
+                .putLong(leastSignificantBits)
+                .array();
+    }
+
+    public UUID toUuid() {
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    public String toCompactString() {
+        char[] chars = new char[COMPACT_LENGTH];
+        long high = mostSignificantBits;
+        long low = leastSignificantBits;
+        for (int i = COMPACT_LENGTH - 1; i >= 0; i--) {
+            chars[i] = CROCKFORD[(int) (low & 31)];
+            low = (low >>> 5) | (high << 59);
+            high >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    @Override
+    public String toString() {
+        char[] chars = new char[CANONICAL_LENGTH];
+        writeHex(chars, 0, mostSignificantBits >>> 32, 8);
+        chars[8] = '-';
+        writeHex(chars, 9, mostSignificantBits >>> 16, 4);
+        chars[13] = '-';
+        writeHex(chars, 14, mostSignificantBits, 4);
+        chars[18] = '-';
+        writeHex(chars, 19, leastSignificantBits >>> 48, 4);
+        chars[23] = '-';
+        writeHex(chars, 24, leastSignificantBits, 12);
+        return new String(chars);
+    }
+
+    @Override
+    public int compareTo(TimeOrderedId other) {
+        int result = Long.compareUnsigned(mostSignificantBits, other.mostSignificantBits);
+        return result != 0 ? result : Long.compareUnsigned(leastSignificantBits, other.leastSignificantBits);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof TimeOrderedId id)) {
+            return false;
+        }
+        return mostSignificantBits == id.mostSignificantBits && leastSignificantBits == id.leastSignificantBits;
+    }
+
+    @Override
+    public int hashCode() {
+        long hash = mostSignificantBits ^ leastSignificantBits;
+        return (int) (hash >> 32) ^ (int) hash;
+    }
+
+    private static TimeOrderedId parseCompact(String value) {
+        long high = 0L;
+        long low = 0L;
+        for (int i = 0; i < COMPACT_LENGTH; i++) {
+            char c = value.charAt(i);
+            int digit = c < CROCKFORD_LOOKUP.length ? CROCKFORD_LOOKUP[c] : -1;
+            if (digit < 0 || (i == 0 && digit > 7)) {
+                throw new IllegalArgumentException("Invalid compact id. value=" + value);
+            }
+            high = (high << 5) | (low >>> 59);
+            low = (low << 5) | digit;
+        }
+        return new TimeOrderedId(high, low);
+    }
+
+    private static void writeHex(char[] chars, int offset, long value, int digits) {
+        for (int i = digits - 1; i >= 0; i--) {
+            chars[offset + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+}
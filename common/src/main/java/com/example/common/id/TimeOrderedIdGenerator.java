@@ -0,0 +1,57 @@
+package com.example.common.id;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class TimeOrderedIdGenerator {
+
+    static final int NODE_MASK = 0x3FFF;
+
+    private static final int SEQUENCE_MASK = 0xFFF;
+    private static final long VERSION_BITS = 0x7000L;
+    private static final long VARIANT_BITS = 0x8000000000000000L;
+    private static final long RANDOM_MASK = 0xFFFFFFFFFFFFL;
+
+    // 스레드별 상태만 갱신하므로 공유 SecureRandom/락 없이 스레드 내 단조 증가를 보장한다.
+    private final ThreadLocal<State> state = ThreadLocal.withInitial(State::new);
+    private final long nodeBits;
+
+    public TimeOrderedIdGenerator(int nodeId) {
+        this.nodeBits = (long) (nodeId & NODE_MASK) << 48;
+    }
+
+    public static int defaultNodeId() {
+        try {
+            return InetAddress.getLocalHost().getHostName().hashCode() & NODE_MASK;
+        } catch (UnknownHostException exception) {
+            return ThreadLocalRandom.current().nextInt(NODE_MASK + 1);
+        }
+    }
+
+    public TimeOrderedId next() {
+        State current = state.get();
+        long now = System.currentTimeMillis();
+        if (now > current.lastMillis) {
+            current.lastMillis = now;
+            // 시퀀스 시작값을 하위 절반에서 무작위로 골라 같은 ms 내 스레드 간 충돌 여지를 줄인다.
+            current.sequence = ThreadLocalRandom.current().nextInt(SEQUENCE_MASK >>> 1);
+        } else if (++current.sequence > SEQUENCE_MASK) {
+            current.lastMillis++;
+            current.sequence = 0;
+        }
+
+        long mostSignificantBits = (current.lastMillis << 16) | VERSION_BITS | current.sequence;
+        long leastSignificantBits = VARIANT_BITS | nodeBits | (ThreadLocalRandom.current().nextLong() & RANDOM_MASK);
+        return new TimeOrderedId(mostSignificantBits, leastSignificantBits);
+    }
+
+    public String nextString() {
+        return next().toString();
+    }
+
+    private static final class State {
+        private long lastMillis;
+        private int sequence;
+    }
+}
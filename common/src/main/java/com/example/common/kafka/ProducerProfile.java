@@ -0,0 +1,38 @@
+package com.example.common.kafka;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+
+import java.util.Map;
+
+public enum ProducerProfile {
+    LATENCY(0, 16_384, "none"),
+    BALANCED(5, 65_536, "lz4"),
+    THROUGHPUT(20, 262_144, "zstd");
+
+    private final int lingerMs;
+    private final int batchSize;
+    private final String defaultCompression;
+
+    ProducerProfile(int lingerMs, int batchSize, String defaultCompression) {
+        this.lingerMs = lingerMs;
+        this.batchSize = batchSize;
+        this.defaultCompression = defaultCompression;
+    }
+
+    public void applyTo(Map<String, Object> configs, String compression) {
+        configs.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        configs.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        configs.put(
+                ProducerConfig.COMPRESSION_TYPE_CONFIG,
+                compression == null || compression.isBlank() ? defaultCompression : compression
+        );
+    }
+
+    public int batchSize() {
+        return batchSize;
+    }
+
+    public String tagValue() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.common.publication;
+
+public enum PublicationState {
+    PENDING,
+    ACKED,
+    FAILED
+}
@@ -0,0 +1,15 @@
+package com.example.common.publication;
+
+import java.time.Instant;
+
+public record PublicationStatus(
+        String eventId,
+        String topic,
+        PublicationState state,
+        Integer partition,
+        Long offset,
+        String error,
+        Instant registeredAt,
+        Instant completedAt
+) {
+}
@@ -0,0 +1,94 @@
+package com.example.common.publication;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class PublicationTracker {
+
+    private final AtomicReferenceArray<Entry> ring;
+    private final int mask;
+    private final AtomicLong sequence = new AtomicLong();
+    private final ConcurrentMap<String, Entry> index = new ConcurrentHashMap<>();
+
+    public PublicationTracker(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive. capacity=" + capacity);
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.ring = new AtomicReferenceArray<>(Math.max(size, 1));
+        this.mask = ring.length() - 1;
+    }
+
+    public void register(String eventId, String topic) {
+        Entry existing = index.get(eventId);
+        if (existing != null && existing.status.state() == PublicationState.PENDING) {
+            return;
+        }
+
+        Entry entry = new Entry(new PublicationStatus(eventId, topic, PublicationState.PENDING, null, null, null, Instant.now(), null));
+        index.put(eventId, entry);
+        // 링 슬롯을 덮어쓰는 방식으로 용량을 고정하고, 밀려난 오래된 항목만 인덱스에서 제거한다.
+        int slot = (int) (sequence.getAndIncrement() & mask);
+        Entry evicted = ring.getAndSet(slot, entry);
+        if (evicted != null && evicted != entry) {
+            index.remove(evicted.status.eventId(), evicted);
+        }
+    }
+
+    public void acked(String eventId, int partition, long offset) {
+        Entry entry = index.get(eventId);
+        if (entry == null) {
+            return;
+        }
+        PublicationStatus current = entry.status;
+        entry.complete(new PublicationStatus(
+                eventId, current.topic(), PublicationState.ACKED, partition, offset, null, current.registeredAt(), Instant.now()
+        ));
+    }
+
+    public void failed(String eventId, Throwable throwable) {
+        Entry entry = index.get(eventId);
+        if (entry == null) {
+            return;
+        }
+        PublicationStatus current = entry.status;
+        entry.complete(new PublicationStatus(
+                eventId, current.topic(), PublicationState.FAILED, null, null, throwable.getMessage(), current.registeredAt(), Instant.now()
+        ));
+    }
+
+    public Optional<PublicationStatus> find(String eventId) {
+        Entry entry = index.get(eventId);
+        return entry == null ? Optional.empty() : Optional.of(entry.status);
+    }
+
+    public Optional<CompletableFuture<PublicationStatus>> completion(String eventId) {
+        Entry entry = index.get(eventId);
+        // 호출자가 completeOnTimeout 등으로 완료시켜도 원본 상태가 오염되지 않도록 복사본을 돌려준다.
+        return entry == null ? Optional.empty() : Optional.of(entry.completion.copy());
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    private static final class Entry {
+
+        private final CompletableFuture<PublicationStatus> completion = new CompletableFuture<>();
+        private volatile PublicationStatus status;
+
+        private Entry(PublicationStatus status) {
+            this.status = status;
+        }
+
+        private void complete(PublicationStatus completed) {
+            status = completed;
+            completion.complete(completed);
+        }
+    }
+}
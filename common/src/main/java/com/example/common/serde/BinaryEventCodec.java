@@ -0,0 +1,160 @@
+package com.example.common.serde;
+
+import com.example.common.event.OrderCreatedEvent;
+import com.example.common.event.OrderShippedEvent;
+import com.example.common.event.ProductCreatedEvent;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// 페이로드 = MAGIC | schema version | event type | (tag, value)*
+// 필드는 번호로만 식별하므로 필드 추가/삭제가 양방향으로 호환되며, 번호는 재사용하지 않는다.
+public final class BinaryEventCodec {
+
+    public static final byte MAGIC = (byte) 0xBE;
+    public static final int SCHEMA_VERSION = 1;
+
+    static final int TYPE_ORDER_CREATED = 1;
+    static final int TYPE_ORDER_SHIPPED = 2;
+    static final int TYPE_PRODUCT_CREATED = 3;
+
+    private static final int HEADER_BYTES = 3;
+    private static final int INITIAL_CAPACITY = 192;
+
+    private BinaryEventCodec() {
+    }
+
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length >= HEADER_BYTES && data[0] == MAGIC;
+    }
+
+    public static byte[] encode(Object event) {
+        BinaryEventWriter writer = new BinaryEventWriter(INITIAL_CAPACITY);
+        writer.writeByte(MAGIC);
+        writer.writeByte(SCHEMA_VERSION);
+        if (event instanceof OrderCreatedEvent orderCreated) {
+            writer.writeByte(TYPE_ORDER_CREATED);
+            writer.writeString(1, orderCreated.eventId());
+            writer.writeString(2, orderCreated.orderId());
+            writer.writeString(3, orderCreated.customerId());
+            writer.writeString(4, orderCreated.customerEmail());
+            writer.writeDecimal(5, orderCreated.totalAmount());
+            writer.writeString(6, orderCreated.currency());
+            writer.writeInstant(7, orderCreated.createdAt());
+        } else if (event instanceof OrderShippedEvent orderShipped) {
+            writer.writeByte(TYPE_ORDER_SHIPPED);
+            writer.writeString(1, orderShipped.eventId());
+            writer.writeString(2, orderShipped.orderId());
+            writer.writeString(3, orderShipped.customerId());
+            writer.writeString(4, orderShipped.customerEmail());
+            writer.writeInt(5, orderShipped.previousStatus());
+            writer.writeInt(6, orderShipped.currentStatus());
+            writer.writeInstant(7, orderShipped.changedAt());
+        } else if (event instanceof ProductCreatedEvent productCreated) {
+            writer.writeByte(TYPE_PRODUCT_CREATED);
+            writer.writeString(1, productCreated.eventId());
+            writer.writeString(2, productCreated.productId());
+            writer.writeString(3, productCreated.productName());
+            writer.writeDecimal(4, productCreated.price());
+            writer.writeString(5, productCreated.currency());
+            writer.writeInt(6, productCreated.stockQuantity());
+            writer.writeInstant(7, productCreated.createdAt());
+        } else {
+            throw new SerializationException("Unsupported binary event type=" + (event == null ? null : event.getClass().getName()));
+        }
+        return writer.toByteArray();
+    }
+
+    public static Object decode(byte[] data) {
+        if (!isBinary(data)) {
+            throw new SerializationException("Payload is not a binary event");
+        }
+        BinaryEventReader reader = new BinaryEventReader(data, 1);
+        int schemaVersion = reader.readByte();
+        if (schemaVersion != SCHEMA_VERSION) {
+            // 필드 번호 호환은 같은 스키마 버전 안에서만 보장하므로, 모르는 버전은 추측해서 읽지 않는다.
+            throw new SerializationException("Unsupported binary event schemaVersion=" + schemaVersion + ", expected=" + SCHEMA_VERSION);
+        }
+        int type = reader.readByte();
+        return switch (type) {
+            case TYPE_ORDER_CREATED -> decodeOrderCreated(reader);
+            case TYPE_ORDER_SHIPPED -> decodeOrderShipped(reader);
+            case TYPE_PRODUCT_CREATED -> decodeProductCreated(reader);
+            default -> throw new SerializationException("Unknown binary event type=" + type + ", schemaVersion=" + schemaVersion);
+        };
+    }
+
+    public static int schemaVersion(byte[] data) {
+        return isBinary(data) ? data[1] & 0xFF : -1;
+    }
+
+    private static OrderCreatedEvent decodeOrderCreated(BinaryEventReader reader) {
+        String eventId = null;
+        String orderId = null;
+        String customerId = null;
+        String customerEmail = null;
+        BigDecimal totalAmount = null;
+        String currency = null;
+        Instant createdAt = null;
+        for (int field = reader.nextField(); field != 0; field = reader.nextField()) {
+            switch (field) {
+                case 1 -> eventId = reader.readString();
+                case 2 -> orderId = reader.readString();
+                case 3 -> customerId = reader.readString();
+                case 4 -> customerEmail = reader.readString();
+                case 5 -> totalAmount = reader.readDecimal();
+                case 6 -> currency = reader.readString();
+                case 7 -> createdAt = reader.readInstant();
+                default -> reader.skipField();
+            }
+        }
+        return new OrderCreatedEvent(eventId, orderId, customerId, customerEmail, totalAmount, currency, createdAt);
+    }
+
+    private static OrderShippedEvent decodeOrderShipped(BinaryEventReader reader) {
+        String eventId = null;
+        String orderId = null;
+        String customerId = null;
+        String customerEmail = null;
+        int previousStatus = 0;
+        int currentStatus = 0;
+        Instant changedAt = null;
+        for (int field = reader.nextField(); field != 0; field = reader.nextField()) {
+            switch (field) {
+                case 1 -> eventId = reader.readString();
+                case 2 -> orderId = reader.readString();
+                case 3 -> customerId = reader.readString();
+                case 4 -> customerEmail = reader.readString();
+                case 5 -> previousStatus = reader.readInt();
+                case 6 -> currentStatus = reader.readInt();
+                case 7 -> changedAt = reader.readInstant();
+                default -> reader.skipField();
+            }
+        }
+        return new OrderShippedEvent(eventId, orderId, customerId, customerEmail, previousStatus, currentStatus, changedAt);
+    }
+
+    private static ProductCreatedEvent decodeProductCreated(BinaryEventReader reader) {
+        String eventId = null;
+        String productId = null;
+        String productName = null;
+        BigDecimal price = null;
+        String currency = null;
+        int stockQuantity = 0;
+        Instant createdAt = null;
+        for (int field = reader.nextField(); field != 0; field = reader.nextField()) {
+            switch (field) {
+                case 1 -> eventId = reader.readString();
+                case 2 -> productId = reader.readString();
+                case 3 -> productName = reader.readString();
+                case 4 -> price = reader.readDecimal();
+                case 5 -> currency = reader.readString();
+                case 6 -> stockQuantity = reader.readInt();
+                case 7 -> createdAt = reader.readInstant();
+                default -> reader.skipField();
+            }
+        }
+        return new ProductCreatedEvent(eventId, productId, productName, price, currency, stockQuantity, createdAt);
+    }
+}
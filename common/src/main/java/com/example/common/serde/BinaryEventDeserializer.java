@@ -0,0 +1,68 @@
+package com.example.common.serde;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.utils.Utils;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+// 바이너리 매직 바이트가 없는 레코드는 fallback(JSON) 으로 넘겨, 토픽별 포맷 전환 중에도 두 형식을 함께 읽는다.
+public class BinaryEventDeserializer<T> implements Deserializer<T> {
+
+    private final Class<T> targetType;
+    private final Deserializer<T> fallback;
+
+    public BinaryEventDeserializer(Class<T> targetType, Deserializer<T> fallback) {
+        this.targetType = targetType;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        fallback.configure(configs, isKey);
+    }
+
+    @Override
+    public T deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        return BinaryEventCodec.isBinary(data) ? decode(topic, data) : fallback.deserialize(topic, data);
+    }
+
+    @Override
+    public T deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        return BinaryEventCodec.isBinary(data) ? decode(topic, data) : fallback.deserialize(topic, headers, data);
+    }
+
+    @Override
+    public T deserialize(String topic, Headers headers, ByteBuffer data) {
+        if (data == null) {
+            return null;
+        }
+        if (data.remaining() > 0 && data.get(data.position()) == BinaryEventCodec.MAGIC) {
+            return decode(topic, Utils.toArray(data));
+        }
+        return fallback.deserialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        fallback.close();
+    }
+
+    private T decode(String topic, byte[] data) {
+        Object event = BinaryEventCodec.decode(data);
+        if (!targetType.isInstance(event)) {
+            throw new SerializationException(
+                    "Binary event type mismatch. topic=" + topic + ", expected=" + targetType.getName() + ", actual=" + event.getClass().getName()
+            );
+        }
+        return targetType.cast(event);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.common.serde;
+
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+
+final class BinaryEventReader {
+
+    private final byte[] data;
+    private int position;
+    private int wireType;
+
+    BinaryEventReader(byte[] data, int offset) {
+        this.data = data;
+        this.position = offset;
+    }
+
+    int readByte() {
+        if (position >= data.length) {
+            throw new SerializationException("Unexpected end of binary event payload");
+        }
+        return data[position++] & 0xFF;
+    }
+
+    // 다음 필드 번호를 돌려주고, 더 읽을 필드가 없으면 0 을 돌려준다.
+    int nextField() {
+        if (position >= data.length) {
+            return 0;
+        }
+        long tag = readVarint();
+        wireType = (int) (tag & 0x7);
+        return (int) (tag >>> 3);
+    }
+
+    String readString() {
+        int length = readLength();
+        String value = new String(data, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    int readInt() {
+        return (int) unZigZag(readVarint());
+    }
+
+    BigDecimal readDecimal() {
+        int length = readLength();
+        int end = position + length;
+        int scale = (int) unZigZag(readVarint());
+        BigInteger unscaled;
+        try {
+            unscaled = new BigInteger(Arrays.copyOfRange(data, position, end));
+        } catch (IllegalArgumentException exception) {
+            // 길이가 scale 보다 짧으면 빈 배열(NumberFormatException)이나 역전된 범위가 된다.
+            throw new SerializationException("Malformed decimal field at position=" + position, exception);
+        }
+        position = end;
+        return new BigDecimal(unscaled, scale);
+    }
+
+    Instant readInstant() {
+        long nanos = unZigZag(readVarint());
+        return Instant.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L), Math.floorMod(nanos, 1_000_000_000L));
+    }
+
+    // 모르는 필드는 wire type 만으로 건너뛰어, 새 버전 프로듀서가 추가한 필드를 구버전 컨슈머가 무시할 수 있게 한다.
+    void skipField() {
+        switch (wireType) {
+            case BinaryEventWriter.WIRE_VARINT -> readVarint();
+            case BinaryEventWriter.WIRE_FIXED64 -> position += Long.BYTES;
+            case BinaryEventWriter.WIRE_BYTES -> position += readLength();
+            default -> throw new SerializationException("Unknown wire type=" + wireType + " at position=" + position);
+        }
+    }
+
+    private int readLength() {
+        long length = readVarint();
+        if (length < 0 || position + length > data.length) {
+            throw new SerializationException("Invalid length=" + length + " at position=" + position);
+        }
+        return (int) length;
+    }
+
+    private long readVarint() {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new SerializationException("Malformed varint at position=" + position);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.common.serde;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+public class BinaryEventSerializer implements Serializer<Object> {
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        EventTypeHeader.write(headers, data);
+        return serialize(topic, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        return data == null ? null : BinaryEventCodec.encode(data);
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.common.serde;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+
+final class BinaryEventWriter {
+
+    static final int WIRE_VARINT = 0;
+    static final int WIRE_FIXED64 = 1;
+    static final int WIRE_BYTES = 2;
+
+    private byte[] buffer;
+    private int size;
+
+    BinaryEventWriter(int initialCapacity) {
+        this.buffer = new byte[initialCapacity];
+    }
+
+    void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) value;
+    }
+
+    void writeString(int field, String value) {
+        if (value == null) {
+            return;
+        }
+        writeBytes(field, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    void writeInt(int field, int value) {
+        writeTag(field, WIRE_VARINT);
+        writeVarint(zigZag(value));
+    }
+
+    void writeDecimal(int field, BigDecimal value) {
+        if (value == null) {
+            return;
+        }
+        // scale(zigzag varint) 뒤에 unscaled 값을 2의 보수 바이트로 붙인다. 12900 같은 금액은 3바이트로 끝난다.
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        writeTag(field, WIRE_BYTES);
+        int scaleLength = varintLength(zigZag(value.scale()));
+        writeVarint(scaleLength + unscaled.length);
+        writeVarint(zigZag(value.scale()));
+        writeRaw(unscaled);
+    }
+
+    void writeInstant(int field, Instant value) {
+        if (value == null) {
+            return;
+        }
+        // epoch 나노초를 long 하나로 기록한다. (1677~2262년 범위에서 손실 없음)
+        long nanos = Math.addExact(Math.multiplyExact(value.getEpochSecond(), 1_000_000_000L), value.getNano());
+        writeTag(field, WIRE_VARINT);
+        writeVarint(zigZag(nanos));
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    private void writeBytes(int field, byte[] value) {
+        writeTag(field, WIRE_BYTES);
+        writeVarint(value.length);
+        writeRaw(value);
+    }
+
+    private void writeTag(int field, int wireType) {
+        writeVarint(((long) field << 3) | wireType);
+    }
+
+    private void writeVarint(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+    }
+
+    private void writeRaw(byte[] value) {
+        ensureCapacity(value.length);
+        System.arraycopy(value, 0, buffer, size, value.length);
+        size += value.length;
+    }
+
+    private void ensureCapacity(int additional) {
+        if (size + additional > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + additional));
+        }
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static int varintLength(long value) {
+        int length = 1;
+        while ((value & ~0x7FL) != 0) {
+            length++;
+            value >>>= 7;
+        }
+        return length;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.common.serde;
+
+public enum EventFormat {
+    JSON,
+    BINARY;
+
+    public Class<?> serializerClass() {
+        return this == BINARY ? BinaryEventSerializer.class : PooledJsonEventSerializer.class;
+    }
+}
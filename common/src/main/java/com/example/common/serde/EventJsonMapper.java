@@ -0,0 +1,42 @@
+package com.example.common.serde;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.kafka.support.JacksonUtils;
+
+// Spring JsonSerializer/JsonDeserializer 와 같은 설정의 매퍼를 프로세스 전체에서 하나만 쓰고,
+// 이벤트 타입별 writer/reader 는 처음 한 번만 만들어 재사용한다.
+public final class EventJsonMapper {
+
+    private static final ObjectMapper MAPPER = JacksonUtils.enhancedObjectMapper();
+
+    private static final ClassValue<ObjectWriter> WRITERS = new ClassValue<>() {
+        @Override
+        protected ObjectWriter computeValue(Class<?> type) {
+            return MAPPER.writerFor(type);
+        }
+    };
+
+    private static final ClassValue<ObjectReader> READERS = new ClassValue<>() {
+        @Override
+        protected ObjectReader computeValue(Class<?> type) {
+            return MAPPER.readerFor(type);
+        }
+    };
+
+    private EventJsonMapper() {
+    }
+
+    public static ObjectMapper mapper() {
+        return MAPPER;
+    }
+
+    public static ObjectWriter writer(Class<?> type) {
+        return WRITERS.get(type);
+    }
+
+    public static ObjectReader reader(Class<?> type) {
+        return READERS.get(type);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.common.serde;
+
+import com.example.common.event.OrderCreatedEvent;
+import com.example.common.event.OrderShippedEvent;
+import com.example.common.event.ProductCreatedEvent;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+// 레코드 값의 이벤트 종류를 나타내는 헤더. 클래스 이름 대신 고정된 논리 이름을 써서 패키지가 바뀌어도 호환된다.
+// 여러 토픽을 한 컨테이너로 읽는 컨슈머가 페이로드를 열어 보기 전에 대상 타입을 고를 때 쓴다.
+public final class EventTypeHeader {
+
+    public static final String NAME = "event-type";
+
+    private static final Map<Class<?>, String> NAMES = Map.of(
+            OrderCreatedEvent.class, "order-created",
+            OrderShippedEvent.class, "order-shipped",
+            ProductCreatedEvent.class, "product-created"
+    );
+    private static final Map<String, Class<?>> TYPES = Map.of(
+            "order-created", OrderCreatedEvent.class,
+            "order-shipped", OrderShippedEvent.class,
+            "product-created", ProductCreatedEvent.class
+    );
+
+    private EventTypeHeader() {
+    }
+
+    // 알려진 이벤트 타입이면 헤더를 (이미 있으면 바꿔서) 붙인다.
+    public static void write(Headers headers, Object event) {
+        if (headers == null || event == null) {
+            return;
+        }
+        String name = NAMES.get(event.getClass());
+        if (name != null) {
+            headers.remove(NAME);
+            headers.add(NAME, name.getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+
+    // 헤더가 없거나 모르는 이름이면 null.
+    public static Class<?> read(Headers headers) {
+        if (headers == null) {
+            return null;
+        }
+        Header header = headers.lastHeader(NAME);
+        return header == null ? null : TYPES.get(new String(header.value(), StandardCharsets.US_ASCII));
+    }
+}
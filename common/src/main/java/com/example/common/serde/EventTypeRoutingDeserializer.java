@@ -0,0 +1,73 @@
+package com.example.common.serde;
+
+import com.example.common.event.OrderCreatedEvent;
+import com.example.common.event.OrderShippedEvent;
+import com.example.common.event.ProductCreatedEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.utils.Utils;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+// 여러 이벤트 토픽을 한 컨슈머로 읽을 때 쓰는 값 역직렬화기.
+// 대상 타입은 EventTypeHeader -> 토픽별 기본 타입 순으로 고르고, 고른 타입의 역직렬화기 하나만 실행한다(여러 타입으로 시도해 보지 않음).
+// 헤더도 토픽 매핑도 없으면 바이너리 포맷만 자체 타입 바이트로 디코딩할 수 있다.
+public class EventTypeRoutingDeserializer implements Deserializer<Object> {
+
+    private final Map<String, Class<?>> topicTypes;
+    private final Map<Class<?>, Deserializer<?>> delegates = Map.of(
+            OrderCreatedEvent.class, new BinaryEventDeserializer<>(OrderCreatedEvent.class, new PooledJsonEventDeserializer<>(OrderCreatedEvent.class)),
+            OrderShippedEvent.class, new BinaryEventDeserializer<>(OrderShippedEvent.class, new PooledJsonEventDeserializer<>(OrderShippedEvent.class)),
+            ProductCreatedEvent.class, new BinaryEventDeserializer<>(ProductCreatedEvent.class, new PooledJsonEventDeserializer<>(ProductCreatedEvent.class))
+    );
+
+    public EventTypeRoutingDeserializer(Map<String, Class<?>> topicTypes) {
+        this.topicTypes = Map.copyOf(topicTypes);
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return deserialize(topic, null, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        Deserializer<?> delegate = delegate(topic, headers);
+        if (delegate == null) {
+            return decodeUntyped(topic, data);
+        }
+        return delegate.deserialize(topic, headers, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, ByteBuffer data) {
+        if (data == null) {
+            return null;
+        }
+        Deserializer<?> delegate = delegate(topic, headers);
+        if (delegate == null) {
+            return decodeUntyped(topic, Utils.toArray(data));
+        }
+        return delegate.deserialize(topic, headers, data);
+    }
+
+    private Deserializer<?> delegate(String topic, Headers headers) {
+        Class<?> type = EventTypeHeader.read(headers);
+        if (type == null) {
+            type = topicTypes.get(topic);
+        }
+        return type == null ? null : delegates.get(type);
+    }
+
+    private Object decodeUntyped(String topic, byte[] data) {
+        if (BinaryEventCodec.isBinary(data)) {
+            return BinaryEventCodec.decode(data);
+        }
+        throw new SerializationException("Cannot resolve event type. topic=" + topic + ", header " + EventTypeHeader.NAME + " is missing");
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.common.serde;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.utils.Utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+// 대상 타입이 고정된 토픽용. 레코드 버퍼가 힙 배열이면 복사 없이 그 구간을 그대로 파싱한다.
+public class PooledJsonEventDeserializer<T> implements Deserializer<T> {
+
+    private final Class<T> targetType;
+    private final ObjectReader reader;
+
+    public PooledJsonEventDeserializer(Class<T> targetType) {
+        this.targetType = targetType;
+        this.reader = EventJsonMapper.reader(targetType);
+    }
+
+    @Override
+    public T deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        return read(topic, data, 0, data.length);
+    }
+
+    @Override
+    public T deserialize(String topic, Headers headers, ByteBuffer data) {
+        if (data == null) {
+            return null;
+        }
+        if (data.hasArray()) {
+            return read(topic, data.array(), data.arrayOffset() + data.position(), data.remaining());
+        }
+        byte[] bytes = Utils.toArray(data);
+        return read(topic, bytes, 0, bytes.length);
+    }
+
+    private T read(String topic, byte[] data, int offset, int length) {
+        try {
+            return reader.readValue(data, offset, length);
+        } catch (IOException exception) {
+            throw new SerializationException("Failed to deserialize JSON event. topic=" + topic + ", type=" + targetType.getName(), exception);
+        }
+    }
+}
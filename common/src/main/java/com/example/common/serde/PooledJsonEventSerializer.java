@@ -0,0 +1,42 @@
+package com.example.common.serde;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.io.IOException;
+
+// JSON 을 스레드 로컬 버퍼에 바로 쓰고, 레코드마다 남는 할당은 최종 byte[] 하나뿐이다.
+// 클래스 이름 타입 헤더(__TypeId__) 대신 논리 이름 헤더(EventTypeHeader)만 붙인다.
+// 토픽별 컨슈머는 헤더를 보지 않고 토픽별 대상 타입으로 역직렬화한다.
+public class PooledJsonEventSerializer implements Serializer<Object> {
+
+    private static final int INITIAL_BUFFER_BYTES = 512;
+    private static final int MAX_RETAINED_BUFFER_BYTES = 64 * 1024;
+
+    private static final ThreadLocal<ReusableByteArrayOutputStream> BUFFERS = ThreadLocal.withInitial(
+            () -> new ReusableByteArrayOutputStream(INITIAL_BUFFER_BYTES, MAX_RETAINED_BUFFER_BYTES)
+    );
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        EventTypeHeader.write(headers, data);
+        return serialize(topic, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        if (data == null) {
+            return null;
+        }
+        ReusableByteArrayOutputStream buffer = BUFFERS.get();
+        try {
+            EventJsonMapper.writer(data.getClass()).writeValue(buffer, data);
+            return buffer.toByteArray();
+        } catch (IOException exception) {
+            throw new SerializationException("Failed to serialize JSON event. topic=" + topic + ", type=" + data.getClass().getName(), exception);
+        } finally {
+            buffer.reset();
+        }
+    }
+}
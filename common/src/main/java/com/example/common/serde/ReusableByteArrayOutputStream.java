@@ -0,0 +1,50 @@
+package com.example.common.serde;
+
+import java.io.OutputStream;
+import java.util.Arrays;
+
+// 스레드 하나가 계속 재사용하는 버퍼. 동기화하지 않으며 close 는 아무 일도 하지 않는다.
+final class ReusableByteArrayOutputStream extends OutputStream {
+
+    private final int initialCapacity;
+    private final int maxRetainedCapacity;
+    private byte[] buffer;
+    private int size;
+
+    ReusableByteArrayOutputStream(int initialCapacity, int maxRetainedCapacity) {
+        this.initialCapacity = initialCapacity;
+        this.maxRetainedCapacity = maxRetainedCapacity;
+        this.buffer = new byte[initialCapacity];
+    }
+
+    @Override
+    public void write(int value) {
+        ensureCapacity(size + 1);
+        buffer[size++] = (byte) value;
+    }
+
+    @Override
+    public void write(byte[] source, int offset, int length) {
+        ensureCapacity(size + length);
+        System.arraycopy(source, offset, buffer, size, length);
+        size += length;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    // 드물게 큰 페이로드로 늘어난 버퍼를 스레드가 계속 붙잡고 있지 않도록 상한을 넘으면 처음 크기로 되돌린다.
+    void reset() {
+        size = 0;
+        if (buffer.length > maxRetainedCapacity) {
+            buffer = new byte[initialCapacity];
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(required, buffer.length << 1));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.common.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimeOrderedIdGeneratorTest {
+
+    @Test
+    void idsFromOneThreadAreStrictlyIncreasing() {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(7);
+        TimeOrderedId previous = generator.next();
+        // 같은 ms 안에서 시퀀스(12bit)를 넘겨도 다음 ms 로 넘어가며 순서를 유지해야 한다.
+        for (int i = 0; i < 20_000; i++) {
+            TimeOrderedId current = generator.next();
+            assertThat(current).isGreaterThan(previous);
+            previous = current;
+        }
+    }
+
+    @Test
+    void carriesTimestampNodeAndUuidV7Layout() {
+        long before = System.currentTimeMillis();
+        TimeOrderedId id = new TimeOrderedIdGenerator(0x12345).next();
+        long after = System.currentTimeMillis();
+
+        UUID uuid = id.toUuid();
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        assertThat(id.nodeId()).isEqualTo(0x12345 & TimeOrderedIdGenerator.NODE_MASK);
+        assertThat(id.timestampMillis()).isBetween(before, after + 1);
+    }
+
+    @Test
+    void roundTripsThroughCanonicalCompactAndBinaryForms() {
+        TimeOrderedId id = new TimeOrderedIdGenerator(3).next();
+
+        assertThat(id.toString()).hasSize(TimeOrderedId.CANONICAL_LENGTH);
+        assertThat(id.toCompactString()).hasSize(TimeOrderedId.COMPACT_LENGTH);
+        assertThat(TimeOrderedId.parse(id.toString())).isEqualTo(id);
+        assertThat(TimeOrderedId.parse(id.toCompactString())).isEqualTo(id);
+        assertThat(TimeOrderedId.fromBytes(id.toBytes())).isEqualTo(id);
+    }
+
+    @Test
+    void rejectsUnsupportedFormats() {
+        assertThatThrownBy(() -> TimeOrderedId.parse("not-an-id"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TimeOrderedId.fromBytes(new byte[8]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
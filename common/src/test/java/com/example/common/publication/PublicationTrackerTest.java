@@ -0,0 +1,88 @@
+package com.example.common.publication;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PublicationTrackerTest {
+
+    private static final String TOPIC = "order.created.v1";
+
+    @Test
+    void tracksPendingThenAcked() {
+        PublicationTracker tracker = new PublicationTracker(4);
+        tracker.register("e1", TOPIC);
+
+        assertThat(tracker.find("e1")).get().extracting(PublicationStatus::state).isEqualTo(PublicationState.PENDING);
+
+        tracker.acked("e1", 2, 42L);
+
+        PublicationStatus status = tracker.find("e1").orElseThrow();
+        assertThat(status.state()).isEqualTo(PublicationState.ACKED);
+        assertThat(status.partition()).isEqualTo(2);
+        assertThat(status.offset()).isEqualTo(42L);
+    }
+
+    @Test
+    void evictsOldestEntriesBeyondCapacity() {
+        PublicationTracker tracker = new PublicationTracker(4);
+        for (int i = 0; i < 6; i++) {
+            tracker.register("e" + i, TOPIC);
+        }
+
+        assertThat(tracker.size()).isEqualTo(4);
+        assertThat(tracker.find("e0")).isEmpty();
+        assertThat(tracker.find("e1")).isEmpty();
+        assertThat(tracker.find("e5")).isPresent();
+    }
+
+    @Test
+    void capacityIsRoundedUpToPowerOfTwo() {
+        PublicationTracker tracker = new PublicationTracker(5);
+        for (int i = 0; i < 8; i++) {
+            tracker.register("e" + i, TOPIC);
+        }
+
+        assertThat(tracker.size()).isEqualTo(8);
+        assertThat(tracker.find("e0")).isPresent();
+    }
+
+    @Test
+    void registeringPendingEventAgainKeepsExistingEntry() {
+        PublicationTracker tracker = new PublicationTracker(4);
+        tracker.register("e1", TOPIC);
+        CompletableFuture<PublicationStatus> completion = tracker.completion("e1").orElseThrow();
+
+        tracker.register("e1", TOPIC);
+        tracker.acked("e1", 0, 1L);
+
+        assertThat(completion).isCompleted();
+        assertThat(tracker.size()).isEqualTo(1);
+    }
+
+    @Test
+    void completionCopyDoesNotAffectTrackedState() {
+        PublicationTracker tracker = new PublicationTracker(4);
+        tracker.register("e1", TOPIC);
+
+        tracker.completion("e1").orElseThrow().complete(null);
+
+        assertThat(tracker.find("e1")).get().extracting(PublicationStatus::state).isEqualTo(PublicationState.PENDING);
+        CompletableFuture<PublicationStatus> completion = tracker.completion("e1").orElseThrow();
+        tracker.failed("e1", new IllegalStateException("broker down"));
+        assertThat(completion.join()).satisfies(status -> {
+            assertThat(status.state()).isEqualTo(PublicationState.FAILED);
+            assertThat(status.error()).isEqualTo("broker down");
+        });
+    }
+
+    @Test
+    void unknownEventHasNoStatus() {
+        PublicationTracker tracker = new PublicationTracker(4);
+
+        assertThat(tracker.find("missing")).isEmpty();
+        assertThat(tracker.completion("missing")).isEmpty();
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.common.serde;
+
+import com.example.common.event.OrderCreatedEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BinaryEventCodecTest {
+
+    @Test
+    void roundTripsOrderCreatedEvent() {
+        OrderCreatedEvent event = new OrderCreatedEvent(
+                "e1", "o1", "user-1001", "user1001@example.com", new BigDecimal("129000.50"), "KRW", Instant.parse("2026-01-02T03:04:05.123456789Z")
+        );
+
+        assertThat(BinaryEventCodec.decode(BinaryEventCodec.encode(event))).isEqualTo(event);
+    }
+
+    @Test
+    void rejectsUnknownSchemaVersion() {
+        byte[] payload = BinaryEventCodec.encode(new OrderCreatedEvent("e1", "o1", null, null, null, null, null));
+        payload[1] = (byte) (BinaryEventCodec.SCHEMA_VERSION + 1);
+
+        assertThatThrownBy(() -> BinaryEventCodec.decode(payload))
+                .isInstanceOf(SerializationException.class)
+                .hasMessageContaining("schemaVersion=" + (BinaryEventCodec.SCHEMA_VERSION + 1));
+    }
+
+    @Test
+    void malformedDecimalIsReportedAsSerializationException() {
+        // totalAmount(5) 필드가 scale 만 있고 unscaled 바이트가 없다.
+        byte[] payload = {
+                BinaryEventCodec.MAGIC, BinaryEventCodec.SCHEMA_VERSION, BinaryEventCodec.TYPE_ORDER_CREATED,
+                (5 << 3) | BinaryEventWriter.WIRE_BYTES, 1, 0
+        };
+
+        assertThatThrownBy(() -> BinaryEventCodec.decode(payload))
+                .isInstanceOf(SerializationException.class)
+                .hasCauseInstanceOf(NumberFormatException.class);
+    }
+}
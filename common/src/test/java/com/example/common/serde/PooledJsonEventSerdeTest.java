@@ -0,0 +1,68 @@
+package com.example.common.serde;
+
+import com.example.common.event.OrderShippedEvent;
+import com.example.common.event.ProductCreatedEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PooledJsonEventSerdeTest {
+
+    private final PooledJsonEventSerializer serializer = new PooledJsonEventSerializer();
+
+    @Test
+    void roundTripsAndWritesLogicalTypeHeaderOnly() {
+        OrderShippedEvent event = new OrderShippedEvent("e1", "o1", "user-1001", "user1001@example.com", 20, 25, Instant.parse("2026-01-02T03:04:05Z"));
+        RecordHeaders headers = new RecordHeaders();
+
+        byte[] payload = serializer.serialize("order.shipped.v1", headers, event);
+
+        assertThat(new PooledJsonEventDeserializer<>(OrderShippedEvent.class).deserialize("order.shipped.v1", payload)).isEqualTo(event);
+        assertThat(EventTypeHeader.read(headers)).isEqualTo(OrderShippedEvent.class);
+        assertThat(headers.lastHeader("__TypeId__")).isNull();
+    }
+
+    @Test
+    void reusedBufferDoesNotLeakPreviousPayload() {
+        ProductCreatedEvent longer = new ProductCreatedEvent("e1", "p1", "a".repeat(300), new BigDecimal("39000"), "KRW", 100, Instant.EPOCH);
+        ProductCreatedEvent shorter = new ProductCreatedEvent("e2", "p2", "b", new BigDecimal("1"), "KRW", 1, Instant.EPOCH);
+        PooledJsonEventDeserializer<ProductCreatedEvent> deserializer = new PooledJsonEventDeserializer<>(ProductCreatedEvent.class);
+
+        serializer.serialize("product.created.v1", longer);
+        byte[] payload = serializer.serialize("product.created.v1", shorter);
+
+        assertThat(deserializer.deserialize("product.created.v1", payload)).isEqualTo(shorter);
+    }
+
+    @Test
+    void parsesSliceOfHeapBufferWithoutCopying() {
+        ProductCreatedEvent event = new ProductCreatedEvent("e1", "p1", "name", new BigDecimal("39000"), "KRW", 100, Instant.EPOCH);
+        byte[] payload = serializer.serialize("product.created.v1", event);
+        byte[] framed = new byte[payload.length + 8];
+        System.arraycopy(payload, 0, framed, 4, payload.length);
+
+        ByteBuffer slice = ByteBuffer.wrap(framed, 4, payload.length).slice();
+
+        assertThat(new PooledJsonEventDeserializer<>(ProductCreatedEvent.class).deserialize("product.created.v1", new RecordHeaders(), slice))
+                .isEqualTo(event);
+    }
+
+    @Test
+    void nullPassesThroughAndMalformedJsonIsSerializationException() {
+        PooledJsonEventDeserializer<ProductCreatedEvent> deserializer = new PooledJsonEventDeserializer<>(ProductCreatedEvent.class);
+
+        assertThat(serializer.serialize("product.created.v1", null)).isNull();
+        assertThat(deserializer.deserialize("product.created.v1", (byte[]) null)).isNull();
+        assertThatThrownBy(() -> deserializer.deserialize("product.created.v1", "{not json".getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(SerializationException.class)
+                .hasMessageContaining("topic=product.created.v1");
+    }
+}
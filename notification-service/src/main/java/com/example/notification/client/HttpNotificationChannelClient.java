@@ -0,0 +1,82 @@
+package com.example.notification.client;
+
+import com.example.notification.domain.NotificationChannel;
+import com.example.notification.dto.BulkDeliveryRequest;
+import com.example.notification.dto.BulkDeliveryResponse;
+import com.example.notification.dto.DeliveryResult;
+import com.example.notification.dto.OutgoingNotification;
+import com.example.notification.exception.NotificationDeliveryException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// 채널마다 POST {base-url}/{channel} 로 {"notifications":[...]} 를 보내고 {"results":[...]} 를 받는다.
+// JDK HttpClient(HTTP/1.1)는 응답을 다 읽은 커넥션을 keep-alive 풀에 돌려 다음 요청에 다시 쓰므로 요청마다 TCP/TLS 연결을 맺지 않는다.
+// 동시에 열리는 커넥션 수는 파이프라인의 채널별 max-in-flight 합을 넘지 않는다.
+@Component
+@ConditionalOnExpression("${app.notification.dispatch.enabled:false} and '${app.notification.dispatch.client:http}' == 'http'")
+public class HttpNotificationChannelClient implements NotificationChannelClient {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final Duration requestTimeout;
+
+    public HttpNotificationChannelClient(
+            ObjectMapper objectMapper,
+            @Value("${app.notification.dispatch.http.base-url}") String baseUrl,
+            @Value("${app.notification.dispatch.http.connect-timeout}") Duration connectTimeout,
+            @Value("${app.notification.dispatch.http.request-timeout}") Duration requestTimeout
+    ) {
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.requestTimeout = requestTimeout;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .build();
+    }
+
+    @Override
+    public CompletableFuture<List<DeliveryResult>> sendBulk(NotificationChannel channel, List<OutgoingNotification> notifications) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/" + channel.tag()))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(write(new BulkDeliveryRequest(notifications))))
+                .build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> read(channel, response));
+    }
+
+    private List<DeliveryResult> read(NotificationChannel channel, HttpResponse<byte[]> response) {
+        if (response.statusCode() / 100 != 2) {
+            throw new NotificationDeliveryException("Channel gateway returned status " + response.statusCode() + ". channel=" + channel.tag());
+        }
+        try {
+            BulkDeliveryResponse body = objectMapper.readValue(response.body(), BulkDeliveryResponse.class);
+            return body.results() != null ? body.results() : List.of();
+        } catch (IOException exception) {
+            throw new NotificationDeliveryException("Unreadable channel gateway response. channel=" + channel.tag(), exception);
+        }
+    }
+
+    private byte[] write(BulkDeliveryRequest request) {
+        try {
+            return objectMapper.writeValueAsBytes(request);
+        } catch (JsonProcessingException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
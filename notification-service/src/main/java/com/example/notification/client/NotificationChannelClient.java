@@ -0,0 +1,17 @@
+package com.example.notification.client;
+
+import com.example.notification.domain.NotificationChannel;
+import com.example.notification.dto.DeliveryResult;
+import com.example.notification.dto.OutgoingNotification;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// 알림 채널 게이트웨이(이메일/SMS 등) 클라이언트. NotificationDispatchPipeline 이 모은 묶음을 요청 한 번으로 보낸다.
+// 다른 게이트웨이를 붙일 때는 이 인터페이스를 구현한 빈을 등록하고 app.notification.dispatch.client 를 http 가 아닌 값으로 둔다.
+public interface NotificationChannelClient {
+
+    // 항목별 결과를 notifications 와 같은 순서로 돌려준다. 요청 자체가 실패하면 future 를 예외로 끝낸다.
+    // 호출 스레드를 막지 않아야 한다(파이프라인의 flush 스레드가 부른다).
+    CompletableFuture<List<DeliveryResult>> sendBulk(NotificationChannel channel, List<OutgoingNotification> notifications);
+}
@@ -0,0 +1,7 @@
+package com.example.notification.config;
+
+public enum DedupMode {
+    EVENT_ID,
+    WATERMARK,
+    LOCAL
+}
@@ -0,0 +1,49 @@
+package com.example.notification.config;
+
+import com.example.notification.repository.RecentEventIdCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "app.dedup.near-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class DedupNearCacheConfig {
+
+    @Bean
+    public RecentEventIdCache recentEventIdCache(
+            @Value("${app.dedup.near-cache.max-entries}") int maxEntries,
+            @Value("${app.dedup.near-cache.ttl}") Duration ttl
+    ) {
+        return new RecentEventIdCache(maxEntries, ttl.toMillis());
+    }
+
+    @Bean
+    public MeterBinder recentEventIdCacheMetrics(RecentEventIdCache recentEventIdCache) {
+        return registry -> {
+            FunctionCounter.builder("notification.dedup.near.cache.requests", recentEventIdCache, RecentEventIdCache::hits)
+                    .tag("result", "hit")
+                    .description("Duplicate checks answered by the near-cache without Redis")
+                    .register(registry);
+            FunctionCounter.builder("notification.dedup.near.cache.requests", recentEventIdCache, RecentEventIdCache::misses)
+                    .tag("result", "miss")
+                    .description("Duplicate checks that fell through to Redis")
+                    .register(registry);
+            FunctionCounter.builder("notification.dedup.near.cache.evictions", recentEventIdCache, RecentEventIdCache::sizeEvictions)
+                    .tag("cause", "size")
+                    .register(registry);
+            FunctionCounter.builder("notification.dedup.near.cache.evictions", recentEventIdCache, RecentEventIdCache::expiredEvictions)
+                    .tag("cause", "expired")
+                    .register(registry);
+            Gauge.builder("notification.dedup.near.cache.size", recentEventIdCache, RecentEventIdCache::size)
+                    .register(registry);
+            Gauge.builder("notification.dedup.near.cache.capacity", recentEventIdCache, RecentEventIdCache::capacity)
+                    .register(registry);
+        };
+    }
+}
@@ -3,12 +3,25 @@ package com.example.notification.config;
 import com.example.common.event.OrderCreatedEvent;
 import com.example.common.event.OrderShippedEvent;
 import com.example.common.event.ProductCreatedEvent;
+import com.example.common.serde.BinaryEventDeserializer;
+import com.example.common.serde.EventTypeRoutingDeserializer;
+import com.example.common.serde.PooledJsonEventDeserializer;
+import com.example.notification.consumer.DrainingRebalanceListener;
+import com.example.notification.consumer.KeyOrderedDispatcher;
+import com.example.notification.consumer.RetryTopicRouter;
+import com.example.notification.dto.RecordPosition;
+import com.example.notification.exception.ChannelUnavailableException;
+import com.example.notification.repository.OffsetWatermarkRepository;
+import com.example.notification.repository.PartitionLocalEventIdStore;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.config.TopicConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -16,29 +29,93 @@ import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.util.backoff.BackOff;
+import org.springframework.util.backoff.BackOffExecution;
 import org.springframework.util.backoff.FixedBackOff;
 
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Properties;
+import java.util.function.Function;
 
 @Configuration
 public class KafkaConsumerConfig {
 
     private static final Logger log = LoggerFactory.getLogger(KafkaConsumerConfig.class);
 
+    // 서킷 브레이커/벌크헤드가 거절한 레코드는 재시도 횟수를 쓰지 않고 DLQ 로도 보내지 않은 채 같은 offset 부터 다시 받는다.
+    // 그동안 ChannelPauseController 가 파티션을 멈춰 두므로 다시 받는 것은 서킷이 시험 호출을 받을 때다.
+    private static final FixedBackOff CHANNEL_UNAVAILABLE_BACK_OFF = new FixedBackOff(1000L, FixedBackOff.UNLIMITED_ATTEMPTS);
+
+    private final OffsetWatermarkRepository offsetWatermarkRepository;
+    private final PartitionLocalEventIdStore partitionLocalEventIdStore;
+    private final RetryTopicRouter retryTopicRouter;
+    private final MeterRegistry meterRegistry;
+    private final int fetchMinBytes;
+    private final Duration fetchMaxWait;
+    private final ObjectProvider<KeyOrderedDispatcher> keyOrderedDispatcherProvider;
+    private final boolean cooperativeRebalance;
+    private final List<String> assignmentStrategy;
+    private final String instanceId;
+    private final boolean autoTuneEnabled;
+    private final Duration sessionTimeout;
+    private final Duration drainTimeout;
+
+    public KafkaConsumerConfig(
+            ObjectProvider<OffsetWatermarkRepository> offsetWatermarkRepositoryProvider,
+            ObjectProvider<PartitionLocalEventIdStore> partitionLocalEventIdStoreProvider,
+            ObjectProvider<RetryTopicRouter> retryTopicRouterProvider,
+            MeterRegistry meterRegistry,
+            @Value("${app.kafka.fetch.min-bytes}") int fetchMinBytes,
+            @Value("${app.kafka.fetch.max-wait}") Duration fetchMaxWait,
+            ObjectProvider<KeyOrderedDispatcher> keyOrderedDispatcherProvider,
+            @Value("${app.kafka.rebalance.cooperative}") boolean cooperativeRebalance,
+            @Value("${app.kafka.rebalance.assignment-strategy}") List<String> assignmentStrategy,
+            @Value("${app.kafka.rebalance.instance-id}") String instanceId,
+            @Value("${app.kafka.autotune.enabled}") boolean autoTuneEnabled,
+            @Value("${app.kafka.rebalance.session-timeout}") Duration sessionTimeout,
+            @Value("${app.kafka.rebalance.drain-timeout}") Duration drainTimeout
+    ) {
+        this.offsetWatermarkRepository = offsetWatermarkRepositoryProvider.getIfAvailable();
+        this.partitionLocalEventIdStore = partitionLocalEventIdStoreProvider.getIfAvailable();
+        this.retryTopicRouter = retryTopicRouterProvider.getIfAvailable();
+        this.meterRegistry = meterRegistry;
+        this.fetchMinBytes = fetchMinBytes;
+        this.fetchMaxWait = fetchMaxWait;
+        this.keyOrderedDispatcherProvider = keyOrderedDispatcherProvider;
+        this.cooperativeRebalance = cooperativeRebalance;
+        this.assignmentStrategy = assignmentStrategy;
+        this.instanceId = instanceId;
+        this.autoTuneEnabled = autoTuneEnabled;
+        this.sessionTimeout = sessionTimeout;
+        this.drainTimeout = drainTimeout;
+        if (cooperativeRebalance && !instanceId.isBlank() && autoTuneEnabled) {
+            log.warn("Static membership disabled because consumer auto-tuning is enabled. instanceId={}", instanceId);
+        }
+    }
+
+    // 값 역직렬화는 바이너리 포맷이면 직접 디코딩하고, 그 외(JSON)는 토픽별 대상 타입이 고정된 PooledJsonEventDeserializer 로 위임한다.
+    // 타입 헤더를 보지 않으므로 헤더 없이 발행된 레코드와 기존 JsonSerializer 레코드를 모두 읽는다.
     @Bean
     public ConsumerFactory<String, OrderCreatedEvent> orderCreatedConsumerFactory(
             @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
             @Value("${spring.kafka.consumer.group-id}") String groupId
     ) {
-        JsonDeserializer<OrderCreatedEvent> jsonDeserializer = new JsonDeserializer<>(OrderCreatedEvent.class);
-        jsonDeserializer.addTrustedPackages("com.example.common.event");
-        jsonDeserializer.setUseTypeMapperForKey(false);
-        return new DefaultKafkaConsumerFactory<>(consumerConfigs(bootstrapServers, groupId), new StringDeserializer(), jsonDeserializer);
+        return instrumented(new DefaultKafkaConsumerFactory<>(
+                consumerConfigs(bootstrapServers, groupId),
+                new StringDeserializer(),
+                new BinaryEventDeserializer<>(OrderCreatedEvent.class, new PooledJsonEventDeserializer<>(OrderCreatedEvent.class))
+        ));
     }
 
     @Bean
@@ -46,10 +123,11 @@ public class KafkaConsumerConfig {
             @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
             @Value("${spring.kafka.consumer.group-id}") String groupId
     ) {
-        JsonDeserializer<OrderShippedEvent> jsonDeserializer = new JsonDeserializer<>(OrderShippedEvent.class);
-        jsonDeserializer.addTrustedPackages("com.example.common.event");
-        jsonDeserializer.setUseTypeMapperForKey(false);
-        return new DefaultKafkaConsumerFactory<>(consumerConfigs(bootstrapServers, groupId), new StringDeserializer(), jsonDeserializer);
+        return instrumented(new DefaultKafkaConsumerFactory<>(
+                consumerConfigs(bootstrapServers, groupId),
+                new StringDeserializer(),
+                new BinaryEventDeserializer<>(OrderShippedEvent.class, new PooledJsonEventDeserializer<>(OrderShippedEvent.class))
+        ));
     }
 
     @Bean
@@ -57,10 +135,39 @@ public class KafkaConsumerConfig {
             @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
             @Value("${spring.kafka.consumer.group-id}") String groupId
     ) {
-        JsonDeserializer<ProductCreatedEvent> jsonDeserializer = new JsonDeserializer<>(ProductCreatedEvent.class);
-        jsonDeserializer.addTrustedPackages("com.example.common.event");
-        jsonDeserializer.setUseTypeMapperForKey(false);
-        return new DefaultKafkaConsumerFactory<>(consumerConfigs(bootstrapServers, groupId), new StringDeserializer(), jsonDeserializer);
+        return instrumented(new DefaultKafkaConsumerFactory<>(
+                consumerConfigs(bootstrapServers, groupId),
+                new StringDeserializer(),
+                new BinaryEventDeserializer<>(ProductCreatedEvent.class, new PooledJsonEventDeserializer<>(ProductCreatedEvent.class))
+        ));
+    }
+
+    // app.kafka.unified.enabled=true 일 때 메인/DLQ 토픽 전체를 컨슈머 하나로 읽는 팩토리.
+    // 레코드마다 event-type 헤더로 대상 타입을 고르고, 헤더가 없는 기존 레코드는 토픽별 타입으로 읽는다.
+    @Bean
+    public ConsumerFactory<String, Object> unifiedConsumerFactory(
+            @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
+            @Value("${spring.kafka.consumer.group-id}") String groupId,
+            @Value("${app.kafka.topics.order-created}") String orderCreatedTopic,
+            @Value("${app.kafka.topics.order-created-dlq}") String orderCreatedDlqTopic,
+            @Value("${app.kafka.topics.order-shipped}") String orderShippedTopic,
+            @Value("${app.kafka.topics.order-shipped-dlq}") String orderShippedDlqTopic,
+            @Value("${app.kafka.topics.product-created}") String productCreatedTopic,
+            @Value("${app.kafka.topics.product-created-dlq}") String productCreatedDlqTopic
+    ) {
+        Map<String, Class<?>> topicTypes = Map.of(
+                orderCreatedTopic, OrderCreatedEvent.class,
+                orderCreatedDlqTopic, OrderCreatedEvent.class,
+                orderShippedTopic, OrderShippedEvent.class,
+                orderShippedDlqTopic, OrderShippedEvent.class,
+                productCreatedTopic, ProductCreatedEvent.class,
+                productCreatedDlqTopic, ProductCreatedEvent.class
+        );
+        return instrumented(new DefaultKafkaConsumerFactory<>(
+                consumerConfigs(bootstrapServers, groupId),
+                new StringDeserializer(),
+                new EventTypeRoutingDeserializer(topicTypes)
+        ));
     }
 
     @Bean
@@ -72,6 +179,7 @@ public class KafkaConsumerConfig {
         ConcurrentKafkaListenerContainerFactory<String, OrderCreatedEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(orderCreatedConsumerFactory);
         factory.setCommonErrorHandler(errorHandler(kafkaTemplate, dlqTopic));
+        applyDedupRebalanceListener(factory);
         return factory;
     }
 
@@ -84,6 +192,7 @@ public class KafkaConsumerConfig {
         ConcurrentKafkaListenerContainerFactory<String, OrderShippedEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(orderShippedConsumerFactory);
         factory.setCommonErrorHandler(errorHandler(kafkaTemplate, dlqTopic));
+        applyDedupRebalanceListener(factory);
         return factory;
     }
 
@@ -96,15 +205,147 @@ public class KafkaConsumerConfig {
         ConcurrentKafkaListenerContainerFactory<String, ProductCreatedEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(productCreatedConsumerFactory);
         factory.setCommonErrorHandler(errorHandler(kafkaTemplate, dlqTopic));
+        applyDedupRebalanceListener(factory);
         return factory;
     }
 
+    // 실패 레코드는 원래 토픽 기준으로 재시도 토픽 또는 해당 DLQ 로 보낸다.
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> unifiedKafkaListenerContainerFactory(
+            ConsumerFactory<String, Object> unifiedConsumerFactory,
+            KafkaTemplate<String, Object> kafkaTemplate,
+            @Value("${app.kafka.topics.order-created}") String orderCreatedTopic,
+            @Value("${app.kafka.topics.order-created-dlq}") String orderCreatedDlqTopic,
+            @Value("${app.kafka.topics.order-shipped}") String orderShippedTopic,
+            @Value("${app.kafka.topics.order-shipped-dlq}") String orderShippedDlqTopic,
+            @Value("${app.kafka.topics.product-created}") String productCreatedTopic,
+            @Value("${app.kafka.topics.product-created-dlq}") String productCreatedDlqTopic
+    ) {
+        Map<String, String> dlqTopics = Map.of(
+                orderCreatedTopic, orderCreatedDlqTopic,
+                orderShippedTopic, orderShippedDlqTopic,
+                productCreatedTopic, productCreatedDlqTopic
+        );
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(unifiedConsumerFactory);
+        factory.setCommonErrorHandler(errorHandler(kafkaTemplate, dlqTopics::get));
+        applyDedupRebalanceListener(factory);
+        return factory;
+    }
+
+    // app.kafka.batch.enabled=true 일 때 *BatchConsumer 가 사용하는 배치 리스너 팩토리.
+    // 리스너가 BatchListenerFailedException 으로 실패 인덱스를 알려주면 DefaultErrorHandler 가 앞쪽은 커밋하고
+    // 해당 레코드만 재시도 후 DLQ 로 보낸 뒤 나머지를 다시 전달한다.
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, OrderCreatedEvent> orderBatchKafkaListenerContainerFactory(
+            ConsumerFactory<String, OrderCreatedEvent> orderCreatedConsumerFactory,
+            KafkaTemplate<String, Object> kafkaTemplate,
+            @Value("${app.kafka.topics.order-created-dlq}") String dlqTopic,
+            @Value("${app.kafka.batch.max-poll-records}") int maxPollRecords
+    ) {
+        return batchFactory(orderCreatedConsumerFactory, errorHandler(kafkaTemplate, dlqTopic), maxPollRecords);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, OrderShippedEvent> orderShippedBatchKafkaListenerContainerFactory(
+            ConsumerFactory<String, OrderShippedEvent> orderShippedConsumerFactory,
+            KafkaTemplate<String, Object> kafkaTemplate,
+            @Value("${app.kafka.topics.order-shipped-dlq}") String dlqTopic,
+            @Value("${app.kafka.batch.max-poll-records}") int maxPollRecords
+    ) {
+        return batchFactory(orderShippedConsumerFactory, errorHandler(kafkaTemplate, dlqTopic), maxPollRecords);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, ProductCreatedEvent> productCreatedBatchKafkaListenerContainerFactory(
+            ConsumerFactory<String, ProductCreatedEvent> productCreatedConsumerFactory,
+            KafkaTemplate<String, Object> kafkaTemplate,
+            @Value("${app.kafka.topics.product-created-dlq}") String dlqTopic,
+            @Value("${app.kafka.batch.max-poll-records}") int maxPollRecords
+    ) {
+        return batchFactory(productCreatedConsumerFactory, errorHandler(kafkaTemplate, dlqTopic), maxPollRecords);
+    }
+
+    // app.kafka.parallel.enabled=true 일 때 *ParallelConsumer 가 사용하는 팩토리.
+    // 리스너는 레코드를 KeyOrderedDispatcher 에 넘기고 바로 반환하며, 워커가 처리를 끝낸 뒤 ack 한다.
+    // asyncAcks 로 순서가 뒤바뀐 ack 를 받아 두었다가 빈틈없이 완료된 offset 까지만 커밋하고,
+    // 이전 poll 의 ack 가 모두 모일 때까지 컨슈머를 멈춰 둔다(진행 중 레코드 수 상한 = max-poll-records).
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, OrderCreatedEvent> orderParallelKafkaListenerContainerFactory(
+            ConsumerFactory<String, OrderCreatedEvent> orderCreatedConsumerFactory,
+            @Value("${app.kafka.parallel.max-poll-records}") int maxPollRecords
+    ) {
+        return parallelFactory(orderCreatedConsumerFactory, maxPollRecords);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, OrderShippedEvent> orderShippedParallelKafkaListenerContainerFactory(
+            ConsumerFactory<String, OrderShippedEvent> orderShippedConsumerFactory,
+            @Value("${app.kafka.parallel.max-poll-records}") int maxPollRecords
+    ) {
+        return parallelFactory(orderShippedConsumerFactory, maxPollRecords);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, ProductCreatedEvent> productCreatedParallelKafkaListenerContainerFactory(
+            ConsumerFactory<String, ProductCreatedEvent> productCreatedConsumerFactory,
+            @Value("${app.kafka.parallel.max-poll-records}") int maxPollRecords
+    ) {
+        return parallelFactory(productCreatedConsumerFactory, maxPollRecords);
+    }
+
+    // 병렬 처리에서는 컨테이너 에러 핸들러 대신 KeyOrderedDispatcher 가 재시도 후 이 recoverer 로
+    // 재시도 토픽(app.kafka.retry-topics.enabled) 또는 DLQ 에 보낸다.
+    @Bean
+    public ConsumerRecordRecoverer parallelDeadLetterRecoverer(
+            KafkaTemplate<String, Object> kafkaTemplate,
+            @Value("${app.kafka.topics.order-created}") String orderCreatedTopic,
+            @Value("${app.kafka.topics.order-created-dlq}") String orderCreatedDlqTopic,
+            @Value("${app.kafka.topics.order-shipped}") String orderShippedTopic,
+            @Value("${app.kafka.topics.order-shipped-dlq}") String orderShippedDlqTopic,
+            @Value("${app.kafka.topics.product-created}") String productCreatedTopic,
+            @Value("${app.kafka.topics.product-created-dlq}") String productCreatedDlqTopic
+    ) {
+        if (retryTopicRouter != null) {
+            return retryTopicRouter.recoverer();
+        }
+        Map<String, String> dlqTopics = Map.of(
+                orderCreatedTopic, orderCreatedDlqTopic,
+                orderShippedTopic, orderShippedDlqTopic,
+                productCreatedTopic, productCreatedDlqTopic
+        );
+        return deadLetterRecoverer(kafkaTemplate, dlqTopics::get);
+    }
+
+    // 재시도 토픽 컨테이너용 팩토리. RetryTierListeners 가 단계마다 컨테이너를 하나씩 만든다.
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, OrderCreatedEvent> orderRetryKafkaListenerContainerFactory(
+            ConsumerFactory<String, OrderCreatedEvent> orderCreatedConsumerFactory
+    ) {
+        return retryFactory(orderCreatedConsumerFactory);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, OrderShippedEvent> orderShippedRetryKafkaListenerContainerFactory(
+            ConsumerFactory<String, OrderShippedEvent> orderShippedConsumerFactory
+    ) {
+        return retryFactory(orderShippedConsumerFactory);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, ProductCreatedEvent> productCreatedRetryKafkaListenerContainerFactory(
+            ConsumerFactory<String, ProductCreatedEvent> productCreatedConsumerFactory
+    ) {
+        return retryFactory(productCreatedConsumerFactory);
+    }
+
     @Bean
     public ConcurrentKafkaListenerContainerFactory<String, OrderCreatedEvent> dlqKafkaListenerContainerFactory(
             ConsumerFactory<String, OrderCreatedEvent> orderCreatedConsumerFactory
     ) {
         ConcurrentKafkaListenerContainerFactory<String, OrderCreatedEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(orderCreatedConsumerFactory);
+        applyStaticMembership(factory);
         return factory;
     }
 
@@ -114,6 +355,7 @@ public class KafkaConsumerConfig {
     ) {
         ConcurrentKafkaListenerContainerFactory<String, OrderShippedEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(orderShippedConsumerFactory);
+        applyStaticMembership(factory);
         return factory;
     }
 
@@ -123,6 +365,17 @@ public class KafkaConsumerConfig {
     ) {
         ConcurrentKafkaListenerContainerFactory<String, ProductCreatedEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(productCreatedConsumerFactory);
+        applyStaticMembership(factory);
+        return factory;
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> unifiedDlqKafkaListenerContainerFactory(
+            ConsumerFactory<String, Object> unifiedConsumerFactory
+    ) {
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(unifiedConsumerFactory);
+        applyStaticMembership(factory);
         return factory;
     }
 
@@ -180,6 +433,51 @@ public class KafkaConsumerConfig {
         return TopicBuilder.name(topic).partitions(partitions).replicas(replicationFactor).build();
     }
 
+    // 재시도 토픽은 메인 토픽과 파티션 수를 맞춰, 실패 레코드가 같은 파티션 번호로 넘어가게 한다.
+    @Bean
+    public KafkaAdmin.NewTopics retryTopics(
+            @Value("${app.kafka.partitions}") int partitions,
+            @Value("${app.kafka.replication-factor}") short replicationFactor
+    ) {
+        if (retryTopicRouter == null) {
+            return new KafkaAdmin.NewTopics();
+        }
+        return new KafkaAdmin.NewTopics(
+                retryTopicRouter.allRetryTopics().stream()
+                        .map(topic -> TopicBuilder.name(topic).partitions(partitions).replicas(replicationFactor).build())
+                        .toArray(NewTopic[]::new)
+        );
+    }
+
+    // LOCAL 모드의 changelog 토픽. 입력 토픽과 파티션 수를 맞춰 파티션 p 의 상태가 같은 번호의 changelog 파티션에 모이게 하고,
+    // eventId 키 단위로 compact 해 마지막 상태만 남기되 보존 기간이 지난 세그먼트는 지운다.
+    @Bean
+    public KafkaAdmin.NewTopics dedupChangelogTopics(
+            @Value("${app.kafka.partitions}") int partitions,
+            @Value("${app.kafka.replication-factor}") short replicationFactor
+    ) {
+        if (partitionLocalEventIdStore == null) {
+            return new KafkaAdmin.NewTopics();
+        }
+        return new KafkaAdmin.NewTopics(
+                partitionLocalEventIdStore.changelogTopics().stream()
+                        .map(topic -> TopicBuilder.name(topic)
+                                .partitions(partitions)
+                                .replicas(replicationFactor)
+                                .config(TopicConfig.CLEANUP_POLICY_CONFIG, TopicConfig.CLEANUP_POLICY_COMPACT + "," + TopicConfig.CLEANUP_POLICY_DELETE)
+                                .config(TopicConfig.RETENTION_MS_CONFIG, String.valueOf(partitionLocalEventIdStore.ttl().toMillis()))
+                                .build())
+                        .toArray(NewTopic[]::new)
+        );
+    }
+
+    // 컨슈머 클라이언트 메트릭을 kafka.consumer.* 로 노출한다. fetch-manager 의 records-lag 는 토픽/파티션 태그가 붙은
+    // 파티션별 lag 게이지(kafka_consumer_fetch_manager_records_lag)로, fetch 마다 갱신돼 커밋 주기를 기다리지 않는다.
+    private <T> ConsumerFactory<String, T> instrumented(DefaultKafkaConsumerFactory<String, T> factory) {
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
+    }
+
     private Map<String, Object> consumerConfigs(String bootstrapServers, String groupId) {
         Map<String, Object> configs = new HashMap<>();
         configs.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
@@ -188,10 +486,120 @@ public class KafkaConsumerConfig {
         configs.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
         configs.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
         configs.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        configs.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, fetchMinBytes);
+        configs.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, (int) fetchMaxWait.toMillis());
+        if (cooperativeRebalance) {
+            // 바뀌는 파티션만 옮기고 나머지는 계속 처리한다. static membership 이면 세션 타임아웃 안에 돌아온 인스턴스는 rebalance 없이 파티션을 되찾는다.
+            configs.put(ConsumerConfig.PARTITION_ASSIGNMENT_STRATEGY_CONFIG, assignmentStrategy);
+            configs.put(ConsumerConfig.SESSION_TIMEOUT_MS_CONFIG, (int) sessionTimeout.toMillis());
+        }
         return configs;
     }
 
+    private <T> ConcurrentKafkaListenerContainerFactory<String, T> batchFactory(
+            ConsumerFactory<String, T> consumerFactory,
+            DefaultErrorHandler errorHandler,
+            int maxPollRecords
+    ) {
+        ConcurrentKafkaListenerContainerFactory<String, T> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.setCommonErrorHandler(errorHandler);
+        Properties consumerProperties = new Properties();
+        consumerProperties.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(maxPollRecords));
+        factory.getContainerProperties().setKafkaConsumerProperties(consumerProperties);
+        applyDedupRebalanceListener(factory);
+        return factory;
+    }
+
+    private <T> ConcurrentKafkaListenerContainerFactory<String, T> parallelFactory(ConsumerFactory<String, T> consumerFactory, int maxPollRecords) {
+        ConcurrentKafkaListenerContainerFactory<String, T> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setAsyncAcks(true);
+        Properties consumerProperties = new Properties();
+        consumerProperties.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(maxPollRecords));
+        factory.getContainerProperties().setKafkaConsumerProperties(consumerProperties);
+        applyDedupRebalanceListener(factory);
+        factory.getContainerProperties().setConsumerRebalanceListener(new DrainingRebalanceListener(
+                factory.getContainerProperties().getConsumerRebalanceListener(),
+                keyOrderedDispatcherProvider::getObject,
+                drainTimeout
+        ));
+        return factory;
+    }
+
+    // 처리 시각이 안 된 레코드는 리스너가 nack 으로 되돌리고, 처리에 실패하면 제자리 재시도 없이 다음 단계로 넘긴 뒤
+    // 그 offset 을 바로 커밋한다(commitRecovered 는 MANUAL_IMMEDIATE 에서만 동작).
+    // nack 으로 멈춘 동안에도 poll 타임아웃마다 깨어나 재개 시각을 확인하므로, 타임아웃을 줄여 처리 지연을 1초 안쪽으로 둔다.
+    private <T> ConcurrentKafkaListenerContainerFactory<String, T> retryFactory(ConsumerFactory<String, T> consumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<String, T> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+        factory.getContainerProperties().setPollTimeout(1000L);
+        if (retryTopicRouter != null) {
+            DefaultErrorHandler errorHandler = channelAwareErrorHandler(retryTopicRouter.recoverer(), new FixedBackOff(0L, 0L));
+            errorHandler.setCommitRecovered(true);
+            factory.setCommonErrorHandler(errorHandler);
+        }
+        applyDedupRebalanceListener(factory);
+        return factory;
+    }
+
+    // WATERMARK 모드에서는 파티션을 넘기기 전에 watermark 를 기록하고, 새로 받은 파티션은 Redis 에서 다시 읽는다.
+    // LOCAL 모드에서는 파티션을 넘기기 전에 로컬 저장소를 닫고, 새로 받은 메인 토픽 파티션은 changelog 로 복원한다.
+    private void applyDedupRebalanceListener(ConcurrentKafkaListenerContainerFactory<String, ?> factory) {
+        if (offsetWatermarkRepository != null) {
+            factory.getContainerProperties().setConsumerRebalanceListener(offsetWatermarkRepository.rebalanceListener());
+        } else if (partitionLocalEventIdStore != null) {
+            factory.getContainerProperties().setConsumerRebalanceListener(partitionLocalEventIdStore.rebalanceListener());
+        }
+        applyStaticMembership(factory);
+    }
+
+    // 컨테이너마다 인스턴스 id 와 구독 토픽으로 고정된 group.instance.id 를 준다. concurrency 로 늘어난 컨슈머에는 컨테이너가 -0, -1 ... 을 붙인다.
+    // 재배포로 잠깐 빠졌다 돌아와도 세션 타임아웃 전이면 같은 멤버로 보고 파티션을 옮기지 않는다.
+    // 자동 튜닝이 concurrency 를 줄이면 빠진 컨슈머의 static 멤버는 LeaveGroup 을 보내지 않아 세션 타임아웃까지 파티션을 붙잡으므로,
+    // 자동 튜닝을 켜면 static membership 을 쓰지 않는다(컨슈머가 닫힐 때 바로 그룹을 떠나 파티션이 넘어간다).
+    private void applyStaticMembership(ConcurrentKafkaListenerContainerFactory<String, ?> factory) {
+        if (!cooperativeRebalance || instanceId.isBlank() || autoTuneEnabled) {
+            return;
+        }
+        factory.setContainerCustomizer(container -> {
+            String[] topics = container.getContainerProperties().getTopics();
+            String member = instanceId + "-" + (topics != null ? String.join("+", topics) : container.getListenerId());
+            Properties consumerProperties = new Properties();
+            consumerProperties.putAll(container.getContainerProperties().getKafkaConsumerProperties());
+            consumerProperties.put(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG, member);
+            container.getContainerProperties().setKafkaConsumerProperties(consumerProperties);
+        });
+    }
+
     private DefaultErrorHandler errorHandler(KafkaTemplate<String, Object> kafkaTemplate, String dlqTopic) {
+        return errorHandler(kafkaTemplate, topic -> dlqTopic);
+    }
+
+    private DefaultErrorHandler errorHandler(KafkaTemplate<String, Object> kafkaTemplate, Function<String, String> dlqTopicOf) {
+        if (retryTopicRouter != null) {
+            // 제자리 재시도 없이 바로 첫 재시도 토픽으로 넘겨 실패 레코드 하나가 파티션을 붙잡지 않게 한다.
+            return channelAwareErrorHandler(retryTopicRouter.recoverer(), new FixedBackOff(0L, 0L));
+        }
+        return channelAwareErrorHandler(deadLetterRecoverer(kafkaTemplate, dlqTopicOf), new FixedBackOff(2000L, 3L));
+    }
+
+    // 채널이 막혀 거절된 레코드는 재시도 횟수 없이 같은 offset 을 다시 처리하고, 그 밖의 실패는 backOff 대로 처리한다.
+    // 기본 BackOff 가 재시도 0회면 DefaultErrorHandler 가 backOffFunction 을 보지 않고 바로 recover 하므로, 그때만 기본값을 즉시 재시도 1회로 둔다.
+    // 기본값은 배치 리스너가 BatchListenerFailedException 이 아닌 예외를 던질 때 배치 전체 재시도에도 쓰이므로 무제한으로 두지 않는다.
+    // 예외가 바뀌면 재시도 상태가 초기화되므로(기본값), 서킷이 닫힌 뒤의 실제 실패는 원래 정책대로 처음부터 센다.
+    private static DefaultErrorHandler channelAwareErrorHandler(ConsumerRecordRecoverer recoverer, BackOff backOff) {
+        BackOff defaultBackOff = backOff.start().nextBackOff() == BackOffExecution.STOP ? new FixedBackOff(0L, 1L) : backOff;
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(recoverer, defaultBackOff);
+        errorHandler.setBackOffFunction((record, exception) -> ChannelUnavailableException.isCause(exception) ? CHANNEL_UNAVAILABLE_BACK_OFF : backOff);
+        return errorHandler;
+    }
+
+    // 원본 토픽 -> DLQ 토픽 매핑으로 보내는 recoverer.
+    private ConsumerRecordRecoverer deadLetterRecoverer(KafkaTemplate<String, Object> kafkaTemplate, Function<String, String> dlqTopicOf) {
         DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(
                 kafkaTemplate,
                 (record, exception) -> {
@@ -199,9 +607,16 @@ public class KafkaConsumerConfig {
                             "Message moved to DLQ. topic={}, partition={}, offset={}, key={}",
                             record.topic(), record.partition(), record.offset(), record.key(), exception
                     );
-                    return new TopicPartition(dlqTopic, record.partition());
+                    return new TopicPartition(dlqTopicOf.apply(record.topic()), record.partition());
                 }
         );
-        return new DefaultErrorHandler(recoverer, new FixedBackOff(2000L, 3L));
+        if (offsetWatermarkRepository == null) {
+            return recoverer;
+        }
+        // DLQ 로 넘긴 레코드도 처리 완료로 올려 watermark 가 그 offset 에 멈추지 않게 한다.
+        return (record, exception) -> {
+            recoverer.accept(record, exception);
+            offsetWatermarkRepository.complete(new RecordPosition(record.topic(), record.partition(), record.offset()));
+        };
     }
 }
@@ -0,0 +1,41 @@
+package com.example.notification.consumer;
+
+import com.example.notification.domain.NotificationStatus;
+import com.example.notification.dto.NotificationResult;
+import com.example.notification.dto.RecordPosition;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class BatchRecords {
+
+    private BatchRecords() {
+    }
+
+    static <T> List<T> values(List<ConsumerRecord<String, T>> records) {
+        List<T> values = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, T> record : records) {
+            values.add(record.value());
+        }
+        return values;
+    }
+
+    static <T> List<RecordPosition> positions(List<ConsumerRecord<String, T>> records) {
+        List<RecordPosition> positions = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, T> record : records) {
+            positions.add(new RecordPosition(record.topic(), record.partition(), record.offset()));
+        }
+        return positions;
+    }
+
+    static long count(List<NotificationResult> results, NotificationStatus status) {
+        long count = 0;
+        for (NotificationResult result : results) {
+            if (result.status() == status) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
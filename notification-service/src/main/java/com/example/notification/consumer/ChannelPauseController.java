@@ -0,0 +1,210 @@
+package com.example.notification.consumer;
+
+import com.example.notification.domain.NotificationChannel;
+import com.example.notification.service.NotificationChannelGuard;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// 서킷이 열린 채널의 토픽(메인 + 재시도 단계) 파티션을 멈춰, 어차피 거절될 레코드를 받지 않고 offset 도 그대로 둔다.
+// open-duration 이 지나면 메인 토픽 파티션을 다시 열고, 처음 들어오는 레코드가 시험 호출이 돼 서킷을 닫거나 다시 연다.
+// 재시도 단계 레코드는 이미 한 번 이상 실패한 것이라 시험 호출로 쓰면 계속 실패해 서킷이 닫히지 않을 수 있으므로,
+// 재시도 단계 파티션은 서킷이 닫힌 뒤에 연다. 메인 토픽을 연 뒤 다음 확인 때까지 시험 호출이 없으면 그때 재시도 단계도 연다.
+// 리밸런싱이나 자동 튜닝 재시작으로 새로 받은 파티션도 다음 확인 때 다시 멈춘다.
+@Component
+@ConditionalOnProperty(name = "app.notification.circuit-breaker.enabled", havingValue = "true")
+public class ChannelPauseController implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ChannelPauseController.class);
+
+    private final NotificationChannelGuard channelGuard;
+    private final KafkaListenerEndpointRegistry registry;
+    private final RetryTierListeners retryTierListeners;
+    private final Map<String, NotificationChannel> channelsByTopic = new HashMap<>();
+    private final Set<String> retryTopics = new HashSet<>();
+    private final Duration checkInterval;
+    // 이 컨트롤러가 멈춘 파티션과 멈출 때의 컨테이너. 서킷이 닫히면 이 목록만 다시 연다(다른 이유로 멈춘 파티션은 건드리지 않는다).
+    private final Map<TopicPartition, MessageListenerContainer> paused = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private ScheduledExecutorService scheduler;
+
+    public ChannelPauseController(
+            NotificationChannelGuard channelGuard,
+            KafkaListenerEndpointRegistry registry,
+            ObjectProvider<RetryTierListeners> retryTierListenersProvider,
+            ObjectProvider<RetryTopicRouter> retryTopicRouterProvider,
+            MeterRegistry meterRegistry,
+            @Value("${app.kafka.topics.order-created}") String orderCreatedTopic,
+            @Value("${app.kafka.topics.order-shipped}") String orderShippedTopic,
+            @Value("${app.kafka.topics.product-created}") String productCreatedTopic,
+            @Value("${app.notification.circuit-breaker.check-interval}") Duration checkInterval
+    ) {
+        this.channelGuard = channelGuard;
+        this.registry = registry;
+        this.retryTierListeners = retryTierListenersProvider.getIfAvailable();
+        this.checkInterval = checkInterval;
+        RetryTopicRouter retryTopicRouter = retryTopicRouterProvider.getIfAvailable();
+        map(orderCreatedTopic, NotificationChannel.ORDER_CONFIRMATION, retryTopicRouter);
+        map(orderShippedTopic, NotificationChannel.SHIPPING_UPDATE, retryTopicRouter);
+        map(productCreatedTopic, NotificationChannel.PRODUCT_CREATION, retryTopicRouter);
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            Gauge.builder("notification.channel.paused.partitions", paused, partitions -> count(partitions.keySet(), channel))
+                    .description("Partitions paused because the notification channel circuit is open")
+                    .tag("channel", channel.tag())
+                    .register(meterRegistry);
+        }
+    }
+
+    private void map(String mainTopic, NotificationChannel channel, RetryTopicRouter retryTopicRouter) {
+        channelsByTopic.put(mainTopic, channel);
+        if (retryTopicRouter != null) {
+            for (String retryTopic : retryTopicRouter.retryTopics(mainTopic)) {
+                channelsByTopic.put(retryTopic, channel);
+                retryTopics.add(retryTopic);
+            }
+        }
+    }
+
+    private int count(Collection<TopicPartition> partitions, NotificationChannel channel) {
+        int count = 0;
+        for (TopicPartition partition : partitions) {
+            if (channelsByTopic.get(partition.topic()) == channel) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "channel-pause");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = checkInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::tick, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // 리스너 컨테이너가 모두 뜬 뒤에 시작하고, 컨테이너보다 먼저 멈춘다.
+    @Override
+    public int getPhase() {
+        return AbstractMessageListenerContainer.DEFAULT_PHASE + 1;
+    }
+
+    private void tick() {
+        try {
+            for (MessageListenerContainer container : containers()) {
+                Collection<TopicPartition> assigned = container.getAssignedPartitions();
+                if (assigned == null) {
+                    continue;
+                }
+                for (TopicPartition partition : assigned) {
+                    NotificationChannel channel = channelsByTopic.get(partition.topic());
+                    if (channel != null && channelGuard.isOpen(channel) && !isPauseRequested(container, partition)) {
+                        container.pausePartition(partition);
+                        paused.put(partition, container);
+                        log.warn("Partition paused; notification circuit open. channel={}, partition={}", channel.tag(), partition);
+                    }
+                }
+            }
+            Set<NotificationChannel> mainPaused = EnumSet.noneOf(NotificationChannel.class);
+            for (TopicPartition partition : paused.keySet()) {
+                if (!retryTopics.contains(partition.topic())) {
+                    mainPaused.add(channelsByTopic.get(partition.topic()));
+                }
+            }
+            paused.forEach((partition, container) -> {
+                NotificationChannel channel = channelsByTopic.get(partition.topic());
+                if (channelGuard.isOpen(channel)) {
+                    return;
+                }
+                if (!retryTopics.contains(partition.topic())) {
+                    resume(container, partition);
+                    paused.remove(partition);
+                    log.info("Partition resumed for a probe. channel={}, partition={}", channel.tag(), partition);
+                } else if (channelGuard.isClosed(channel) || (channelGuard.isAwaitingProbe(channel) && !mainPaused.contains(channel))) {
+                    resume(container, partition);
+                    paused.remove(partition);
+                    log.info("Retry tier partition resumed. channel={}, partition={}, circuitClosed={}", channel.tag(), partition, channelGuard.isClosed(channel));
+                }
+            });
+        } catch (RuntimeException exception) {
+            log.warn("Channel pause check failed", exception);
+        }
+    }
+
+    // ConcurrentMessageListenerContainer 는 pausePartition 을 자식 컨테이너에 넘기지만 isPartitionPauseRequested 는 넘기지 않아 자식에게 직접 묻는다.
+    static boolean isPauseRequested(MessageListenerContainer container, TopicPartition partition) {
+        if (container instanceof ConcurrentMessageListenerContainer<?, ?> concurrent) {
+            for (MessageListenerContainer child : concurrent.getContainers()) {
+                if (child.isPartitionPauseRequested(partition)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return container.isPartitionPauseRequested(partition);
+    }
+
+    // 멈춘 뒤 리밸런싱으로 다른 자식에게 옮겨 간 파티션도 요청이 남지 않도록 요청한 자식 모두에서 푼다.
+    private static void resume(MessageListenerContainer container, TopicPartition partition) {
+        if (container instanceof ConcurrentMessageListenerContainer<?, ?> concurrent) {
+            for (MessageListenerContainer child : concurrent.getContainers()) {
+                if (child.isPartitionPauseRequested(partition)) {
+                    child.resumePartition(partition);
+                }
+            }
+            return;
+        }
+        container.resumePartition(partition);
+    }
+
+    private List<MessageListenerContainer> containers() {
+        List<MessageListenerContainer> containers = new ArrayList<>(registry.getListenerContainers());
+        if (retryTierListeners != null) {
+            containers.addAll(retryTierListeners.containers());
+        }
+        return containers;
+    }
+}
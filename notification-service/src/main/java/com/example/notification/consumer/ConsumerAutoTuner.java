@@ -0,0 +1,391 @@
+package com.example.notification.consumer;
+
+import com.example.notification.dto.ConsumerTuningState;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.kafka.listener.BatchMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// app.kafka.autotune.enabled=true 일 때 메인 토픽 리스너 컨테이너의 concurrency 와 max.poll.records 를 lag/처리 시간에 맞춰 조정한다.
+// - poll 한 번 분량의 처리 시간이 poll-budget 을 넘으면 max.poll.records 부터 줄인다(max.poll.interval.ms 초과로 인한 리밸런싱 방지).
+// - lag 이 lag-high 를 넘고 줄지 않으면 컨슈머를 하나 늘리고, 이미 max-concurrency 면 poll 크기를 두 배로 키운다.
+// - lag 이 lag-low 아래로 scale-down-after 번 연속이면 컨슈머를 하나 줄이고, 이미 min-concurrency 면 poll 크기를 처음 값 쪽으로 줄인다.
+// 두 값 모두 컨슈머 생성 시점에만 반영되므로 컨테이너를 멈췄다 다시 띄워 적용하고(리밸런싱 발생), cooldown 동안은 다시 바꾸지 않는다.
+// 수동 오버라이드(actuator consumertuning)가 걸린 컨테이너는 해제할 때까지 자동 조정하지 않는다.
+@Component
+@ConditionalOnProperty(name = "app.kafka.autotune.enabled", havingValue = "true")
+public class ConsumerAutoTuner implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ConsumerAutoTuner.class);
+
+    private final KafkaListenerEndpointRegistry registry;
+    private final MeterRegistry meterRegistry;
+    private final Set<String> mainTopics;
+    private final Duration interval;
+    private final Duration cooldown;
+    private final Duration pollBudget;
+    private final int minConcurrency;
+    private final int maxConcurrency;
+    private final int minMaxPollRecords;
+    private final int maxMaxPollRecords;
+    private final long lagHigh;
+    private final long lagLow;
+    private final int scaleDownAfter;
+    private final Map<String, Tuning> tunings = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private ScheduledExecutorService scheduler;
+
+    public ConsumerAutoTuner(
+            KafkaListenerEndpointRegistry registry,
+            MeterRegistry meterRegistry,
+            @Value("${app.kafka.topics.order-created}") String orderCreatedTopic,
+            @Value("${app.kafka.topics.order-shipped}") String orderShippedTopic,
+            @Value("${app.kafka.topics.product-created}") String productCreatedTopic,
+            @Value("${app.kafka.autotune.interval}") Duration interval,
+            @Value("${app.kafka.autotune.cooldown}") Duration cooldown,
+            @Value("${app.kafka.autotune.poll-budget}") Duration pollBudget,
+            @Value("${app.kafka.autotune.min-concurrency}") int minConcurrency,
+            @Value("${app.kafka.autotune.max-concurrency}") int maxConcurrency,
+            @Value("${app.kafka.autotune.min-max-poll-records}") int minMaxPollRecords,
+            @Value("${app.kafka.autotune.max-max-poll-records}") int maxMaxPollRecords,
+            @Value("${app.kafka.autotune.lag-high}") long lagHigh,
+            @Value("${app.kafka.autotune.lag-low}") long lagLow,
+            @Value("${app.kafka.autotune.scale-down-after}") int scaleDownAfter
+    ) {
+        this.registry = registry;
+        this.meterRegistry = meterRegistry;
+        this.mainTopics = Set.of(orderCreatedTopic, orderShippedTopic, productCreatedTopic);
+        this.interval = interval;
+        this.cooldown = cooldown;
+        this.pollBudget = pollBudget;
+        this.minConcurrency = minConcurrency;
+        this.maxConcurrency = maxConcurrency;
+        this.minMaxPollRecords = minMaxPollRecords;
+        this.maxMaxPollRecords = maxMaxPollRecords;
+        this.lagHigh = lagHigh;
+        this.lagLow = lagLow;
+        this.scaleDownAfter = scaleDownAfter;
+    }
+
+    public synchronized List<ConsumerTuningState> states() {
+        List<ConsumerTuningState> states = new ArrayList<>();
+        for (ConcurrentMessageListenerContainer<?, ?> container : tunableContainers()) {
+            states.add(tuning(container).state(container));
+        }
+        return states;
+    }
+
+    // 없는 listenerId 면 null.
+    public synchronized ConsumerTuningState state(String listenerId) {
+        ConcurrentMessageListenerContainer<?, ?> container = container(listenerId);
+        return container == null ? null : tuning(container).state(container);
+    }
+
+    // null 인 값은 현재 값을 유지한다. 자동 조정 범위를 벗어난 값도 그대로 적용한다.
+    public synchronized ConsumerTuningState override(String listenerId, Integer concurrency, Integer maxPollRecords) {
+        ConcurrentMessageListenerContainer<?, ?> container = container(listenerId);
+        if (container == null) {
+            return null;
+        }
+        Tuning tuning = tuning(container);
+        tuning.overridden = true;
+        apply(
+                container,
+                tuning,
+                concurrency != null ? concurrency : tuning.concurrency,
+                maxPollRecords != null ? maxPollRecords : tuning.maxPollRecords,
+                "manual override"
+        );
+        return tuning.state(container);
+    }
+
+    public synchronized ConsumerTuningState clearOverride(String listenerId) {
+        ConcurrentMessageListenerContainer<?, ?> container = container(listenerId);
+        if (container == null) {
+            return null;
+        }
+        Tuning tuning = tuning(container);
+        tuning.overridden = false;
+        tuning.lowTicks = 0;
+        tuning.lastDecision = "override cleared";
+        return tuning.state(container);
+    }
+
+    @Override
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "consumer-autotune");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::tick, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    // synchronized 라 진행 중인 재시작이 끝난 뒤에 멈춘다.
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // 리스너 컨테이너가 모두 뜬 뒤에 시작하고, 컨테이너를 멈추기 전에 먼저 멈춰 종료 중에 재시작하지 않게 한다.
+    @Override
+    public int getPhase() {
+        return AbstractMessageListenerContainer.DEFAULT_PHASE + 1;
+    }
+
+    private synchronized void tick() {
+        if (!running) {
+            return;
+        }
+        for (ConcurrentMessageListenerContainer<?, ?> container : tunableContainers()) {
+            try {
+                Tuning tuning = tuning(container);
+                tuning.observe(container);
+                if (!tuning.overridden && container.isRunning() && !hasPausedPartitions(container)) {
+                    decide(container, tuning);
+                }
+            } catch (RuntimeException exception) {
+                log.warn("Consumer auto-tuning failed. listenerId={}", container.getListenerId(), exception);
+            }
+        }
+    }
+
+    // 서킷이 열려 파티션을 멈춘 동안 쌓이는 lag 은 컨슈머를 늘려도 줄지 않으므로 판단하지 않는다.
+    private static boolean hasPausedPartitions(ConcurrentMessageListenerContainer<?, ?> container) {
+        Collection<TopicPartition> assigned = container.getAssignedPartitions();
+        if (assigned == null) {
+            return false;
+        }
+        for (TopicPartition partition : assigned) {
+            if (ChannelPauseController.isPauseRequested(container, partition)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void decide(ConcurrentMessageListenerContainer<?, ?> container, Tuning tuning) {
+        double lag = tuning.lag;
+        double pollNanos = tuning.pollProcessingNanos;
+        boolean lagLowNow = !Double.isNaN(lag) && lag < lagLow;
+        tuning.lowTicks = lagLowNow ? tuning.lowTicks + 1 : 0;
+        double previousLag = tuning.previousLag;
+        tuning.previousLag = lag;
+        if (tuning.lastChangedAt != null && tuning.lastChangedAt.plus(cooldown).isAfter(Instant.now())) {
+            return;
+        }
+
+        int concurrency = tuning.concurrency;
+        int maxPollRecords = tuning.maxPollRecords;
+        long budgetNanos = pollBudget.toNanos();
+        String reason = null;
+        if (!Double.isNaN(pollNanos) && pollNanos > budgetNanos && maxPollRecords > minMaxPollRecords) {
+            maxPollRecords = Math.max(minMaxPollRecords, (int) (maxPollRecords * (budgetNanos / pollNanos)));
+            reason = String.format("poll processing %.0fms over budget %dms", pollNanos / 1_000_000, pollBudget.toMillis());
+        } else if (!Double.isNaN(lag) && lag > lagHigh && lag >= previousLag) {
+            if (concurrency < maxConcurrency) {
+                concurrency++;
+                reason = String.format("lag %.0f above %d and not shrinking", lag, lagHigh);
+            } else if (maxPollRecords < maxMaxPollRecords && (Double.isNaN(pollNanos) || pollNanos * 2 <= budgetNanos)) {
+                maxPollRecords = Math.min(maxMaxPollRecords, maxPollRecords * 2);
+                reason = String.format("lag %.0f above %d at max concurrency", lag, lagHigh);
+            }
+        } else if (lagLowNow && tuning.lowTicks >= scaleDownAfter) {
+            if (concurrency > minConcurrency) {
+                concurrency--;
+                reason = String.format("lag %.0f below %d for %d checks", lag, lagLow, tuning.lowTicks);
+            } else if (maxPollRecords > tuning.initialMaxPollRecords) {
+                maxPollRecords = Math.max(tuning.initialMaxPollRecords, maxPollRecords / 2);
+                reason = String.format("lag %.0f below %d at min concurrency", lag, lagLow);
+            }
+        }
+        if (reason != null) {
+            apply(container, tuning, concurrency, maxPollRecords, reason);
+        }
+    }
+
+    private void apply(ConcurrentMessageListenerContainer<?, ?> container, Tuning tuning, int concurrency, int maxPollRecords, String reason) {
+        log.info(
+                "Retuning listener container. listenerId={}, concurrency={}->{}, maxPollRecords={}->{}, reason={}",
+                container.getListenerId(), tuning.concurrency, concurrency, tuning.maxPollRecords, maxPollRecords, reason
+        );
+        boolean wasRunning = container.isRunning();
+        // 진행 중인 poll 처리와 커밋, 리밸런스 리스너(중복 저장소 정리)가 끝날 때까지 기다린다.
+        container.stop();
+        container.setConcurrency(concurrency);
+        Properties consumerProperties = new Properties();
+        consumerProperties.putAll(container.getContainerProperties().getKafkaConsumerProperties());
+        consumerProperties.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(maxPollRecords));
+        container.getContainerProperties().setKafkaConsumerProperties(consumerProperties);
+        if (wasRunning) {
+            container.start();
+        }
+        tuning.concurrency = concurrency;
+        tuning.maxPollRecords = maxPollRecords;
+        tuning.lowTicks = 0;
+        tuning.previousLag = Double.NaN;
+        tuning.lastDecision = reason;
+        tuning.lastChangedAt = Instant.now();
+    }
+
+    private List<ConcurrentMessageListenerContainer<?, ?>> tunableContainers() {
+        List<ConcurrentMessageListenerContainer<?, ?>> containers = new ArrayList<>();
+        for (MessageListenerContainer container : registry.getListenerContainers()) {
+            if (container instanceof ConcurrentMessageListenerContainer<?, ?> concurrent && consumesMainTopic(concurrent)) {
+                containers.add(concurrent);
+            }
+        }
+        return containers;
+    }
+
+    private ConcurrentMessageListenerContainer<?, ?> container(String listenerId) {
+        for (ConcurrentMessageListenerContainer<?, ?> container : tunableContainers()) {
+            if (listenerId.equals(container.getListenerId())) {
+                return container;
+            }
+        }
+        return null;
+    }
+
+    private boolean consumesMainTopic(ConcurrentMessageListenerContainer<?, ?> container) {
+        String[] topics = container.getContainerProperties().getTopics();
+        return topics != null && Arrays.stream(topics).anyMatch(mainTopics::contains);
+    }
+
+    private Tuning tuning(ConcurrentMessageListenerContainer<?, ?> container) {
+        return tunings.computeIfAbsent(container.getListenerId(), listenerId -> {
+            Tuning tuning = new Tuning(container);
+            Gauge.builder("notification.consumer.tuning.concurrency", tuning, current -> current.concurrency)
+                    .description("Consumer threads the auto-tuner currently runs for the listener container")
+                    .tag("listener", listenerId)
+                    .register(meterRegistry);
+            Gauge.builder("notification.consumer.tuning.max.poll.records", tuning, current -> current.maxPollRecords)
+                    .description("max.poll.records the auto-tuner currently applies to the listener container")
+                    .tag("listener", listenerId)
+                    .register(meterRegistry);
+            return tuning;
+        });
+    }
+
+    private final class Tuning {
+
+        private final List<String> topics;
+        private final boolean batchListener;
+        private final int initialMaxPollRecords;
+
+        private int concurrency;
+        private int maxPollRecords;
+        private boolean overridden;
+        private int lowTicks;
+        private double lag = Double.NaN;
+        private double previousLag = Double.NaN;
+        private double pollProcessingNanos = Double.NaN;
+        private long lastProcessedCount;
+        private double lastProcessedNanos;
+        private String lastDecision;
+        private Instant lastChangedAt;
+
+        private Tuning(ConcurrentMessageListenerContainer<?, ?> container) {
+            this.topics = List.of(container.getContainerProperties().getTopics());
+            this.batchListener = container.getContainerProperties().getMessageListener() instanceof BatchMessageListener<?, ?>;
+            Object configured = container.getContainerProperties().getKafkaConsumerProperties().get(ConsumerConfig.MAX_POLL_RECORDS_CONFIG);
+            this.initialMaxPollRecords = configured != null ? Integer.parseInt(configured.toString()) : ConsumerConfig.DEFAULT_MAX_POLL_RECORDS;
+            this.concurrency = container.getConcurrency();
+            this.maxPollRecords = initialMaxPollRecords;
+            this.lastDecision = "initial";
+        }
+
+        // lag 은 컨슈머 fetch-manager 의 파티션별 records-lag 합, 처리 시간은 직전 확인 이후 notification_consumer_processing 평균.
+        // 배치 리스너는 배치 전체 시간이 레코드마다 기록되므로 평균이 곧 poll 한 번의 처리 시간이다.
+        // 병렬 리스너는 워커에서 나눠 처리하므로 레코드 평균 x poll 크기가 실제보다 크게 잡힌다(보수적으로 줄이는 쪽).
+        void observe(ConcurrentMessageListenerContainer<?, ?> container) {
+            lag = lag(container);
+            long count = 0;
+            double totalNanos = 0;
+            for (String topic : topics) {
+                for (Timer timer : meterRegistry.find("notification.consumer.processing").tag("topic", topic).timers()) {
+                    count += timer.count();
+                    totalNanos += timer.totalTime(TimeUnit.NANOSECONDS);
+                }
+            }
+            long processed = count - lastProcessedCount;
+            if (processed > 0) {
+                double meanNanos = (totalNanos - lastProcessedNanos) / processed;
+                pollProcessingNanos = batchListener ? meanNanos : meanNanos * maxPollRecords;
+            }
+            lastProcessedCount = count;
+            lastProcessedNanos = totalNanos;
+        }
+
+        ConsumerTuningState state(ConcurrentMessageListenerContainer<?, ?> container) {
+            return new ConsumerTuningState(
+                    container.getListenerId(),
+                    topics,
+                    container.isRunning(),
+                    concurrency,
+                    maxPollRecords,
+                    Double.isNaN(lag) ? null : lag,
+                    Double.isNaN(pollProcessingNanos) ? null : pollProcessingNanos / 1_000_000,
+                    overridden,
+                    lastDecision,
+                    lastChangedAt
+            );
+        }
+
+        private double lag(ConcurrentMessageListenerContainer<?, ?> container) {
+            double total = 0;
+            boolean seen = false;
+            for (Map<MetricName, ? extends Metric> metrics : container.metrics().values()) {
+                for (Map.Entry<MetricName, ? extends Metric> entry : metrics.entrySet()) {
+                    MetricName name = entry.getKey();
+                    if ("consumer-fetch-manager-metrics".equals(name.group()) && "records-lag".equals(name.name())
+                            && name.tags().containsKey("partition") && entry.getValue().metricValue() instanceof Number value
+                            && !Double.isNaN(value.doubleValue())) {
+                        total += value.doubleValue();
+                        seen = true;
+                    }
+                }
+            }
+            return seen ? total : Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.notification.consumer;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.function.Supplier;
+
+// 병렬 모드 컨테이너용 rebalance 리스너. 파티션을 넘기기 직전에 워커가 들고 있는 그 파티션의 레코드를 drain-timeout 까지 마저 처리한다.
+// onPartitionsRevokedBeforeCommit 이 끝나면 컨테이너가 모인 ack 를 바로 커밋하므로, 처리한 레코드가 새 소유자에게 다시 가지 않는다.
+// 중복 판정 저장소(watermark/로컬 저장소)의 리스너는 drain 이 끝난 뒤에 불러, 마지막 완료분까지 기록하고 넘긴다.
+public class DrainingRebalanceListener implements ConsumerAwareRebalanceListener {
+
+    private final ConsumerRebalanceListener delegate;
+    private final Supplier<KeyOrderedDispatcher> dispatcher;
+    private final Duration drainTimeout;
+
+    // dispatcher 는 설정 클래스와의 순환 참조를 피하려고 처음 rebalance 때 꺼낸다.
+    public DrainingRebalanceListener(ConsumerRebalanceListener delegate, Supplier<KeyOrderedDispatcher> dispatcher, Duration drainTimeout) {
+        this.delegate = delegate;
+        this.dispatcher = dispatcher;
+        this.drainTimeout = drainTimeout;
+    }
+
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        if (!partitions.isEmpty()) {
+            dispatcher.get().drain(partitions, drainTimeout);
+        }
+        if (delegate instanceof ConsumerAwareRebalanceListener consumerAware) {
+            consumerAware.onPartitionsRevokedBeforeCommit(consumer, partitions);
+        } else if (delegate != null) {
+            delegate.onPartitionsRevoked(partitions);
+        }
+    }
+
+    @Override
+    public void onPartitionsRevokedAfterCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        if (delegate instanceof ConsumerAwareRebalanceListener consumerAware) {
+            consumerAware.onPartitionsRevokedAfterCommit(consumer, partitions);
+        }
+    }
+
+    // 세션이 끊겨 잃은 파티션은 커밋할 수 없으므로 기다리지 않고 남은 레코드를 버린다.
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        if (!partitions.isEmpty()) {
+            dispatcher.get().abandon(partitions);
+        }
+        if (delegate instanceof ConsumerAwareRebalanceListener consumerAware) {
+            consumerAware.onPartitionsLost(consumer, partitions);
+        } else if (delegate != null) {
+            delegate.onPartitionsLost(partitions);
+        }
+    }
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        if (!partitions.isEmpty()) {
+            dispatcher.get().assigned(partitions);
+        }
+        if (delegate instanceof ConsumerAwareRebalanceListener consumerAware) {
+            consumerAware.onPartitionsAssigned(consumer, partitions);
+        } else if (delegate != null) {
+            delegate.onPartitionsAssigned(partitions);
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.example.notification.consumer;
+
+import com.example.notification.exception.ChannelUnavailableException;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+import org.springframework.util.backoff.BackOffExecution;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 파티션 수보다 많은 스레드로 레코드를 처리하되, 같은 키(orderId/productId)는 받은 순서대로 처리한다.
+// 키를 해시해 고정된 lane 중 하나에 넣고, lane 은 워커 풀 위에서 한 번에 하나씩만 실행된다.
+// 다른 키는 lane 이 다르면 동시에 처리되고, 같은 lane 을 공유하는 키끼리만 서로 기다린다.
+// 레코드는 처리(또는 재시도 후 DLQ 전송)가 끝난 뒤에만 ack 하며, 커밋 위치는 컨테이너의 asyncAcks 가 빈틈없이 완료된 offset 까지로 맞춘다.
+// 파티션을 넘길 때는 DrainingRebalanceListener 가 drain 으로 그 파티션의 레코드를 마저 처리하고, 시간 안에 못 끝낸 레코드는 새 소유자에게 맡긴다.
+@Component
+@ConditionalOnExpression("${app.kafka.parallel.enabled:false} && !${app.kafka.batch.enabled:false}")
+public class KeyOrderedDispatcher implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(KeyOrderedDispatcher.class);
+
+    // 컨테이너 에러 핸들러와 같은 재시도 정책. 재시도 동안 해당 lane 의 뒤쪽 레코드는 대기한다.
+    // 재시도 토픽을 쓰면 제자리 재시도 없이 바로 넘긴다.
+    private static final FixedBackOff IN_PLACE_BACK_OFF = new FixedBackOff(2000L, 3L);
+    private static final FixedBackOff NO_BACK_OFF = new FixedBackOff(0L, 0L);
+    // 서킷 브레이커/벌크헤드가 거절하면 재시도 횟수를 쓰지 않고 이 간격으로 다시 시도한다.
+    private static final long CHANNEL_UNAVAILABLE_INTERVAL_MILLIS = 1000L;
+
+    private final ConsumerRecordRecoverer deadLetterRecoverer;
+    private final FixedBackOff retryBackOff;
+    private final int workers;
+    private final SerialLane[] lanes;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<TopicPartition, PartitionState> partitions = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private ExecutorService executor;
+
+    public KeyOrderedDispatcher(
+            ConsumerRecordRecoverer deadLetterRecoverer,
+            @Value("${app.kafka.retry-topics.enabled}") boolean retryTopicsEnabled,
+            @Value("${app.kafka.parallel.workers}") int workers,
+            @Value("${app.kafka.parallel.lanes}") int lanes
+    ) {
+        this.deadLetterRecoverer = deadLetterRecoverer;
+        this.retryBackOff = retryTopicsEnabled ? NO_BACK_OFF : IN_PLACE_BACK_OFF;
+        this.workers = workers;
+        this.lanes = new SerialLane[lanes];
+        for (int i = 0; i < lanes; i++) {
+            this.lanes[i] = new SerialLane();
+        }
+    }
+
+    // 리스너 스레드에서 호출한다. orderingKey 가 없으면 파티션 단위로 순서를 지킨다.
+    public void dispatch(ConsumerRecord<?, ?> record, String orderingKey, Acknowledgment acknowledgment, Runnable task) {
+        if (!running) {
+            throw new IllegalStateException("KeyOrderedDispatcher is not running");
+        }
+        int hash = orderingKey != null ? orderingKey.hashCode() : record.topic().hashCode() * 31 + record.partition();
+        SerialLane lane = lanes[Math.floorMod(hash ^ (hash >>> 16), lanes.length)];
+        PartitionState state = partitions.computeIfAbsent(new TopicPartition(record.topic(), record.partition()), key -> new PartitionState());
+        int epoch = state.epoch;
+        inFlight.incrementAndGet();
+        state.pending.incrementAndGet();
+        lane.submit(() -> {
+            try {
+                // 그사이 넘긴 파티션의 레코드는 시작하지 않는다. 아직 중복 예약 전이라 새 소유자가 커밋 위치부터 다시 처리한다.
+                if (state.epoch == epoch && processWithRetry(record, task, state, epoch)) {
+                    acknowledgment.acknowledge();
+                }
+            } finally {
+                state.pending.decrementAndGet();
+                inFlight.decrementAndGet();
+            }
+        });
+    }
+
+    // 컨슈머 스레드(onPartitionsRevokedBeforeCommit)에서 호출한다. 넘길 파티션의 재시도는 더 하지 않고,
+    // 이미 받은 레코드가 끝나기를 timeout 까지 기다린다. 남은 레코드는 ack 없이 버려 새 소유자가 다시 받게 한다.
+    public void drain(Collection<TopicPartition> revoked, Duration timeout) {
+        for (TopicPartition partition : revoked) {
+            PartitionState state = partitions.get(partition);
+            if (state != null) {
+                state.draining = true;
+            }
+        }
+        long deadline = System.nanoTime() + timeout.toNanos();
+        int remaining = pending(revoked);
+        while (remaining > 0 && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(10L);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            remaining = pending(revoked);
+        }
+        abandon(revoked);
+        if (remaining > 0) {
+            log.warn("Partitions revoked before in-flight records finished; they will be redelivered. partitions={}, remaining={}", revoked, remaining);
+        } else {
+            log.info("Drained in-flight records of revoked partitions. partitions={}", revoked);
+        }
+    }
+
+    // 아직 시작하지 않은 레코드는 건너뛰고 실행 중인 레코드의 재시도를 멈춘다. 어느 쪽도 ack 하지 않는다.
+    public void abandon(Collection<TopicPartition> revoked) {
+        for (TopicPartition partition : revoked) {
+            PartitionState state = partitions.get(partition);
+            if (state != null) {
+                state.draining = true;
+                state.epoch++;
+            }
+        }
+    }
+
+    // 다시 받은 파티션은 새 epoch 로 처리한다. 이전 소유 기간의 레코드는 계속 건너뛴다.
+    public void assigned(Collection<TopicPartition> assigned) {
+        for (TopicPartition partition : assigned) {
+            PartitionState state = partitions.get(partition);
+            if (state != null) {
+                state.draining = false;
+            }
+        }
+    }
+
+    private int pending(Collection<TopicPartition> revoked) {
+        int pending = 0;
+        for (TopicPartition partition : revoked) {
+            PartitionState state = partitions.get(partition);
+            if (state != null) {
+                pending += state.pending.get();
+            }
+        }
+        return pending;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    // 성공하거나 DLQ 로 넘겼으면 true. 종료 중이거나 파티션을 넘겨 중단했으면 false 를 돌려 ack 하지 않고 재전달에 맡긴다.
+    private boolean processWithRetry(ConsumerRecord<?, ?> record, Runnable task, PartitionState state, int epoch) {
+        BackOffExecution backOff = retryBackOff.start();
+        while (true) {
+            try {
+                task.run();
+                return true;
+            } catch (RuntimeException exception) {
+                if (ChannelUnavailableException.isCause(exception)) {
+                    if (!pause(CHANNEL_UNAVAILABLE_INTERVAL_MILLIS, state, epoch)) {
+                        return false;
+                    }
+                    continue;
+                }
+                long interval = backOff.nextBackOff();
+                if (interval == BackOffExecution.STOP) {
+                    return recover(record, exception, state, epoch);
+                }
+                log.warn(
+                        "Dispatched record failed; retrying. topic={}, partition={}, offset={}, backOffMs={}",
+                        record.topic(), record.partition(), record.offset(), interval, exception
+                );
+                if (!pause(interval, state, epoch)) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    // 재시도 토픽/DLQ 전송까지 실패하면 그 offset 을 넘어 커밋하지 않도록 성공할 때까지 재시도한다.
+    private boolean recover(ConsumerRecord<?, ?> record, RuntimeException cause, PartitionState state, int epoch) {
+        while (true) {
+            try {
+                deadLetterRecoverer.accept(record, cause);
+                return true;
+            } catch (RuntimeException exception) {
+                log.error(
+                        "Dead letter publish failed; retrying. topic={}, partition={}, offset={}",
+                        record.topic(), record.partition(), record.offset(), exception
+                );
+                if (!pause(IN_PLACE_BACK_OFF.getInterval(), state, epoch)) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    private boolean pause(long millis, PartitionState state, int epoch) {
+        if (!running || !state.owned(epoch)) {
+            return false;
+        }
+        try {
+            Thread.sleep(millis);
+            return running && state.owned(epoch);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public void start() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "notification-worker-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        log.info("Key-ordered dispatcher started. workers={}, lanes={}", workers, lanes.length);
+    }
+
+    // 리스너 컨테이너가 멈춘 뒤 이미 받은 레코드를 마저 처리한다. 재시도 대기 중인 레코드와
+    // 시간 안에 끝나지 않은 레코드는 ack 되지 않아 재전달된다.
+    @Override
+    public void stop() {
+        ExecutorService current = executor;
+        if (current == null) {
+            return;
+        }
+        running = false;
+        current.shutdown();
+        try {
+            if (!current.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Key-ordered dispatcher stopped with records still in flight. inFlight={}", inFlight.get());
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        current.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // 리스너 컨테이너보다 나중에 멈추고, watermark 저장소(phase 0)보다 먼저 멈춰 마지막 완료분까지 기록되게 한다.
+    @Override
+    public int getPhase() {
+        return 100;
+    }
+
+    // 파티션별 진행 중 레코드 수와 소유 기간. epoch 는 파티션을 넘길 때마다 올라가고, 레코드는 받을 때의 epoch 가 그대로일 때만 처리한다.
+    // epoch 는 넘기는 컨슈머 스레드만 바꾸므로 volatile 로 충분하다.
+    private static final class PartitionState {
+
+        private final AtomicInteger pending = new AtomicInteger();
+        private volatile int epoch;
+        private volatile boolean draining;
+
+        boolean owned(int recordEpoch) {
+            return !draining && epoch == recordEpoch;
+        }
+    }
+
+    // 작업을 받은 순서대로 하나씩 실행한다. 실행 중이 아닐 때 들어온 첫 작업이 lane 을 워커 풀에 올린다.
+    private final class SerialLane implements Runnable {
+
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        void submit(Runnable task) {
+            tasks.add(task);
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException exception) {
+                    scheduled.set(false);
+                    log.warn("Dispatcher is stopping; queued records left unacknowledged. queued={}", tasks.size());
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                try {
+                    task.run();
+                } catch (RuntimeException exception) {
+                    log.error("Dispatched task failed unexpectedly", exception);
+                }
+            }
+            scheduled.set(false);
+            // 비우고 나서 플래그를 내리기 전에 들어온 작업이 있으면 다시 올린다.
+            if (!tasks.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
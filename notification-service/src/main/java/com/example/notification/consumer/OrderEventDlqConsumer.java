@@ -3,12 +3,14 @@ package com.example.notification.consumer;
 import com.example.common.event.OrderCreatedEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 
 @Component
+@ConditionalOnProperty(name = "app.kafka.unified.enabled", havingValue = "false", matchIfMissing = true)
 public class OrderEventDlqConsumer {
 
     private static final Logger log = LoggerFactory.getLogger(OrderEventDlqConsumer.class);
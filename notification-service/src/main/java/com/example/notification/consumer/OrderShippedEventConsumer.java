@@ -2,15 +2,18 @@ package com.example.notification.consumer;
 
 import com.example.common.event.OrderShippedEvent;
 import com.example.notification.dto.NotificationResult;
+import com.example.notification.dto.RecordPosition;
 import com.example.notification.service.NotificationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 
 @Component
+@ConditionalOnExpression("!${app.kafka.batch.enabled:false} && !${app.kafka.parallel.enabled:false} && !${app.kafka.unified.enabled:false}")
 public class OrderShippedEventConsumer {
 
     private static final Logger log = LoggerFactory.getLogger(OrderShippedEventConsumer.class);
@@ -22,6 +25,7 @@ public class OrderShippedEventConsumer {
     }
 
     @KafkaListener(
+            id = "order-shipped",
             topics = "${app.kafka.topics.order-shipped}",
             groupId = "${spring.kafka.consumer.group-id}",
             containerFactory = "orderShippedKafkaListenerContainerFactory",
@@ -33,7 +37,7 @@ public class OrderShippedEventConsumer {
             @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
             @Header(KafkaHeaders.OFFSET) long offset
     ) {
-        NotificationResult result = notificationService.processOrderShipped(event);
+        NotificationResult result = notificationService.processOrderShipped(event, new RecordPosition(topic, partition, offset));
         log.info(
                 "Order shipped event consumed. topic={}, partition={}, offset={}, eventId={}, status={}, detail={}",
                 topic, partition, offset, result.eventId(), result.status(), result.detail()
@@ -0,0 +1,47 @@
+package com.example.notification.consumer;
+
+import com.example.common.event.OrderShippedEvent;
+import com.example.notification.dto.NotificationResult;
+import com.example.notification.dto.RecordPosition;
+import com.example.notification.service.NotificationService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnExpression("${app.kafka.parallel.enabled:false} && !${app.kafka.batch.enabled:false}")
+public class OrderShippedEventParallelConsumer {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderShippedEventParallelConsumer.class);
+
+    private final NotificationService notificationService;
+    private final KeyOrderedDispatcher keyOrderedDispatcher;
+
+    public OrderShippedEventParallelConsumer(NotificationService notificationService, KeyOrderedDispatcher keyOrderedDispatcher) {
+        this.notificationService = notificationService;
+        this.keyOrderedDispatcher = keyOrderedDispatcher;
+    }
+
+    @KafkaListener(
+            id = "order-shipped",
+            topics = "${app.kafka.topics.order-shipped}",
+            groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "orderShippedParallelKafkaListenerContainerFactory",
+            concurrency = "${app.kafka.consumer-concurrency}"
+    )
+    public void consumeOrderShipped(ConsumerRecord<String, OrderShippedEvent> record, Acknowledgment acknowledgment) {
+        OrderShippedEvent event = record.value();
+        // 같은 orderId 의 이벤트는 받은 순서대로, 다른 orderId 는 워커 풀에서 동시에 처리된다.
+        keyOrderedDispatcher.dispatch(record, event.orderId(), acknowledgment, () -> {
+            NotificationResult result = notificationService.processOrderShipped(event, new RecordPosition(record.topic(), record.partition(), record.offset()));
+            log.info(
+                    "Order shipped event consumed. topic={}, partition={}, offset={}, eventId={}, status={}, detail={}",
+                    record.topic(), record.partition(), record.offset(), result.eventId(), result.status(), result.detail()
+            );
+        });
+    }
+}
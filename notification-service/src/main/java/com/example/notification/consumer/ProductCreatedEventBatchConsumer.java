@@ -0,0 +1,56 @@
+package com.example.notification.consumer;
+
+import com.example.common.event.ProductCreatedEvent;
+import com.example.notification.domain.NotificationStatus;
+import com.example.notification.dto.NotificationResult;
+import com.example.notification.exception.NotificationBatchException;
+import com.example.notification.service.NotificationService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "app.kafka.batch.enabled", havingValue = "true")
+public class ProductCreatedEventBatchConsumer {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductCreatedEventBatchConsumer.class);
+
+    private final NotificationService notificationService;
+
+    public ProductCreatedEventBatchConsumer(NotificationService notificationService) {
+        this.notificationService = notificationService;
+    }
+
+    @KafkaListener(
+            id = "product-created",
+            topics = "${app.kafka.topics.product-created}",
+            groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "productCreatedBatchKafkaListenerContainerFactory",
+            concurrency = "${app.kafka.consumer-concurrency}"
+    )
+    public void consumeProductCreatedBatch(List<ConsumerRecord<String, ProductCreatedEvent>> records) {
+        List<NotificationResult> results;
+        try {
+            results = notificationService.processProductCreatedBatch(BatchRecords.values(records), BatchRecords.positions(records));
+        } catch (NotificationBatchException exception) {
+            ConsumerRecord<String, ProductCreatedEvent> failed = records.get(exception.failedIndex());
+            log.warn(
+                    "Product created event batch failed. topic={}, partition={}, offset={}, processedBeforeFailure={}, batchSize={}",
+                    failed.topic(), failed.partition(), failed.offset(), exception.completedResults().size(), records.size()
+            );
+            // 실패 인덱스를 넘기면 앞쪽 레코드는 커밋되고, 실패 레코드만 재시도 후 DLQ 로 라우팅된다.
+            throw new BatchListenerFailedException(exception.getMessage(), exception.getCause(), exception.failedIndex());
+        }
+
+        log.info(
+                "Product created event batch consumed. size={}, sent={}, duplicate={}",
+                records.size(), BatchRecords.count(results, NotificationStatus.SENT), BatchRecords.count(results, NotificationStatus.DUPLICATE)
+        );
+    }
+}
@@ -2,15 +2,18 @@ package com.example.notification.consumer;
 
 import com.example.common.event.ProductCreatedEvent;
 import com.example.notification.dto.NotificationResult;
+import com.example.notification.dto.RecordPosition;
 import com.example.notification.service.NotificationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 
 @Component
+@ConditionalOnExpression("!${app.kafka.batch.enabled:false} && !${app.kafka.parallel.enabled:false} && !${app.kafka.unified.enabled:false}")
 public class ProductCreatedEventConsumer {
 
     private static final Logger log = LoggerFactory.getLogger(ProductCreatedEventConsumer.class);
@@ -22,6 +25,7 @@ public class ProductCreatedEventConsumer {
     }
 
     @KafkaListener(
+            id = "product-created",
             topics = "${app.kafka.topics.product-created}",
             groupId = "${spring.kafka.consumer.group-id}",
             containerFactory = "productCreatedKafkaListenerContainerFactory",
@@ -33,7 +37,7 @@ public class ProductCreatedEventConsumer {
             @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
             @Header(KafkaHeaders.OFFSET) long offset
     ) {
-        NotificationResult result = notificationService.processProductCreated(event);
+        NotificationResult result = notificationService.processProductCreated(event, new RecordPosition(topic, partition, offset));
         log.info(
                 "Product created event consumed. topic={}, partition={}, offset={}, eventId={}, status={}, detail={}",
                 topic, partition, offset, result.eventId(), result.status(), result.detail()
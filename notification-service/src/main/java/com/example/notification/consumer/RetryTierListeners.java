@@ -0,0 +1,128 @@
+package com.example.notification.consumer;
+
+import com.example.common.event.OrderCreatedEvent;
+import com.example.common.event.OrderShippedEvent;
+import com.example.common.event.ProductCreatedEvent;
+import com.example.notification.dto.NotificationResult;
+import com.example.notification.dto.RecordPosition;
+import com.example.notification.service.NotificationService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.kafka.listener.AcknowledgingMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiFunction;
+
+// 재시도 단계마다 전용 컨테이너를 하나씩 띄운다. 단계별로 컨테이너를 나눠야 5m 단계의 대기가 5s 단계를 막지 않는다.
+// 한 파티션 안의 레코드는 넘어온 순서 = 처리 가능 시각 순서이므로, 맨 앞 레코드가 아직 이르면 그 남은 시간만큼
+// nack 으로 컨슈머를 멈춰 두고(poll 은 계속해 리밸런싱되지 않음) 시간이 되면 다시 받는다.
+@Component
+@ConditionalOnProperty(name = "app.kafka.retry-topics.enabled", havingValue = "true")
+public class RetryTierListeners implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(RetryTierListeners.class);
+
+    private final RetryTopicRouter retryTopicRouter;
+    private final List<ConcurrentMessageListenerContainer<String, ?>> containers = new ArrayList<>();
+
+    private volatile boolean running;
+
+    public RetryTierListeners(
+            RetryTopicRouter retryTopicRouter,
+            NotificationService notificationService,
+            @Qualifier("orderRetryKafkaListenerContainerFactory") ConcurrentKafkaListenerContainerFactory<String, OrderCreatedEvent> orderFactory,
+            @Qualifier("orderShippedRetryKafkaListenerContainerFactory") ConcurrentKafkaListenerContainerFactory<String, OrderShippedEvent> orderShippedFactory,
+            @Qualifier("productCreatedRetryKafkaListenerContainerFactory") ConcurrentKafkaListenerContainerFactory<String, ProductCreatedEvent> productCreatedFactory,
+            @Value("${app.kafka.topics.order-created}") String orderCreatedTopic,
+            @Value("${app.kafka.topics.order-shipped}") String orderShippedTopic,
+            @Value("${app.kafka.topics.product-created}") String productCreatedTopic,
+            @Value("${spring.kafka.consumer.group-id}") String groupId,
+            @Value("${app.kafka.consumer-concurrency}") int concurrency
+    ) {
+        this.retryTopicRouter = retryTopicRouter;
+        String retryGroupId = groupId + "-retry";
+        register(orderFactory, orderCreatedTopic, retryGroupId, concurrency, notificationService::processOrderCreated);
+        register(orderShippedFactory, orderShippedTopic, retryGroupId, concurrency, notificationService::processOrderShipped);
+        register(productCreatedFactory, productCreatedTopic, retryGroupId, concurrency, notificationService::processProductCreated);
+    }
+
+    private <E> void register(
+            ConcurrentKafkaListenerContainerFactory<String, E> factory,
+            String mainTopic,
+            String groupId,
+            int concurrency,
+            BiFunction<E, RecordPosition, NotificationResult> handler
+    ) {
+        for (String retryTopic : retryTopicRouter.retryTopics(mainTopic)) {
+            ConcurrentMessageListenerContainer<String, E> container = factory.createContainer(retryTopic);
+            container.getContainerProperties().setGroupId(groupId);
+            container.getContainerProperties().setMessageListener(
+                    (AcknowledgingMessageListener<String, E>) (record, acknowledgment) -> onRecord(record, acknowledgment, handler)
+            );
+            container.setConcurrency(concurrency);
+            container.setBeanName("retry-" + retryTopic);
+            containers.add(container);
+        }
+    }
+
+    public List<ConcurrentMessageListenerContainer<String, ?>> containers() {
+        return Collections.unmodifiableList(containers);
+    }
+
+    // 처리에 실패하면 예외를 그대로 던져 컨테이너 에러 핸들러가 다음 단계(마지막이면 DLQ)로 넘기게 한다.
+    private <E> void onRecord(ConsumerRecord<String, E> record, Acknowledgment acknowledgment, BiFunction<E, RecordPosition, NotificationResult> handler) {
+        long remainingMillis = retryTopicRouter.remainingDelayMillis(record);
+        if (remainingMillis > 0) {
+            acknowledgment.nack(Duration.ofMillis(remainingMillis));
+            return;
+        }
+        retryTopicRouter.recordPickedUp(record);
+        NotificationResult result = handler.apply(record.value(), new RecordPosition(record.topic(), record.partition(), record.offset()));
+        retryTopicRouter.recordSucceeded(record);
+        acknowledgment.acknowledge();
+        log.info(
+                "Retried event consumed. topic={}, partition={}, offset={}, eventId={}, status={}, detail={}",
+                record.topic(), record.partition(), record.offset(), result.eventId(), result.status(), result.detail()
+        );
+    }
+
+    @Override
+    public void start() {
+        for (ConcurrentMessageListenerContainer<String, ?> container : containers) {
+            container.start();
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        for (ConcurrentMessageListenerContainer<String, ?> container : containers) {
+            container.stop();
+        }
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // @KafkaListener 컨테이너와 같은 시점에 시작/종료한다.
+    @Override
+    public int getPhase() {
+        return AbstractMessageListenerContainer.DEFAULT_PHASE;
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.notification.consumer;
+
+import com.example.notification.dto.RecordPosition;
+import com.example.notification.repository.OffsetWatermarkRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// 실패 레코드를 제자리 재시도 대신 지연 재시도 토픽으로 넘긴다.
+// 메인 토픽 -> <topic>.retry-<delay> (단계 순서대로) -> <topic>.dlq
+// 넘길 때 "이 시각 이후에 처리" 헤더를 붙이고, 재시도 토픽 컨슈머(RetryTierListeners)는 그 시각까지 기다렸다가 처리한다.
+@Component
+@ConditionalOnProperty(name = "app.kafka.retry-topics.enabled", havingValue = "true")
+public class RetryTopicRouter {
+
+    public static final String DUE_AT_HEADER = "notification-retry-due-at";
+
+    private static final Logger log = LoggerFactory.getLogger(RetryTopicRouter.class);
+    private static final String RETRY_SUFFIX = ".retry-";
+    private static final String MAIN_STAGE = "main";
+    private static final String DLQ_STAGE = "dlq";
+
+    private final List<Duration> delays;
+    private final List<String> labels = new ArrayList<>();
+    private final Map<String, String> dlqTopics;
+    private final Map<String, Stage> stages = new HashMap<>();
+    private final DeadLetterPublishingRecoverer publisher;
+    private final OffsetWatermarkRepository offsetWatermarkRepository;
+    private final MeterRegistry meterRegistry;
+
+    public RetryTopicRouter(
+            KafkaTemplate<String, Object> kafkaTemplate,
+            MeterRegistry meterRegistry,
+            ObjectProvider<OffsetWatermarkRepository> offsetWatermarkRepositoryProvider,
+            @Value("${app.kafka.retry-topics.delays}") List<Duration> delays,
+            @Value("${app.kafka.topics.order-created}") String orderCreatedTopic,
+            @Value("${app.kafka.topics.order-created-dlq}") String orderCreatedDlqTopic,
+            @Value("${app.kafka.topics.order-shipped}") String orderShippedTopic,
+            @Value("${app.kafka.topics.order-shipped-dlq}") String orderShippedDlqTopic,
+            @Value("${app.kafka.topics.product-created}") String productCreatedTopic,
+            @Value("${app.kafka.topics.product-created-dlq}") String productCreatedDlqTopic
+    ) {
+        this.delays = List.copyOf(delays);
+        this.meterRegistry = meterRegistry;
+        this.offsetWatermarkRepository = offsetWatermarkRepositoryProvider.getIfAvailable();
+        this.dlqTopics = Map.of(
+                orderCreatedTopic, orderCreatedDlqTopic,
+                orderShippedTopic, orderShippedDlqTopic,
+                productCreatedTopic, productCreatedDlqTopic
+        );
+        for (Duration delay : this.delays) {
+            labels.add(label(delay));
+        }
+        for (String mainTopic : dlqTopics.keySet()) {
+            stages.put(mainTopic, new Stage(mainTopic, -1));
+            for (int tier = 0; tier < this.delays.size(); tier++) {
+                stages.put(retryTopic(mainTopic, tier), new Stage(mainTopic, tier));
+            }
+        }
+        this.publisher = new DeadLetterPublishingRecoverer(
+                kafkaTemplate,
+                (record, exception) -> new TopicPartition(nextTopic(stage(record.topic())), record.partition())
+        );
+        this.publisher.setHeadersFunction((record, exception) -> {
+            RecordHeaders headers = new RecordHeaders();
+            int nextTier = stage(record.topic()).tier() + 1;
+            if (nextTier < this.delays.size()) {
+                long dueAt = System.currentTimeMillis() + this.delays.get(nextTier).toMillis();
+                headers.add(DUE_AT_HEADER, Long.toString(dueAt).getBytes(StandardCharsets.US_ASCII));
+            }
+            return headers;
+        });
+    }
+
+    public List<String> retryTopics(String mainTopic) {
+        List<String> topics = new ArrayList<>(delays.size());
+        for (int tier = 0; tier < delays.size(); tier++) {
+            topics.add(retryTopic(mainTopic, tier));
+        }
+        return topics;
+    }
+
+    public List<String> allRetryTopics() {
+        List<String> topics = new ArrayList<>();
+        for (String mainTopic : dlqTopics.keySet()) {
+            topics.addAll(retryTopics(mainTopic));
+        }
+        return topics;
+    }
+
+    // 메인/재시도 단계에서 실패한 레코드를 다음 단계로 넘긴다. 전송이 실패하면 예외가 그대로 올라가
+    // 에러 핸들러가 같은 레코드를 다시 시도하므로, 넘기지 못한 레코드의 offset 은 커밋되지 않는다.
+    public ConsumerRecordRecoverer recoverer() {
+        return (record, exception) -> {
+            Stage from = stage(record.topic());
+            String target = from.tier() + 1 < delays.size() ? labels.get(from.tier() + 1) : DLQ_STAGE;
+            if (DLQ_STAGE.equals(target)) {
+                log.error(
+                        "Message moved to DLQ. topic={}, partition={}, offset={}, key={}",
+                        record.topic(), record.partition(), record.offset(), record.key(), exception
+                );
+            } else {
+                log.warn(
+                        "Message moved to retry topic. topic={}, partition={}, offset={}, key={}, retryIn={}, cause={}",
+                        record.topic(), record.partition(), record.offset(), record.key(), target, exception.getMessage()
+                );
+            }
+            publisher.accept(record, exception);
+            Counter.builder("notification.retry.forwarded")
+                    .description("Failed records forwarded to the next retry tier or the DLQ")
+                    .tag("topic", from.mainTopic())
+                    .tag("from", stageLabel(from))
+                    .tag("to", target)
+                    .register(meterRegistry)
+                    .increment();
+            if (from.tier() >= 0) {
+                attempts(from, "failure").increment();
+            }
+            // 다음 단계로 넘긴 레코드도 이 단계에서는 처리 완료로 본다.
+            if (offsetWatermarkRepository != null) {
+                offsetWatermarkRepository.complete(new RecordPosition(record.topic(), record.partition(), record.offset()));
+            }
+        };
+    }
+
+    // 처리 가능 시각까지 남은 시간. 헤더가 없으면(직접 발행한 레코드 등) 레코드 timestamp 기준으로 계산한다.
+    public long remainingDelayMillis(ConsumerRecord<?, ?> record) {
+        return dueAt(record) - System.currentTimeMillis();
+    }
+
+    // 재시도 토픽에 들어온 뒤 실제로 처리되기까지 걸린 시간(대기 + 지연된 만큼)을 단계별로 기록한다.
+    public void recordPickedUp(ConsumerRecord<?, ?> record) {
+        Stage stage = stage(record.topic());
+        long waitedMillis = System.currentTimeMillis() - (dueAt(record) - delays.get(stage.tier()).toMillis());
+        Timer.builder("notification.retry.tier.latency")
+                .description("Time from forwarding a record into a retry tier until it is picked up")
+                .tag("topic", stage.mainTopic())
+                .tag("tier", stageLabel(stage))
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(waitedMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void recordSucceeded(ConsumerRecord<?, ?> record) {
+        attempts(stage(record.topic()), "success").increment();
+    }
+
+    private Counter attempts(Stage stage, String result) {
+        return Counter.builder("notification.retry.attempts")
+                .description("Processing attempts made from retry tiers")
+                .tag("topic", stage.mainTopic())
+                .tag("tier", stageLabel(stage))
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private long dueAt(ConsumerRecord<?, ?> record) {
+        Header header = record.headers().lastHeader(DUE_AT_HEADER);
+        if (header != null) {
+            String value = new String(header.value(), StandardCharsets.US_ASCII);
+            try {
+                return Long.parseLong(value);
+            } catch (NumberFormatException exception) {
+                // 헤더가 깨졌다고 파티션을 멈추지 않도록 이미 처리 시각이 된 것으로 본다.
+                log.warn(
+                        "Invalid retry due-at header; treating record as due. topic={}, partition={}, offset={}, value={}",
+                        record.topic(), record.partition(), record.offset(), value
+                );
+                return System.currentTimeMillis();
+            }
+        }
+        return record.timestamp() + delays.get(stage(record.topic()).tier()).toMillis();
+    }
+
+    private String nextTopic(Stage from) {
+        int nextTier = from.tier() + 1;
+        return nextTier < delays.size() ? retryTopic(from.mainTopic(), nextTier) : dlqTopics.get(from.mainTopic());
+    }
+
+    private Stage stage(String topic) {
+        Stage stage = stages.get(topic);
+        if (stage == null) {
+            throw new IllegalArgumentException("Topic is not part of a retry chain: " + topic);
+        }
+        return stage;
+    }
+
+    private String stageLabel(Stage stage) {
+        return stage.tier() < 0 ? MAIN_STAGE : labels.get(stage.tier());
+    }
+
+    private String retryTopic(String mainTopic, int tier) {
+        return mainTopic + RETRY_SUFFIX + labels.get(tier);
+    }
+
+    // 5s, 30s, 5m, 1h 처럼 토픽 이름에 쓰는 짧은 표기. 나누어 떨어지지 않으면 ms 로 쓴다.
+    private static String label(Duration delay) {
+        long millis = delay.toMillis();
+        if (millis % 3_600_000 == 0) {
+            return millis / 3_600_000 + "h";
+        }
+        if (millis % 60_000 == 0) {
+            return millis / 60_000 + "m";
+        }
+        if (millis % 1_000 == 0) {
+            return millis / 1_000 + "s";
+        }
+        return millis + "ms";
+    }
+
+    // tier 가 -1 이면 메인 토픽.
+    private record Stage(String mainTopic, int tier) {
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.notification.consumer;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+// app.kafka.unified.enabled=true 이면 세 DLQ 토픽도 컨슈머 하나로 읽는다.
+@Component
+@ConditionalOnProperty(name = "app.kafka.unified.enabled", havingValue = "true")
+public class UnifiedDlqConsumer {
+
+    private static final Logger log = LoggerFactory.getLogger(UnifiedDlqConsumer.class);
+
+    @KafkaListener(
+            topics = {
+                    "${app.kafka.topics.order-created-dlq}",
+                    "${app.kafka.topics.order-shipped-dlq}",
+                    "${app.kafka.topics.product-created-dlq}"
+            },
+            groupId = "${spring.kafka.consumer.group-id}-dlq",
+            containerFactory = "unifiedDlqKafkaListenerContainerFactory"
+    )
+    public void consumeDlq(ConsumerRecord<String, Object> record) {
+        // 실무에서는 DLQ 컨슈머에서 재처리 워커로 전달하거나 운영 알람(Slack/PagerDuty)을 전송한다.
+        log.error(
+                "DLQ event received. topic={}, partition={}, offset={}, key={}, event={}",
+                record.topic(), record.partition(), record.offset(), record.key(), record.value()
+        );
+    }
+}
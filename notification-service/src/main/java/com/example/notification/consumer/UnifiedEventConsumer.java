@@ -0,0 +1,60 @@
+package com.example.notification.consumer;
+
+import com.example.common.event.OrderCreatedEvent;
+import com.example.common.event.OrderShippedEvent;
+import com.example.common.event.ProductCreatedEvent;
+import com.example.notification.dto.NotificationResult;
+import com.example.notification.dto.RecordPosition;
+import com.example.notification.service.NotificationService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+// 세 이벤트 토픽을 컨테이너 하나로 구독한다. 인스턴스당 메인 컨슈머가 3 x concurrency 개에서 concurrency 개로 줄어
+// 브로커 연결, fetch 세션, heartbeat, 리밸런싱 참여자가 그만큼 줄어든다.
+// 값은 event-type 헤더로 고른 타입으로 이미 역직렬화돼 있으므로 타입에 맞는 NotificationService 메서드로만 나눈다.
+@Component
+@ConditionalOnExpression("${app.kafka.unified.enabled:false} && !${app.kafka.batch.enabled:false} && !${app.kafka.parallel.enabled:false}")
+public class UnifiedEventConsumer {
+
+    private static final Logger log = LoggerFactory.getLogger(UnifiedEventConsumer.class);
+
+    private final NotificationService notificationService;
+
+    public UnifiedEventConsumer(NotificationService notificationService) {
+        this.notificationService = notificationService;
+    }
+
+    @KafkaListener(
+            id = "unified",
+            topics = {
+                    "${app.kafka.topics.order-created}",
+                    "${app.kafka.topics.order-shipped}",
+                    "${app.kafka.topics.product-created}"
+            },
+            groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "unifiedKafkaListenerContainerFactory",
+            concurrency = "${app.kafka.consumer-concurrency}"
+    )
+    public void consume(ConsumerRecord<String, Object> record) {
+        RecordPosition position = new RecordPosition(record.topic(), record.partition(), record.offset());
+        Object event = record.value();
+        NotificationResult result;
+        if (event instanceof OrderCreatedEvent orderCreated) {
+            result = notificationService.processOrderCreated(orderCreated, position);
+        } else if (event instanceof OrderShippedEvent orderShipped) {
+            result = notificationService.processOrderShipped(orderShipped, position);
+        } else if (event instanceof ProductCreatedEvent productCreated) {
+            result = notificationService.processProductCreated(productCreated, position);
+        } else {
+            throw new IllegalArgumentException("Unsupported event type. topic=" + record.topic() + ", type=" + (event == null ? null : event.getClass().getName()));
+        }
+        log.info(
+                "Event consumed. topic={}, partition={}, offset={}, type={}, eventId={}, status={}, detail={}",
+                record.topic(), record.partition(), record.offset(), event.getClass().getSimpleName(), result.eventId(), result.status(), result.detail()
+        );
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.notification.controller;
+
+import com.example.notification.consumer.ConsumerAutoTuner;
+import com.example.notification.dto.ConsumerTuningState;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// GET  /actuator/consumertuning                 : 메인 토픽 리스너 컨테이너별 현재 concurrency/max.poll.records, lag, 마지막 결정
+// POST /actuator/consumertuning/{listenerId}    : {"concurrency": 2, "maxPollRecords": 200} 로 고정(자동 조정 중단)
+// DELETE /actuator/consumertuning/{listenerId}  : 고정 해제, 현재 값에서 자동 조정 재개
+@Component
+@Endpoint(id = "consumertuning")
+@ConditionalOnProperty(name = "app.kafka.autotune.enabled", havingValue = "true")
+public class ConsumerTuningEndpoint {
+
+    private final ConsumerAutoTuner consumerAutoTuner;
+
+    public ConsumerTuningEndpoint(ConsumerAutoTuner consumerAutoTuner) {
+        this.consumerAutoTuner = consumerAutoTuner;
+    }
+
+    @ReadOperation
+    public List<ConsumerTuningState> listeners() {
+        return consumerAutoTuner.states();
+    }
+
+    @ReadOperation
+    public ConsumerTuningState listener(@Selector String listenerId) {
+        return consumerAutoTuner.state(listenerId);
+    }
+
+    @WriteOperation
+    public ConsumerTuningState override(@Selector String listenerId, @Nullable Integer concurrency, @Nullable Integer maxPollRecords) {
+        if (concurrency == null && maxPollRecords == null) {
+            throw new InvalidEndpointRequestException("concurrency or maxPollRecords is required", "Missing override value");
+        }
+        if ((concurrency != null && concurrency < 1) || (maxPollRecords != null && maxPollRecords < 1)) {
+            throw new InvalidEndpointRequestException("concurrency and maxPollRecords must be positive", "Invalid override value");
+        }
+        return consumerAutoTuner.override(listenerId, concurrency, maxPollRecords);
+    }
+
+    @DeleteOperation
+    public ConsumerTuningState clearOverride(@Selector String listenerId) {
+        return consumerAutoTuner.clearOverride(listenerId);
+    }
+}
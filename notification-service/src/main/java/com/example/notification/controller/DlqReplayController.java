@@ -0,0 +1,54 @@
+package com.example.notification.controller;
+
+import com.example.notification.dto.DlqReplayRequest;
+import com.example.notification.dto.DlqReplayStatus;
+import com.example.notification.service.DlqReplayService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/dlq/replays")
+public class DlqReplayController {
+
+    private final DlqReplayService dlqReplayService;
+
+    public DlqReplayController(DlqReplayService dlqReplayService) {
+        this.dlqReplayService = dlqReplayService;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public DlqReplayStatus startReplay(@Valid @RequestBody DlqReplayRequest request) {
+        return dlqReplayService.start(request);
+    }
+
+    @GetMapping
+    public List<DlqReplayStatus> listReplays() {
+        return dlqReplayService.list();
+    }
+
+    @GetMapping("/{jobId}")
+    public DlqReplayStatus getReplay(@PathVariable("jobId") String jobId) {
+        return dlqReplayService.status(jobId);
+    }
+
+    @PostMapping("/{jobId}/cancel")
+    public DlqReplayStatus cancelReplay(@PathVariable("jobId") String jobId) {
+        return dlqReplayService.cancel(jobId);
+    }
+
+    @PostMapping("/{jobId}/resume")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public DlqReplayStatus resumeReplay(@PathVariable("jobId") String jobId) {
+        return dlqReplayService.resume(jobId);
+    }
+}
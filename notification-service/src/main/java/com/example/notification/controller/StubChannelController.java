@@ -0,0 +1,56 @@
+package com.example.notification.controller;
+
+import com.example.notification.dto.BulkDeliveryRequest;
+import com.example.notification.dto.BulkDeliveryResponse;
+import com.example.notification.dto.DeliveryResult;
+import com.example.notification.dto.OutgoingNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// 로컬 테스트용 채널 게이트웨이. HttpNotificationChannelClient 의 묶음 요청을 받아 항목별 결과를 돌려준다.
+// 요청마다 latency 만큼 기다려 게이트웨이의 요청당 비용을 흉내 내고, recipient 나 message 가 fail- 로 시작하는 항목은 실패로 돌려준다.
+@RestController
+@RequestMapping("/stub/notifications")
+@ConditionalOnProperty(name = "app.notification.dispatch.stub.enabled", havingValue = "true")
+public class StubChannelController {
+
+    private static final Logger log = LoggerFactory.getLogger(StubChannelController.class);
+
+    private final Duration latency;
+
+    public StubChannelController(@Value("${app.notification.dispatch.stub.latency}") Duration latency) {
+        this.latency = latency;
+    }
+
+    @PostMapping("/{channel}")
+    public BulkDeliveryResponse deliver(@PathVariable("channel") String channel, @RequestBody BulkDeliveryRequest request) throws InterruptedException {
+        if (!latency.isZero()) {
+            Thread.sleep(latency.toMillis());
+        }
+        List<DeliveryResult> results = new ArrayList<>(request.notifications().size());
+        for (OutgoingNotification notification : request.notifications()) {
+            if (notification.recipient().startsWith("fail-") || notification.message().startsWith("fail-")) {
+                log.error("Stub channel rejected notification. channel={}, eventId={}, recipient={}", channel, notification.eventId(), notification.recipient());
+                results.add(new DeliveryResult(notification.eventId(), false, "Simulated downstream failure"));
+                continue;
+            }
+            log.info(
+                    "Stub channel delivered notification. channel={}, eventId={}, referenceId={}, recipient={}",
+                    channel, notification.eventId(), notification.referenceId(), notification.recipient()
+            );
+            results.add(new DeliveryResult(notification.eventId(), true, "Delivered"));
+        }
+        return new BulkDeliveryResponse(results);
+    }
+}
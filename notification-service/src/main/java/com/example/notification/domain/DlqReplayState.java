@@ -0,0 +1,9 @@
+package com.example.notification.domain;
+
+public enum DlqReplayState {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    CANCELLED,
+    FAILED
+}
@@ -0,0 +1,8 @@
+package com.example.notification.domain;
+
+public enum DlqReplayTarget {
+    // 원본 토픽으로 다시 발행해 일반 소비 경로(재시도 토픽 포함)를 그대로 타게 한다.
+    SOURCE_TOPIC,
+    // 재발행 없이 NotificationService 배치 처리로 바로 넣는다. eventId 중복 판정은 그대로 적용된다.
+    SERVICE
+}
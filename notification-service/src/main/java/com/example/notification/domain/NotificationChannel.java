@@ -0,0 +1,19 @@
+package com.example.notification.domain;
+
+// NotificationSender 의 알림 종류. 종류마다 서킷 브레이커/벌크헤드를 따로 두어 한 채널의 장애가 다른 채널을 막지 않게 한다.
+public enum NotificationChannel {
+    ORDER_CONFIRMATION("order-confirmation"),
+    SHIPPING_UPDATE("shipping-update"),
+    PRODUCT_CREATION("product-creation");
+
+    private final String tag;
+
+    NotificationChannel(String tag) {
+        this.tag = tag;
+    }
+
+    // 메트릭 태그 값.
+    public String tag() {
+        return tag;
+    }
+}
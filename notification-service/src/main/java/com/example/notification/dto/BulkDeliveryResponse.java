@@ -0,0 +1,8 @@
+package com.example.notification.dto;
+
+import java.util.List;
+
+public record BulkDeliveryResponse(
+        List<DeliveryResult> results
+) {
+}
@@ -0,0 +1,18 @@
+package com.example.notification.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public record ConsumerTuningState(
+        String listenerId,
+        List<String> topics,
+        boolean running,
+        int concurrency,
+        int maxPollRecords,
+        Double lag,
+        Double pollProcessingMillis,
+        boolean overridden,
+        String lastDecision,
+        Instant lastChangedAt
+) {
+}
@@ -0,0 +1,9 @@
+package com.example.notification.dto;
+
+// 묶음 발송 응답의 항목별 결과. 요청의 notifications 와 같은 순서로 온다.
+public record DeliveryResult(
+        String eventId,
+        boolean delivered,
+        String detail
+) {
+}
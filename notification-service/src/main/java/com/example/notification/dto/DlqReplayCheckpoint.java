@@ -0,0 +1,18 @@
+package com.example.notification.dto;
+
+import com.example.notification.domain.DlqReplayState;
+
+import java.time.Instant;
+import java.util.Map;
+
+// 파티션별로 다음에 읽을 offset 과 누적 결과. 배치를 끝낼 때마다 갱신되어 재개 시작점이 된다.
+public record DlqReplayCheckpoint(
+        Map<Integer, Long> nextOffsets,
+        long replayed,
+        long duplicates,
+        long failed,
+        DlqReplayState state,
+        String error,
+        Instant updatedAt
+) {
+}
@@ -0,0 +1,22 @@
+package com.example.notification.dto;
+
+import com.example.notification.domain.DlqReplayTarget;
+
+import java.time.Instant;
+import java.util.Map;
+
+// 요청을 파티션별 offset 구간 [startOffset, endOffset) 으로 확정한 재처리 계획. 체크포인트와 함께 Redis 에 저장된다.
+public record DlqReplayPlan(
+        String jobId,
+        String dlqTopic,
+        String sourceTopic,
+        DlqReplayTarget target,
+        int ratePerSecond,
+        int batchSize,
+        Map<Integer, OffsetRange> ranges,
+        Instant createdAt
+) {
+
+    public record OffsetRange(long startOffset, long endOffset) {
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.notification.dto;
+
+import com.example.notification.domain.DlqReplayTarget;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+
+import java.time.Instant;
+
+// 범위는 offset(fromOffset~toOffset, 양끝 포함) 또는 시간(fromTime 이상 toTime 미만)으로 지정한다.
+// 둘 다 비우면 DLQ 의 처음부터 요청 시점의 끝까지, partition 을 비우면 모든 파티션이 대상이다.
+public record DlqReplayRequest(
+        @NotBlank(message = "dlqTopic must not be blank")
+        String dlqTopic,
+
+        @PositiveOrZero(message = "partition must be zero or positive")
+        Integer partition,
+
+        @PositiveOrZero(message = "fromOffset must be zero or positive")
+        Long fromOffset,
+
+        @PositiveOrZero(message = "toOffset must be zero or positive")
+        Long toOffset,
+
+        Instant fromTime,
+
+        Instant toTime,
+
+        DlqReplayTarget target,
+
+        @Positive(message = "ratePerSecond must be positive")
+        Integer ratePerSecond,
+
+        @Positive(message = "batchSize must be positive")
+        Integer batchSize
+) {
+}
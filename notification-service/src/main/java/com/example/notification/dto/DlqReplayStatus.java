@@ -0,0 +1,36 @@
+package com.example.notification.dto;
+
+import com.example.notification.domain.DlqReplayState;
+import com.example.notification.domain.DlqReplayTarget;
+
+import java.time.Instant;
+import java.util.List;
+
+public record DlqReplayStatus(
+        String jobId,
+        String dlqTopic,
+        String sourceTopic,
+        DlqReplayTarget target,
+        DlqReplayState state,
+        int ratePerSecond,
+        int batchSize,
+        long totalRecords,
+        long processedRecords,
+        double progressPercent,
+        long replayed,
+        long duplicates,
+        long failed,
+        List<PartitionProgress> partitions,
+        Instant createdAt,
+        Instant updatedAt,
+        String error
+) {
+
+    public record PartitionProgress(
+            int partition,
+            long startOffset,
+            long endOffset,
+            long nextOffset
+    ) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.notification.dto;
+
+// 채널 게이트웨이로 보내는 알림 한 건. recipient 는 게이트웨이가 연락처를 찾는 수신자 id(주문 알림은 customerId).
+public record OutgoingNotification(
+        String eventId,
+        String referenceId,
+        String recipient,
+        String message
+) {
+}
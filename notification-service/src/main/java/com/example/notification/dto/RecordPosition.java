@@ -0,0 +1,8 @@
+package com.example.notification.dto;
+
+public record RecordPosition(
+        String topic,
+        int partition,
+        long offset
+) {
+}
@@ -0,0 +1,29 @@
+package com.example.notification.exception;
+
+import com.example.notification.domain.NotificationChannel;
+
+// 서킷 브레이커가 열려 있거나 벌크헤드가 가득 차 발송을 시도하지 않았음을 알린다.
+// 레코드 자체의 실패가 아니므로 컨테이너는 재시도 횟수를 쓰지 않고 같은 offset 을 다시 처리한다(DLQ 로 보내지 않는다).
+public class ChannelUnavailableException extends RuntimeException {
+
+    private final NotificationChannel channel;
+
+    public ChannelUnavailableException(NotificationChannel channel, String reason) {
+        super("Notification channel unavailable. channel=" + channel.tag() + ", reason=" + reason);
+        this.channel = channel;
+    }
+
+    public NotificationChannel channel() {
+        return channel;
+    }
+
+    // 리스너 예외로 감싸져 있어도 원인 사슬에서 찾는다.
+    public static boolean isCause(Throwable throwable) {
+        for (Throwable current = throwable; current != null; current = current.getCause()) {
+            if (current instanceof ChannelUnavailableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.notification.exception;
+
+public class DlqReplayNotFoundException extends RuntimeException {
+
+    public DlqReplayNotFoundException(String jobId) {
+        super("DLQ replay job not found. jobId=" + jobId);
+    }
+}
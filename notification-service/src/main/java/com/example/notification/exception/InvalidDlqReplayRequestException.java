@@ -0,0 +1,8 @@
+package com.example.notification.exception;
+
+public class InvalidDlqReplayRequestException extends RuntimeException {
+
+    public InvalidDlqReplayRequestException(String message) {
+        super(message);
+    }
+}
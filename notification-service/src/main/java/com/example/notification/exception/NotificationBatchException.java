@@ -0,0 +1,26 @@
+package com.example.notification.exception;
+
+import com.example.notification.dto.NotificationResult;
+
+import java.util.List;
+
+// 배치 처리 중 failedIndex 번째 레코드에서 실패했음을 알린다. completedResults 는 그 앞까지 처리된 결과다.
+public class NotificationBatchException extends RuntimeException {
+
+    private final int failedIndex;
+    private final List<NotificationResult> completedResults;
+
+    public NotificationBatchException(int failedIndex, List<NotificationResult> completedResults, Throwable cause) {
+        super("Notification batch failed at index " + failedIndex, cause);
+        this.failedIndex = failedIndex;
+        this.completedResults = List.copyOf(completedResults);
+    }
+
+    public int failedIndex() {
+        return failedIndex;
+    }
+
+    public List<NotificationResult> completedResults() {
+        return completedResults;
+    }
+}
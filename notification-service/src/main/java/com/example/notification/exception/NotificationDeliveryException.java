@@ -0,0 +1,14 @@
+package com.example.notification.exception;
+
+// 채널 게이트웨이가 알림을 전달하지 못했음을 알린다(항목 실패, 요청 실패, 응답 대기 시간 초과).
+// 레코드 실패로 보고 평소처럼 재시도/DLQ 로 넘기며, 서킷 브레이커 실패율에도 들어간다.
+public class NotificationDeliveryException extends RuntimeException {
+
+    public NotificationDeliveryException(String message) {
+        super(message);
+    }
+
+    public NotificationDeliveryException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.notification.repository;
+
+import com.example.common.id.TimeOrderedId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+// app.dedup.layout=BUCKETED 일 때 eventId 를 16byte 바이너리로 바꿔 기간 버킷 해시의 필드로 저장한다.
+// 키 = notification:processed:bucket:<bucketId>:<shard>, 버킷 단위로 TTL 을 한 번만 건다.
+// shard 는 한 해시의 필드 수를 listpack 인코딩 한도(hash-max-listpack-entries) 아래로 유지하기 위한 분할 수다.
+// 조회는 보존 기간에 걸친 모든 버킷을 스크립트 한 번으로 확인한다. 스크립트 안에서 키를 조합하므로 단일 노드 Redis 전용이다.
+@Component
+@ConditionalOnProperty(name = "app.dedup.layout", havingValue = "BUCKETED")
+public class BucketedEventIdStore {
+
+    private static final String KEY_PREFIX = "notification:processed:bucket:";
+    private static final byte[] KEY_PREFIX_BYTES = KEY_PREFIX.getBytes(StandardCharsets.UTF_8);
+
+    // ARGV = prefix, ttlSeconds, currentBucket, bucketCount, (shard, eventId)*  -> 입력 순서대로 1(예약) / 0(중복)
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final RedisScript<List<Long>> RESERVE_SCRIPT = (RedisScript) new DefaultRedisScript<>(
+            "local prefix, ttl, current, count = ARGV[1], tonumber(ARGV[2]), tonumber(ARGV[3]), tonumber(ARGV[4]) "
+                    + "local results = {} "
+                    + "for i = 5, #ARGV, 2 do "
+                    + "  local shard, id, seen = ARGV[i], ARGV[i + 1], false "
+                    + "  for b = 0, count - 1 do "
+                    + "    if redis.call('HEXISTS', prefix .. (current - b) .. ':' .. shard, id) == 1 then seen = true break end "
+                    + "  end "
+                    + "  if seen then "
+                    + "    results[#results + 1] = 0 "
+                    + "  else "
+                    + "    local key = prefix .. current .. ':' .. shard "
+                    + "    redis.call('HSET', key, id, '') "
+                    + "    if redis.call('TTL', key) < 0 then redis.call('EXPIRE', key, ttl) end "
+                    + "    results[#results + 1] = 1 "
+                    + "  end "
+                    + "end "
+                    + "return results",
+            List.class
+    );
+
+    // ARGV = prefix, currentBucket, bucketCount, (shard, eventId)*
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "local prefix, current, count = ARGV[1], tonumber(ARGV[2]), tonumber(ARGV[3]) "
+                    + "local removed = 0 "
+                    + "for i = 4, #ARGV, 2 do "
+                    + "  for b = 0, count - 1 do "
+                    + "    removed = removed + redis.call('HDEL', prefix .. (current - b) .. ':' .. ARGV[i], ARGV[i + 1]) "
+                    + "  end "
+                    + "end "
+                    + "return removed",
+            Long.class
+    );
+
+    private final StringRedisTemplate redisTemplate;
+    private final long bucketWidthMillis;
+    private final int bucketCount;
+    private final byte[] bucketTtlSeconds;
+    private final int shards;
+
+    public BucketedEventIdStore(
+            StringRedisTemplate redisTemplate,
+            @Value("${app.dedup.bucketed.bucket-width}") Duration bucketWidth,
+            @Value("${app.dedup.bucketed.retention}") Duration retention,
+            @Value("${app.dedup.bucketed.shards}") int shards
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.bucketWidthMillis = bucketWidth.toMillis();
+        // 현재 버킷 + 보존 기간을 덮는 이전 버킷들. 버킷 TTL 은 마지막에 들어온 항목도 보존 기간만큼 남도록 한 버킷만큼 더 준다.
+        this.bucketCount = (int) ((retention.toMillis() + bucketWidthMillis - 1) / bucketWidthMillis) + 1;
+        this.bucketTtlSeconds = ascii(retention.plus(bucketWidth).toSeconds());
+        this.shards = shards;
+    }
+
+    public boolean reserveIfAbsent(String eventId) {
+        return reserveAllIfAbsent(Collections.singletonList(eventId))[0];
+    }
+
+    public boolean[] reserveAllIfAbsent(List<String> eventIds) {
+        boolean[] reserved = new boolean[eventIds.size()];
+        if (eventIds.isEmpty()) {
+            return reserved;
+        }
+        List<byte[]> args = new ArrayList<>(4 + eventIds.size() * 2);
+        args.add(KEY_PREFIX_BYTES);
+        args.add(bucketTtlSeconds);
+        args.add(ascii(currentBucket()));
+        args.add(ascii(bucketCount));
+        appendMembers(args, eventIds);
+        List<Long> results = redisTemplate.execute(RESERVE_SCRIPT, RedisSerializer.byteArray(), null, List.of(), args.toArray());
+        for (int i = 0; i < reserved.length; i++) {
+            reserved[i] = results != null && Long.valueOf(1L).equals(results.get(i));
+        }
+        return reserved;
+    }
+
+    public void releaseAll(Collection<String> eventIds) {
+        if (eventIds.isEmpty()) {
+            return;
+        }
+        List<byte[]> args = new ArrayList<>(3 + eventIds.size() * 2);
+        args.add(KEY_PREFIX_BYTES);
+        args.add(ascii(currentBucket()));
+        args.add(ascii(bucketCount));
+        appendMembers(args, eventIds);
+        redisTemplate.execute(RELEASE_SCRIPT, RedisSerializer.byteArray(), null, List.of(), args.toArray());
+    }
+
+    private void appendMembers(List<byte[]> args, Collection<String> eventIds) {
+        for (String eventId : eventIds) {
+            byte[] member = toMember(eventId);
+            args.add(ascii(Math.floorMod(Arrays.hashCode(member), shards)));
+            args.add(member);
+        }
+    }
+
+    private long currentBucket() {
+        return System.currentTimeMillis() / bucketWidthMillis;
+    }
+
+    // UUID 형식 eventId 는 16byte 로 저장하고, 그 외 형식은 원문 바이트를 그대로 쓴다.
+    static byte[] toMember(String eventId) {
+        if (eventId.length() == TimeOrderedId.CANONICAL_LENGTH || eventId.length() == TimeOrderedId.COMPACT_LENGTH) {
+            try {
+                return TimeOrderedId.parse(eventId).toBytes();
+            } catch (IllegalArgumentException ignored) {
+                // 길이만 같은 다른 형식이면 아래에서 원문으로 저장한다.
+            }
+        }
+        return eventId.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] ascii(long value) {
+        return Long.toString(value).getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.notification.repository;
+
+import org.apache.kafka.common.utils.Utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+// 노드마다 virtualNodes 개의 점을 murmur2 해시 링에 흩어 두고, 키는 해시 위치에서 시계 방향으로 처음 만나는 노드로 보낸다.
+// 쓸 수 없는 노드는 건너뛰고 다음 노드로 보내므로, 노드 하나가 빠지면 그 노드 몫의 키만 옮겨 가고 나머지 키의 위치는 그대로다.
+public final class ConsistentHashRing<T> {
+
+    private final NavigableMap<Integer, T> ring = new TreeMap<>();
+    private final List<T> nodes;
+
+    public ConsistentHashRing(Collection<T> nodes, Function<T, String> nodeId, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("At least one node is required");
+        }
+        this.nodes = List.copyOf(nodes);
+        for (T node : this.nodes) {
+            String id = nodeId.apply(node);
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.putIfAbsent(hash(id + "#" + i), node);
+            }
+        }
+    }
+
+    public List<T> nodes() {
+        return nodes;
+    }
+
+    public T route(String key) {
+        return route(key, node -> true);
+    }
+
+    // available 을 만족하는 노드가 없으면 null.
+    public T route(String key, Predicate<T> available) {
+        int position = hash(key);
+        Map.Entry<Integer, T> owner = ring.ceilingEntry(position);
+        if (owner == null) {
+            owner = ring.firstEntry();
+        }
+        if (available.test(owner.getValue())) {
+            return owner.getValue();
+        }
+        for (T node : ring.tailMap(position, true).values()) {
+            if (available.test(node)) {
+                return node;
+            }
+        }
+        for (T node : ring.headMap(position, false).values()) {
+            if (available.test(node)) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    // 노드별로 맡은 해시 공간 비율. virtual node 수가 적으면 여기서 이미 치우침이 보인다.
+    public Map<T, Double> ownership() {
+        Map<T, Double> shares = new HashMap<>();
+        long previous = (long) ring.lastKey() - (1L << 32);
+        for (Map.Entry<Integer, T> entry : ring.entrySet()) {
+            long arc = entry.getKey() - previous;
+            shares.merge(entry.getValue(), arc / (double) (1L << 32), Double::sum);
+            previous = entry.getKey();
+        }
+        return shares;
+    }
+
+    private static int hash(String value) {
+        return Utils.murmur2(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.notification.repository;
+
+import com.example.notification.domain.DlqReplayState;
+import com.example.notification.domain.DlqReplayTarget;
+import com.example.notification.dto.DlqReplayCheckpoint;
+import com.example.notification.dto.DlqReplayPlan;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+// DLQ 재처리 계획과 체크포인트를 작업당 Redis 해시 하나(notification:dlq-replay:<jobId>)에 둔다.
+// 인스턴스가 재시작돼도 이 해시만으로 계획을 복원하고 마지막 체크포인트부터 이어서 처리할 수 있다.
+@Repository
+public class DlqReplayCheckpointRepository {
+
+    private static final String KEY_PREFIX = "notification:dlq-replay:";
+    private static final String RANGE_PREFIX = "range.";
+    private static final String NEXT_PREFIX = "next.";
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration ttl;
+
+    public DlqReplayCheckpointRepository(StringRedisTemplate redisTemplate, @Value("${app.dlq-replay.checkpoint-ttl}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = ttl;
+    }
+
+    public void savePlan(DlqReplayPlan plan) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("dlqTopic", plan.dlqTopic());
+        fields.put("sourceTopic", plan.sourceTopic());
+        fields.put("target", plan.target().name());
+        fields.put("ratePerSecond", String.valueOf(plan.ratePerSecond()));
+        fields.put("batchSize", String.valueOf(plan.batchSize()));
+        fields.put("createdAt", plan.createdAt().toString());
+        plan.ranges().forEach((partition, range) -> {
+            fields.put(RANGE_PREFIX + partition, range.startOffset() + "-" + range.endOffset());
+            fields.put(NEXT_PREFIX + partition, String.valueOf(range.startOffset()));
+        });
+        fields.put("replayed", "0");
+        fields.put("duplicates", "0");
+        fields.put("failed", "0");
+        fields.put("state", DlqReplayState.PENDING.name());
+        fields.put("updatedAt", plan.createdAt().toString());
+        String key = KEY_PREFIX + plan.jobId();
+        redisTemplate.opsForHash().putAll(key, fields);
+        redisTemplate.expire(key, ttl);
+    }
+
+    public void saveCheckpoint(String jobId, DlqReplayCheckpoint checkpoint) {
+        Map<String, String> fields = new HashMap<>();
+        checkpoint.nextOffsets().forEach((partition, offset) -> fields.put(NEXT_PREFIX + partition, String.valueOf(offset)));
+        fields.put("replayed", String.valueOf(checkpoint.replayed()));
+        fields.put("duplicates", String.valueOf(checkpoint.duplicates()));
+        fields.put("failed", String.valueOf(checkpoint.failed()));
+        fields.put("state", checkpoint.state().name());
+        fields.put("error", checkpoint.error() != null ? checkpoint.error() : "");
+        fields.put("updatedAt", checkpoint.updatedAt().toString());
+        String key = KEY_PREFIX + jobId;
+        redisTemplate.opsForHash().putAll(key, fields);
+        redisTemplate.expire(key, ttl);
+    }
+
+    public Optional<DlqReplayPlan> findPlan(String jobId) {
+        Map<String, String> fields = entries(jobId);
+        if (fields.isEmpty()) {
+            return Optional.empty();
+        }
+        Map<Integer, DlqReplayPlan.OffsetRange> ranges = new TreeMap<>();
+        fields.forEach((field, value) -> {
+            if (field.startsWith(RANGE_PREFIX)) {
+                int separator = value.indexOf('-');
+                ranges.put(
+                        Integer.parseInt(field.substring(RANGE_PREFIX.length())),
+                        new DlqReplayPlan.OffsetRange(Long.parseLong(value.substring(0, separator)), Long.parseLong(value.substring(separator + 1)))
+                );
+            }
+        });
+        return Optional.of(new DlqReplayPlan(
+                jobId,
+                fields.get("dlqTopic"),
+                fields.get("sourceTopic"),
+                DlqReplayTarget.valueOf(fields.get("target")),
+                Integer.parseInt(fields.get("ratePerSecond")),
+                Integer.parseInt(fields.get("batchSize")),
+                ranges,
+                Instant.parse(fields.get("createdAt"))
+        ));
+    }
+
+    public Optional<DlqReplayCheckpoint> findCheckpoint(String jobId) {
+        Map<String, String> fields = entries(jobId);
+        if (fields.isEmpty()) {
+            return Optional.empty();
+        }
+        Map<Integer, Long> nextOffsets = new TreeMap<>();
+        fields.forEach((field, value) -> {
+            if (field.startsWith(NEXT_PREFIX)) {
+                nextOffsets.put(Integer.parseInt(field.substring(NEXT_PREFIX.length())), Long.parseLong(value));
+            }
+        });
+        String error = fields.get("error");
+        return Optional.of(new DlqReplayCheckpoint(
+                nextOffsets,
+                Long.parseLong(fields.get("replayed")),
+                Long.parseLong(fields.get("duplicates")),
+                Long.parseLong(fields.get("failed")),
+                DlqReplayState.valueOf(fields.get("state")),
+                error == null || error.isEmpty() ? null : error,
+                Instant.parse(fields.get("updatedAt"))
+        ));
+    }
+
+    private Map<String, String> entries(String jobId) {
+        HashOperations<String, String, String> hash = redisTemplate.opsForHash();
+        return hash.entries(KEY_PREFIX + jobId);
+    }
+}
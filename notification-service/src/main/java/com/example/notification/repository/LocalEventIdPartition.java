@@ -0,0 +1,194 @@
+package com.example.notification.repository;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.rocksdb.FlushOptions;
+import org.rocksdb.Options;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.TtlDB;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+// 입력 토픽 파티션 하나의 eventId 예약 상태를 담는 RocksDB 인스턴스.
+// 값은 예약 시각(epoch ms 8byte)이고, TtlDB 가 컴팩션 때 ttl 이 지난 항목을 지운다. 지우기 전까지는 읽을 때 시각으로 걸러낸다.
+// WAL 은 쓰지 않는다. 원본은 changelog 토픽이므로 비정상 종료 뒤에는 체크포인트 없이 changelog 전체에서 다시 만든다.
+final class LocalEventIdPartition {
+
+    private static final String CHECKPOINT_FILE = ".checkpoint";
+
+    private final TopicPartition changelogPartition;
+    private final Path directory;
+    private final long ttlMillis;
+    private final Options options;
+    private final WriteOptions writeOptions;
+    private final TtlDB db;
+
+    private long nextChangelogOffset;
+    private boolean closed;
+
+    private LocalEventIdPartition(TopicPartition changelogPartition, Path directory, long ttlMillis) throws RocksDBException {
+        this.changelogPartition = changelogPartition;
+        this.directory = directory;
+        this.ttlMillis = ttlMillis;
+        this.options = new Options().setCreateIfMissing(true);
+        this.writeOptions = new WriteOptions().setDisableWAL(true);
+        this.db = TtlDB.open(options, directory.toString(), (int) Math.min(Integer.MAX_VALUE, ttlMillis / 1000), false);
+    }
+
+    // fresh 면 남아 있던 파일을 지우고 빈 상태로 연다.
+    static LocalEventIdPartition open(TopicPartition changelogPartition, Path directory, long ttlMillis, boolean fresh) {
+        try {
+            if (fresh) {
+                deleteDirectory(directory);
+            }
+            Files.createDirectories(directory);
+            return new LocalEventIdPartition(changelogPartition, directory, ttlMillis);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        } catch (RocksDBException exception) {
+            throw new IllegalStateException("Failed to open dedup store at " + directory, exception);
+        }
+    }
+
+    // 정상 종료 때 남긴 "이 offset 부터 다시 읽으면 된다" 값을 읽고 지운다. 없으면 null(전체 복원 필요).
+    // 파일을 지워 두므로 이후 비정상 종료되면 다음 번엔 전체 복원으로 돌아간다.
+    static Long takeCheckpoint(Path directory) {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        try {
+            if (!Files.exists(file)) {
+                return null;
+            }
+            long offset = Long.parseLong(Files.readString(file, StandardCharsets.US_ASCII).trim());
+            Files.delete(file);
+            return offset;
+        } catch (IOException | NumberFormatException exception) {
+            return null;
+        }
+    }
+
+    static void deleteDirectory(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    TopicPartition changelogPartition() {
+        return changelogPartition;
+    }
+
+    synchronized boolean reserveIfAbsent(String eventId, long now) {
+        ensureOpen();
+        byte[] key = key(eventId);
+        try {
+            byte[] value = db.get(key);
+            if (value != null && now - reservedAt(value) < ttlMillis) {
+                return false;
+            }
+            db.put(writeOptions, key, value(now));
+            return true;
+        } catch (RocksDBException exception) {
+            throw new IllegalStateException("Dedup store write failed. partition=" + changelogPartition, exception);
+        }
+    }
+
+    synchronized void release(String eventId) {
+        ensureOpen();
+        try {
+            db.delete(writeOptions, key(eventId));
+        } catch (RocksDBException exception) {
+            throw new IllegalStateException("Dedup store delete failed. partition=" + changelogPartition, exception);
+        }
+    }
+
+    // changelog 레코드 한 poll 분량을 적용한다. 값이 없으면(tombstone) 해제, 보존 기간이 지난 예약은 건너뛴다.
+    synchronized void applyRestored(Iterable<ConsumerRecord<String, String>> records, long now) {
+        ensureOpen();
+        try (WriteBatch batch = new WriteBatch()) {
+            for (ConsumerRecord<String, String> record : records) {
+                byte[] key = key(record.key());
+                if (record.value() == null) {
+                    batch.delete(key);
+                } else {
+                    long reservedAt = Long.parseLong(record.value());
+                    if (now - reservedAt < ttlMillis) {
+                        batch.put(key, value(reservedAt));
+                    } else {
+                        batch.delete(key);
+                    }
+                }
+                nextChangelogOffset = Math.max(nextChangelogOffset, record.offset() + 1);
+            }
+            db.write(writeOptions, batch);
+        } catch (RocksDBException exception) {
+            throw new IllegalStateException("Dedup store restore failed. partition=" + changelogPartition, exception);
+        }
+    }
+
+    synchronized void restoredUpTo(long offset) {
+        nextChangelogOffset = Math.max(nextChangelogOffset, offset);
+    }
+
+    // 이 인스턴스가 보낸 changelog 레코드가 브로커에 기록될 때마다 호출된다.
+    synchronized void changelogWritten(long offset) {
+        nextChangelogOffset = Math.max(nextChangelogOffset, offset + 1);
+    }
+
+    // 메모리 테이블을 디스크로 내리고 체크포인트를 남긴 뒤 닫는다. changelog 전송이 모두 끝난 뒤에 불러야 한다.
+    synchronized void closeWithCheckpoint() {
+        if (closed) {
+            return;
+        }
+        try (FlushOptions flushOptions = new FlushOptions().setWaitForFlush(true)) {
+            db.flush(flushOptions);
+            Files.writeString(directory.resolve(CHECKPOINT_FILE), Long.toString(nextChangelogOffset), StandardCharsets.US_ASCII);
+        } catch (RocksDBException exception) {
+            throw new IllegalStateException("Dedup store flush failed. partition=" + changelogPartition, exception);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        } finally {
+            close();
+        }
+    }
+
+    synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        db.close();
+        writeOptions.close();
+        options.close();
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Dedup store is closed. partition=" + changelogPartition);
+        }
+    }
+
+    private static byte[] key(String eventId) {
+        return eventId.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] value(long reservedAt) {
+        return ByteBuffer.allocate(Long.BYTES).putLong(reservedAt).array();
+    }
+
+    private static long reservedAt(byte[] value) {
+        return ByteBuffer.wrap(value).getLong();
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.notification.repository;
+
+import com.example.notification.dto.RecordPosition;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// app.dedup.mode=WATERMARK 일 때 eventId 키 대신 파티션별 "여기까지 처리됨" offset 으로 중복을 판정한다.
+// Redis 에는 컨슈머 그룹당 해시 2개(watermark, 희소 offset)만 두고, 변경분은 모아서 스크립트 한 번으로 기록한다.
+// 레코드 offset 기준이므로 프로듀서가 같은 eventId 를 새 offset 으로 다시 보낸 경우는 여기서 잡지 못한다
+// (app.dedup.watermark.event-id-guard 를 켜면 NotificationService 가 eventId 예약으로 따로 거른다).
+@Repository
+@ConditionalOnProperty(name = "app.dedup.mode", havingValue = "WATERMARK")
+public class OffsetWatermarkRepository implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(OffsetWatermarkRepository.class);
+    private static final String KEY_PREFIX = "notification:watermark:";
+
+    // 늦게 도착한 이전 소유자의 flush 가 watermark 를 되돌리지 않도록 더 크거나 같을 때만 덮어쓴다.
+    private static final RedisScript<Long> FLUSH_SCRIPT = new DefaultRedisScript<>(
+            "local applied = 0 "
+                    + "for i = 1, #ARGV, 3 do "
+                    + "  local current = tonumber(redis.call('HGET', KEYS[1], ARGV[i]) or '-1') "
+                    + "  if tonumber(ARGV[i + 1]) >= current then "
+                    + "    redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1]) "
+                    + "    if ARGV[i + 2] == '' then redis.call('HDEL', KEYS[2], ARGV[i]) else redis.call('HSET', KEYS[2], ARGV[i], ARGV[i + 2]) end "
+                    + "    applied = applied + 1 "
+                    + "  end "
+                    + "end "
+                    + "return applied",
+            Long.class
+    );
+
+    private final StringRedisTemplate redisTemplate;
+    private final String watermarkKey;
+    private final String sparseKey;
+    private final int flushBatchSize;
+    private final long flushIntervalMs;
+    private final int maxSparseOffsets;
+    private final boolean outOfOrderCompletion;
+
+    private final Map<TopicPartition, PartitionWatermark> partitions = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingUpdates = new AtomicInteger();
+
+    private volatile boolean running;
+    private ScheduledExecutorService flusher;
+
+    public OffsetWatermarkRepository(
+            StringRedisTemplate redisTemplate,
+            @Value("${spring.kafka.consumer.group-id}") String groupId,
+            @Value("${app.dedup.watermark.flush-batch-size}") int flushBatchSize,
+            @Value("${app.dedup.watermark.flush-interval-ms}") long flushIntervalMs,
+            @Value("${app.dedup.watermark.max-sparse-offsets}") int maxSparseOffsets,
+            @Value("${app.kafka.parallel.enabled}") boolean outOfOrderCompletion
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.watermarkKey = KEY_PREFIX + groupId;
+        this.sparseKey = KEY_PREFIX + groupId + ":sparse";
+        this.flushBatchSize = flushBatchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.maxSparseOffsets = maxSparseOffsets;
+        this.outOfOrderCompletion = outOfOrderCompletion;
+    }
+
+    public boolean isProcessed(RecordPosition position) {
+        return state(position).isProcessed(position.offset());
+    }
+
+    // 레코드 처리가 끝났을 때 호출한다. 키 순서 병렬 처리(app.kafka.parallel.enabled)에서는 앞선 offset 이
+    // 아직 진행 중일 수 있으므로 watermark 를 건너뛰지 않고 희소 집합에 넣는다.
+    public void complete(RecordPosition position) {
+        if (outOfOrderCompletion) {
+            markCompleted(position);
+        } else {
+            advance(position);
+        }
+    }
+
+    public void advance(RecordPosition position) {
+        state(position).advanceTo(position.offset());
+        onUpdate();
+    }
+
+    public void markCompleted(RecordPosition position) {
+        if (!state(position).markCompleted(position.offset(), maxSparseOffsets)) {
+            log.warn("Sparse offset set overflowed; lowest completed offset dropped. topic={}, partition={}", position.topic(), position.partition());
+        }
+        onUpdate();
+    }
+
+    public void flush() {
+        flush(partitions.keySet());
+    }
+
+    public ConsumerAwareRebalanceListener rebalanceListener() {
+        return new ConsumerAwareRebalanceListener() {
+            @Override
+            public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> revoked) {
+                // 다음 소유자가 최신 watermark 를 읽도록 넘기기 전에 기록하고 로컬 상태는 버린다.
+                flush(revoked);
+                revoked.forEach(partitions::remove);
+            }
+
+            @Override
+            public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> lost) {
+                lost.forEach(partitions::remove);
+            }
+
+            @Override
+            public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> assigned) {
+                assigned.forEach(partitions::remove);
+            }
+        };
+    }
+
+    @Override
+    public void start() {
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "watermark-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        flushQuietly();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // 리스너 컨테이너보다 먼저 시작하고 나중에 멈춰, 마지막으로 처리한 offset 까지 기록한 뒤 종료한다.
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private PartitionWatermark state(RecordPosition position) {
+        TopicPartition topicPartition = new TopicPartition(position.topic(), position.partition());
+        PartitionWatermark state = partitions.get(topicPartition);
+        if (state != null) {
+            return state;
+        }
+        PartitionWatermark loaded = load(topicPartition, position.offset());
+        PartitionWatermark existing = partitions.putIfAbsent(topicPartition, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    // 저장된 watermark 가 없으면 처음 받은 레코드 직전까지를 처리된 것으로 본다(그 이전은 이미 커밋된 offset 이다).
+    private PartitionWatermark load(TopicPartition topicPartition, long firstOffset) {
+        String field = field(topicPartition);
+        Object watermark = redisTemplate.opsForHash().get(watermarkKey, field);
+        Object sparse = redisTemplate.opsForHash().get(sparseKey, field);
+        long baseline = watermark != null ? Long.parseLong(watermark.toString()) : firstOffset - 1;
+        return new PartitionWatermark(baseline, sparse != null ? sparse.toString() : null);
+    }
+
+    private void onUpdate() {
+        if (pendingUpdates.incrementAndGet() >= flushBatchSize) {
+            flushQuietly();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException exception) {
+            log.warn("Watermark flush failed; will retry on next flush.", exception);
+        }
+    }
+
+    private void flush(Collection<TopicPartition> topicPartitions) {
+        pendingUpdates.set(0);
+        List<String> args = new ArrayList<>();
+        List<PartitionWatermark> flushed = new ArrayList<>();
+        for (TopicPartition topicPartition : topicPartitions) {
+            PartitionWatermark state = partitions.get(topicPartition);
+            PartitionWatermark.Snapshot snapshot = state == null ? null : state.snapshotIfDirty();
+            if (snapshot == null) {
+                continue;
+            }
+            args.add(field(topicPartition));
+            args.add(Long.toString(snapshot.watermark()));
+            args.add(snapshot.sparse());
+            flushed.add(state);
+        }
+        if (args.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.execute(FLUSH_SCRIPT, List.of(watermarkKey, sparseKey), args.toArray());
+        } catch (RuntimeException exception) {
+            flushed.forEach(PartitionWatermark::markDirty);
+            throw exception;
+        }
+    }
+
+    private static String field(TopicPartition topicPartition) {
+        return topicPartition.topic() + ":" + topicPartition.partition();
+    }
+}
@@ -0,0 +1,287 @@
+package com.example.notification.repository;
+
+import com.example.notification.dto.RecordPosition;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.rocksdb.RocksDB;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// app.dedup.mode=LOCAL 일 때 eventId 예약을 Redis 대신 이 인스턴스에 할당된 입력 파티션별 RocksDB 에서 판정한다.
+// 입력 토픽 파티션 p 의 예약/해제는 같은 번호의 changelog 파티션(<group>-<topic>-dedup-changelog, compact+delete)에 함께 기록하고,
+// 파티션을 새로 받으면 changelog 로 로컬 상태를 다시 만든다. 정상 종료로 닫은 파티션은 체크포인트 이후만 읽는다.
+// 이 인스턴스가 소유한 메인 토픽 파티션의 레코드만 다루며, 재시도/DLQ 토픽이나 DLQ 재처리처럼 위치가 다른 경로는 Redis 로 판정한다.
+// changelog 전송은 기다리지 않는다. 파티션을 넘기기 전과 종료 전에 flush 하므로, 그 전에 비정상 종료되면 마지막 예약 일부가 새 소유자에게 전달되지 않을 수 있다.
+@Repository
+@ConditionalOnProperty(name = "app.dedup.mode", havingValue = "LOCAL")
+public class PartitionLocalEventIdStore implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionLocalEventIdStore.class);
+    private static final Duration RESTORE_POLL_TIMEOUT = Duration.ofMillis(100);
+
+    private final Path stateDirectory;
+    private final Duration ttl;
+    private final Map<String, String> changelogTopics;
+    private final DefaultKafkaConsumerFactory<String, String> restoreConsumerFactory;
+    private final DefaultKafkaProducerFactory<String, String> changelogProducerFactory;
+    private final KafkaTemplate<String, String> changelogTemplate;
+    private final Map<TopicPartition, LocalEventIdPartition> partitions = new ConcurrentHashMap<>();
+    private final AtomicInteger restoreConsumerSequence = new AtomicInteger();
+
+    private volatile boolean running;
+
+    public PartitionLocalEventIdStore(
+            @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
+            @Value("${spring.kafka.consumer.group-id}") String groupId,
+            @Value("${app.dedup.local.state-dir}") String stateDirectory,
+            @Value("${app.dedup.local.ttl}") Duration ttl,
+            @Value("${app.dedup.local.restore-max-poll-records}") int restoreMaxPollRecords,
+            @Value("${app.kafka.topics.order-created}") String orderCreatedTopic,
+            @Value("${app.kafka.topics.order-shipped}") String orderShippedTopic,
+            @Value("${app.kafka.topics.product-created}") String productCreatedTopic
+    ) {
+        this.stateDirectory = Path.of(stateDirectory, groupId);
+        this.ttl = ttl;
+        this.changelogTopics = Map.of(
+                orderCreatedTopic, changelogTopic(groupId, orderCreatedTopic),
+                orderShippedTopic, changelogTopic(groupId, orderShippedTopic),
+                productCreatedTopic, changelogTopic(groupId, productCreatedTopic)
+        );
+
+        Map<String, Object> consumerConfigs = new HashMap<>();
+        consumerConfigs.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        consumerConfigs.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        consumerConfigs.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, restoreMaxPollRecords);
+        this.restoreConsumerFactory = new DefaultKafkaConsumerFactory<>(consumerConfigs, new StringDeserializer(), new StringDeserializer());
+
+        Map<String, Object> producerConfigs = new HashMap<>();
+        producerConfigs.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        producerConfigs.put(ProducerConfig.ACKS_CONFIG, "all");
+        producerConfigs.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        this.changelogProducerFactory = new DefaultKafkaProducerFactory<>(producerConfigs, new StringSerializer(), new StringSerializer());
+        this.changelogTemplate = new KafkaTemplate<>(changelogProducerFactory);
+    }
+
+    // 입력 토픽 -> changelog 토픽. 토픽 생성(KafkaConsumerConfig)에서 입력 토픽과 같은 파티션 수로 만든다.
+    public Collection<String> changelogTopics() {
+        return changelogTopics.values();
+    }
+
+    public Duration ttl() {
+        return ttl;
+    }
+
+    // 이 인스턴스가 지금 그 파티션의 로컬 저장소를 열어 두었는지.
+    public boolean owns(RecordPosition position) {
+        return partitions.containsKey(new TopicPartition(position.topic(), position.partition()));
+    }
+
+    public boolean reserveIfAbsent(RecordPosition position, String eventId) {
+        LocalEventIdPartition partition = partition(position);
+        long now = System.currentTimeMillis();
+        if (!partition.reserveIfAbsent(eventId, now)) {
+            return false;
+        }
+        writeChangelog(partition, eventId, Long.toString(now));
+        return true;
+    }
+
+    public void releaseReservation(RecordPosition position, String eventId) {
+        LocalEventIdPartition partition = partition(position);
+        partition.release(eventId);
+        writeChangelog(partition, eventId, null);
+    }
+
+    public ConsumerAwareRebalanceListener rebalanceListener() {
+        return new ConsumerAwareRebalanceListener() {
+            @Override
+            public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> revoked) {
+                // 다음 소유자가 복원할 수 있게 changelog 를 모두 보낸 뒤 체크포인트를 남기고 닫는다.
+                close(revoked, true);
+            }
+
+            @Override
+            public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> lost) {
+                // 이미 다른 소유자가 쓰고 있을 수 있으므로 로컬 파일을 믿지 않는다.
+                close(lost, false);
+            }
+
+            @Override
+            public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> assigned) {
+                restore(assigned);
+            }
+        };
+    }
+
+    @Override
+    public void start() {
+        RocksDB.loadLibrary();
+        try {
+            Files.createDirectories(stateDirectory);
+        } catch (IOException exception) {
+            throw new IllegalStateException("Cannot create dedup state directory " + stateDirectory, exception);
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        close(new ArrayList<>(partitions.keySet()), true);
+        changelogProducerFactory.destroy();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // 리스너 컨테이너보다 먼저 열고 나중에 닫는다. 컨테이너가 멈추며 파티션을 반납할 때 체크포인트가 남는다.
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private LocalEventIdPartition partition(RecordPosition position) {
+        LocalEventIdPartition partition = partitions.get(new TopicPartition(position.topic(), position.partition()));
+        if (partition == null) {
+            throw new IllegalStateException("Dedup store is not open for " + position.topic() + "-" + position.partition());
+        }
+        return partition;
+    }
+
+    private void writeChangelog(LocalEventIdPartition partition, String eventId, String value) {
+        TopicPartition target = partition.changelogPartition();
+        changelogTemplate.send(new ProducerRecord<>(target.topic(), target.partition(), eventId, value)).whenComplete((result, exception) -> {
+            if (exception != null) {
+                log.warn("Dedup changelog write failed. partition={}, eventId={}", target, eventId, exception);
+                return;
+            }
+            partition.changelogWritten(result.getRecordMetadata().offset());
+        });
+    }
+
+    // 새로 받은 입력 파티션마다 저장소를 열고 changelog 끝까지 읽어 채운다. 끝나기 전에는 레코드를 받지 않는다.
+    private void restore(Collection<TopicPartition> assigned) {
+        Map<TopicPartition, TopicPartition> changelogOf = new HashMap<>();
+        for (TopicPartition inputPartition : assigned) {
+            String changelogTopic = changelogTopics.get(inputPartition.topic());
+            if (changelogTopic != null && !partitions.containsKey(inputPartition)) {
+                changelogOf.put(inputPartition, new TopicPartition(changelogTopic, inputPartition.partition()));
+            }
+        }
+        if (changelogOf.isEmpty()) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        Map<TopicPartition, LocalEventIdPartition> restoring = new HashMap<>();
+        String clientIdSuffix = String.valueOf(restoreConsumerSequence.incrementAndGet());
+        try (Consumer<String, String> restoreConsumer = restoreConsumerFactory.createConsumer(null, "dedup-restore-", clientIdSuffix)) {
+            Set<TopicPartition> changelogPartitions = Set.copyOf(changelogOf.values());
+            Map<TopicPartition, Long> beginning = restoreConsumer.beginningOffsets(changelogPartitions);
+            Map<TopicPartition, Long> end = restoreConsumer.endOffsets(changelogPartitions);
+            restoreConsumer.assign(changelogPartitions);
+
+            for (Map.Entry<TopicPartition, TopicPartition> entry : changelogOf.entrySet()) {
+                TopicPartition changelogPartition = entry.getValue();
+                Path directory = stateDirectory.resolve(entry.getKey().topic() + "-" + entry.getKey().partition());
+                Long checkpoint = LocalEventIdPartition.takeCheckpoint(directory);
+                long logStart = beginning.get(changelogPartition);
+                // 체크포인트가 없거나 그 사이 changelog 가 그 앞까지 지워졌으면 처음부터 다시 만든다.
+                boolean fresh = checkpoint == null || checkpoint < logStart || checkpoint > end.get(changelogPartition);
+                long from = fresh ? logStart : checkpoint;
+                LocalEventIdPartition partition = LocalEventIdPartition.open(changelogPartition, directory, ttl.toMillis(), fresh);
+                restoring.put(changelogPartition, partition);
+                partition.restoredUpTo(from);
+                restoreConsumer.seek(changelogPartition, from);
+            }
+
+            long restored = 0;
+            Set<TopicPartition> remaining = new HashSet<>(changelogPartitions);
+            remaining.removeIf(changelogPartition -> restoreConsumer.position(changelogPartition) >= end.get(changelogPartition));
+            while (!remaining.isEmpty()) {
+                ConsumerRecords<String, String> records = restoreConsumer.poll(RESTORE_POLL_TIMEOUT);
+                long now = System.currentTimeMillis();
+                for (TopicPartition changelogPartition : records.partitions()) {
+                    List<ConsumerRecord<String, String>> partitionRecords = records.records(changelogPartition);
+                    restoring.get(changelogPartition).applyRestored(partitionRecords, now);
+                    restored += partitionRecords.size();
+                }
+                remaining.removeIf(changelogPartition -> restoreConsumer.position(changelogPartition) >= end.get(changelogPartition));
+            }
+
+            changelogOf.forEach((inputPartition, changelogPartition) -> {
+                LocalEventIdPartition partition = restoring.get(changelogPartition);
+                partition.restoredUpTo(end.get(changelogPartition));
+                partitions.put(inputPartition, partition);
+            });
+            log.info("Dedup stores restored. partitions={}, records={}, tookMs={}", changelogOf.keySet(), restored, System.currentTimeMillis() - started);
+        } catch (RuntimeException exception) {
+            // 체크포인트는 이미 지웠으므로 다음 할당 때 처음부터 다시 만든다. 그 전까지 이 파티션은 Redis 로 판정된다.
+            changelogOf.keySet().forEach(partitions::remove);
+            restoring.values().forEach(LocalEventIdPartition::close);
+            throw exception;
+        }
+    }
+
+    private void close(Collection<TopicPartition> topicPartitions, boolean checkpoint) {
+        List<LocalEventIdPartition> closing = new ArrayList<>();
+        for (TopicPartition topicPartition : topicPartitions) {
+            LocalEventIdPartition partition = partitions.remove(topicPartition);
+            if (partition != null) {
+                closing.add(partition);
+            }
+        }
+        if (closing.isEmpty()) {
+            return;
+        }
+        if (checkpoint) {
+            changelogTemplate.flush();
+        }
+        for (LocalEventIdPartition partition : closing) {
+            try {
+                if (checkpoint) {
+                    partition.closeWithCheckpoint();
+                } else {
+                    partition.close();
+                }
+            } catch (RuntimeException exception) {
+                log.warn("Dedup store close failed; it will be rebuilt from the changelog. partition={}", partition.changelogPartition(), exception);
+                partition.close();
+            }
+        }
+    }
+
+    private static String changelogTopic(String groupId, String topic) {
+        return groupId + "-" + topic + "-dedup-changelog";
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.notification.repository;
+
+import java.util.StringJoiner;
+import java.util.TreeSet;
+
+// 한 파티션의 "offset <= watermark 는 모두 처리됨" 경계와, 그 위에서 먼저 끝난 offset 들의 희소 집합.
+final class PartitionWatermark {
+
+    private long watermark;
+    private final TreeSet<Long> completedAbove = new TreeSet<>();
+    private boolean dirty;
+
+    PartitionWatermark(long watermark, String sparse) {
+        this.watermark = watermark;
+        if (sparse != null && !sparse.isEmpty()) {
+            for (String offset : sparse.split(",")) {
+                completedAbove.add(Long.parseLong(offset));
+            }
+        }
+    }
+
+    synchronized boolean isProcessed(long offset) {
+        return offset <= watermark || completedAbove.contains(offset);
+    }
+
+    // 파티션 안에서 순서대로 처리한 경우: offset 까지의 앞선 레코드는 모두 처리(또는 DLQ 처리)된 상태다.
+    synchronized void advanceTo(long offset) {
+        if (offset <= watermark) {
+            return;
+        }
+        watermark = offset;
+        completedAbove.headSet(offset, true).clear();
+        absorbContiguous();
+        dirty = true;
+    }
+
+    // 병렬 처리처럼 앞선 offset 이 아직 끝나지 않았을 수 있는 경우. 희소 집합이 maxSparse 를 넘으면 가장 낮은 것부터 버린다.
+    synchronized boolean markCompleted(long offset, int maxSparse) {
+        if (offset <= watermark) {
+            return true;
+        }
+        completedAbove.add(offset);
+        absorbContiguous();
+        dirty = true;
+        if (completedAbove.size() > maxSparse) {
+            completedAbove.pollFirst();
+            return false;
+        }
+        return true;
+    }
+
+    synchronized Snapshot snapshotIfDirty() {
+        if (!dirty) {
+            return null;
+        }
+        dirty = false;
+        StringJoiner sparse = new StringJoiner(",");
+        for (Long offset : completedAbove) {
+            sparse.add(offset.toString());
+        }
+        return new Snapshot(watermark, sparse.toString());
+    }
+
+    synchronized void markDirty() {
+        dirty = true;
+    }
+
+    private void absorbContiguous() {
+        while (!completedAbove.isEmpty() && completedAbove.first() == watermark + 1) {
+            watermark = completedAbove.pollFirst();
+        }
+    }
+
+    record Snapshot(long watermark, String sparse) {
+    }
+}
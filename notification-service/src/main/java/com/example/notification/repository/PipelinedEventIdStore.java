@@ -0,0 +1,123 @@
+package com.example.notification.repository;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.lettuce.core.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+// app.dedup.async.enabled=true 일 때 eventId 키 예약/해제를 Lettuce 비동기 API 로 보낸다.
+// StringRedisTemplate 의 공유 커넥션과 분리된 전용 커넥션을 auto-flush 없이 쓰고, 쌓인 명령은 flush-max-commands 개가
+// 모이거나 flush-interval 이 지나면 한 번의 write 로 내보낸다(결과를 바로 기다리는 호출은 flush 로 즉시 내보냄).
+// 여러 스레드의 명령이 한 파이프라인으로 묶이고, 호출 스레드는 응답을 기다리지 않고 CompletableFuture 를 받아 다른 일을 이어서 한다.
+// 접속 정보(호스트/포트/DB/비밀번호)는 spring.data.redis 설정으로 만든 LettuceConnectionFactory 의 클라이언트를 그대로 쓴다.
+@Component
+@ConditionalOnProperty(name = "app.dedup.async.enabled", havingValue = "true")
+public class PipelinedEventIdStore implements SmartLifecycle {
+
+    private final LettuceConnectionFactory connectionFactory;
+    private final int flushMaxCommands;
+    private final long flushIntervalNanos;
+    private final Duration commandTimeout;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    private volatile boolean running;
+    private StatefulRedisConnection<String, String> connection;
+    private RedisAsyncCommands<String, String> commands;
+    private ScheduledExecutorService flusher;
+
+    public PipelinedEventIdStore(
+            LettuceConnectionFactory connectionFactory,
+            @Value("${app.dedup.async.flush-max-commands}") int flushMaxCommands,
+            @Value("${app.dedup.async.flush-interval}") Duration flushInterval,
+            @Value("${spring.data.redis.timeout}") Duration commandTimeout
+    ) {
+        this.connectionFactory = connectionFactory;
+        this.flushMaxCommands = flushMaxCommands;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.commandTimeout = commandTimeout;
+    }
+
+    // SET key 1 EX ttl NX. 예약하면 true, 이미 있으면 false.
+    public CompletableFuture<Boolean> setIfAbsent(String key, Duration ttl) {
+        SetArgs args = SetArgs.Builder.nx().ex(ttl.toSeconds());
+        return dispatch(commands -> commands.set(key, "1", args)).thenApply("OK"::equals);
+    }
+
+    public CompletableFuture<Long> delete(String... keys) {
+        return dispatch(commands -> commands.del(keys));
+    }
+
+    private <T> CompletableFuture<T> dispatch(Function<RedisAsyncCommands<String, String>, RedisFuture<T>> command) {
+        if (!running) {
+            return CompletableFuture.failedFuture(new IllegalStateException("PipelinedEventIdStore is not running"));
+        }
+        CompletableFuture<T> future = command.apply(commands).toCompletableFuture();
+        if (pending.incrementAndGet() >= flushMaxCommands) {
+            flush();
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            flusher.schedule(this::flush, flushIntervalNanos, TimeUnit.NANOSECONDS);
+        }
+        return future.orTimeout(commandTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // 쌓인 명령을 바로 내보낸다. 결과를 곧바로 기다릴 호출자는 타이머를 기다리지 말고 이것을 부른다.
+    // 표시를 먼저 지운 뒤 내보낸다. 그 사이에 쌓인 명령은 이번 flush 에 실리거나, 새로 예약한 flush 가 내보낸다.
+    public void flush() {
+        pending.set(0);
+        flushScheduled.set(false);
+        connection.flushCommands();
+    }
+
+    @Override
+    public void start() {
+        connection = ((RedisClient) connectionFactory.getRequiredNativeClient()).connect(StringCodec.UTF8);
+        connection.setAutoFlushCommands(false);
+        commands = connection.async();
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "redis-pipeline-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        if (connection != null) {
+            connection.flushCommands();
+            connection.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // 리스너 컨테이너보다 먼저 열고 나중에 닫는다.
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+}
@@ -1,29 +1,335 @@
 package com.example.notification.repository;
 
+import com.example.notification.dto.RecordPosition;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Repository;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @Repository
 public class ProcessedEventRepository {
 
     private static final String KEY_PREFIX = "notification:processed:event:";
     private static final Duration TTL = Duration.ofDays(7);
+    // 요청 타이머의 topic/partition 태그. 위치 없는 호출(DLQ 재처리, REST)은 none, 여러 파티션을 묶은 배치 명령은 mixed 로 남긴다.
+    private static final String NO_POSITION = "none";
+    private static final String MIXED_POSITIONS = "mixed";
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final RedisScript<List<Long>> RESERVE_ALL_SCRIPT = (RedisScript) new DefaultRedisScript<>(
+            "local results = {} "
+                    + "for i, key in ipairs(KEYS) do "
+                    + "  if redis.call('SET', key, '1', 'EX', ARGV[1], 'NX') then results[i] = 1 else results[i] = 0 end "
+                    + "end "
+                    + "return results",
+            List.class
+    );
 
     private final StringRedisTemplate redisTemplate;
+    private final RecentEventIdCache nearCache;
+    private final BucketedEventIdStore bucketedStore;
+    private final ShardedEventIdStore shardedStore;
+    private final PipelinedEventIdStore pipelinedStore;
+    private final MeterRegistry meterRegistry;
+    private final String backend;
 
-    public ProcessedEventRepository(StringRedisTemplate redisTemplate) {
+    public ProcessedEventRepository(
+            StringRedisTemplate redisTemplate,
+            ObjectProvider<RecentEventIdCache> nearCacheProvider,
+            ObjectProvider<BucketedEventIdStore> bucketedStoreProvider,
+            ObjectProvider<ShardedEventIdStore> shardedStoreProvider,
+            ObjectProvider<PipelinedEventIdStore> pipelinedStoreProvider,
+            MeterRegistry meterRegistry
+    ) {
         this.redisTemplate = redisTemplate;
+        this.nearCache = nearCacheProvider.getIfAvailable();
+        this.bucketedStore = bucketedStoreProvider.getIfAvailable();
+        // BUCKETED 레이아웃은 단일 노드 스크립트로만 예약할 수 있으므로 샤딩/비동기 저장소를 쓰지 않는다.
+        // 샤딩을 켜면 비동기 저장소(기본 Redis 전용 커넥션)는 쓰지 않는다.
+        this.shardedStore = bucketedStore == null ? shardedStoreProvider.getIfAvailable() : null;
+        this.pipelinedStore = bucketedStore == null && shardedStore == null ? pipelinedStoreProvider.getIfAvailable() : null;
+        this.meterRegistry = meterRegistry;
+        this.backend = bucketedStore != null ? "bucketed" : shardedStore != null ? "sharded" : pipelinedStore != null ? "pipelined" : "string";
     }
 
     public boolean reserveIfAbsent(String eventId) {
+        return reserveIfAbsent(null, eventId);
+    }
+
+    // position 은 요청 타이머의 topic/partition 태그로만 쓴다.
+    // 비동기 모드(app.dedup.async.enabled)에서 동기 호출도 파이프라인 커넥션으로 보내, 그 사이 다른 스레드가 쌓은 명령과 함께 flush 한다.
+    public boolean reserveIfAbsent(RecordPosition position, String eventId) {
+        if (pipelinedStore != null) {
+            CompletionStage<Boolean> reservation = reserveIfAbsentAsync(position, eventId);
+            pipelinedStore.flush();
+            return await(reservation);
+        }
+        // 이 인스턴스가 최근 예약한 eventId 면 Redis 까지 가지 않고 바로 중복으로 판단한다(리밸런싱 후 재전달 대비).
+        if (nearCache != null && nearCache.contains(eventId)) {
+            return false;
+        }
         // SETNX 기반으로 eventId를 선점하면 멀티 인스턴스/리밸런싱 상황에서도 중복 소비를 방지할 수 있다.
-        Boolean success = redisTemplate.opsForValue().setIfAbsent(KEY_PREFIX + eventId, "1", TTL);
-        return Boolean.TRUE.equals(success);
+        boolean reserved = timed("reserve", RequestTags.of(position), () -> {
+            if (bucketedStore != null) {
+                return bucketedStore.reserveIfAbsent(eventId);
+            }
+            if (shardedStore != null) {
+                return shardedStore.setIfAbsent(KEY_PREFIX + eventId, TTL);
+            }
+            return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(KEY_PREFIX + eventId, "1", TTL));
+        });
+        if (reserved && nearCache != null) {
+            nearCache.put(eventId);
+        }
+        return reserved;
+    }
+
+    // 명령은 flush-max-commands/flush-interval 기준으로 묶여 나간다. 비동기 모드가 아니면 동기 경로로 처리한 결과를 완료된 상태로 돌려준다.
+    public CompletionStage<Boolean> reserveIfAbsentAsync(String eventId) {
+        return reserveIfAbsentAsync(null, eventId);
+    }
+
+    public CompletionStage<Boolean> reserveIfAbsentAsync(RecordPosition position, String eventId) {
+        if (pipelinedStore == null) {
+            return CompletableFuture.completedFuture(reserveIfAbsent(position, eventId));
+        }
+        if (nearCache != null && nearCache.contains(eventId)) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return timedAsync("reserve", RequestTags.of(position), System.nanoTime(), pipelinedStore.setIfAbsent(KEY_PREFIX + eventId, TTL)).thenApply(reserved -> {
+            if (reserved && nearCache != null) {
+                nearCache.put(eventId);
+            }
+            return reserved;
+        });
+    }
+
+    public CompletionStage<Void> releaseReservationAsync(String eventId) {
+        return releaseReservationAsync(null, eventId);
+    }
+
+    public CompletionStage<Void> releaseReservationAsync(RecordPosition position, String eventId) {
+        if (pipelinedStore == null) {
+            releaseReservation(position, eventId);
+            return CompletableFuture.completedFuture(null);
+        }
+        if (nearCache != null) {
+            nearCache.invalidate(eventId);
+        }
+        return timedAsync("release", RequestTags.of(position), System.nanoTime(), pipelinedStore.delete(KEY_PREFIX + eventId)).thenApply(removed -> null);
+    }
+
+    // 입력 순서대로 예약 결과를 하나씩 돌려준다. 비동기 모드면 eventId 마다 SET NX 를 파이프라인으로 보내
+    // 앞쪽 결과가 도착하는 대로 처리를 시작할 수 있고, 아니면 reserveAllIfAbsent 한 번의 결과를 완료된 상태로 돌려준다.
+    // 같은 배치 안에서 중복된 eventId 는 어느 경우든 처음 나온 것만 true 가 된다(파이프라인은 보낸 순서대로 실행됨).
+    public List<CompletionStage<Boolean>> reserveEachIfAbsentAsync(List<String> eventIds) {
+        return reserveEachIfAbsentAsync(null, eventIds);
+    }
+
+    // positions 는 null 이거나 eventIds 와 같은 순서·길이다.
+    public List<CompletionStage<Boolean>> reserveEachIfAbsentAsync(List<RecordPosition> positions, List<String> eventIds) {
+        List<CompletionStage<Boolean>> reservations = new ArrayList<>(eventIds.size());
+        if (pipelinedStore == null) {
+            for (boolean reserved : reserveAllIfAbsent(positions, eventIds)) {
+                reservations.add(CompletableFuture.completedFuture(reserved));
+            }
+            return reservations;
+        }
+        for (int i = 0; i < eventIds.size(); i++) {
+            reservations.add(reserveIfAbsentAsync(positions == null ? null : positions.get(i), eventIds.get(i)));
+        }
+        pipelinedStore.flush();
+        return reservations;
     }
 
     public void releaseReservation(String eventId) {
-        redisTemplate.delete(KEY_PREFIX + eventId);
+        releaseReservation(null, eventId);
+    }
+
+    public void releaseReservation(RecordPosition position, String eventId) {
+        if (pipelinedStore != null) {
+            CompletionStage<Void> release = releaseReservationAsync(position, eventId);
+            pipelinedStore.flush();
+            await(release);
+            return;
+        }
+        // near-cache 를 먼저 비워야 Redis 키가 지워진 뒤 near-cache 만 남아 재처리를 막는 구간이 생기지 않는다.
+        if (nearCache != null) {
+            nearCache.invalidate(eventId);
+        }
+        timed("release", RequestTags.of(position), () -> {
+            if (bucketedStore != null) {
+                bucketedStore.releaseAll(List.of(eventId));
+            } else if (shardedStore != null) {
+                shardedStore.delete(List.of(KEY_PREFIX + eventId));
+            } else {
+                redisTemplate.delete(KEY_PREFIX + eventId);
+            }
+            return null;
+        });
+    }
+
+    // 배치 전체를 SET NX EX 하는 멀티 키 스크립트 한 번으로 보내 레코드당 왕복 대신 배치당 왕복 1회로 줄인다(샤딩이면 노드당 1회).
+    // executePipelined 와 달리 공유 커넥션을 그대로 쓰므로 배치마다 전용 커넥션을 새로 열지 않는다.
+    // BUCKETED 레이아웃이면 같은 역할을 버킷 스크립트 한 번이 맡는다.
+    // 결과는 입력 순서와 같고, 같은 배치 안에서 중복된 eventId 는 처음 나온 것만 true 가 된다.
+    public boolean[] reserveAllIfAbsent(List<String> eventIds) {
+        return reserveAllIfAbsent(null, eventIds);
+    }
+
+    public boolean[] reserveAllIfAbsent(List<RecordPosition> recordPositions, List<String> eventIds) {
+        boolean[] reserved = new boolean[eventIds.size()];
+        if (eventIds.isEmpty()) {
+            return reserved;
+        }
+        List<String> misses = new ArrayList<>(eventIds.size());
+        int[] positions = new int[eventIds.size()];
+        for (int i = 0; i < eventIds.size(); i++) {
+            String eventId = eventIds.get(i);
+            if (nearCache != null && nearCache.contains(eventId)) {
+                continue;
+            }
+            positions[misses.size()] = i;
+            misses.add(eventId);
+        }
+        if (misses.isEmpty()) {
+            return reserved;
+        }
+        boolean[] results = timed("reserve_batch", RequestTags.of(recordPositions), () -> bucketedStore != null ? bucketedStore.reserveAllIfAbsent(misses) : reserveKeys(misses));
+        for (int k = 0; k < misses.size(); k++) {
+            reserved[positions[k]] = results[k];
+            if (results[k] && nearCache != null) {
+                nearCache.put(misses.get(k));
+            }
+        }
+        return reserved;
+    }
+
+    public void releaseReservations(Collection<String> eventIds) {
+        releaseReservations(null, eventIds);
+    }
+
+    public void releaseReservations(List<RecordPosition> positions, Collection<String> eventIds) {
+        if (eventIds.isEmpty()) {
+            return;
+        }
+        if (nearCache != null) {
+            nearCache.invalidateAll(eventIds);
+        }
+        timed("release_batch", RequestTags.of(positions), () -> {
+            if (bucketedStore != null) {
+                bucketedStore.releaseAll(eventIds);
+                return null;
+            }
+            List<String> keys = new ArrayList<>(eventIds.size());
+            for (String eventId : eventIds) {
+                keys.add(KEY_PREFIX + eventId);
+            }
+            if (shardedStore != null) {
+                shardedStore.delete(keys);
+            } else {
+                redisTemplate.delete(keys);
+            }
+            return null;
+        });
+    }
+
+    // 결과를 기다려 돌려준다. 실패는 CompletionException 을 벗겨 원래 예외로 던진다.
+    public static <T> T await(CompletionStage<T> stage) {
+        try {
+            return stage.toCompletableFuture().join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw exception;
+        }
+    }
+
+    // near-cache 에서 끝난 조회는 Redis 왕복이 없으므로 재지 않는다.
+    private <T> T timed(String operation, RequestTags tags, Supplier<T> command) {
+        long started = System.nanoTime();
+        try {
+            T result = command.get();
+            requestTimer(operation, tags, "success").record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (RuntimeException exception) {
+            requestTimer(operation, tags, "error").record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            throw exception;
+        }
+    }
+
+    // 파이프라인 모드는 명령을 쌓은 시점부터 응답까지라 flush 대기 시간도 포함된다.
+    private <T> CompletionStage<T> timedAsync(String operation, RequestTags tags, long started, CompletionStage<T> stage) {
+        return stage.whenComplete((result, throwable) ->
+                requestTimer(operation, tags, throwable == null ? "success" : "error").record(System.nanoTime() - started, TimeUnit.NANOSECONDS));
+    }
+
+    private Timer requestTimer(String operation, RequestTags tags, String outcome) {
+        return Timer.builder("notification.dedup.requests")
+                .description("Redis round trips made for eventId dedup reservations")
+                .tag("backend", backend)
+                .tag("topic", tags.topic())
+                .tag("partition", tags.partition())
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private boolean[] reserveKeys(List<String> eventIds) {
+        List<String> keys = new ArrayList<>(eventIds.size());
+        for (String eventId : eventIds) {
+            keys.add(KEY_PREFIX + eventId);
+        }
+        if (shardedStore != null) {
+            return shardedStore.reserveAll(RESERVE_ALL_SCRIPT, keys, String.valueOf(TTL.toSeconds()));
+        }
+        List<Long> results = redisTemplate.execute(RESERVE_ALL_SCRIPT, keys, String.valueOf(TTL.toSeconds()));
+        boolean[] reserved = new boolean[eventIds.size()];
+        for (int i = 0; i < reserved.length; i++) {
+            reserved[i] = results != null && Long.valueOf(1L).equals(results.get(i));
+        }
+        return reserved;
+    }
+
+    private record RequestTags(String topic, String partition) {
+
+        private static final RequestTags NONE = new RequestTags(NO_POSITION, NO_POSITION);
+
+        static RequestTags of(RecordPosition position) {
+            return position == null ? NONE : new RequestTags(position.topic(), String.valueOf(position.partition()));
+        }
+
+        // 배치 명령 하나가 한 파티션의 레코드만 담았을 때만 그 파티션으로 남긴다.
+        static RequestTags of(List<RecordPosition> positions) {
+            if (positions == null || positions.isEmpty()) {
+                return NONE;
+            }
+            RecordPosition first = positions.get(0);
+            String topic = first.topic();
+            String partition = String.valueOf(first.partition());
+            for (RecordPosition position : positions) {
+                if (!topic.equals(position.topic())) {
+                    return new RequestTags(MIXED_POSITIONS, MIXED_POSITIONS);
+                }
+                if (position.partition() != first.partition()) {
+                    partition = MIXED_POSITIONS;
+                }
+            }
+            return new RequestTags(topic, partition);
+        }
     }
 }
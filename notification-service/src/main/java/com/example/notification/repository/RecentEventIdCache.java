@@ -0,0 +1,192 @@
+package com.example.notification.repository;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// 이 인스턴스가 최근 예약한 eventId 를 담는 고정 크기 near-cache.
+// eventId 는 128bit 지문(64bit 해시 2개)으로만 저장하고, 슬롯마다 [hi, lo, expiresAt] 3개의 long 을
+// 하나의 long[] 에 이어 붙여 객체 할당 없이 그대로 off-heap 버퍼로 옮길 수 있는 배치를 쓴다.
+// 버킷당 WAYS 개 슬롯의 set-associative 구조라 버킷이 가득 차면 만료가 가장 이른 슬롯을 밀어낸다.
+public class RecentEventIdCache {
+
+    private static final int WAYS = 8;
+    private static final int SLOT_LONGS = 3;
+    private static final int LOCK_STRIPES = 64;
+
+    private final long[] slots;
+    private final int bucketMask;
+    private final long ttlMillis;
+    private final Object[] locks;
+
+    private final AtomicInteger size = new AtomicInteger();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder sizeEvictions = new LongAdder();
+    private final LongAdder expiredEvictions = new LongAdder();
+
+    public RecentEventIdCache(int maxEntries, long ttlMillis) {
+        int buckets = Integer.highestOneBit(Math.max(1, maxEntries / WAYS));
+        if (buckets * WAYS < maxEntries) {
+            buckets <<= 1;
+        }
+        this.slots = new long[buckets * WAYS * SLOT_LONGS];
+        this.bucketMask = buckets - 1;
+        this.ttlMillis = ttlMillis;
+        this.locks = new Object[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    public boolean contains(String eventId) {
+        long hi = hashHi(eventId);
+        long lo = hashLo(eventId);
+        int bucket = bucket(hi);
+        long now = System.currentTimeMillis();
+        synchronized (lock(bucket)) {
+            int base = bucket * WAYS * SLOT_LONGS;
+            for (int way = 0; way < WAYS; way++) {
+                int slot = base + way * SLOT_LONGS;
+                long expiresAt = slots[slot + 2];
+                if (expiresAt != 0 && slots[slot] == hi && slots[slot + 1] == lo) {
+                    if (expiresAt > now) {
+                        hits.increment();
+                        return true;
+                    }
+                    clear(slot);
+                    expiredEvictions.increment();
+                    break;
+                }
+            }
+        }
+        misses.increment();
+        return false;
+    }
+
+    public void put(String eventId) {
+        long hi = hashHi(eventId);
+        long lo = hashLo(eventId);
+        int bucket = bucket(hi);
+        long now = System.currentTimeMillis();
+        synchronized (lock(bucket)) {
+            int base = bucket * WAYS * SLOT_LONGS;
+            int target = -1;
+            int oldest = base;
+            for (int way = 0; way < WAYS; way++) {
+                int slot = base + way * SLOT_LONGS;
+                long expiresAt = slots[slot + 2];
+                if (expiresAt != 0 && slots[slot] == hi && slots[slot + 1] == lo) {
+                    slots[slot + 2] = now + ttlMillis;
+                    return;
+                }
+                if (target < 0 && expiresAt == 0) {
+                    target = slot;
+                }
+                if (expiresAt < slots[oldest + 2]) {
+                    oldest = slot;
+                }
+            }
+            if (target < 0) {
+                target = oldest;
+                if (slots[oldest + 2] <= now) {
+                    expiredEvictions.increment();
+                } else {
+                    sizeEvictions.increment();
+                }
+            } else {
+                size.incrementAndGet();
+            }
+            slots[target] = hi;
+            slots[target + 1] = lo;
+            slots[target + 2] = now + ttlMillis;
+        }
+    }
+
+    public void invalidate(String eventId) {
+        long hi = hashHi(eventId);
+        long lo = hashLo(eventId);
+        int bucket = bucket(hi);
+        synchronized (lock(bucket)) {
+            int base = bucket * WAYS * SLOT_LONGS;
+            for (int way = 0; way < WAYS; way++) {
+                int slot = base + way * SLOT_LONGS;
+                if (slots[slot + 2] != 0 && slots[slot] == hi && slots[slot + 1] == lo) {
+                    clear(slot);
+                    return;
+                }
+            }
+        }
+    }
+
+    public void invalidateAll(Collection<String> eventIds) {
+        for (String eventId : eventIds) {
+            invalidate(eventId);
+        }
+    }
+
+    public int capacity() {
+        return slots.length / SLOT_LONGS;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long sizeEvictions() {
+        return sizeEvictions.sum();
+    }
+
+    public long expiredEvictions() {
+        return expiredEvictions.sum();
+    }
+
+    private void clear(int slot) {
+        slots[slot] = 0;
+        slots[slot + 1] = 0;
+        slots[slot + 2] = 0;
+        size.decrementAndGet();
+    }
+
+    private int bucket(long hi) {
+        return (int) (hi ^ (hi >>> 32)) & bucketMask;
+    }
+
+    private Object lock(int bucket) {
+        return locks[bucket & (LOCK_STRIPES - 1)];
+    }
+
+    // 서로 다른 시드의 64bit 해시 두 개를 지문으로 써서, 다른 eventId 를 중복으로 오판할 확률을 무시할 수준으로 낮춘다.
+    private static long hashHi(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long hashLo(String value) {
+        long hash = 0x9e3779b97f4a7c15L;
+        for (int i = 0; i < value.length(); i++) {
+            hash = hash * 31 + value.charAt(i);
+        }
+        return mix(hash ^ value.length());
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,293 @@
+package com.example.notification.repository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+// app.dedup.sharding.enabled=true 일 때 eventId 키를 여러 Redis 노드에 consistent hashing 으로 나눠 저장한다.
+// 노드마다 커넥션 풀을 따로 두고, 명령/헬스 체크가 failure-threshold 번 연속 실패한 노드는 링에서 건너뛴다.
+// 건너뛴 노드 몫의 키만 링의 다음 노드로 옮겨 가므로, 그 노드가 돌아오기 전까지 해당 키의 이전 예약은 보이지 않는다.
+// 노드별 요청 지연/처리율(notification_dedup_shard_requests), 상태(notification_dedup_shard_up), 해시 공간 비율로 쏠림을 본다.
+@Component
+@ConditionalOnProperty(name = "app.dedup.sharding.enabled", havingValue = "true")
+public class ShardedEventIdStore implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardedEventIdStore.class);
+
+    private final ConsistentHashRing<Shard> ring;
+    private final Duration healthCheckInterval;
+    private final int failureThreshold;
+    private final MeterRegistry meterRegistry;
+
+    private volatile boolean running;
+    private ScheduledExecutorService healthChecker;
+
+    public ShardedEventIdStore(
+            @Value("${app.dedup.sharding.nodes}") List<String> nodes,
+            @Value("${app.dedup.sharding.virtual-nodes}") int virtualNodes,
+            @Value("${app.dedup.sharding.pool-max-active}") int poolMaxActive,
+            @Value("${app.dedup.sharding.health-check-interval}") Duration healthCheckInterval,
+            @Value("${app.dedup.sharding.failure-threshold}") int failureThreshold,
+            @Value("${spring.data.redis.timeout}") Duration commandTimeout,
+            MeterRegistry meterRegistry
+    ) {
+        this.healthCheckInterval = healthCheckInterval;
+        this.failureThreshold = failureThreshold;
+        this.meterRegistry = meterRegistry;
+        List<Shard> shards = new ArrayList<>(nodes.size());
+        for (String node : nodes) {
+            shards.add(new Shard(node.trim(), poolMaxActive, commandTimeout));
+        }
+        this.ring = new ConsistentHashRing<>(shards, Shard::id, virtualNodes);
+        ring.ownership().forEach((shard, share) -> {
+            Gauge.builder("notification.dedup.shard.up", shard, current -> current.up ? 1 : 0)
+                    .description("1 while the shard takes its share of eventId keys, 0 while it is skipped on the ring")
+                    .tag("shard", shard.id())
+                    .register(meterRegistry);
+            Gauge.builder("notification.dedup.shard.ring.share", () -> share)
+                    .description("Fraction of the hash ring owned by the shard")
+                    .tag("shard", shard.id())
+                    .register(meterRegistry);
+        });
+    }
+
+    // SET key 1 EX ttl NX 를 키가 속한 노드로 보낸다.
+    public boolean setIfAbsent(String key, Duration ttl) {
+        Shard shard = route(key);
+        return execute(shard, "reserve", template -> Boolean.TRUE.equals(template.opsForValue().setIfAbsent(key, "1", ttl)));
+    }
+
+    // 키를 노드별로 나눠 노드마다 스크립트를 한 번씩 실행한다. 스크립트는 키마다 1(예약) 또는 0 을 돌려줘야 한다.
+    // 중간 노드가 실패하면 앞선 노드에서 예약한 키를 해제하고 예외를 던져, 재시도 때 배치 전체가 다시 예약되게 한다.
+    public boolean[] reserveAll(RedisScript<List<Long>> script, List<String> keys, Object... args) {
+        boolean[] reserved = new boolean[keys.size()];
+        Map<Shard, List<Integer>> byShard = groupByShard(keys);
+        List<String> reservedSoFar = new ArrayList<>();
+        for (Map.Entry<Shard, List<Integer>> entry : byShard.entrySet()) {
+            List<String> shardKeys = new ArrayList<>(entry.getValue().size());
+            for (int index : entry.getValue()) {
+                shardKeys.add(keys.get(index));
+            }
+            List<Long> results;
+            try {
+                results = execute(entry.getKey(), "reserve", template -> template.execute(script, shardKeys, args));
+            } catch (RuntimeException exception) {
+                releaseQuietly(reservedSoFar);
+                throw exception;
+            }
+            for (int k = 0; k < shardKeys.size(); k++) {
+                boolean success = results != null && Long.valueOf(1L).equals(results.get(k));
+                reserved[entry.getValue().get(k)] = success;
+                if (success) {
+                    reservedSoFar.add(shardKeys.get(k));
+                }
+            }
+        }
+        return reserved;
+    }
+
+    public void delete(Collection<String> keys) {
+        List<String> keyList = List.copyOf(keys);
+        groupByShard(keyList).forEach((shard, indices) -> {
+            List<String> shardKeys = new ArrayList<>(indices.size());
+            for (int index : indices) {
+                shardKeys.add(keyList.get(index));
+            }
+            execute(shard, "release", template -> template.delete(shardKeys));
+        });
+    }
+
+    @Override
+    public void start() {
+        for (Shard shard : ring.nodes()) {
+            shard.connectionFactory.afterPropertiesSet();
+            shard.connectionFactory.start();
+        }
+        healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dedup-shard-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = healthCheckInterval.toMillis();
+        healthChecker.scheduleWithFixedDelay(this::checkHealth, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
+        for (Shard shard : ring.nodes()) {
+            shard.connectionFactory.destroy();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // 리스너 컨테이너보다 먼저 열고 나중에 닫는다.
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private Shard route(String key) {
+        Shard shard = ring.route(key, Shard::isUp);
+        if (shard == null) {
+            throw new DataAccessResourceFailureException("No healthy dedup shard among " + ring.nodes());
+        }
+        return shard;
+    }
+
+    // 입력 순서를 지키며 노드별 인덱스 목록으로 나눈다.
+    private Map<Shard, List<Integer>> groupByShard(List<String> keys) {
+        Map<Shard, List<Integer>> byShard = new LinkedHashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            byShard.computeIfAbsent(route(keys.get(i)), shard -> new ArrayList<>()).add(i);
+        }
+        return byShard;
+    }
+
+    private <T> T execute(Shard shard, String operation, Function<StringRedisTemplate, T> command) {
+        long started = System.nanoTime();
+        try {
+            T result = command.apply(shard.template);
+            shard.recordSuccess();
+            requestTimer(shard, operation, "success").record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (DataAccessException exception) {
+            recordFailure(shard, exception);
+            requestTimer(shard, operation, "error").record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            throw exception;
+        }
+    }
+
+    private Timer requestTimer(Shard shard, String operation, String outcome) {
+        return Timer.builder("notification.dedup.shard.requests")
+                .description("Dedup commands sent to each Redis shard")
+                .tag("shard", shard.id())
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    // 내려간 노드도 계속 PING 해서, 한 번 성공하면 다시 링에 넣는다.
+    private void checkHealth() {
+        for (Shard shard : ring.nodes()) {
+            try {
+                execute(shard, "ping", template -> template.execute(RedisConnection::ping));
+            } catch (RuntimeException ignored) {
+                // recordFailure 에서 상태를 바꾸고 로그를 남긴다.
+            }
+        }
+    }
+
+    private void recordFailure(Shard shard, RuntimeException exception) {
+        if (shard.recordFailure() == failureThreshold) {
+            log.warn("Dedup shard marked down; its keys move to the next shard on the ring. shard={}, cause={}", shard.id(), exception.getMessage());
+        }
+    }
+
+    private void releaseQuietly(List<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        try {
+            delete(keys);
+        } catch (RuntimeException exception) {
+            log.warn("Failed to release partially reserved keys after a shard failure. keys={}", keys.size(), exception);
+        }
+    }
+
+    private final class Shard {
+
+        private final String id;
+        private final LettuceConnectionFactory connectionFactory;
+        private final StringRedisTemplate template;
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private volatile boolean up = true;
+
+        private Shard(String id, int poolMaxActive, Duration commandTimeout) {
+            int separator = id.lastIndexOf(':');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Dedup shard must be host:port but was " + id);
+            }
+            GenericObjectPoolConfig<?> poolConfig = new GenericObjectPoolConfig<>();
+            poolConfig.setMaxTotal(poolMaxActive);
+            poolConfig.setMaxIdle(poolMaxActive);
+            LettucePoolingClientConfiguration clientConfiguration = LettucePoolingClientConfiguration.builder()
+                    .poolConfig(poolConfig)
+                    .commandTimeout(commandTimeout)
+                    .build();
+            this.id = id;
+            this.connectionFactory = new LettuceConnectionFactory(
+                    new RedisStandaloneConfiguration(id.substring(0, separator), Integer.parseInt(id.substring(separator + 1))),
+                    clientConfiguration
+            );
+            // 공유 커넥션 하나 대신 풀에서 커넥션을 빌려 써, 느린 명령 하나가 다른 스레드의 명령을 막지 않게 한다.
+            this.connectionFactory.setShareNativeConnection(false);
+            this.template = new StringRedisTemplate(connectionFactory);
+        }
+
+        String id() {
+            return id;
+        }
+
+        boolean isUp() {
+            return up;
+        }
+
+        void recordSuccess() {
+            consecutiveFailures.set(0);
+            if (!up) {
+                up = true;
+                log.info("Dedup shard is back on the ring. shard={}", id);
+            }
+        }
+
+        int recordFailure() {
+            int failures = consecutiveFailures.incrementAndGet();
+            if (failures >= failureThreshold) {
+                up = false;
+            }
+            return failures;
+        }
+
+        @Override
+        public String toString() {
+            return id;
+        }
+    }
+}
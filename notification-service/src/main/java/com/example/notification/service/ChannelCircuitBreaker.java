@@ -0,0 +1,145 @@
+package com.example.notification.service;
+
+// 최근 windowSize 번 호출 결과로 실패율을 보는 카운트 기반 서킷 브레이커.
+// CLOSED   : 모두 통과시키고, minimumCalls 이상 쌓인 창의 실패율이 threshold 이상이면 OPEN.
+// OPEN     : openDuration 동안 거절한다. 지나면 다음 호출이 HALF_OPEN 으로 바꾸며 시험 호출이 된다.
+// HALF_OPEN: halfOpenCalls 번까지만 통과시키고, 모두 성공하면 CLOSED(창 초기화), 하나라도 실패하면 다시 OPEN.
+final class ChannelCircuitBreaker {
+
+    // 게이지 값은 ordinal(0=CLOSED, 1=HALF_OPEN, 2=OPEN).
+    enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    interface TransitionListener {
+        void onTransition(State from, State to);
+    }
+
+    private final boolean[] failures;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenCalls;
+    private final TransitionListener listener;
+
+    private State state = State.CLOSED;
+    private int windowIndex;
+    private int windowCount;
+    private int windowFailures;
+    private long openedAtNanos;
+    private int halfOpenPermitted;
+    private int halfOpenSucceeded;
+
+    ChannelCircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, long openDurationNanos, int halfOpenCalls, TransitionListener listener) {
+        this.failures = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = openDurationNanos;
+        this.halfOpenCalls = halfOpenCalls;
+        this.listener = listener;
+    }
+
+    // 호출 직전에 부른다. true 면 호출 후 반드시 onSuccess/onFailure/onIgnored 중 하나를 부른다.
+    synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (openRemains()) {
+                return false;
+            }
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermitted >= halfOpenCalls) {
+                return false;
+            }
+            halfOpenPermitted++;
+        }
+        return true;
+    }
+
+    // 상태를 바꾸지 않고 지금 호출하면 통과할지만 본다. 중복 예약 전에 빨리 거절하는 용도.
+    synchronized boolean isCallPermitted() {
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> !openRemains();
+            case HALF_OPEN -> halfOpenPermitted < halfOpenCalls;
+        };
+    }
+
+    // OPEN 이고 openDuration 이 아직 안 지났으면 true. 지났으면 시험 호출을 받을 수 있도록 false.
+    synchronized boolean isRejecting() {
+        return state == State.OPEN && openRemains();
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    // 상태가 바뀐 뒤에 끝난 호출(예: OPEN 이 된 뒤 끝난 CLOSED 시절 호출)은 결과에 넣지 않는다.
+    synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            halfOpenSucceeded++;
+            if (halfOpenSucceeded >= halfOpenCalls) {
+                transition(State.CLOSED);
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            transition(State.OPEN);
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (windowCount >= minimumCalls && windowFailures * 100.0 / windowCount >= failureRateThreshold) {
+                transition(State.OPEN);
+            }
+        }
+    }
+
+    // 허가를 받았지만 호출하지 못한 경우. HALF_OPEN 이면 시험 호출 자리를 돌려준다.
+    synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && halfOpenPermitted > 0) {
+            halfOpenPermitted--;
+        }
+    }
+
+    private void record(boolean failed) {
+        if (windowCount == failures.length) {
+            if (failures[windowIndex]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        failures[windowIndex] = failed;
+        if (failed) {
+            windowFailures++;
+        }
+        windowIndex = (windowIndex + 1) % failures.length;
+    }
+
+    private boolean openRemains() {
+        return System.nanoTime() - openedAtNanos < openDurationNanos;
+    }
+
+    private void transition(State next) {
+        State previous = state;
+        state = next;
+        switch (next) {
+            case OPEN -> openedAtNanos = System.nanoTime();
+            case HALF_OPEN -> {
+                halfOpenPermitted = 0;
+                halfOpenSucceeded = 0;
+            }
+            case CLOSED -> {
+                windowIndex = 0;
+                windowCount = 0;
+                windowFailures = 0;
+            }
+        }
+        listener.onTransition(previous, next);
+    }
+}
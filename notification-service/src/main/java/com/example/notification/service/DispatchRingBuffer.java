@@ -0,0 +1,107 @@
+package com.example.notification.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// 크기가 고정된 다중 생산자/단일 소비자 링 버퍼. 생산자는 자리가 날 때까지 정해진 시간만 기다리고,
+// 소비자는 첫 항목이 들어온 뒤 linger 동안 max 개까지 모아 한 번에 꺼낸다.
+final class DispatchRingBuffer<T> {
+
+    private final Object[] slots;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    private int head;
+    private int size;
+
+    DispatchRingBuffer(int capacity) {
+        this.slots = new Object[capacity];
+    }
+
+    // 가득 차 있으면 timeoutNanos 까지 기다린다. 그래도 자리가 없으면 false.
+    boolean offer(T item, long timeoutNanos) throws InterruptedException {
+        long remaining = timeoutNanos;
+        lock.lock();
+        try {
+            while (size == slots.length) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = notFull.awaitNanos(remaining);
+            }
+            slots[(head + size) % slots.length] = item;
+            size++;
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 항목이 들어올 때까지 최대 pollNanos 기다리고(없으면 빈 목록), 첫 항목 이후 lingerNanos 안에서 max 개까지 모은다.
+    List<T> drain(int max, long pollNanos, long lingerNanos) throws InterruptedException {
+        List<T> drained = new ArrayList<>(Math.min(max, slots.length));
+        lock.lock();
+        try {
+            long remaining = pollNanos;
+            while (size == 0) {
+                if (remaining <= 0) {
+                    return drained;
+                }
+                remaining = notEmpty.awaitNanos(remaining);
+            }
+            long deadline = System.nanoTime() + lingerNanos;
+            while (true) {
+                take(drained, max);
+                long lingerRemaining = deadline - System.nanoTime();
+                if (drained.size() >= max || lingerRemaining <= 0) {
+                    return drained;
+                }
+                if (size == 0) {
+                    notEmpty.awaitNanos(lingerRemaining);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 남은 항목을 기다리지 않고 모두 꺼낸다.
+    List<T> drainAll() {
+        lock.lock();
+        try {
+            List<T> drained = new ArrayList<>(size);
+            take(drained, Integer.MAX_VALUE);
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void take(List<T> into, int max) {
+        int taken = 0;
+        while (size > 0 && into.size() < max) {
+            into.add((T) slots[head]);
+            slots[head] = null;
+            head = (head + 1) % slots.length;
+            size--;
+            taken++;
+        }
+        if (taken > 0) {
+            notFull.signalAll();
+        }
+    }
+}
@@ -0,0 +1,542 @@
+package com.example.notification.service;
+
+import com.example.common.event.OrderCreatedEvent;
+import com.example.common.event.OrderShippedEvent;
+import com.example.common.event.ProductCreatedEvent;
+import com.example.common.serde.EventTypeHeader;
+import com.example.notification.domain.DlqReplayState;
+import com.example.notification.domain.DlqReplayTarget;
+import com.example.notification.domain.NotificationStatus;
+import com.example.notification.dto.DlqReplayCheckpoint;
+import com.example.notification.dto.DlqReplayPlan;
+import com.example.notification.dto.DlqReplayRequest;
+import com.example.notification.dto.DlqReplayStatus;
+import com.example.notification.dto.NotificationResult;
+import com.example.notification.exception.ChannelUnavailableException;
+import com.example.notification.exception.DlqReplayNotFoundException;
+import com.example.notification.exception.InvalidDlqReplayRequestException;
+import com.example.notification.exception.NotificationBatchException;
+import com.example.notification.repository.DlqReplayCheckpointRepository;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.RecordDeserializationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// DLQ 에 쌓인 레코드를 원본 토픽으로 재발행하거나 NotificationService 로 바로 다시 처리한다.
+// 요청 범위를 파티션별 offset 구간으로 확정해 저장한 뒤, 그룹에 참여하지 않는 전용 컨슈머로 구간만 읽는다.
+// 배치마다 토큰 버킷으로 속도를 맞추고, 배치를 끝낼 때마다 파티션별 다음 offset 을 체크포인트로 남겨
+// 취소/실패/재시작 후 resume 하면 그 지점부터 이어서 처리한다.
+@Service
+public class DlqReplayService implements SmartLifecycle {
+
+    public static final String REPLAY_JOB_HEADER = "notification-dlq-replay-job";
+
+    private static final Logger log = LoggerFactory.getLogger(DlqReplayService.class);
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+    private static final long SEND_TIMEOUT_SECONDS = 30;
+    private static final long CHANNEL_UNAVAILABLE_BACK_OFF_MILLIS = 1000L;
+
+    private final Map<String, ReplaySource<?>> sources = new HashMap<>();
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final DlqReplayCheckpointRepository checkpointRepository;
+    private final int defaultRatePerSecond;
+    private final int defaultBatchSize;
+    private final int maxConcurrentJobs;
+    private final Map<String, ReplayJob> jobs = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private ExecutorService executor;
+
+    public DlqReplayService(
+            NotificationService notificationService,
+            KafkaTemplate<String, Object> kafkaTemplate,
+            DlqReplayCheckpointRepository checkpointRepository,
+            ConsumerFactory<String, OrderCreatedEvent> orderCreatedConsumerFactory,
+            ConsumerFactory<String, OrderShippedEvent> orderShippedConsumerFactory,
+            ConsumerFactory<String, ProductCreatedEvent> productCreatedConsumerFactory,
+            @Value("${app.kafka.topics.order-created}") String orderCreatedTopic,
+            @Value("${app.kafka.topics.order-created-dlq}") String orderCreatedDlqTopic,
+            @Value("${app.kafka.topics.order-shipped}") String orderShippedTopic,
+            @Value("${app.kafka.topics.order-shipped-dlq}") String orderShippedDlqTopic,
+            @Value("${app.kafka.topics.product-created}") String productCreatedTopic,
+            @Value("${app.kafka.topics.product-created-dlq}") String productCreatedDlqTopic,
+            @Value("${app.dlq-replay.default-rate-per-second}") int defaultRatePerSecond,
+            @Value("${app.dlq-replay.default-batch-size}") int defaultBatchSize,
+            @Value("${app.dlq-replay.max-concurrent-jobs}") int maxConcurrentJobs
+    ) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.checkpointRepository = checkpointRepository;
+        this.defaultRatePerSecond = defaultRatePerSecond;
+        this.defaultBatchSize = defaultBatchSize;
+        this.maxConcurrentJobs = maxConcurrentJobs;
+        sources.put(orderCreatedDlqTopic, new ReplaySource<>(orderCreatedTopic, orderCreatedConsumerFactory, notificationService::processOrderCreatedBatch));
+        sources.put(orderShippedDlqTopic, new ReplaySource<>(orderShippedTopic, orderShippedConsumerFactory, notificationService::processOrderShippedBatch));
+        sources.put(productCreatedDlqTopic, new ReplaySource<>(productCreatedTopic, productCreatedConsumerFactory, notificationService::processProductCreatedBatch));
+    }
+
+    public DlqReplayStatus start(DlqReplayRequest request) {
+        ReplaySource<?> source = sources.get(request.dlqTopic());
+        if (source == null) {
+            throw new InvalidDlqReplayRequestException("Unknown DLQ topic: " + request.dlqTopic() + ". Allowed: " + sources.keySet());
+        }
+        validate(request);
+        DlqReplayPlan plan = plan(UUID.randomUUID().toString(), request, source);
+        checkpointRepository.savePlan(plan);
+        ReplayJob job = new ReplayJob(plan, new DlqReplayCheckpoint(startOffsets(plan), 0, 0, 0, DlqReplayState.PENDING, null, plan.createdAt()));
+        submit(job);
+        log.info("DLQ replay accepted. jobId={}, dlqTopic={}, target={}, records={}", plan.jobId(), plan.dlqTopic(), plan.target(), job.status().totalRecords());
+        return job.status();
+    }
+
+    // 저장된 체크포인트부터 이어서 처리한다. 이미 진행 중이거나 끝난 작업이면 현재 상태만 돌려준다.
+    public DlqReplayStatus resume(String jobId) {
+        ReplayJob active = jobs.get(jobId);
+        if (active != null && !active.isFinished()) {
+            return active.status();
+        }
+        DlqReplayPlan plan = checkpointRepository.findPlan(jobId).orElseThrow(() -> new DlqReplayNotFoundException(jobId));
+        DlqReplayCheckpoint checkpoint = checkpointRepository.findCheckpoint(jobId).orElseThrow(() -> new DlqReplayNotFoundException(jobId));
+        if (checkpoint.state() == DlqReplayState.COMPLETED) {
+            return new ReplayJob(plan, checkpoint).status();
+        }
+        ReplayJob job = new ReplayJob(plan, new DlqReplayCheckpoint(
+                checkpoint.nextOffsets(), checkpoint.replayed(), checkpoint.duplicates(), checkpoint.failed(), DlqReplayState.PENDING, null, Instant.now()
+        ));
+        submit(job);
+        log.info("DLQ replay resumed. jobId={}, processed={}/{}", jobId, job.status().processedRecords(), job.status().totalRecords());
+        return job.status();
+    }
+
+    public DlqReplayStatus cancel(String jobId) {
+        ReplayJob job = jobs.get(jobId);
+        if (job == null) {
+            return status(jobId);
+        }
+        job.cancelRequested = true;
+        return job.status();
+    }
+
+    public DlqReplayStatus status(String jobId) {
+        ReplayJob job = jobs.get(jobId);
+        if (job != null) {
+            return job.status();
+        }
+        // 다른 인스턴스가 시작했거나 재시작 전에 돌던 작업은 저장된 체크포인트로 보여준다.
+        DlqReplayPlan plan = checkpointRepository.findPlan(jobId).orElseThrow(() -> new DlqReplayNotFoundException(jobId));
+        DlqReplayCheckpoint checkpoint = checkpointRepository.findCheckpoint(jobId).orElseThrow(() -> new DlqReplayNotFoundException(jobId));
+        return new ReplayJob(plan, checkpoint).status();
+    }
+
+    public List<DlqReplayStatus> list() {
+        return jobs.values().stream()
+                .map(ReplayJob::status)
+                .sorted(Comparator.comparing(DlqReplayStatus::createdAt).reversed())
+                .toList();
+    }
+
+    private void validate(DlqReplayRequest request) {
+        boolean byOffset = request.fromOffset() != null || request.toOffset() != null;
+        boolean byTime = request.fromTime() != null || request.toTime() != null;
+        if (byOffset && byTime) {
+            throw new InvalidDlqReplayRequestException("Use either an offset range or a time range, not both");
+        }
+        if (byOffset && request.partition() == null) {
+            throw new InvalidDlqReplayRequestException("An offset range requires a partition");
+        }
+        if (request.fromOffset() != null && request.toOffset() != null && request.fromOffset() > request.toOffset()) {
+            throw new InvalidDlqReplayRequestException("fromOffset must not be greater than toOffset");
+        }
+        if (request.fromTime() != null && request.toTime() != null && !request.fromTime().isBefore(request.toTime())) {
+            throw new InvalidDlqReplayRequestException("fromTime must be before toTime");
+        }
+    }
+
+    // 요청 시점의 끝 offset 으로 구간을 닫아, 재처리 중 DLQ 에 새로 들어오는 레코드 때문에 끝나지 않는 일이 없게 한다.
+    private DlqReplayPlan plan(String jobId, DlqReplayRequest request, ReplaySource<?> source) {
+        int batchSize = request.batchSize() != null ? request.batchSize() : defaultBatchSize;
+        try (Consumer<String, ?> consumer = createConsumer(source, jobId + "-plan", 1)) {
+            List<PartitionInfo> partitionInfos = consumer.partitionsFor(request.dlqTopic());
+            if (partitionInfos == null || partitionInfos.isEmpty()) {
+                throw new InvalidDlqReplayRequestException("DLQ topic has no partitions: " + request.dlqTopic());
+            }
+            List<TopicPartition> partitions = new ArrayList<>();
+            for (PartitionInfo info : partitionInfos) {
+                if (request.partition() == null || request.partition() == info.partition()) {
+                    partitions.add(new TopicPartition(info.topic(), info.partition()));
+                }
+            }
+            if (partitions.isEmpty()) {
+                throw new InvalidDlqReplayRequestException("Partition " + request.partition() + " does not exist in " + request.dlqTopic());
+            }
+            Map<TopicPartition, Long> beginnings = consumer.beginningOffsets(partitions);
+            Map<TopicPartition, Long> ends = consumer.endOffsets(partitions);
+            Map<TopicPartition, Long> fromTimes = request.fromTime() != null ? offsetsForTime(consumer, partitions, request.fromTime(), ends) : Map.of();
+            Map<TopicPartition, Long> toTimes = request.toTime() != null ? offsetsForTime(consumer, partitions, request.toTime(), ends) : Map.of();
+
+            Map<Integer, DlqReplayPlan.OffsetRange> ranges = new TreeMap<>();
+            for (TopicPartition partition : partitions) {
+                long beginning = beginnings.get(partition);
+                long end = ends.get(partition);
+                long start = beginning;
+                long stop = end;
+                if (request.fromOffset() != null) {
+                    start = Math.max(beginning, request.fromOffset());
+                }
+                if (request.toOffset() != null) {
+                    stop = Math.min(end, request.toOffset() + 1);
+                }
+                if (request.fromTime() != null) {
+                    start = fromTimes.get(partition);
+                }
+                if (request.toTime() != null) {
+                    stop = toTimes.get(partition);
+                }
+                ranges.put(partition.partition(), new DlqReplayPlan.OffsetRange(start, Math.max(start, stop)));
+            }
+            return new DlqReplayPlan(
+                    jobId,
+                    request.dlqTopic(),
+                    source.sourceTopic(),
+                    request.target() != null ? request.target() : DlqReplayTarget.SOURCE_TOPIC,
+                    request.ratePerSecond() != null ? request.ratePerSecond() : defaultRatePerSecond,
+                    batchSize,
+                    ranges,
+                    Instant.now()
+            );
+        }
+    }
+
+    // 해당 시각 이후 첫 레코드의 offset. 그런 레코드가 없으면 끝 offset.
+    private Map<TopicPartition, Long> offsetsForTime(Consumer<String, ?> consumer, List<TopicPartition> partitions, Instant time, Map<TopicPartition, Long> ends) {
+        Map<TopicPartition, Long> query = new HashMap<>();
+        for (TopicPartition partition : partitions) {
+            query.put(partition, time.toEpochMilli());
+        }
+        Map<TopicPartition, OffsetAndTimestamp> found = consumer.offsetsForTimes(query);
+        Map<TopicPartition, Long> offsets = new HashMap<>();
+        for (TopicPartition partition : partitions) {
+            OffsetAndTimestamp offset = found.get(partition);
+            offsets.put(partition, offset != null ? offset.offset() : ends.get(partition));
+        }
+        return offsets;
+    }
+
+    private void submit(ReplayJob job) {
+        if (!running) {
+            throw new IllegalStateException("DLQ replay service is not running");
+        }
+        jobs.put(job.plan.jobId(), job);
+        ReplaySource<?> source = sources.get(job.plan.dlqTopic());
+        executor.execute(() -> run(job, source));
+    }
+
+    private <E> void run(ReplayJob job, ReplaySource<E> source) {
+        DlqReplayPlan plan = job.plan;
+        job.state = DlqReplayState.RUNNING;
+        checkpoint(job);
+        TokenBucket tokenBucket = new TokenBucket(plan.ratePerSecond(), plan.ratePerSecond());
+        try (Consumer<String, E> consumer = createConsumer(source, plan.jobId(), plan.batchSize())) {
+            Map<TopicPartition, Long> remaining = new HashMap<>();
+            plan.ranges().forEach((partition, range) -> {
+                long next = job.nextOffsets.get(partition);
+                if (next < range.endOffset()) {
+                    remaining.put(new TopicPartition(plan.dlqTopic(), partition), range.endOffset());
+                }
+            });
+            consumer.assign(remaining.keySet());
+            remaining.keySet().forEach(partition -> consumer.seek(partition, job.nextOffsets.get(partition.partition())));
+
+            while (!remaining.isEmpty()) {
+                if (job.cancelRequested || !running) {
+                    job.state = DlqReplayState.CANCELLED;
+                    job.error = job.cancelRequested ? null : "Stopped by shutdown; resume to continue";
+                    break;
+                }
+                List<ConsumerRecord<String, E>> batch = poll(consumer, remaining, job);
+                if (!batch.isEmpty()) {
+                    tokenBucket.acquire(batch.size());
+                    if (!deliver(job, source, batch)) {
+                        // 배치를 끝내지 못하고 멈췄으면 체크포인트를 배치 앞에 두고, resume 때 배치를 다시 처리한다(끝낸 레코드는 DUPLICATE).
+                        continue;
+                    }
+                }
+                // 구간 끝에 닿은 파티션은 할당에서 빼고, 나머지는 실제로 처리한 위치까지 체크포인트한다.
+                List<TopicPartition> finished = new ArrayList<>();
+                remaining.forEach((partition, end) -> {
+                    long position = Math.min(consumer.position(partition), end);
+                    job.nextOffsets.put(partition.partition(), position);
+                    if (position >= end) {
+                        finished.add(partition);
+                    }
+                });
+                if (!finished.isEmpty()) {
+                    finished.forEach(remaining::remove);
+                    consumer.assign(remaining.keySet());
+                }
+                checkpoint(job);
+            }
+            if (job.state == DlqReplayState.RUNNING) {
+                job.state = DlqReplayState.COMPLETED;
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            job.state = DlqReplayState.CANCELLED;
+            job.error = "Interrupted; resume to continue";
+        } catch (RuntimeException exception) {
+            log.error("DLQ replay failed. jobId={}, dlqTopic={}", plan.jobId(), plan.dlqTopic(), exception);
+            job.state = DlqReplayState.FAILED;
+            job.error = exception.getMessage();
+        }
+        checkpoint(job);
+        DlqReplayStatus status = job.status();
+        log.info(
+                "DLQ replay finished. jobId={}, state={}, processed={}/{}, replayed={}, duplicates={}, failed={}",
+                plan.jobId(), status.state(), status.processedRecords(), status.totalRecords(), status.replayed(), status.duplicates(), status.failed()
+        );
+    }
+
+    // 구간 밖 레코드는 버리고, 역직렬화할 수 없는 레코드는 실패로 세고 건너뛴다.
+    private <E> List<ConsumerRecord<String, E>> poll(Consumer<String, E> consumer, Map<TopicPartition, Long> remaining, ReplayJob job) {
+        ConsumerRecords<String, E> records;
+        try {
+            records = consumer.poll(POLL_TIMEOUT);
+        } catch (RecordDeserializationException exception) {
+            log.warn(
+                    "Skipping undeserializable DLQ record. jobId={}, partition={}, offset={}",
+                    job.plan.jobId(), exception.topicPartition().partition(), exception.offset(), exception
+            );
+            job.failed.incrementAndGet();
+            consumer.seek(exception.topicPartition(), exception.offset() + 1);
+            return List.of();
+        }
+        List<ConsumerRecord<String, E>> batch = new ArrayList<>(records.count());
+        for (ConsumerRecord<String, E> record : records) {
+            Long end = remaining.get(new TopicPartition(record.topic(), record.partition()));
+            if (end != null && record.offset() < end) {
+                batch.add(record);
+            }
+        }
+        return batch;
+    }
+
+    // 배치를 끝까지 처리했으면 true, 취소/종료 요청으로 중간에 멈췄으면 false.
+    private <E> boolean deliver(ReplayJob job, ReplaySource<E> source, List<ConsumerRecord<String, E>> batch) throws InterruptedException {
+        if (job.plan.target() == DlqReplayTarget.SOURCE_TOPIC) {
+            republish(job, source, batch);
+            return true;
+        }
+        return reprocess(job, source, batch);
+    }
+
+    // 키를 그대로 두고 파티션은 지정하지 않아, 원래와 같은 키 기준 파티셔닝으로 원본 토픽에 들어간다.
+    private <E> void republish(ReplayJob job, ReplaySource<E> source, List<ConsumerRecord<String, E>> batch) throws InterruptedException {
+        byte[] jobHeader = job.plan.jobId().getBytes(StandardCharsets.UTF_8);
+        List<CompletableFuture<?>> sends = new ArrayList<>(batch.size());
+        for (ConsumerRecord<String, E> record : batch) {
+            if (record.value() == null) {
+                job.failed.incrementAndGet();
+                continue;
+            }
+            ProducerRecord<String, Object> producerRecord = new ProducerRecord<>(source.sourceTopic(), record.key(), record.value());
+            producerRecord.headers().add(REPLAY_JOB_HEADER, jobHeader);
+            EventTypeHeader.write(producerRecord.headers(), record.value());
+            sends.add(kafkaTemplate.send(producerRecord));
+        }
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(SEND_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException | TimeoutException exception) {
+            // 배치 일부만 발행됐을 수 있다. 체크포인트는 이 배치 앞에서 멈추므로 resume 하면 배치 전체를 다시 보낸다(소비 측 중복 판정에 맡김).
+            throw new IllegalStateException("Republishing to " + source.sourceTopic() + " failed", exception);
+        }
+        job.replayed.addAndGet(sends.size());
+    }
+
+    // 실패한 레코드는 실패로 세고 그 뒤부터 이어서 처리한다. 실패 레코드는 DLQ 에 그대로 남는다.
+    // 채널이 막혀 거절된 레코드는 레코드의 실패가 아니므로 세지 않고, 잠시 기다린 뒤 같은 레코드부터 다시 처리한다.
+    private <E> boolean reprocess(ReplayJob job, ReplaySource<E> source, List<ConsumerRecord<String, E>> batch) throws InterruptedException {
+        List<E> events = new ArrayList<>(batch.size());
+        for (ConsumerRecord<String, E> record : batch) {
+            if (record.value() == null) {
+                job.failed.incrementAndGet();
+            } else {
+                events.add(record.value());
+            }
+        }
+        int from = 0;
+        while (from < events.size()) {
+            try {
+                tally(job, source.processor().apply(events.subList(from, events.size())));
+                return true;
+            } catch (NotificationBatchException exception) {
+                tally(job, exception.completedResults());
+                from += exception.failedIndex();
+                if (ChannelUnavailableException.isCause(exception)) {
+                    if (job.cancelRequested || !running) {
+                        return false;
+                    }
+                    log.debug("DLQ replay waiting for notification channel. jobId={}, cause={}", job.plan.jobId(), exception.getCause().getMessage());
+                    Thread.sleep(CHANNEL_UNAVAILABLE_BACK_OFF_MILLIS);
+                    continue;
+                }
+                job.failed.incrementAndGet();
+                log.warn("DLQ replay record failed again. jobId={}, cause={}", job.plan.jobId(), exception.getCause().getMessage());
+                from++;
+            }
+        }
+        return true;
+    }
+
+    private void tally(ReplayJob job, List<NotificationResult> results) {
+        for (NotificationResult result : results) {
+            if (result.status() == NotificationStatus.DUPLICATE) {
+                job.duplicates.incrementAndGet();
+            } else {
+                job.replayed.incrementAndGet();
+            }
+        }
+    }
+
+    private void checkpoint(ReplayJob job) {
+        job.updatedAt = Instant.now();
+        checkpointRepository.saveCheckpoint(job.plan.jobId(), job.checkpoint());
+    }
+
+    private <E> Consumer<String, E> createConsumer(ReplaySource<E> source, String clientIdSuffix, int maxPollRecords) {
+        Properties properties = new Properties();
+        properties.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(maxPollRecords));
+        return source.consumerFactory().createConsumer(null, "dlq-replay-", clientIdSuffix, properties);
+    }
+
+    private static Map<Integer, Long> startOffsets(DlqReplayPlan plan) {
+        Map<Integer, Long> offsets = new TreeMap<>();
+        plan.ranges().forEach((partition, range) -> offsets.put(partition, range.startOffset()));
+        return offsets;
+    }
+
+    @Override
+    public void start() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(maxConcurrentJobs, runnable -> {
+            Thread thread = new Thread(runnable, "dlq-replay-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+    }
+
+    // 진행 중인 작업은 현재 배치를 끝내고 체크포인트를 남긴 뒤 멈춘다.
+    @Override
+    public void stop() {
+        running = false;
+        ExecutorService current = executor;
+        if (current == null) {
+            return;
+        }
+        current.shutdown();
+        try {
+            if (!current.awaitTermination(SEND_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                current.shutdownNow();
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            current.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private record ReplaySource<E>(
+            String sourceTopic,
+            ConsumerFactory<String, E> consumerFactory,
+            Function<List<E>, List<NotificationResult>> processor
+    ) {
+    }
+
+    private static final class ReplayJob {
+
+        private final DlqReplayPlan plan;
+        private final Map<Integer, Long> nextOffsets;
+        private final AtomicLong replayed;
+        private final AtomicLong duplicates;
+        private final AtomicLong failed;
+
+        private volatile DlqReplayState state;
+        private volatile String error;
+        private volatile Instant updatedAt;
+        private volatile boolean cancelRequested;
+
+        private ReplayJob(DlqReplayPlan plan, DlqReplayCheckpoint checkpoint) {
+            this.plan = plan;
+            this.nextOffsets = new ConcurrentHashMap<>(checkpoint.nextOffsets());
+            this.replayed = new AtomicLong(checkpoint.replayed());
+            this.duplicates = new AtomicLong(checkpoint.duplicates());
+            this.failed = new AtomicLong(checkpoint.failed());
+            this.state = checkpoint.state();
+            this.error = checkpoint.error();
+            this.updatedAt = checkpoint.updatedAt();
+        }
+
+        private boolean isFinished() {
+            return state == DlqReplayState.COMPLETED || state == DlqReplayState.CANCELLED || state == DlqReplayState.FAILED;
+        }
+
+        private DlqReplayCheckpoint checkpoint() {
+            return new DlqReplayCheckpoint(Map.copyOf(nextOffsets), replayed.get(), duplicates.get(), failed.get(), state, error, updatedAt);
+        }
+
+        private DlqReplayStatus status() {
+            long total = 0;
+            long processed = 0;
+            List<DlqReplayStatus.PartitionProgress> partitions = new ArrayList<>();
+            for (Map.Entry<Integer, DlqReplayPlan.OffsetRange> entry : plan.ranges().entrySet()) {
+                DlqReplayPlan.OffsetRange range = entry.getValue();
+                long next = nextOffsets.getOrDefault(entry.getKey(), range.startOffset());
+                total += range.endOffset() - range.startOffset();
+                processed += next - range.startOffset();
+                partitions.add(new DlqReplayStatus.PartitionProgress(entry.getKey(), range.startOffset(), range.endOffset(), next));
+            }
+            double percent = total == 0 ? 100.0 : Math.floor(processed * 1000.0 / total) / 10.0;
+            return new DlqReplayStatus(
+                    plan.jobId(), plan.dlqTopic(), plan.sourceTopic(), plan.target(), state, plan.ratePerSecond(), plan.batchSize(),
+                    total, processed, percent, replayed.get(), duplicates.get(), failed.get(), partitions, plan.createdAt(), updatedAt, error
+            );
+        }
+    }
+}
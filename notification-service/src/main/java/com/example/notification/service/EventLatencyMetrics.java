@@ -0,0 +1,90 @@
+package com.example.notification.service;
+
+import com.example.notification.dto.NotificationResult;
+import com.example.notification.dto.RecordPosition;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// 소비 경로의 지연을 토픽/파티션별 히스토그램으로 남긴다.
+// notification_consumer_event_age: 이벤트 발생 시각(createdAt/changedAt)부터 컨슈머가 처리를 시작할 때까지. 프로듀서 지연과 컨슈머 lag 을 합친 신선도다.
+// notification_consumer_processing: 중복 판정과 발송을 포함한 처리 시간. 배치 모드는 배치가 끝날 때까지의 시간이 레코드마다 남는다.
+@Component
+public class EventLatencyMetrics {
+
+    // 밀린 lag 을 풀 때 age 가 수 분까지 늘어나므로 히스토그램 상한을 기본(30s)보다 넓힌다.
+    private static final Duration MAX_EXPECTED_AGE = Duration.ofMinutes(30);
+
+    private final MeterRegistry meterRegistry;
+
+    public EventLatencyMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    NotificationResult measure(RecordPosition position, Instant occurredAt, Supplier<NotificationResult> processing) {
+        recordAge(position, occurredAt);
+        long started = System.nanoTime();
+        try {
+            NotificationResult result = processing.get();
+            processingTimer(position, result.status().name()).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (RuntimeException exception) {
+            processingTimer(position, "ERROR").record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            throw exception;
+        }
+    }
+
+    // 배치가 실패하면 어느 레코드에서 멈췄는지와 상관없이 배치 전체를 ERROR 로 남긴다(재전달 때 다시 처리된다).
+    List<NotificationResult> measureBatch(List<RecordPosition> positions, List<Instant> occurredAt, Supplier<List<NotificationResult>> processing) {
+        for (int i = 0; i < positions.size(); i++) {
+            recordAge(positions.get(i), occurredAt.get(i));
+        }
+        long started = System.nanoTime();
+        try {
+            List<NotificationResult> results = processing.get();
+            long elapsed = System.nanoTime() - started;
+            for (int i = 0; i < results.size(); i++) {
+                processingTimer(positions.get(i), results.get(i).status().name()).record(elapsed, TimeUnit.NANOSECONDS);
+            }
+            return results;
+        } catch (RuntimeException exception) {
+            long elapsed = System.nanoTime() - started;
+            for (RecordPosition position : positions) {
+                processingTimer(position, "ERROR").record(elapsed, TimeUnit.NANOSECONDS);
+            }
+            throw exception;
+        }
+    }
+
+    private void recordAge(RecordPosition position, Instant occurredAt) {
+        if (occurredAt == null) {
+            return;
+        }
+        // 프로듀서와 시계가 어긋나 음수가 나오면 0 으로 본다.
+        long ageMillis = Math.max(0, System.currentTimeMillis() - occurredAt.toEpochMilli());
+        Timer.builder("notification.consumer.event.age")
+                .description("Time from event creation to the start of its processing in the notification consumer")
+                .tag("topic", position.topic())
+                .tag("partition", String.valueOf(position.partition()))
+                .publishPercentileHistogram()
+                .maximumExpectedValue(MAX_EXPECTED_AGE)
+                .register(meterRegistry)
+                .record(ageMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private Timer processingTimer(RecordPosition position, String status) {
+        return Timer.builder("notification.consumer.processing")
+                .description("Dedup check and notification dispatch time per consumed record")
+                .tag("topic", position.topic())
+                .tag("partition", String.valueOf(position.partition()))
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.notification.service;
+
+import com.example.notification.domain.NotificationChannel;
+import com.example.notification.exception.ChannelUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// 알림 종류마다 NotificationSender 호출을 벌크헤드(동시 호출 수 상한)와 서킷 브레이커로 감싼다.
+// 거절된 호출은 ChannelUnavailableException 으로 알리고 실패율에 넣지 않는다.
+// app.notification.circuit-breaker.enabled=false 면 sender 를 그대로 돌려주고 아무것도 거절하지 않는다.
+@Component
+public class NotificationChannelGuard {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationChannelGuard.class);
+
+    private final boolean enabled;
+    private final Map<NotificationChannel, Guard> guards = new EnumMap<>(NotificationChannel.class);
+
+    public NotificationChannelGuard(
+            MeterRegistry meterRegistry,
+            @Value("${app.notification.circuit-breaker.enabled}") boolean enabled,
+            @Value("${app.notification.circuit-breaker.window-size}") int windowSize,
+            @Value("${app.notification.circuit-breaker.minimum-calls}") int minimumCalls,
+            @Value("${app.notification.circuit-breaker.failure-rate-threshold}") double failureRateThreshold,
+            @Value("${app.notification.circuit-breaker.open-duration}") Duration openDuration,
+            @Value("${app.notification.circuit-breaker.half-open-calls}") int halfOpenCalls,
+            @Value("${app.notification.bulkhead.max-concurrent}") int maxConcurrent,
+            @Value("${app.notification.bulkhead.max-wait}") Duration maxWait
+    ) {
+        this.enabled = enabled;
+        if (!enabled) {
+            return;
+        }
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            Guard guard = new Guard(channel, meterRegistry, maxConcurrent, maxWait);
+            guard.circuitBreaker = new ChannelCircuitBreaker(windowSize, minimumCalls, failureRateThreshold, openDuration.toNanos(), halfOpenCalls, guard::onTransition);
+            guards.put(channel, guard);
+            Gauge.builder("notification.channel.circuit.state", guard, g -> g.circuitBreaker.state().ordinal())
+                    .description("Circuit breaker state per notification channel (0=closed, 1=half-open, 2=open)")
+                    .tag("channel", channel.tag())
+                    .register(meterRegistry);
+            Gauge.builder("notification.channel.bulkhead.in.use", guard, g -> maxConcurrent - g.bulkhead.availablePermits())
+                    .description("Notification sender calls currently holding a bulkhead permit")
+                    .tag("channel", channel.tag())
+                    .register(meterRegistry);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // 중복 예약(Redis/로컬 저장소) 전에 부른다. 서킷이 열려 있으면 예약 없이 바로 거절한다.
+    public void checkAvailable(NotificationChannel channel) {
+        if (!enabled) {
+            return;
+        }
+        Guard guard = guards.get(channel);
+        if (!guard.circuitBreaker.isCallPermitted()) {
+            guard.rejectedByCircuit.increment();
+            throw new ChannelUnavailableException(channel, "circuit open");
+        }
+    }
+
+    // 서킷이 열려 있고 시험 호출 시각 전이면 true. 컨슈머는 이 동안 해당 채널 토픽의 파티션을 멈춘다.
+    public boolean isOpen(NotificationChannel channel) {
+        return enabled && guards.get(channel).circuitBreaker.isRejecting();
+    }
+
+    // 서킷이 닫혀 있으면(또는 꺼져 있으면) true.
+    public boolean isClosed(NotificationChannel channel) {
+        return !enabled || guards.get(channel).circuitBreaker.state() == ChannelCircuitBreaker.State.CLOSED;
+    }
+
+    // open-duration 이 지났지만 아직 시험 호출이 한 번도 오지 않아 OPEN 에 머물러 있으면 true.
+    public boolean isAwaitingProbe(NotificationChannel channel) {
+        if (!enabled) {
+            return false;
+        }
+        ChannelCircuitBreaker circuitBreaker = guards.get(channel).circuitBreaker;
+        return circuitBreaker.state() == ChannelCircuitBreaker.State.OPEN && !circuitBreaker.isRejecting();
+    }
+
+    // 발송 future 가 끝날 때까지 벌크헤드 자리를 잡고, 끝난 결과로 서킷 실패율을 센다.
+    public <E> Function<E, CompletableFuture<Void>> guard(NotificationChannel channel, Function<E, CompletableFuture<Void>> sender) {
+        if (!enabled) {
+            return sender;
+        }
+        Guard guard = guards.get(channel);
+        return event -> guard.call(event, sender);
+    }
+
+    private static final class Guard {
+
+        private final NotificationChannel channel;
+        private final MeterRegistry meterRegistry;
+        private final Semaphore bulkhead;
+        private final long maxWaitNanos;
+        private final Counter succeeded;
+        private final Counter failed;
+        private final Counter rejectedByCircuit;
+        private final Counter rejectedByBulkhead;
+        private ChannelCircuitBreaker circuitBreaker;
+
+        Guard(NotificationChannel channel, MeterRegistry meterRegistry, int maxConcurrent, Duration maxWait) {
+            this.channel = channel;
+            this.meterRegistry = meterRegistry;
+            this.bulkhead = new Semaphore(maxConcurrent);
+            this.maxWaitNanos = maxWait.toNanos();
+            this.succeeded = callCounter("success");
+            this.failed = callCounter("failure");
+            this.rejectedByCircuit = callCounter("rejected_circuit");
+            this.rejectedByBulkhead = callCounter("rejected_bulkhead");
+        }
+
+        <E> CompletableFuture<Void> call(E event, Function<E, CompletableFuture<Void>> sender) {
+            try {
+                if (!bulkhead.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                    rejectedByBulkhead.increment();
+                    throw new ChannelUnavailableException(channel, "bulkhead full");
+                }
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new ChannelUnavailableException(channel, "interrupted");
+            }
+            if (!circuitBreaker.tryAcquirePermission()) {
+                bulkhead.release();
+                rejectedByCircuit.increment();
+                throw new ChannelUnavailableException(channel, "circuit open");
+            }
+            CompletableFuture<Void> result;
+            try {
+                result = sender.apply(event);
+            } catch (RuntimeException exception) {
+                onComplete(exception);
+                throw exception;
+            }
+            return result.whenComplete((ignored, exception) -> onComplete(exception));
+        }
+
+        // 디스패치 버퍼가 가득 차는 등 발송을 시도하지 못한 거절은 실패율에 넣지 않는다.
+        private void onComplete(Throwable exception) {
+            bulkhead.release();
+            if (exception == null) {
+                circuitBreaker.onSuccess();
+                succeeded.increment();
+            } else if (ChannelUnavailableException.isCause(exception)) {
+                circuitBreaker.onIgnored();
+            } else {
+                circuitBreaker.onFailure();
+                failed.increment();
+            }
+        }
+
+        void onTransition(ChannelCircuitBreaker.State from, ChannelCircuitBreaker.State to) {
+            if (to == ChannelCircuitBreaker.State.OPEN) {
+                log.warn("Notification circuit opened. channel={}, from={}", channel.tag(), from);
+            } else {
+                log.info("Notification circuit state changed. channel={}, from={}, to={}", channel.tag(), from, to);
+            }
+            Counter.builder("notification.channel.circuit.transitions")
+                    .description("Circuit breaker state transitions per notification channel")
+                    .tag("channel", channel.tag())
+                    .tag("from", from.name().toLowerCase())
+                    .tag("to", to.name().toLowerCase())
+                    .register(meterRegistry)
+                    .increment();
+        }
+
+        private Counter callCounter(String outcome) {
+            return Counter.builder("notification.channel.calls")
+                    .description("Notification sender calls per channel by outcome")
+                    .tag("channel", channel.tag())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+    }
+}
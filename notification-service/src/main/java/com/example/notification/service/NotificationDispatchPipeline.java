@@ -0,0 +1,310 @@
+package com.example.notification.service;
+
+import com.example.notification.client.NotificationChannelClient;
+import com.example.notification.domain.NotificationChannel;
+import com.example.notification.dto.DeliveryResult;
+import com.example.notification.dto.OutgoingNotification;
+import com.example.notification.exception.ChannelUnavailableException;
+import com.example.notification.exception.NotificationDeliveryException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// app.notification.dispatch.enabled=true 일 때 NotificationSender 의 발송을 채널별 링 버퍼에 넣고,
+// 채널마다 flush 스레드 하나가 max-batch-size 개가 모이거나 첫 항목 이후 linger 가 지나면 묶음 요청 한 번으로 보낸다.
+// 여러 컨슈머 스레드(파티션, 병렬 워커, 배치 리스너)의 발송이 한 요청으로 묶이고, 호출자는 항목별 CompletableFuture 로 결과를 받는다.
+// 채널별 동시 요청은 max-in-flight 개까지라 게이트웨이가 느려지면 버퍼가 차고, 버퍼가 가득 차면 enqueue-timeout 뒤 거절한다.
+@Component
+@ConditionalOnProperty(name = "app.notification.dispatch.enabled", havingValue = "true")
+public class NotificationDispatchPipeline implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationDispatchPipeline.class);
+    private static final long POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final NotificationChannelClient channelClient;
+    private final int maxBatchSize;
+    private final long lingerNanos;
+    private final long enqueueTimeoutNanos;
+    private final long deliveryTimeoutNanos;
+    private final Duration shutdownTimeout;
+    private final Map<NotificationChannel, ChannelPipeline> pipelines = new EnumMap<>(NotificationChannel.class);
+    // submit 의 running 확인과 offer 는 읽기 잠금, stop 의 running 변경은 쓰기 잠금으로 묶어
+    // 멈춘 뒤 마지막 drainAll 이후에 항목이 들어가 완료되지 않는 일이 없게 한다.
+    private final ReadWriteLock submitLock = new ReentrantReadWriteLock();
+
+    private volatile boolean running;
+
+    public NotificationDispatchPipeline(
+            NotificationChannelClient channelClient,
+            MeterRegistry meterRegistry,
+            @Value("${app.notification.dispatch.buffer-size}") int bufferSize,
+            @Value("${app.notification.dispatch.max-batch-size}") int maxBatchSize,
+            @Value("${app.notification.dispatch.linger}") Duration linger,
+            @Value("${app.notification.dispatch.max-in-flight}") int maxInFlight,
+            @Value("${app.notification.dispatch.enqueue-timeout}") Duration enqueueTimeout,
+            @Value("${app.notification.dispatch.delivery-timeout}") Duration deliveryTimeout,
+            @Value("${app.notification.dispatch.shutdown-timeout}") Duration shutdownTimeout
+    ) {
+        this.channelClient = channelClient;
+        this.maxBatchSize = maxBatchSize;
+        this.lingerNanos = linger.toNanos();
+        this.enqueueTimeoutNanos = enqueueTimeout.toNanos();
+        this.deliveryTimeoutNanos = deliveryTimeout.toNanos();
+        this.shutdownTimeout = shutdownTimeout;
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            ChannelPipeline pipeline = new ChannelPipeline(channel, meterRegistry, bufferSize, maxInFlight);
+            pipelines.put(channel, pipeline);
+            Gauge.builder("notification.dispatch.buffer.size", pipeline.buffer, DispatchRingBuffer::size)
+                    .description("Notifications waiting in the dispatch ring buffer")
+                    .tag("channel", channel.tag())
+                    .register(meterRegistry);
+        }
+    }
+
+    // 알림을 버퍼에 넣고 전달 결과를 기다릴 future 를 돌려준다. 전달되면 null 로, 실패하면 NotificationDeliveryException 으로 끝난다.
+    // 버퍼가 enqueue-timeout 동안 가득 차 있거나 파이프라인이 멈춰 있으면 ChannelUnavailableException 으로 바로 거절한다.
+    // delivery-timeout 은 보내기 전까지만 적용한다. 이미 보낸 항목을 시간 초과로 끝내면 호출자가 예약을 풀고 재시도하는 동안
+    // 게이트웨이는 그 알림을 전달할 수 있으므로, 보낸 항목은 묶음 응답(또는 http request-timeout)까지 기다린다.
+    public CompletableFuture<Void> submit(NotificationChannel channel, OutgoingNotification notification) {
+        ChannelPipeline pipeline = pipelines.get(channel);
+        PendingDelivery pending = new PendingDelivery(notification, new CompletableFuture<>(), System.nanoTime() + deliveryTimeoutNanos);
+        boolean accepted;
+        submitLock.readLock().lock();
+        try {
+            if (!running) {
+                throw new ChannelUnavailableException(channel, "dispatch pipeline stopped");
+            }
+            accepted = pipeline.buffer.offer(pending, enqueueTimeoutNanos);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new ChannelUnavailableException(channel, "interrupted");
+        } finally {
+            submitLock.readLock().unlock();
+        }
+        if (!accepted) {
+            pipeline.rejected.increment();
+            throw new ChannelUnavailableException(channel, "dispatch buffer full");
+        }
+        return pending.result;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        for (ChannelPipeline pipeline : pipelines.values()) {
+            pipeline.thread = new Thread(pipeline::run, "notification-dispatch-" + pipeline.channel.tag());
+            pipeline.thread.setDaemon(true);
+            pipeline.thread.start();
+        }
+    }
+
+    // 컨테이너와 KeyOrderedDispatcher 가 모두 멈춘 뒤에 불린다. 버퍼에 남은 항목을 마저 보내고 진행 중 요청을 shutdown-timeout 까지 기다린다.
+    @Override
+    public void stop() {
+        submitLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            submitLock.writeLock().unlock();
+        }
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        for (ChannelPipeline pipeline : pipelines.values()) {
+            pipeline.awaitStopped(deadline);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // 병렬 모드의 KeyOrderedDispatcher(100) 워커도 발송을 넣으므로 그보다 나중에 멈추고,
+    // 중복/watermark 저장소(0)보다는 먼저 멈춰 마지막 응답의 완료 기록이 저장소가 닫히기 전에 끝나게 한다.
+    @Override
+    public int getPhase() {
+        return 50;
+    }
+
+    private record PendingDelivery(OutgoingNotification notification, CompletableFuture<Void> result, long deadlineNanos) {
+    }
+
+    private final class ChannelPipeline {
+
+        private final NotificationChannel channel;
+        private final DispatchRingBuffer<PendingDelivery> buffer;
+        private final Semaphore inFlight;
+        private final int maxInFlight;
+        private final DistributionSummary bulkSize;
+        private final Timer succeededRequests;
+        private final Timer failedRequests;
+        private final Counter delivered;
+        private final Counter failed;
+        private final Counter rejected;
+        private final Counter expired;
+        private Thread thread;
+
+        ChannelPipeline(NotificationChannel channel, MeterRegistry meterRegistry, int bufferSize, int maxInFlight) {
+            this.channel = channel;
+            this.buffer = new DispatchRingBuffer<>(bufferSize);
+            this.inFlight = new Semaphore(maxInFlight);
+            this.maxInFlight = maxInFlight;
+            this.bulkSize = DistributionSummary.builder("notification.dispatch.bulk.size")
+                    .description("Notifications per bulk request to the channel gateway")
+                    .tag("channel", channel.tag())
+                    .register(meterRegistry);
+            this.succeededRequests = requestTimer(meterRegistry, "success");
+            this.failedRequests = requestTimer(meterRegistry, "error");
+            this.delivered = itemCounter(meterRegistry, "delivered");
+            this.failed = itemCounter(meterRegistry, "failed");
+            this.rejected = itemCounter(meterRegistry, "rejected");
+            this.expired = itemCounter(meterRegistry, "expired");
+        }
+
+        // 멈춘 뒤에도 버퍼가 빌 때까지 보낸다. stop 은 진행 중인 submit 의 offer 가 끝난 뒤에 running 을 내리므로
+        // 멈춘 뒤 새로 들어오는 항목은 없다.
+        void run() {
+            while (running || buffer.size() > 0) {
+                try {
+                    List<PendingDelivery> batch = buffer.drain(maxBatchSize, POLL_NANOS, lingerNanos);
+                    if (!batch.isEmpty()) {
+                        inFlight.acquire();
+                        // 진행 중 요청 자리를 기다리는 동안 기한이 지난 항목은 보내지 않고 여기서 끝낸다.
+                        List<PendingDelivery> live = expire(batch);
+                        if (live.isEmpty()) {
+                            inFlight.release();
+                        } else {
+                            send(live);
+                        }
+                    }
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (RuntimeException exception) {
+                    log.warn("Notification dispatch loop failed. channel={}", channel.tag(), exception);
+                }
+            }
+            fail(buffer.drainAll(), new ChannelUnavailableException(channel, "dispatch pipeline stopped"));
+        }
+
+        private List<PendingDelivery> expire(List<PendingDelivery> batch) {
+            long now = System.nanoTime();
+            List<PendingDelivery> live = new ArrayList<>(batch.size());
+            for (PendingDelivery pending : batch) {
+                if (now - pending.deadlineNanos() >= 0) {
+                    expired.increment();
+                    pending.result().completeExceptionally(new NotificationDeliveryException(
+                            "Notification not sent within delivery timeout. channel=" + channel.tag() + ", eventId=" + pending.notification().eventId()
+                    ));
+                } else {
+                    live.add(pending);
+                }
+            }
+            return live;
+        }
+
+        private void send(List<PendingDelivery> batch) {
+            List<OutgoingNotification> notifications = new ArrayList<>(batch.size());
+            for (PendingDelivery pending : batch) {
+                notifications.add(pending.notification());
+            }
+            bulkSize.record(batch.size());
+            long started = System.nanoTime();
+            CompletableFuture<List<DeliveryResult>> response;
+            try {
+                response = channelClient.sendBulk(channel, notifications);
+            } catch (RuntimeException exception) {
+                response = CompletableFuture.failedFuture(exception);
+            }
+            response.whenComplete((results, exception) -> {
+                inFlight.release();
+                if (exception != null) {
+                    failedRequests.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                    log.warn("Bulk notification request failed. channel={}, size={}, cause={}", channel.tag(), batch.size(), exception.toString());
+                    fail(batch, new NotificationDeliveryException("Bulk notification request failed. channel=" + channel.tag(), exception));
+                    return;
+                }
+                succeededRequests.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                complete(batch, results);
+            });
+        }
+
+        private void complete(List<PendingDelivery> batch, List<DeliveryResult> results) {
+            if (results.size() != batch.size()) {
+                fail(batch, new NotificationDeliveryException(
+                        "Bulk notification response size mismatch. channel=" + channel.tag() + ", sent=" + batch.size() + ", results=" + results.size()
+                ));
+                return;
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                PendingDelivery pending = batch.get(i);
+                DeliveryResult result = results.get(i);
+                if (result.delivered()) {
+                    delivered.increment();
+                    pending.result().complete(null);
+                } else {
+                    failed.increment();
+                    pending.result().completeExceptionally(new NotificationDeliveryException(
+                            "Notification not delivered. channel=" + channel.tag() + ", eventId=" + pending.notification().eventId() + ", detail=" + result.detail()
+                    ));
+                }
+            }
+        }
+
+        private void fail(List<PendingDelivery> batch, RuntimeException exception) {
+            for (PendingDelivery pending : batch) {
+                failed.increment();
+                pending.result().completeExceptionally(exception);
+            }
+        }
+
+        void awaitStopped(long deadlineNanos) {
+            try {
+                if (thread != null) {
+                    thread.join(Math.max(1L, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime())));
+                }
+                if (inFlight.tryAcquire(maxInFlight, Math.max(0L, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    inFlight.release(maxInFlight);
+                } else {
+                    log.warn("Notification dispatch stopped with requests in flight. channel={}", channel.tag());
+                }
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private Timer requestTimer(MeterRegistry meterRegistry, String outcome) {
+            return Timer.builder("notification.dispatch.bulk.requests")
+                    .description("Bulk notification requests to the channel gateway")
+                    .tag("channel", channel.tag())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+
+        private Counter itemCounter(MeterRegistry meterRegistry, String outcome) {
+            return Counter.builder("notification.dispatch.items")
+                    .description("Notifications handled by the dispatch pipeline by outcome")
+                    .tag("channel", channel.tag())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+    }
+}
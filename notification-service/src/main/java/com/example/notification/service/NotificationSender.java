@@ -3,16 +3,38 @@ package com.example.notification.service;
 import com.example.common.event.OrderCreatedEvent;
 import com.example.common.event.OrderShippedEvent;
 import com.example.common.event.ProductCreatedEvent;
+import com.example.notification.domain.NotificationChannel;
+import com.example.notification.dto.OutgoingNotification;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+
+// 발송 결과는 CompletableFuture 로 돌려준다.
+// 디스패치 파이프라인이 켜져 있으면 알림을 채널 게이트웨이 묶음 요청에 넣고 전달 결과로 끝나는 future 를,
+// 꺼져 있으면 이 스레드에서 바로 로그로 발송한 뒤 끝난 future 를 돌려준다.
 @Component
 public class NotificationSender {
 
     private static final Logger log = LoggerFactory.getLogger(NotificationSender.class);
 
-    public void sendOrderConfirmation(OrderCreatedEvent event) {
+    private final NotificationDispatchPipeline dispatchPipeline;
+
+    public NotificationSender(ObjectProvider<NotificationDispatchPipeline> dispatchPipelineProvider) {
+        this.dispatchPipeline = dispatchPipelineProvider.getIfAvailable();
+    }
+
+    public CompletableFuture<Void> sendOrderConfirmation(OrderCreatedEvent event) {
+        if (dispatchPipeline != null) {
+            return dispatchPipeline.submit(NotificationChannel.ORDER_CONFIRMATION, new OutgoingNotification(
+                    event.eventId(),
+                    event.orderId(),
+                    event.customerId(),
+                    "Order " + event.orderId() + " confirmed. amount=" + event.totalAmount() + " " + event.currency()
+            ));
+        }
         if (event.customerId().startsWith("fail-")) {
             log.error("Simulating downstream failure for customerId={}", event.customerId());
             throw new IllegalStateException("Simulated downstream failure for customerId=" + event.customerId());
@@ -22,9 +44,18 @@ public class NotificationSender {
                 "Notification sent. eventId={}, orderId={}, customerEmail={}, amount={} {}",
                 event.eventId(), event.orderId(), event.customerEmail(), event.totalAmount(), event.currency()
         );
+        return CompletableFuture.completedFuture(null);
     }
 
-    public void sendOrderShippingUpdate(OrderShippedEvent event) {
+    public CompletableFuture<Void> sendOrderShippingUpdate(OrderShippedEvent event) {
+        if (dispatchPipeline != null) {
+            return dispatchPipeline.submit(NotificationChannel.SHIPPING_UPDATE, new OutgoingNotification(
+                    event.eventId(),
+                    event.orderId(),
+                    event.customerId(),
+                    "Order " + event.orderId() + " " + event.previousStatus() + " -> " + event.currentStatus()
+            ));
+        }
         if (event.customerId().startsWith("fail-")) {
             throw new IllegalStateException("Simulated downstream failure for customerId=" + event.customerId());
         }
@@ -33,9 +64,19 @@ public class NotificationSender {
                 "Shipping notification sent. eventId={}, orderId={}, customerEmail={}, previousStatus={}, currentStatus={}",
                 event.eventId(), event.orderId(), event.customerEmail(), event.previousStatus(), event.currentStatus()
         );
+        return CompletableFuture.completedFuture(null);
     }
 
-    public void sendProductCreationNotice(ProductCreatedEvent event) {
+    // 상품 등록 알림은 특정 고객이 아니라 구독자 전체가 받으므로 수신자를 "subscribers" 로 둔다.
+    public CompletableFuture<Void> sendProductCreationNotice(ProductCreatedEvent event) {
+        if (dispatchPipeline != null) {
+            return dispatchPipeline.submit(NotificationChannel.PRODUCT_CREATION, new OutgoingNotification(
+                    event.eventId(),
+                    event.productId(),
+                    "subscribers",
+                    event.productName() + " is now available. price=" + event.price() + " " + event.currency()
+            ));
+        }
         if (event.productName().startsWith("fail-")) {
             throw new IllegalStateException("Simulated downstream failure for productName=" + event.productName());
         }
@@ -44,5 +85,6 @@ public class NotificationSender {
                 "Product creation notification sent. eventId={}, productId={}, productName={}, price={} {}",
                 event.eventId(), event.productId(), event.productName(), event.price(), event.currency()
         );
+        return CompletableFuture.completedFuture(null);
     }
 }
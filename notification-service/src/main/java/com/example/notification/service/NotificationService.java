@@ -3,14 +3,28 @@ package com.example.notification.service;
 import com.example.common.event.OrderCreatedEvent;
 import com.example.common.event.OrderShippedEvent;
 import com.example.common.event.ProductCreatedEvent;
+import com.example.notification.config.DedupMode;
+import com.example.notification.domain.NotificationChannel;
 import com.example.notification.domain.NotificationStatus;
 import com.example.notification.dto.NotificationResult;
+import com.example.notification.dto.RecordPosition;
+import com.example.notification.exception.ChannelUnavailableException;
+import com.example.notification.exception.NotificationBatchException;
+import com.example.notification.repository.OffsetWatermarkRepository;
+import com.example.notification.repository.PartitionLocalEventIdStore;
 import com.example.notification.repository.ProcessedEventRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
 
 @Service
 public class NotificationService {
@@ -18,71 +32,449 @@ public class NotificationService {
     private static final Logger log = LoggerFactory.getLogger(NotificationService.class);
 
     private final ProcessedEventRepository processedEventRepository;
-    private final NotificationSender notificationSender;
+    private final OffsetWatermarkRepository offsetWatermarkRepository;
+    private final boolean watermarkEventIdGuard;
+    private final PartitionLocalEventIdStore partitionLocalEventIdStore;
+    private final EventLatencyMetrics eventLatencyMetrics;
+    private final NotificationChannelGuard channelGuard;
+    private final Function<OrderCreatedEvent, CompletableFuture<Void>> orderConfirmation;
+    private final Function<OrderShippedEvent, CompletableFuture<Void>> orderShippingUpdate;
+    private final Function<ProductCreatedEvent, CompletableFuture<Void>> productCreationNotice;
 
-    public NotificationService(ProcessedEventRepository processedEventRepository, NotificationSender notificationSender) {
+    public NotificationService(
+            ProcessedEventRepository processedEventRepository,
+            NotificationSender notificationSender,
+            ObjectProvider<OffsetWatermarkRepository> offsetWatermarkRepositoryProvider,
+            ObjectProvider<PartitionLocalEventIdStore> partitionLocalEventIdStoreProvider,
+            EventLatencyMetrics eventLatencyMetrics,
+            NotificationChannelGuard channelGuard,
+            @Value("${app.dedup.mode}") DedupMode dedupMode,
+            @Value("${app.dedup.watermark.event-id-guard}") boolean watermarkEventIdGuard
+    ) {
         this.processedEventRepository = processedEventRepository;
-        this.notificationSender = notificationSender;
+        this.offsetWatermarkRepository = dedupMode == DedupMode.WATERMARK ? offsetWatermarkRepositoryProvider.getObject() : null;
+        this.watermarkEventIdGuard = watermarkEventIdGuard;
+        this.partitionLocalEventIdStore = dedupMode == DedupMode.LOCAL ? partitionLocalEventIdStoreProvider.getObject() : null;
+        this.eventLatencyMetrics = eventLatencyMetrics;
+        this.channelGuard = channelGuard;
+        // 모든 발송은 종류별 벌크헤드/서킷 브레이커를 거친다.
+        this.orderConfirmation = channelGuard.guard(NotificationChannel.ORDER_CONFIRMATION, notificationSender::sendOrderConfirmation);
+        this.orderShippingUpdate = channelGuard.guard(NotificationChannel.SHIPPING_UPDATE, notificationSender::sendOrderShippingUpdate);
+        this.productCreationNotice = channelGuard.guard(NotificationChannel.PRODUCT_CREATION, notificationSender::sendProductCreationNotice);
     }
 
+    // 컨슈머는 레코드 위치와 함께 호출한다. WATERMARK 모드면 eventId 키 대신 파티션 offset 으로 중복을 판정하고,
+    // LOCAL 모드면 이 인스턴스가 소유한 파티션의 로컬 저장소로 판정한다(소유하지 않은 위치는 Redis).
+    // 위치를 아는 호출만 토픽/파티션별 이벤트 age 와 처리 시간을 남긴다(DLQ 재처리처럼 위치 없는 호출은 제외).
+    // 서킷이 열려 있으면 중복 예약 전에 ChannelUnavailableException 으로 거절해 Redis/로컬 저장소를 건드리지 않는다.
+    public NotificationResult processOrderCreated(OrderCreatedEvent event, RecordPosition position) {
+        channelGuard.checkAvailable(NotificationChannel.ORDER_CONFIRMATION);
+        return eventLatencyMetrics.measure(position, event.createdAt(), () -> dispatchOrderCreated(event, position));
+    }
+
+    private NotificationResult dispatchOrderCreated(OrderCreatedEvent event, RecordPosition position) {
+        if (offsetWatermarkRepository != null) {
+            return processByWatermark(position, event, OrderCreatedEvent::eventId, OrderCreatedEvent::orderId, orderConfirmation, "Notification sent");
+        }
+        if (ownsLocally(position)) {
+            return processByLocalStore(position, event, OrderCreatedEvent::eventId, OrderCreatedEvent::orderId, orderConfirmation, "Notification sent");
+        }
+        return processByEventId(position, event, OrderCreatedEvent::eventId, OrderCreatedEvent::orderId, orderConfirmation, "Notification sent");
+    }
+
+    public NotificationResult processOrderShipped(OrderShippedEvent event, RecordPosition position) {
+        channelGuard.checkAvailable(NotificationChannel.SHIPPING_UPDATE);
+        return eventLatencyMetrics.measure(position, event.changedAt(), () -> dispatchOrderShipped(event, position));
+    }
+
+    private NotificationResult dispatchOrderShipped(OrderShippedEvent event, RecordPosition position) {
+        if (offsetWatermarkRepository != null) {
+            return processByWatermark(
+                    position, event, OrderShippedEvent::eventId, OrderShippedEvent::orderId, orderShippingUpdate, "Shipping notification sent"
+            );
+        }
+        if (ownsLocally(position)) {
+            return processByLocalStore(
+                    position, event, OrderShippedEvent::eventId, OrderShippedEvent::orderId, orderShippingUpdate, "Shipping notification sent"
+            );
+        }
+        return processByEventId(
+                position, event, OrderShippedEvent::eventId, OrderShippedEvent::orderId, orderShippingUpdate, "Shipping notification sent"
+        );
+    }
+
+    public NotificationResult processProductCreated(ProductCreatedEvent event, RecordPosition position) {
+        channelGuard.checkAvailable(NotificationChannel.PRODUCT_CREATION);
+        return eventLatencyMetrics.measure(position, event.createdAt(), () -> dispatchProductCreated(event, position));
+    }
+
+    private NotificationResult dispatchProductCreated(ProductCreatedEvent event, RecordPosition position) {
+        if (offsetWatermarkRepository != null) {
+            return processByWatermark(
+                    position, event, ProductCreatedEvent::eventId, ProductCreatedEvent::productId, productCreationNotice, "Product creation notification sent"
+            );
+        }
+        if (ownsLocally(position)) {
+            return processByLocalStore(
+                    position, event, ProductCreatedEvent::eventId, ProductCreatedEvent::productId, productCreationNotice, "Product creation notification sent"
+            );
+        }
+        return processByEventId(
+                position, event, ProductCreatedEvent::eventId, ProductCreatedEvent::productId, productCreationNotice, "Product creation notification sent"
+        );
+    }
+
+
     public NotificationResult processOrderCreated(OrderCreatedEvent event) {
-        boolean reserved = processedEventRepository.reserveIfAbsent(event.eventId());
-        if (!reserved) {
-            log.info("Duplicate event ignored. eventId={}, orderId={}", event.eventId(), event.orderId());
-            return new NotificationResult(event.eventId(), event.orderId(), NotificationStatus.DUPLICATE, Instant.now(), "Already processed");
+        return processByEventId(null, event, OrderCreatedEvent::eventId, OrderCreatedEvent::orderId, orderConfirmation, "Notification sent");
+    }
+
+    public NotificationResult processOrderShipped(OrderShippedEvent event) {
+        return processByEventId(
+                null, event, OrderShippedEvent::eventId, OrderShippedEvent::orderId, orderShippingUpdate, "Shipping notification sent"
+        );
+    }
+
+    public NotificationResult processProductCreated(ProductCreatedEvent event) {
+        return processByEventId(
+                null, event, ProductCreatedEvent::eventId, ProductCreatedEvent::productId, productCreationNotice, "Product creation notification sent"
+        );
+    }
+
+    public List<NotificationResult> processOrderCreatedBatch(List<OrderCreatedEvent> events) {
+        return processBatch(events, null, OrderCreatedEvent::eventId, OrderCreatedEvent::orderId, orderConfirmation, "Notification sent");
+    }
+
+    public List<NotificationResult> processOrderShippedBatch(List<OrderShippedEvent> events) {
+        return processBatch(events, null, OrderShippedEvent::eventId, OrderShippedEvent::orderId, orderShippingUpdate, "Shipping notification sent");
+    }
+
+    public List<NotificationResult> processProductCreatedBatch(List<ProductCreatedEvent> events) {
+        return processBatch(
+                events, null, ProductCreatedEvent::eventId, ProductCreatedEvent::productId, productCreationNotice, "Product creation notification sent"
+        );
+    }
+
+    public List<NotificationResult> processOrderCreatedBatch(List<OrderCreatedEvent> events, List<RecordPosition> positions) {
+        checkAvailableForBatch(NotificationChannel.ORDER_CONFIRMATION);
+        return eventLatencyMetrics.measureBatch(positions, occurredAt(events, OrderCreatedEvent::createdAt), () -> dispatchOrderCreatedBatch(events, positions));
+    }
+
+    private List<NotificationResult> dispatchOrderCreatedBatch(List<OrderCreatedEvent> events, List<RecordPosition> positions) {
+        if (offsetWatermarkRepository != null) {
+            return processBatchByWatermark(events, positions, OrderCreatedEvent::eventId, OrderCreatedEvent::orderId, orderConfirmation, "Notification sent");
+        }
+        if (ownsLocally(positions)) {
+            return processBatchByLocalStore(events, positions, OrderCreatedEvent::eventId, OrderCreatedEvent::orderId, orderConfirmation, "Notification sent");
+        }
+        return processBatch(events, positions, OrderCreatedEvent::eventId, OrderCreatedEvent::orderId, orderConfirmation, "Notification sent");
+    }
+
+    public List<NotificationResult> processOrderShippedBatch(List<OrderShippedEvent> events, List<RecordPosition> positions) {
+        checkAvailableForBatch(NotificationChannel.SHIPPING_UPDATE);
+        return eventLatencyMetrics.measureBatch(positions, occurredAt(events, OrderShippedEvent::changedAt), () -> dispatchOrderShippedBatch(events, positions));
+    }
+
+    private List<NotificationResult> dispatchOrderShippedBatch(List<OrderShippedEvent> events, List<RecordPosition> positions) {
+        if (offsetWatermarkRepository != null) {
+            return processBatchByWatermark(
+                    events, positions, OrderShippedEvent::eventId, OrderShippedEvent::orderId, orderShippingUpdate, "Shipping notification sent"
+            );
+        }
+        if (ownsLocally(positions)) {
+            return processBatchByLocalStore(
+                    events, positions, OrderShippedEvent::eventId, OrderShippedEvent::orderId, orderShippingUpdate, "Shipping notification sent"
+            );
+        }
+        return processBatch(events, positions, OrderShippedEvent::eventId, OrderShippedEvent::orderId, orderShippingUpdate, "Shipping notification sent");
+    }
+
+    public List<NotificationResult> processProductCreatedBatch(List<ProductCreatedEvent> events, List<RecordPosition> positions) {
+        checkAvailableForBatch(NotificationChannel.PRODUCT_CREATION);
+        return eventLatencyMetrics.measureBatch(positions, occurredAt(events, ProductCreatedEvent::createdAt), () -> dispatchProductCreatedBatch(events, positions));
+    }
+
+    private List<NotificationResult> dispatchProductCreatedBatch(List<ProductCreatedEvent> events, List<RecordPosition> positions) {
+        if (offsetWatermarkRepository != null) {
+            return processBatchByWatermark(
+                    events, positions, ProductCreatedEvent::eventId, ProductCreatedEvent::productId, productCreationNotice, "Product creation notification sent"
+            );
+        }
+        if (ownsLocally(positions)) {
+            return processBatchByLocalStore(
+                    events, positions, ProductCreatedEvent::eventId, ProductCreatedEvent::productId, productCreationNotice, "Product creation notification sent"
+            );
+        }
+        return processBatch(
+                events, positions, ProductCreatedEvent::eventId, ProductCreatedEvent::productId, productCreationNotice, "Product creation notification sent"
+        );
+    }
+
+    // 배치 리스너가 첫 레코드의 실패로 받아 레코드 단위 처리(재시도 횟수 없이 같은 offset 부터 다시)로 넘기도록 감싼다.
+    private void checkAvailableForBatch(NotificationChannel channel) {
+        try {
+            channelGuard.checkAvailable(channel);
+        } catch (ChannelUnavailableException exception) {
+            throw new NotificationBatchException(0, List.of(), exception);
+        }
+    }
+
+    private static <E> List<Instant> occurredAt(List<E> events, Function<E, Instant> occurredAtOf) {
+        List<Instant> occurredAt = new ArrayList<>(events.size());
+        for (E event : events) {
+            occurredAt.add(occurredAtOf.apply(event));
+        }
+        return occurredAt;
+    }
+
+    private boolean ownsLocally(RecordPosition position) {
+        return partitionLocalEventIdStore != null && partitionLocalEventIdStore.owns(position);
+    }
+
+    private boolean ownsLocally(List<RecordPosition> positions) {
+        if (partitionLocalEventIdStore == null) {
+            return false;
+        }
+        for (RecordPosition position : positions) {
+            if (!partitionLocalEventIdStore.owns(position)) {
+                return false;
+            }
         }
+        return true;
+    }
 
+    private <E> NotificationResult processByWatermark(
+            RecordPosition position,
+            E event,
+            Function<E, String> eventIdOf,
+            Function<E, String> referenceIdOf,
+            Function<E, CompletableFuture<Void>> sender,
+            String sentDetail
+    ) {
+        String eventId = eventIdOf.apply(event);
+        if (offsetWatermarkRepository.isProcessed(position)) {
+            log.info("Replayed offset ignored. topic={}, partition={}, offset={}, eventId={}", position.topic(), position.partition(), position.offset(), eventId);
+            return new NotificationResult(eventId, referenceIdOf.apply(event), NotificationStatus.DUPLICATE, Instant.now(), "Already processed");
+        }
+        // watermark 는 같은 offset 의 재전달만 걸러낸다. 프로듀서 재시도 등으로 다른 offset 에 다시 실린 같은 이벤트까지
+        // 거르려면 event-id-guard 를 켠다. 켜면 watermark 위의 레코드마다 Redis 예약이 붙어 EVENT_ID 모드보다 비용이 크다.
+        if (watermarkEventIdGuard && !processedEventRepository.reserveIfAbsent(position, eventId)) {
+            log.info("Duplicate event ignored. topic={}, partition={}, offset={}, eventId={}", position.topic(), position.partition(), position.offset(), eventId);
+            offsetWatermarkRepository.complete(position);
+            return new NotificationResult(eventId, referenceIdOf.apply(event), NotificationStatus.DUPLICATE, Instant.now(), "Already processed");
+        }
         try {
-            notificationSender.sendOrderConfirmation(event);
-            return new NotificationResult(event.eventId(), event.orderId(), NotificationStatus.SENT, Instant.now(), "Notification sent");
+            deliver(sender, event);
         } catch (RuntimeException exception) {
-            processedEventRepository.releaseReservation(event.eventId());
+            if (watermarkEventIdGuard) {
+                processedEventRepository.releaseReservation(position, eventId);
+            }
             throw exception;
         }
+        offsetWatermarkRepository.complete(position);
+        return new NotificationResult(eventId, referenceIdOf.apply(event), NotificationStatus.SENT, Instant.now(), sentDetail);
     }
 
-    public NotificationResult processOrderShipped(OrderShippedEvent event) {
-        boolean reserved = processedEventRepository.reserveIfAbsent(event.eventId());
-        if (!reserved) {
-            log.info("Duplicate shipped event ignored. eventId={}, orderId={}", event.eventId(), event.orderId());
-            return new NotificationResult(event.eventId(), event.orderId(), NotificationStatus.DUPLICATE, Instant.now(), "Already processed");
+    // position 은 Redis 요청 타이머의 topic/partition 태그로만 쓰며, 위치 없는 호출(DLQ 재처리 등)은 null 이다.
+    private <E> NotificationResult processByEventId(
+            RecordPosition position,
+            E event,
+            Function<E, String> eventIdOf,
+            Function<E, String> referenceIdOf,
+            Function<E, CompletableFuture<Void>> sender,
+            String sentDetail
+    ) {
+        String eventId = eventIdOf.apply(event);
+        if (!processedEventRepository.reserveIfAbsent(position, eventId)) {
+            log.info("Duplicate event ignored. eventId={}, referenceId={}", eventId, referenceIdOf.apply(event));
+            return new NotificationResult(eventId, referenceIdOf.apply(event), NotificationStatus.DUPLICATE, Instant.now(), "Already processed");
         }
-
         try {
-            notificationSender.sendOrderShippingUpdate(event);
-            return new NotificationResult(
-                    event.eventId(),
-                    event.orderId(),
-                    NotificationStatus.SENT,
-                    Instant.now(),
-                    "Shipping notification sent"
-            );
+            deliver(sender, event);
         } catch (RuntimeException exception) {
             // 처리 실패 시 예약 키를 해제해 Kafka 재시도/재처리에서 정상 재실행될 수 있게 한다.
-            processedEventRepository.releaseReservation(event.eventId());
+            processedEventRepository.releaseReservation(position, eventId);
             throw exception;
         }
+        return new NotificationResult(eventId, referenceIdOf.apply(event), NotificationStatus.SENT, Instant.now(), sentDetail);
     }
 
-    public NotificationResult processProductCreated(ProductCreatedEvent event) {
-        boolean reserved = processedEventRepository.reserveIfAbsent(event.eventId());
-        if (!reserved) {
-            log.info("Duplicate product event ignored. eventId={}, productId={}", event.eventId(), event.productId());
-            return new NotificationResult(event.eventId(), event.productId(), NotificationStatus.DUPLICATE, Instant.now(), "Already processed");
+    private <E> List<NotificationResult> processBatchByWatermark(
+            List<E> events,
+            List<RecordPosition> positions,
+            Function<E, String> eventIdOf,
+            Function<E, String> referenceIdOf,
+            Function<E, CompletableFuture<Void>> sender,
+            String sentDetail
+    ) {
+        List<NotificationResult> results = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            try {
+                results.add(processByWatermark(positions.get(i), events.get(i), eventIdOf, referenceIdOf, sender, sentDetail));
+            } catch (RuntimeException exception) {
+                throw new NotificationBatchException(i, results, exception);
+            }
         }
+        return results;
+    }
 
+    private <E> NotificationResult processByLocalStore(
+            RecordPosition position,
+            E event,
+            Function<E, String> eventIdOf,
+            Function<E, String> referenceIdOf,
+            Function<E, CompletableFuture<Void>> sender,
+            String sentDetail
+    ) {
+        String eventId = eventIdOf.apply(event);
+        if (!partitionLocalEventIdStore.reserveIfAbsent(position, eventId)) {
+            log.info("Duplicate event ignored. topic={}, partition={}, eventId={}", position.topic(), position.partition(), eventId);
+            return new NotificationResult(eventId, referenceIdOf.apply(event), NotificationStatus.DUPLICATE, Instant.now(), "Already processed");
+        }
         try {
-            notificationSender.sendProductCreationNotice(event);
-            return new NotificationResult(
-                    event.eventId(),
-                    event.productId(),
-                    NotificationStatus.SENT,
-                    Instant.now(),
-                    "Product creation notification sent"
-            );
+            deliver(sender, event);
         } catch (RuntimeException exception) {
-            processedEventRepository.releaseReservation(event.eventId());
+            partitionLocalEventIdStore.releaseReservation(position, eventId);
             throw exception;
         }
+        return new NotificationResult(eventId, referenceIdOf.apply(event), NotificationStatus.SENT, Instant.now(), sentDetail);
+    }
+
+    // 로컬 조회는 왕복이 없으므로 배치 예약 없이 레코드마다 예약하고 보낸다. 실패하면 그 레코드만 해제돼 있고 뒤쪽은 아직 예약 전이다.
+    private <E> List<NotificationResult> processBatchByLocalStore(
+            List<E> events,
+            List<RecordPosition> positions,
+            Function<E, String> eventIdOf,
+            Function<E, String> referenceIdOf,
+            Function<E, CompletableFuture<Void>> sender,
+            String sentDetail
+    ) {
+        List<NotificationResult> results = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            try {
+                results.add(processByLocalStore(positions.get(i), events.get(i), eventIdOf, referenceIdOf, sender, sentDetail));
+            } catch (RuntimeException exception) {
+                throw new NotificationBatchException(i, results, exception);
+            }
+        }
+        return results;
+    }
+
+    // positions 는 null 이거나 events 와 같은 순서·길이다.
+    private <E> List<NotificationResult> processBatch(
+            List<E> events,
+            List<RecordPosition> positions,
+            Function<E, String> eventIdOf,
+            Function<E, String> referenceIdOf,
+            Function<E, CompletableFuture<Void>> sender,
+            String sentDetail
+    ) {
+        List<String> eventIds = new ArrayList<>(events.size());
+        for (E event : events) {
+            eventIds.add(eventIdOf.apply(event));
+        }
+        // 비동기 모드면 예약 명령을 모두 파이프라인으로 보내 두고, 앞쪽 레코드를 보내는 동안 뒤쪽 예약 응답을 받는다.
+        List<CompletionStage<Boolean>> reservations = processedEventRepository.reserveEachIfAbsentAsync(positions, eventIds);
+
+        // 디스패치 파이프라인이 켜져 있으면 예약된 레코드를 결과를 기다리지 않고 모두 넘겨 묶음 요청으로 보내게 한다.
+        // 중복은 null 로 둔다. 로그 발송처럼 바로 끝나는 발송이 실패하면 뒤쪽은 넘기지 않는다.
+        List<CompletableFuture<Void>> deliveries = new ArrayList<>(events.size());
+        RuntimeException submitFailure = null;
+        for (int i = 0; i < events.size(); i++) {
+            try {
+                if (!ProcessedEventRepository.await(reservations.get(i))) {
+                    deliveries.add(null);
+                    continue;
+                }
+                CompletableFuture<Void> delivery = sender.apply(events.get(i));
+                deliveries.add(delivery);
+                if (delivery.isCompletedExceptionally()) {
+                    break;
+                }
+            } catch (RuntimeException exception) {
+                submitFailure = exception;
+                break;
+            }
+        }
+
+        List<NotificationResult> results = new ArrayList<>(events.size());
+        for (int i = 0; i < deliveries.size(); i++) {
+            E event = events.get(i);
+            CompletableFuture<Void> delivery = deliveries.get(i);
+            if (delivery == null) {
+                results.add(new NotificationResult(eventIds.get(i), referenceIdOf.apply(event), NotificationStatus.DUPLICATE, Instant.now(), "Already processed"));
+                continue;
+            }
+            try {
+                ProcessedEventRepository.await(delivery);
+                results.add(new NotificationResult(eventIds.get(i), referenceIdOf.apply(event), NotificationStatus.SENT, Instant.now(), sentDetail));
+            } catch (RuntimeException exception) {
+                throw failBatch(i, results, exception, positions, eventIds, reservations, deliveries);
+            }
+        }
+        if (submitFailure != null) {
+            throw failBatch(deliveries.size(), results, submitFailure, positions, eventIds, reservations, deliveries);
+        }
+        return results;
+    }
+
+    // failedIndex 부터 재전달되므로, 그 뒤에서 전달에 성공한 레코드의 예약은 남겨 재전달 때 DUPLICATE 로 건너뛰게 하고
+    // 실패했거나 넘기지 못한 레코드의 예약만 한 번에 해제한다.
+    private NotificationBatchException failBatch(
+            int failedIndex,
+            List<NotificationResult> results,
+            RuntimeException exception,
+            List<RecordPosition> positions,
+            List<String> eventIds,
+            List<CompletionStage<Boolean>> reservations,
+            List<CompletableFuture<Void>> deliveries
+    ) {
+        List<Integer> release = new ArrayList<>();
+        for (int j = failedIndex; j < deliveries.size(); j++) {
+            CompletableFuture<Void> delivery = deliveries.get(j);
+            if (delivery != null && !delivered(delivery)) {
+                release.add(j);
+            }
+        }
+        release.addAll(reservedFrom(deliveries.size(), reservations));
+        List<String> releasedEventIds = new ArrayList<>(release.size());
+        List<RecordPosition> releasedPositions = positions == null ? null : new ArrayList<>(release.size());
+        for (int j : release) {
+            releasedEventIds.add(eventIds.get(j));
+            if (releasedPositions != null) {
+                releasedPositions.add(positions.get(j));
+            }
+        }
+        processedEventRepository.releaseReservations(releasedPositions, releasedEventIds);
+        return new NotificationBatchException(failedIndex, results, exception);
+    }
+
+    private static boolean delivered(CompletableFuture<Void> delivery) {
+        try {
+            ProcessedEventRepository.await(delivery);
+            return true;
+        } catch (RuntimeException exception) {
+            return false;
+        }
+    }
+
+    // 응답을 기다린다. 실패는 원래 예외로(시간 초과는 CompletionException 으로) 던진다.
+    private static <E> void deliver(Function<E, CompletableFuture<Void>> sender, E event) {
+        ProcessedEventRepository.await(sender.apply(event));
+    }
+
+    // from 번째부터 예약에 성공한 항목의 인덱스. 예약 자체가 실패한 항목은 키가 없으므로 건너뛴다.
+    private static List<Integer> reservedFrom(int from, List<CompletionStage<Boolean>> reservations) {
+        List<Integer> reserved = new ArrayList<>();
+        for (int j = from; j < reservations.size(); j++) {
+            try {
+                if (ProcessedEventRepository.await(reservations.get(j))) {
+                    reserved.add(j);
+                }
+            } catch (RuntimeException ignored) {
+                // 예약 명령이 실패했으면 해제할 키도 없다.
+            }
+        }
+        return reserved;
     }
 }
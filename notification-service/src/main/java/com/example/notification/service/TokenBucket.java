@@ -0,0 +1,36 @@
+package com.example.notification.service;
+
+import java.util.concurrent.TimeUnit;
+
+// 초당 ratePerSecond 개씩 채워지고 최대 capacity 개까지 쌓이는 토큰 버킷.
+// acquire 는 토큰이 모자라면 모자란 만큼 채워질 때까지 기다린다. capacity 보다 큰 요청도 빚으로 처리해 평균 속도를 지킨다.
+final class TokenBucket {
+
+    private final double tokensPerNano;
+    private final double capacity;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    TokenBucket(int ratePerSecond, int capacity) {
+        this.tokensPerNano = ratePerSecond / 1_000_000_000.0;
+        this.capacity = capacity;
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    void acquire(int permits) throws InterruptedException {
+        long waitNanos = reserve(permits);
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private synchronized long reserve(int permits) {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = now;
+        tokens -= permits;
+        return tokens >= 0 ? 0L : (long) Math.ceil(-tokens / tokensPerNano);
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.notification.consumer;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeyOrderedDispatcherTest {
+
+    private static final String TOPIC = "order.created.v1";
+
+    private final List<ConsumerRecord<?, ?>> recovered = Collections.synchronizedList(new ArrayList<>());
+    private final KeyOrderedDispatcher dispatcher = new KeyOrderedDispatcher((record, exception) -> recovered.add(record), true, 8, 4);
+
+    @AfterEach
+    void stop() {
+        dispatcher.stop();
+    }
+
+    @Test
+    void recordsWithSameKeyRunInDispatchOrder() throws InterruptedException {
+        dispatcher.start();
+        Map<String, List<Long>> processed = new ConcurrentHashMap<>();
+        AtomicInteger acked = new AtomicInteger();
+        int records = 400;
+
+        for (long offset = 0; offset < records; offset++) {
+            String key = "order-" + offset % 7;
+            long current = offset;
+            dispatcher.dispatch(record(0, offset), key, acked::incrementAndGet, () -> {
+                processed.computeIfAbsent(key, ignored -> Collections.synchronizedList(new ArrayList<>())).add(current);
+                if (current % 13 == 0) {
+                    sleep(1L);
+                }
+            });
+        }
+
+        awaitCount(acked, records);
+        assertThat(processed).hasSize(7);
+        processed.values().forEach(offsets -> assertThat(offsets).isSorted());
+        assertThat(dispatcher.inFlight()).isZero();
+    }
+
+    @Test
+    void differentKeysRunConcurrently() throws InterruptedException {
+        dispatcher.start();
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        AtomicInteger acked = new AtomicInteger();
+
+        // 서로 다른 lane 에 들어가는 두 키가 동시에 실행돼야 두 작업 모두 latch 를 통과한다.
+        String first = keyInLane(0);
+        String second = keyInLane(1);
+        Runnable task = () -> {
+            bothStarted.countDown();
+            await(bothStarted);
+        };
+        dispatcher.dispatch(record(0, 0L), first, acked::incrementAndGet, task);
+        dispatcher.dispatch(record(0, 1L), second, acked::incrementAndGet, task);
+
+        awaitCount(acked, 2);
+    }
+
+    @Test
+    void failedRecordIsRecoveredThenAcknowledged() throws InterruptedException {
+        dispatcher.start();
+        AtomicInteger acked = new AtomicInteger();
+        ConsumerRecord<String, String> failing = record(0, 5L);
+
+        dispatcher.dispatch(failing, "order-1", acked::incrementAndGet, () -> {
+            throw new IllegalStateException("downstream failure");
+        });
+
+        awaitCount(acked, 1);
+        assertThat(recovered).containsExactly(failing);
+    }
+
+    @Test
+    void abandonedPartitionSkipsQueuedRecordsUntilReassigned() throws InterruptedException {
+        dispatcher.start();
+        CountDownLatch blocking = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicInteger acked = new AtomicInteger();
+        AtomicInteger ran = new AtomicInteger();
+        TopicPartition partition = new TopicPartition(TOPIC, 0);
+
+        dispatcher.dispatch(record(0, 0L), "order-1", acked::incrementAndGet, () -> {
+            started.countDown();
+            await(blocking);
+            ran.incrementAndGet();
+        });
+        dispatcher.dispatch(record(0, 1L), "order-1", acked::incrementAndGet, ran::incrementAndGet);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        dispatcher.abandon(List.of(partition));
+        blocking.countDown();
+        dispatcher.drain(List.of(partition), Duration.ofSeconds(5));
+
+        // 실행 중이던 레코드는 끝까지 처리돼 ack 되고, 대기 중이던 레코드는 시작하지 않고 ack 도 하지 않는다.
+        assertThat(ran).hasValue(1);
+        assertThat(acked).hasValue(1);
+
+        dispatcher.assigned(List.of(partition));
+        dispatcher.dispatch(record(0, 1L), "order-1", acked::incrementAndGet, ran::incrementAndGet);
+        awaitCount(acked, 2);
+        assertThat(ran).hasValue(2);
+    }
+
+    @Test
+    void drainWaitsForInFlightRecordsOfRevokedPartition() {
+        dispatcher.start();
+        AtomicInteger acked = new AtomicInteger();
+        TopicPartition partition = new TopicPartition(TOPIC, 2);
+
+        for (long offset = 0; offset < 20; offset++) {
+            dispatcher.dispatch(record(2, offset), "order-" + offset, acked::incrementAndGet, () -> sleep(5L));
+        }
+        dispatcher.drain(List.of(partition), Duration.ofSeconds(10));
+
+        assertThat(acked).hasValue(20);
+    }
+
+    private static ConsumerRecord<String, String> record(int partition, long offset) {
+        return new ConsumerRecord<>(TOPIC, partition, offset, "key-" + offset, "value");
+    }
+
+    // dispatcher 와 같은 해시로 lanes(4) 중 원하는 lane 에 들어가는 키를 찾는다.
+    private static String keyInLane(int lane) {
+        for (int i = 0; ; i++) {
+            String key = "order-" + i;
+            int hash = key.hashCode();
+            if (Math.floorMod(hash ^ (hash >>> 16), 4) == lane) {
+                return key;
+            }
+        }
+    }
+
+    private static void awaitCount(AtomicInteger counter, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (counter.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5L);
+        }
+        assertThat(counter).hasValue(expected);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.notification.consumer;
+
+import com.example.notification.repository.OffsetWatermarkRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class RetryTopicRouterTest {
+
+    private static final String ORDER_CREATED = "order.created.v1";
+
+    @SuppressWarnings("unchecked")
+    private final RetryTopicRouter router = new RetryTopicRouter(
+            mock(KafkaTemplate.class),
+            new SimpleMeterRegistry(),
+            new StaticListableBeanFactory().getBeanProvider(OffsetWatermarkRepository.class),
+            List.of(Duration.ofSeconds(10), Duration.ofMinutes(1)),
+            ORDER_CREATED, ORDER_CREATED + ".dlq",
+            "order.shipped.v1", "order.shipped.v1.dlq",
+            "product.created.v1", "product.created.v1.dlq"
+    );
+
+    @Test
+    void buildsOneRetryTopicPerDelay() {
+        assertThat(router.retryTopics(ORDER_CREATED)).hasSize(2).allSatisfy(topic -> assertThat(topic).startsWith(ORDER_CREATED));
+        assertThat(router.allRetryTopics()).hasSize(6);
+    }
+
+    @Test
+    void remainingDelayFollowsDueAtHeader() {
+        long dueAt = System.currentTimeMillis() + 5_000;
+
+        long remaining = router.remainingDelayMillis(record(firstRetryTopic(), Long.toString(dueAt), System.currentTimeMillis()));
+
+        assertThat(remaining).isBetween(4_000L, 5_000L);
+    }
+
+    @Test
+    void remainingDelayFallsBackToRecordTimestampWithoutHeader() {
+        long remaining = router.remainingDelayMillis(record(firstRetryTopic(), null, System.currentTimeMillis()));
+
+        assertThat(remaining).isBetween(9_000L, 10_000L);
+    }
+
+    @Test
+    void malformedDueAtHeaderIsTreatedAsDue() {
+        long remaining = router.remainingDelayMillis(record(firstRetryTopic(), "not-a-number", System.currentTimeMillis()));
+
+        assertThat(remaining).isLessThanOrEqualTo(0L);
+    }
+
+    private String firstRetryTopic() {
+        return router.retryTopics(ORDER_CREATED).get(0);
+    }
+
+    private static ConsumerRecord<String, Object> record(String topic, String dueAt, long timestamp) {
+        RecordHeaders headers = new RecordHeaders();
+        if (dueAt != null) {
+            headers.add(RetryTopicRouter.DUE_AT_HEADER, dueAt.getBytes(StandardCharsets.US_ASCII));
+        }
+        return new ConsumerRecord<>(
+                topic, 0, 42L, timestamp, TimestampType.CREATE_TIME, -1, -1, "key", null, headers, Optional.empty()
+        );
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.notification.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class ConsistentHashRingTest {
+
+    private static final List<String> NODES = List.of("redis-a", "redis-b", "redis-c");
+    private static final int KEYS = 10_000;
+
+    @Test
+    void routesSameKeyToSameNode() {
+        ConsistentHashRing<String> ring = new ConsistentHashRing<>(NODES, Function.identity(), 128);
+        ConsistentHashRing<String> rebuilt = new ConsistentHashRing<>(NODES, Function.identity(), 128);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(rebuilt.route("event-" + i)).isEqualTo(ring.route("event-" + i));
+        }
+    }
+
+    @Test
+    void unavailableNodeOnlyMovesItsOwnKeys() {
+        ConsistentHashRing<String> ring = new ConsistentHashRing<>(NODES, Function.identity(), 128);
+
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String key = "event-" + i;
+            String owner = ring.route(key);
+            String fallback = ring.route(key, node -> !node.equals("redis-b"));
+            assertThat(fallback).isNotEqualTo("redis-b");
+            if (!owner.equals("redis-b")) {
+                assertThat(fallback).isEqualTo(owner);
+            } else {
+                moved++;
+            }
+        }
+        assertThat(moved).isPositive();
+    }
+
+    @Test
+    void returnsNullWhenNoNodeIsAvailable() {
+        ConsistentHashRing<String> ring = new ConsistentHashRing<>(NODES, Function.identity(), 16);
+
+        assertThat(ring.route("event-1", node -> false)).isNull();
+    }
+
+    @Test
+    void ownershipCoversWholeRingAndIsBalancedWithVirtualNodes() {
+        ConsistentHashRing<String> ring = new ConsistentHashRing<>(NODES, Function.identity(), 256);
+
+        Map<String, Double> ownership = ring.ownership();
+
+        assertThat(ownership.values().stream().mapToDouble(Double::doubleValue).sum()).isCloseTo(1.0, within(1e-9));
+        assertThat(ownership.values()).allSatisfy(share -> assertThat(share).isBetween(0.25, 0.42));
+    }
+
+    @Test
+    void requiresAtLeastOneNode() {
+        assertThatThrownBy(() -> new ConsistentHashRing<String>(List.of(), Function.identity(), 16))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
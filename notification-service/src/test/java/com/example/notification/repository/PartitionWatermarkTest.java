@@ -0,0 +1,85 @@
+package com.example.notification.repository;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PartitionWatermarkTest {
+
+    @Test
+    void offsetsAtOrBelowWatermarkAreProcessed() {
+        PartitionWatermark watermark = new PartitionWatermark(9, null);
+
+        assertThat(watermark.isProcessed(9)).isTrue();
+        assertThat(watermark.isProcessed(10)).isFalse();
+
+        watermark.advanceTo(15);
+
+        assertThat(watermark.isProcessed(15)).isTrue();
+        assertThat(watermark.isProcessed(16)).isFalse();
+    }
+
+    @Test
+    void outOfOrderCompletionIsAbsorbedWhenGapCloses() {
+        PartitionWatermark watermark = new PartitionWatermark(9, null);
+
+        assertThat(watermark.markCompleted(12, 10)).isTrue();
+        assertThat(watermark.markCompleted(11, 10)).isTrue();
+        assertThat(watermark.isProcessed(11)).isTrue();
+        assertThat(watermark.isProcessed(10)).isFalse();
+
+        watermark.markCompleted(10, 10);
+
+        assertThat(watermark.snapshotIfDirty()).isEqualTo(new PartitionWatermark.Snapshot(12, ""));
+    }
+
+    @Test
+    void restoresSparseOffsetsFromSnapshot() {
+        PartitionWatermark original = new PartitionWatermark(9, null);
+        original.markCompleted(12, 10);
+        original.markCompleted(14, 10);
+        PartitionWatermark.Snapshot snapshot = original.snapshotIfDirty();
+
+        PartitionWatermark restored = new PartitionWatermark(snapshot.watermark(), snapshot.sparse());
+
+        assertThat(snapshot.sparse()).isEqualTo("12,14");
+        assertThat(restored.isProcessed(12)).isTrue();
+        assertThat(restored.isProcessed(13)).isFalse();
+        assertThat(restored.isProcessed(14)).isTrue();
+    }
+
+    @Test
+    void snapshotOnlyWhenDirty() {
+        PartitionWatermark watermark = new PartitionWatermark(9, null);
+        assertThat(watermark.snapshotIfDirty()).isNull();
+
+        watermark.advanceTo(10);
+        assertThat(watermark.snapshotIfDirty()).isNotNull();
+        assertThat(watermark.snapshotIfDirty()).isNull();
+
+        // flush 실패 시 다시 기록 대상으로 돌린다.
+        watermark.markDirty();
+        assertThat(watermark.snapshotIfDirty()).isEqualTo(new PartitionWatermark.Snapshot(10, ""));
+    }
+
+    @Test
+    void sparseOverflowDropsLowestOffset() {
+        PartitionWatermark watermark = new PartitionWatermark(0, null);
+        watermark.markCompleted(5, 2);
+        watermark.markCompleted(7, 2);
+
+        assertThat(watermark.markCompleted(9, 2)).isFalse();
+        assertThat(watermark.isProcessed(5)).isFalse();
+        assertThat(watermark.isProcessed(7)).isTrue();
+        assertThat(watermark.isProcessed(9)).isTrue();
+    }
+
+    @Test
+    void advanceNeverMovesBackwards() {
+        PartitionWatermark watermark = new PartitionWatermark(20, null);
+        watermark.advanceTo(5);
+
+        assertThat(watermark.snapshotIfDirty()).isNull();
+        assertThat(watermark.isProcessed(20)).isTrue();
+    }
+}
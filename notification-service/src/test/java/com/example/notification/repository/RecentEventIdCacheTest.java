@@ -0,0 +1,63 @@
+package com.example.notification.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecentEventIdCacheTest {
+
+    @Test
+    void remembersPutEventIdsUntilInvalidated() {
+        RecentEventIdCache cache = new RecentEventIdCache(64, 60_000L);
+        cache.put("e1");
+        cache.put("e2");
+
+        assertThat(cache.contains("e1")).isTrue();
+        assertThat(cache.contains("e3")).isFalse();
+        assertThat(cache.size()).isEqualTo(2);
+
+        cache.invalidateAll(List.of("e1", "e2"));
+
+        assertThat(cache.contains("e1")).isFalse();
+        assertThat(cache.contains("e2")).isFalse();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.hits()).isEqualTo(1);
+        assertThat(cache.misses()).isEqualTo(3);
+    }
+
+    @Test
+    void repeatedPutDoesNotTakeAnotherSlot() {
+        RecentEventIdCache cache = new RecentEventIdCache(64, 60_000L);
+        cache.put("e1");
+        cache.put("e1");
+
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void expiredEntryIsMissAndFreesItsSlot() throws InterruptedException {
+        RecentEventIdCache cache = new RecentEventIdCache(64, 1L);
+        cache.put("e1");
+        Thread.sleep(5);
+
+        assertThat(cache.contains("e1")).isFalse();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.expiredEvictions()).isEqualTo(1);
+    }
+
+    @Test
+    void evictsWhenFullAndNeverExceedsCapacity() {
+        RecentEventIdCache cache = new RecentEventIdCache(16, 60_000L);
+        int puts = cache.capacity() * 4;
+        for (int i = 0; i < puts; i++) {
+            cache.put("event-" + i);
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(cache.capacity());
+        assertThat(cache.size() + cache.sizeEvictions()).isEqualTo(puts);
+        // 가장 최근에 넣은 항목은 밀려나지 않는다.
+        assertThat(cache.contains("event-" + (puts - 1))).isTrue();
+    }
+}
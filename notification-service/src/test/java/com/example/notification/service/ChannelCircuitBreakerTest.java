@@ -0,0 +1,109 @@
+package com.example.notification.service;
+
+import com.example.notification.service.ChannelCircuitBreaker.State;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChannelCircuitBreakerTest {
+
+    private final List<String> transitions = new ArrayList<>();
+
+    @Test
+    void staysClosedBelowMinimumCalls() {
+        ChannelCircuitBreaker breaker = breaker(TimeUnit.SECONDS.toNanos(30));
+
+        call(breaker, true, 3);
+
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+    }
+
+    @Test
+    void opensWhenFailureRateReachesThreshold() {
+        ChannelCircuitBreaker breaker = breaker(TimeUnit.SECONDS.toNanos(30));
+
+        call(breaker, false, 2);
+        call(breaker, true, 2);
+
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+        assertThat(breaker.isRejecting()).isTrue();
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+        assertThat(transitions).containsExactly("CLOSED->OPEN");
+    }
+
+    @Test
+    void halfOpenClosesAfterAllProbesSucceed() {
+        ChannelCircuitBreaker breaker = breaker(0L);
+        call(breaker, true, 4);
+
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        assertThat(breaker.state()).isEqualTo(State.HALF_OPEN);
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        // 시험 호출 자리(2)를 다 쓰면 거절한다.
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+
+        breaker.onSuccess();
+        breaker.onSuccess();
+
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+        assertThat(transitions).containsExactly("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED");
+    }
+
+    @Test
+    void halfOpenReopensOnProbeFailure() {
+        ChannelCircuitBreaker breaker = breaker(0L);
+        call(breaker, true, 4);
+
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    void ignoredProbeReturnsItsPermit() {
+        ChannelCircuitBreaker breaker = breaker(0L);
+        call(breaker, true, 4);
+        breaker.tryAcquirePermission();
+        breaker.tryAcquirePermission();
+
+        breaker.onIgnored();
+
+        assertThat(breaker.isCallPermitted()).isTrue();
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+    }
+
+    @Test
+    void failureRateIsMeasuredOverTheRecentWindowOnly() {
+        ChannelCircuitBreaker breaker = breaker(TimeUnit.SECONDS.toNanos(30));
+
+        call(breaker, true, 1);
+        call(breaker, false, 7);
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+
+        // 누적으로는 3/10 이지만 최근 4번 중 2번이 실패라 OPEN.
+        call(breaker, true, 2);
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+    }
+
+    // window 4, minimumCalls 4, 실패율 50% 이상이면 OPEN, 시험 호출 2번.
+    private ChannelCircuitBreaker breaker(long openDurationNanos) {
+        return new ChannelCircuitBreaker(4, 4, 50.0, openDurationNanos, 2, (from, to) -> transitions.add(from + "->" + to));
+    }
+
+    private static void call(ChannelCircuitBreaker breaker, boolean failed, int times) {
+        for (int i = 0; i < times; i++) {
+            assertThat(breaker.tryAcquirePermission()).isTrue();
+            if (failed) {
+                breaker.onFailure();
+            } else {
+                breaker.onSuccess();
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.notification.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DispatchRingBufferTest {
+
+    private static final long NO_WAIT = 0L;
+    private static final long LINGER = TimeUnit.MILLISECONDS.toNanos(20);
+
+    @Test
+    void drainsInOfferOrderUpToMax() throws InterruptedException {
+        DispatchRingBuffer<Integer> buffer = new DispatchRingBuffer<>(8);
+        for (int i = 0; i < 5; i++) {
+            assertThat(buffer.offer(i, NO_WAIT)).isTrue();
+        }
+
+        assertThat(buffer.drain(3, NO_WAIT, NO_WAIT)).containsExactly(0, 1, 2);
+        assertThat(buffer.drain(3, NO_WAIT, NO_WAIT)).containsExactly(3, 4);
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    void offerFailsWhenFullUntilSpaceIsFreed() throws InterruptedException {
+        DispatchRingBuffer<Integer> buffer = new DispatchRingBuffer<>(2);
+        buffer.offer(1, NO_WAIT);
+        buffer.offer(2, NO_WAIT);
+
+        assertThat(buffer.offer(3, TimeUnit.MILLISECONDS.toNanos(10))).isFalse();
+
+        buffer.drain(1, NO_WAIT, NO_WAIT);
+        assertThat(buffer.offer(3, NO_WAIT)).isTrue();
+        assertThat(buffer.drainAll()).containsExactly(2, 3);
+    }
+
+    @Test
+    void wrapsAroundWithoutLosingOrder() throws InterruptedException {
+        DispatchRingBuffer<Integer> buffer = new DispatchRingBuffer<>(3);
+        List<Integer> drained = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            buffer.offer(i, NO_WAIT);
+            if (buffer.size() == 2) {
+                drained.addAll(buffer.drain(2, NO_WAIT, NO_WAIT));
+            }
+        }
+        drained.addAll(buffer.drainAll());
+
+        assertThat(drained).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+    }
+
+    @Test
+    void emptyDrainReturnsAfterPollTimeout() throws InterruptedException {
+        DispatchRingBuffer<Integer> buffer = new DispatchRingBuffer<>(4);
+
+        assertThat(buffer.drain(4, TimeUnit.MILLISECONDS.toNanos(10), LINGER)).isEmpty();
+    }
+
+    @Test
+    void drainLingersToCollectItemsOfferedAfterTheFirst() throws InterruptedException {
+        DispatchRingBuffer<Integer> buffer = new DispatchRingBuffer<>(16);
+        buffer.offer(0, NO_WAIT);
+        Thread producer = new Thread(() -> {
+            try {
+                buffer.offer(1, NO_WAIT);
+                buffer.offer(2, NO_WAIT);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+
+        List<Integer> drained = buffer.drain(3, NO_WAIT, TimeUnit.SECONDS.toNanos(5));
+        producer.join();
+
+        // max 개가 모이면 linger 를 다 기다리지 않고 돌아온다.
+        assertThat(drained).containsExactly(0, 1, 2);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.notification.service;
+
+import com.example.notification.domain.NotificationChannel;
+import com.example.notification.dto.DeliveryResult;
+import com.example.notification.dto.OutgoingNotification;
+import com.example.notification.exception.ChannelUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NotificationDispatchPipelineTest {
+
+    private static final int SUBMITTERS = 8;
+
+    @Test
+    void deliversSubmittedNotifications() {
+        NotificationDispatchPipeline pipeline = pipeline();
+        pipeline.start();
+        try {
+            CompletableFuture<Void> result = pipeline.submit(NotificationChannel.ORDER_CONFIRMATION, notification(1));
+
+            assertThat(result).succeedsWithin(Duration.ofSeconds(5));
+        } finally {
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    void rejectsSubmitAfterStop() {
+        NotificationDispatchPipeline pipeline = pipeline();
+        pipeline.start();
+        pipeline.stop();
+
+        assertThatThrownBy(() -> pipeline.submit(NotificationChannel.ORDER_CONFIRMATION, notification(1)))
+                .isInstanceOf(ChannelUnavailableException.class);
+    }
+
+    @Test
+    void everyAcceptedNotificationCompletesWhenStopRacesWithSubmit() throws InterruptedException {
+        for (int round = 0; round < 20; round++) {
+            NotificationDispatchPipeline pipeline = pipeline();
+            pipeline.start();
+            Queue<CompletableFuture<Void>> accepted = new ConcurrentLinkedQueue<>();
+            CountDownLatch started = new CountDownLatch(SUBMITTERS);
+            Thread[] submitters = new Thread[SUBMITTERS];
+            for (int i = 0; i < SUBMITTERS; i++) {
+                submitters[i] = new Thread(() -> {
+                    started.countDown();
+                    for (int n = 0; ; n++) {
+                        try {
+                            accepted.add(pipeline.submit(NotificationChannel.ORDER_CONFIRMATION, notification(n)));
+                        } catch (ChannelUnavailableException exception) {
+                            return;
+                        }
+                    }
+                });
+                submitters[i].start();
+            }
+            started.await();
+
+            pipeline.stop();
+            for (Thread submitter : submitters) {
+                submitter.join(TimeUnit.SECONDS.toMillis(5));
+            }
+
+            // 멈춘 뒤에 받아들여져 아무도 완료하지 않는 항목이 없어야 한다(전달 또는 ChannelUnavailableException).
+            assertThat(accepted).allSatisfy(result -> assertThat(result).succeedsWithin(Duration.ofSeconds(5)));
+        }
+    }
+
+    private static NotificationDispatchPipeline pipeline() {
+        return new NotificationDispatchPipeline(
+                (channel, notifications) -> CompletableFuture.completedFuture(notifications.stream()
+                        .map(notification -> new DeliveryResult(notification.eventId(), true, null))
+                        .toList()),
+                new SimpleMeterRegistry(),
+                64,
+                16,
+                Duration.ofMillis(1),
+                4,
+                Duration.ofMillis(50),
+                Duration.ofSeconds(5),
+                Duration.ofSeconds(5)
+        );
+    }
+
+    private static OutgoingNotification notification(int index) {
+        return new OutgoingNotification("event-" + index, "order-" + index, "customer-" + index, "message");
+    }
+}
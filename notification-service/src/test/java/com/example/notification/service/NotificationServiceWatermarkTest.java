@@ -0,0 +1,172 @@
+package com.example.notification.service;
+
+import com.example.common.event.OrderCreatedEvent;
+import com.example.notification.config.DedupMode;
+import com.example.notification.domain.NotificationStatus;
+import com.example.notification.dto.RecordPosition;
+import com.example.notification.repository.BucketedEventIdStore;
+import com.example.notification.repository.OffsetWatermarkRepository;
+import com.example.notification.repository.PartitionLocalEventIdStore;
+import com.example.notification.repository.PipelinedEventIdStore;
+import com.example.notification.repository.ProcessedEventRepository;
+import com.example.notification.repository.RecentEventIdCache;
+import com.example.notification.repository.ShardedEventIdStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.when;
+
+// 같은 레코드 흐름을 모드별로 처리하며 Redis 명령 수를 센다(watermark 저장소는 mock Redis, eventId 예약은 호출 횟수).
+class NotificationServiceWatermarkTest {
+
+    private static final String TOPIC = "order.created.v1";
+    private static final int RECORDS = 1000;
+    private static final int FLUSH_BATCH_SIZE = 500;
+
+    private final StringRedisTemplate redisTemplate = mockRedis();
+    private final CountingProcessedEventRepository processedEventRepository = new CountingProcessedEventRepository();
+
+    @Test
+    void watermarkModeIssuesNoPerRecordRedisCommands() {
+        NotificationService service = service(DedupMode.WATERMARK, false);
+
+        processRecords(service);
+
+        assertThat(processedEventRepository.reservations).isZero();
+        // 파티션 첫 레코드의 HGET 2회 + flush-batch-size 건마다 스크립트 1회
+        assertThat(redisCommands()).isEqualTo(2 + RECORDS / FLUSH_BATCH_SIZE);
+    }
+
+    @Test
+    void eventIdModeReservesEveryRecord() {
+        NotificationService service = service(DedupMode.EVENT_ID, false);
+
+        processRecords(service);
+
+        assertThat(processedEventRepository.reservations).isEqualTo(RECORDS);
+    }
+
+    @Test
+    void eventIdGuardReservesRecordsAboveWatermark() {
+        NotificationService service = service(DedupMode.WATERMARK, true);
+
+        processRecords(service);
+
+        assertThat(processedEventRepository.reservations).isEqualTo(RECORDS);
+    }
+
+    @Test
+    void replayedOffsetIsDuplicateWithoutRedis() {
+        NotificationService service = service(DedupMode.WATERMARK, false);
+        OrderCreatedEvent event = event(0);
+        RecordPosition position = new RecordPosition(TOPIC, 0, 0);
+        service.processOrderCreated(event, position);
+        int commands = redisCommands();
+
+        assertThat(service.processOrderCreated(event, position).status()).isEqualTo(NotificationStatus.DUPLICATE);
+        assertThat(redisCommands()).isEqualTo(commands);
+    }
+
+    @Test
+    void republishedEventIsCaughtOnlyWithGuard() {
+        NotificationService withoutGuard = service(DedupMode.WATERMARK, false);
+        withoutGuard.processOrderCreated(event(0), new RecordPosition(TOPIC, 0, 0));
+        assertThat(withoutGuard.processOrderCreated(event(0), new RecordPosition(TOPIC, 0, 1)).status())
+                .isEqualTo(NotificationStatus.SENT);
+
+        NotificationService withGuard = service(DedupMode.WATERMARK, true);
+        withGuard.processOrderCreated(event(1), new RecordPosition(TOPIC, 1, 0));
+        assertThat(withGuard.processOrderCreated(event(1), new RecordPosition(TOPIC, 1, 1)).status())
+                .isEqualTo(NotificationStatus.DUPLICATE);
+    }
+
+    private void processRecords(NotificationService service) {
+        for (int offset = 0; offset < RECORDS; offset++) {
+            assertThat(service.processOrderCreated(event(offset), new RecordPosition(TOPIC, 0, offset)).status())
+                    .isEqualTo(NotificationStatus.SENT);
+        }
+    }
+
+    private NotificationService service(DedupMode dedupMode, boolean watermarkEventIdGuard) {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        if (dedupMode == DedupMode.WATERMARK) {
+            beanFactory.registerSingleton("offsetWatermarkRepository", new OffsetWatermarkRepository(
+                    redisTemplate, "notification-service", FLUSH_BATCH_SIZE, 60_000L, 10_000, false
+            ));
+        }
+        return new NotificationService(
+                processedEventRepository,
+                new NotificationSender(beanFactory.getBeanProvider(NotificationDispatchPipeline.class)),
+                beanFactory.getBeanProvider(OffsetWatermarkRepository.class),
+                beanFactory.getBeanProvider(PartitionLocalEventIdStore.class),
+                new EventLatencyMetrics(new SimpleMeterRegistry()),
+                new NotificationChannelGuard(new SimpleMeterRegistry(), false, 20, 10, 50, Duration.ofSeconds(30), 3, 32, Duration.ofMillis(500)),
+                dedupMode,
+                watermarkEventIdGuard
+        );
+    }
+
+    private int redisCommands() {
+        HashOperations<String, Object, Object> hashOperations = redisTemplate.opsForHash();
+        long scripts = mockingDetails(redisTemplate).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals("execute"))
+                .count();
+        return mockingDetails(hashOperations).getInvocations().size() + (int) scripts;
+    }
+
+    private static OrderCreatedEvent event(int index) {
+        return new OrderCreatedEvent(
+                "event-" + index, "order-" + index, "customer-" + index, "customer-" + index + "@example.com",
+                new BigDecimal("129000.50"), "KRW", Instant.now()
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    private static StringRedisTemplate mockRedis() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        HashOperations<String, Object, Object> hashOperations = mock(HashOperations.class);
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        return redisTemplate;
+    }
+
+    private static class CountingProcessedEventRepository extends ProcessedEventRepository {
+
+        private final Set<String> reserved = new HashSet<>();
+        private int reservations;
+
+        CountingProcessedEventRepository() {
+            super(
+                    null,
+                    new StaticListableBeanFactory().getBeanProvider(RecentEventIdCache.class),
+                    new StaticListableBeanFactory().getBeanProvider(BucketedEventIdStore.class),
+                    new StaticListableBeanFactory().getBeanProvider(ShardedEventIdStore.class),
+                    new StaticListableBeanFactory().getBeanProvider(PipelinedEventIdStore.class),
+                    new SimpleMeterRegistry()
+            );
+        }
+
+        @Override
+        public boolean reserveIfAbsent(RecordPosition position, String eventId) {
+            reservations++;
+            return reserved.add(eventId);
+        }
+
+        @Override
+        public void releaseReservation(RecordPosition position, String eventId) {
+            reserved.remove(eventId);
+        }
+    }
+}
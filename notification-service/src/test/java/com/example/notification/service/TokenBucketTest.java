@@ -0,0 +1,48 @@
+package com.example.notification.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    @Test
+    void burstUpToCapacityDoesNotWait() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(10, 100);
+
+        long started = System.nanoTime();
+        bucket.acquire(100);
+
+        assertThat(elapsedMillis(started)).isLessThan(50);
+    }
+
+    @Test
+    void waitsForMissingTokensAtConfiguredRate() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1000, 10);
+        bucket.acquire(10);
+
+        long started = System.nanoTime();
+        bucket.acquire(100);
+
+        // 100개가 모자라므로 초당 1000개 속도로 약 100ms 를 기다린다.
+        assertThat(elapsedMillis(started)).isBetween(80L, 1000L);
+    }
+
+    @Test
+    void requestLargerThanCapacityIsPaidBackByLaterCalls() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1000, 10);
+
+        long started = System.nanoTime();
+        bucket.acquire(60);
+        bucket.acquire(50);
+
+        // 처음 10개 이후 100개 분량(약 100ms)을 두 번에 나눠 갚는다.
+        assertThat(elapsedMillis(started)).isBetween(80L, 1000L);
+    }
+
+    private static long elapsedMillis(long startedNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+    }
+}
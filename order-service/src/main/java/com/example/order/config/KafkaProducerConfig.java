@@ -1,39 +1,79 @@
 package com.example.order.config;
 
+import com.example.common.kafka.ProducerProfile;
+import com.example.common.publication.PublicationTracker;
+import com.example.common.serde.EventFormat;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerProducerListener;
 import org.springframework.kafka.core.ProducerFactory;
-import org.springframework.kafka.support.serializer.JsonSerializer;
 
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Configuration
 public class KafkaProducerConfig {
 
     @Bean
-    public ProducerFactory<String, Object> producerFactory(@Value("${spring.kafka.bootstrap-servers}") String bootstrapServers) {
-        Map<String, Object> configs = new HashMap<>();
-        configs.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        configs.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configs.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
-        configs.put(ProducerConfig.ACKS_CONFIG, "all");
-        configs.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
-        configs.put(ProducerConfig.RETRIES_CONFIG, Integer.MAX_VALUE);
-        configs.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
-        return new DefaultKafkaProducerFactory<>(configs);
+    public ProducerFactory<String, Object> orderCreatedProducerFactory(
+            @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
+            @Value("${app.kafka.producer.buffer-memory}") long bufferMemory,
+            @Value("${app.kafka.producer.order-created.profile}") ProducerProfile profile,
+            @Value("${app.kafka.producer.order-created.compression:}") String compression,
+            @Value("${app.kafka.producer.order-created.format:JSON}") EventFormat format,
+            @Value("${app.kafka.topics.order-created}") String topic,
+            MeterRegistry meterRegistry
+    ) {
+        return producerFactory(bootstrapServers, bufferMemory, profile, compression, format, topic, meterRegistry);
+    }
+
+    @Bean
+    public ProducerFactory<String, Object> orderShippedProducerFactory(
+            @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
+            @Value("${app.kafka.producer.buffer-memory}") long bufferMemory,
+            @Value("${app.kafka.producer.order-shipped.profile}") ProducerProfile profile,
+            @Value("${app.kafka.producer.order-shipped.compression:}") String compression,
+            @Value("${app.kafka.producer.order-shipped.format:JSON}") EventFormat format,
+            @Value("${app.kafka.topics.order-shipped}") String topic,
+            MeterRegistry meterRegistry
+    ) {
+        return producerFactory(bootstrapServers, bufferMemory, profile, compression, format, topic, meterRegistry);
+    }
+
+    @Bean
+    public KafkaTemplate<String, Object> orderCreatedKafkaTemplate(
+            @Qualifier("orderCreatedProducerFactory") ProducerFactory<String, Object> orderCreatedProducerFactory
+    ) {
+        return new KafkaTemplate<>(orderCreatedProducerFactory);
     }
 
     @Bean
-    public KafkaTemplate<String, Object> kafkaTemplate(ProducerFactory<String, Object> producerFactory) {
-        return new KafkaTemplate<>(producerFactory);
+    public KafkaTemplate<String, Object> orderShippedKafkaTemplate(
+            @Qualifier("orderShippedProducerFactory") ProducerFactory<String, Object> orderShippedProducerFactory
+    ) {
+        return new KafkaTemplate<>(orderShippedProducerFactory);
+    }
+
+    @Bean
+    public PublicationTracker publicationTracker(@Value("${app.publication.tracker-capacity}") int capacity) {
+        return new PublicationTracker(capacity);
     }
 
     @Bean
@@ -59,4 +99,61 @@ public class KafkaProducerConfig {
                 .replicas(replicationFactor)
                 .build();
     }
+
+    private ProducerFactory<String, Object> producerFactory(
+            String bootstrapServers,
+            long bufferMemory,
+            ProducerProfile profile,
+            String compression,
+            EventFormat format,
+            String topic,
+            MeterRegistry meterRegistry
+    ) {
+        Map<String, Object> configs = new HashMap<>();
+        configs.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configs.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configs.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, format.serializerClass());
+        configs.put(ProducerConfig.ACKS_CONFIG, "all");
+        configs.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        configs.put(ProducerConfig.RETRIES_CONFIG, Integer.MAX_VALUE);
+        configs.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        configs.put(ProducerConfig.BUFFER_MEMORY_CONFIG, bufferMemory);
+        configs.put(ProducerConfig.CLIENT_ID_CONFIG, "order-service-" + topic);
+        profile.applyTo(configs, compression);
+
+        DefaultKafkaProducerFactory<String, Object> factory = new DefaultKafkaProducerFactory<>(configs);
+        // record-size-avg, compression-rate-avg 등 클라이언트 메트릭을 kafka.producer.* 로 노출한다.
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry, List.of(Tag.of("profile", profile.tagValue()))));
+        // KafkaTemplate.metrics() 는 프로듀서가 없으면 새로 만들므로, 스크레이프 때는 팩토리가 이미 만든 프로듀서의 메트릭만 읽는다.
+        Map<String, Producer<String, Object>> producers = new ConcurrentHashMap<>();
+        factory.addListener(new ProducerFactory.Listener<>() {
+            @Override
+            public void producerAdded(String id, Producer<String, Object> producer) {
+                producers.put(id, producer);
+            }
+
+            @Override
+            public void producerRemoved(String id, Producer<String, Object> producer) {
+                producers.remove(id, producer);
+            }
+        });
+        Gauge.builder("kafka.producer.batch.fill.ratio", producers, p -> producerMetric(p.values(), "batch-size-avg") / profile.batchSize())
+                .description("Average produced batch size relative to the profile batch.size")
+                .tag("topic", topic)
+                .tag("profile", profile.tagValue())
+                .register(meterRegistry);
+        return factory;
+    }
+
+    private double producerMetric(Collection<Producer<String, Object>> producers, String name) {
+        for (Producer<String, Object> producer : producers) {
+            for (Map.Entry<MetricName, ? extends Metric> entry : producer.metrics().entrySet()) {
+                if ("producer-metrics".equals(entry.getKey().group()) && name.equals(entry.getKey().name())
+                        && entry.getValue().metricValue() instanceof Number value) {
+                    return value.doubleValue();
+                }
+            }
+        }
+        return Double.NaN;
+    }
 }
@@ -0,0 +1,31 @@
+package com.example.order.config;
+
+import com.example.order.outbox.OutboxFsyncPolicy;
+import com.example.order.outbox.OutboxJournal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+@Configuration
+@ConditionalOnProperty(name = "app.outbox.enabled", havingValue = "true")
+public class OutboxConfig {
+
+    @Bean(destroyMethod = "close")
+    public OutboxJournal outboxJournal(
+            @Value("${app.outbox.directory}") String directory,
+            @Value("${app.outbox.segment-size-bytes}") int segmentSizeBytes,
+            @Value("${app.outbox.fsync-policy}") OutboxFsyncPolicy fsyncPolicy,
+            @Value("${app.outbox.fsync-interval-ms}") long fsyncIntervalMs
+    ) {
+        try {
+            return new OutboxJournal(Path.of(directory), segmentSizeBytes, fsyncPolicy, fsyncIntervalMs);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Failed to open outbox journal. directory=" + directory, exception);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.order.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class RequestExecutorConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestExecutorConfig.class);
+
+    @Bean
+    public Executor requestExecutor(
+            @Value("${app.web.executor.mode}") RequestExecutorMode mode,
+            @Value("${app.web.executor.pool-size}") int poolSize
+    ) {
+        return switch (mode) {
+            case DIRECT -> Runnable::run;
+            case PLATFORM -> platformExecutor(poolSize);
+            case VIRTUAL -> virtualExecutor(poolSize);
+        };
+    }
+
+    private ExecutorService platformExecutor(int poolSize) {
+        AtomicInteger sequence = new AtomicInteger();
+        return Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "request-exec-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private ExecutorService virtualExecutor(int poolSize) {
+        // 빌드 타깃은 Java 17 이므로 가상 스레드는 Java 21+ 런타임에서만 리플렉션으로 사용한다.
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException exception) {
+            log.warn("Virtual threads are not available on Java {}. Falling back to platform pool. poolSize={}",
+                    Runtime.version().feature(), poolSize);
+            return platformExecutor(poolSize);
+        }
+    }
+}
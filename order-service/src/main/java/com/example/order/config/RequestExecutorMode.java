@@ -0,0 +1,7 @@
+package com.example.order.config;
+
+public enum RequestExecutorMode {
+    DIRECT,
+    PLATFORM,
+    VIRTUAL
+}
@@ -1,6 +1,8 @@
 package com.example.order.controller;
 
+import com.example.order.exception.BatchSizeExceededException;
 import com.example.order.exception.EventPublishException;
+import com.example.order.exception.UnsupportedAwaitModeException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -26,6 +28,26 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(body);
     }
 
+    @ExceptionHandler(BatchSizeExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleBatchSizeExceeded(BatchSizeExceededException exception) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", Instant.now());
+        body.put("status", HttpStatus.BAD_REQUEST.value());
+        body.put("error", "Batch size exceeded");
+        body.put("message", exception.getMessage());
+        return ResponseEntity.badRequest().body(body);
+    }
+
+    @ExceptionHandler(UnsupportedAwaitModeException.class)
+    public ResponseEntity<Map<String, Object>> handleUnsupportedAwaitMode(UnsupportedAwaitModeException exception) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", Instant.now());
+        body.put("status", HttpStatus.BAD_REQUEST.value());
+        body.put("error", "Unsupported await mode");
+        body.put("message", exception.getMessage());
+        return ResponseEntity.badRequest().body(body);
+    }
+
     @ExceptionHandler(EventPublishException.class)
     public ResponseEntity<Map<String, Object>> handleEventPublish(EventPublishException exception) {
         Map<String, Object> body = new HashMap<>();
@@ -1,5 +1,8 @@
 package com.example.order.controller;
 
+import com.example.common.publication.PublicationStatus;
+import com.example.order.dto.CreateOrderBatchRequest;
+import com.example.order.dto.CreateOrderBatchResponse;
 import com.example.order.dto.CreateOrderRequest;
 import com.example.order.dto.CreateOrderResponse;
 import com.example.order.dto.UpdateOrderStatusRequest;
@@ -7,13 +10,18 @@ import com.example.order.dto.UpdateOrderStatusResponse;
 import com.example.order.service.OrderService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/orders")
 public class OrderController {
@@ -26,16 +34,33 @@ public class OrderController {
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public CreateOrderResponse createOrder(@Valid @RequestBody CreateOrderRequest request) {
-        return orderService.createOrder(request);
+    public CompletableFuture<CreateOrderResponse> createOrder(
+            @Valid @RequestBody CreateOrderRequest request,
+            @RequestParam(name = "await", required = false) String await,
+            @RequestParam(name = "timeoutMs", required = false) Long timeoutMs
+    ) {
+        return orderService.createOrderAsync(request, await, timeoutMs);
+    }
+
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.OK)
+    public CompletableFuture<CreateOrderBatchResponse> createOrders(@Valid @RequestBody CreateOrderBatchRequest request) {
+        return orderService.createOrdersAsync(request.orders());
     }
 
     @PostMapping("/{orderId}/status")
     @ResponseStatus(HttpStatus.OK)
-    public UpdateOrderStatusResponse updateOrderStatus(
+    public CompletableFuture<UpdateOrderStatusResponse> updateOrderStatus(
             @PathVariable String orderId,
             @Valid @RequestBody UpdateOrderStatusRequest request
     ) {
-        return orderService.updateOrderStatus(orderId, request);
+        return orderService.updateOrderStatusAsync(orderId, request);
+    }
+
+    @GetMapping("/events/{eventId}")
+    public ResponseEntity<PublicationStatus> getEventPublication(@PathVariable("eventId") String eventId) {
+        return orderService.findPublication(eventId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 }
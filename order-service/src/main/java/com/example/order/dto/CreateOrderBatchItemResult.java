@@ -0,0 +1,12 @@
+package com.example.order.dto;
+
+public record CreateOrderBatchItemResult(
+        int index,
+        String orderId,
+        String eventId,
+        String status,
+        Integer partition,
+        Long offset,
+        String error
+) {
+}
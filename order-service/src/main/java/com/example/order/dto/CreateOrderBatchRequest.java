@@ -0,0 +1,11 @@
+package com.example.order.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record CreateOrderBatchRequest(
+        @NotEmpty(message = "orders must not be empty")
+        List<CreateOrderRequest> orders
+) {
+}
@@ -0,0 +1,15 @@
+package com.example.order.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public record CreateOrderBatchResponse(
+        int requested,
+        int published,
+        int rejected,
+        int pending,
+        int failed,
+        Instant createdAt,
+        List<CreateOrderBatchItemResult> results
+) {
+}
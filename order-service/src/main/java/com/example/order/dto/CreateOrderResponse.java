@@ -6,6 +6,8 @@ public record CreateOrderResponse(
         String orderId,
         String eventId,
         String status,
-        Instant createdAt
+        Instant createdAt,
+        Integer partition,
+        Long offset
 ) {
 }
@@ -0,0 +1,8 @@
+package com.example.order.exception;
+
+public class BatchSizeExceededException extends RuntimeException {
+
+    public BatchSizeExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.order.exception;
+
+// 다시 읽어도 보낼 수 없는 outbox 레코드(CRC 불일치, 역직렬화 실패). relay 가 재시도 한도 뒤 격리하고 nextPosition 으로 넘어간다.
+public class PoisonOutboxRecordException extends RuntimeException {
+
+    private final long position;
+    private final long nextPosition;
+    private final transient byte[] body;
+
+    public PoisonOutboxRecordException(String message, long position, long nextPosition, byte[] body, Throwable cause) {
+        super(message, cause);
+        this.position = position;
+        this.nextPosition = nextPosition;
+        this.body = body;
+    }
+
+    public long position() {
+        return position;
+    }
+
+    public long nextPosition() {
+        return nextPosition;
+    }
+
+    public byte[] body() {
+        return body;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.order.exception;
+
+public class UnsupportedAwaitModeException extends RuntimeException {
+
+    public UnsupportedAwaitModeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.order.outbox;
+
+import com.example.common.event.OrderCreatedEvent;
+import com.example.common.event.OrderShippedEvent;
+import com.example.common.publication.PublicationTracker;
+import com.example.order.exception.EventPublishException;
+import com.example.order.exception.PoisonOutboxRecordException;
+import com.example.order.producer.OrderEventProducer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+@Component
+@ConditionalOnProperty(name = "app.outbox.enabled", havingValue = "true")
+public class OrderEventOutbox {
+
+    private static final byte ORDER_CREATED = 1;
+    private static final byte ORDER_SHIPPED = 2;
+
+    private final OutboxJournal outboxJournal;
+    private final OrderEventProducer orderEventProducer;
+    private final ObjectMapper objectMapper;
+    private final PublicationTracker publicationTracker;
+    private final String orderCreatedTopic;
+    private final String orderShippedTopic;
+
+    public OrderEventOutbox(
+            OutboxJournal outboxJournal,
+            OrderEventProducer orderEventProducer,
+            ObjectMapper objectMapper,
+            PublicationTracker publicationTracker,
+            @Value("${app.kafka.topics.order-created}") String orderCreatedTopic,
+            @Value("${app.kafka.topics.order-shipped}") String orderShippedTopic
+    ) {
+        this.outboxJournal = outboxJournal;
+        this.orderEventProducer = orderEventProducer;
+        this.objectMapper = objectMapper;
+        this.publicationTracker = publicationTracker;
+        this.orderCreatedTopic = orderCreatedTopic;
+        this.orderShippedTopic = orderShippedTopic;
+    }
+
+    // relay 가 append 직후 보내고 ack 를 먼저 기록할 수 있으므로, tracker 등록은 저널에 쓰기 전에 한다.
+    public void appendOrderCreated(OrderCreatedEvent event) {
+        publicationTracker.register(event.eventId(), orderCreatedTopic);
+        append(ORDER_CREATED, event.orderId(), event.eventId(), event, "order-created");
+    }
+
+    public void appendOrderShipped(OrderShippedEvent event) {
+        publicationTracker.register(event.eventId(), orderShippedTopic);
+        append(ORDER_SHIPPED, event.orderId(), event.eventId(), event, "order-shipped");
+    }
+
+    // 본문을 해석할 수 없는 레코드는 다시 읽어도 같으므로 PoisonOutboxRecordException 으로 알린다. 전송 실패는 future 로 돌려준다.
+    CompletableFuture<SendResult<String, Object>> relay(OutboxRecord record) {
+        byte type;
+        Object event;
+        try {
+            ByteBuffer body = ByteBuffer.wrap(record.body());
+            type = body.get();
+            int keyLength = body.getInt();
+            body.position(body.position() + keyLength);
+            byte[] payload = new byte[body.remaining()];
+            body.get(payload);
+            event = switch (type) {
+                case ORDER_CREATED -> objectMapper.readValue(payload, OrderCreatedEvent.class);
+                case ORDER_SHIPPED -> objectMapper.readValue(payload, OrderShippedEvent.class);
+                default -> throw new IllegalStateException("Unknown outbox event type=" + type);
+            };
+        } catch (IOException | RuntimeException exception) {
+            throw new PoisonOutboxRecordException(
+                    "Outbox record could not be decoded. position=" + record.position(),
+                    record.position(), record.nextPosition(), record.body(), exception
+            );
+        }
+
+        return type == ORDER_CREATED
+                ? orderEventProducer.sendOrderCreated((OrderCreatedEvent) event)
+                : orderEventProducer.sendOrderShipped((OrderShippedEvent) event);
+    }
+
+    // 기록에 실패하면 등록해 둔 PENDING 항목을 FAILED 로 끝내 대기 중인 호출자가 시간 초과까지 기다리지 않게 한다.
+    private void append(byte type, String key, String eventId, Object event, String eventType) {
+        try {
+            byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+            byte[] payload = objectMapper.writeValueAsBytes(event);
+            ByteBuffer body = ByteBuffer.allocate(1 + Integer.BYTES + keyBytes.length + payload.length);
+            body.put(type).putInt(keyBytes.length).put(keyBytes).put(payload);
+            outboxJournal.append(body.array());
+        } catch (IOException | RuntimeException exception) {
+            publicationTracker.failed(eventId, exception);
+            throw new EventPublishException("Order event[" + eventType + "] outbox append failed. Verify outbox directory availability.", exception);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.order.outbox;
+
+public enum OutboxFsyncPolicy {
+    ALWAYS,
+    INTERVAL,
+    NONE
+}
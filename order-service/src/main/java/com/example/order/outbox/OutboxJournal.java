@@ -0,0 +1,352 @@
+package com.example.order.outbox;
+
+import com.example.order.exception.PoisonOutboxRecordException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+public class OutboxJournal implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxJournal.class);
+    private static final int HEADER_BYTES = 8;
+    private static final String SEGMENT_SUFFIX = ".segment";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final String QUARANTINE_DIRECTORY = "quarantine";
+    private static final String QUARANTINE_SUFFIX = ".record";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final OutboxFsyncPolicy fsyncPolicy;
+    private final ConcurrentMap<Long, MappedByteBuffer> segments = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+    private final ScheduledExecutorService flusher;
+
+    // 레코드 위치는 전 세그먼트에 걸친 논리 오프셋이며, position / segmentBytes 가 세그먼트 번호가 된다.
+    private volatile long writePosition;
+    private volatile long ackedPosition;
+    private volatile MappedByteBuffer activeSegment;
+    private volatile Thread waiter;
+
+    public OutboxJournal(Path directory, int segmentBytes, OutboxFsyncPolicy fsyncPolicy, long fsyncIntervalMs) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.fsyncPolicy = fsyncPolicy;
+        Files.createDirectories(directory);
+        recover();
+
+        if (fsyncPolicy == OutboxFsyncPolicy.INTERVAL) {
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "outbox-journal-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::forceActiveSegment, fsyncIntervalMs, fsyncIntervalMs, TimeUnit.MILLISECONDS);
+        } else {
+            flusher = null;
+        }
+    }
+
+    public long append(byte[] body) {
+        int recordBytes = HEADER_BYTES + body.length;
+        if (recordBytes > segmentBytes) {
+            throw new IllegalArgumentException("Outbox record exceeds segment size. recordBytes=" + recordBytes + ", segmentBytes=" + segmentBytes);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(body);
+
+        long position;
+        synchronized (writeLock) {
+            position = writePosition;
+            int offset = offsetOf(position);
+            if (offset + recordBytes > segmentBytes) {
+                rollFrom(position, offset);
+                position = nextSegmentBase(position);
+                offset = 0;
+            }
+
+            MappedByteBuffer segment = segment(segmentIndexOf(position), true);
+            activeSegment = segment;
+            segment.putInt(offset + 4, (int) crc.getValue());
+            segment.put(offset + HEADER_BYTES, body);
+            // 길이를 마지막에 써서, 길이가 0이 아닌 레코드는 본문까지 기록이 끝난 상태임을 보장한다.
+            segment.putInt(offset, body.length);
+            if (fsyncPolicy == OutboxFsyncPolicy.ALWAYS) {
+                segment.force(offset, recordBytes);
+            }
+            writePosition = position + recordBytes;
+        }
+
+        Thread currentWaiter = waiter;
+        if (currentWaiter != null) {
+            LockSupport.unpark(currentWaiter);
+        }
+        return position;
+    }
+
+    public List<OutboxRecord> read(long fromPosition, int maxRecords) {
+        List<OutboxRecord> records = new ArrayList<>(Math.min(maxRecords, 1024));
+        long position = fromPosition;
+        long limit = writePosition;
+        while (records.size() < maxRecords && position < limit) {
+            int offset = offsetOf(position);
+            MappedByteBuffer segment = offset + HEADER_BYTES <= segmentBytes ? segment(segmentIndexOf(position), false) : null;
+            int length = segment == null ? 0 : segment.getInt(offset);
+            if (length == 0) {
+                position = nextSegmentBase(position);
+                continue;
+            }
+
+            // 깨진 레코드 앞까지는 돌려주고, 깨진 레코드가 맨 앞이면 건너뛸 위치와 함께 예외로 알린다.
+            if (length < 0 || offset + HEADER_BYTES + length > segmentBytes) {
+                if (!records.isEmpty()) {
+                    break;
+                }
+                throw new PoisonOutboxRecordException(
+                        "Outbox journal record has invalid length. position=" + position + ", length=" + length,
+                        position, nextSegmentBase(position), new byte[0], null
+                );
+            }
+            byte[] body = new byte[length];
+            segment.get(offset + HEADER_BYTES, body);
+            CRC32 crc = new CRC32();
+            crc.update(body);
+            long nextPosition = position + HEADER_BYTES + length;
+            if ((int) crc.getValue() != segment.getInt(offset + 4)) {
+                if (!records.isEmpty()) {
+                    break;
+                }
+                throw new PoisonOutboxRecordException("Outbox journal record is corrupted. position=" + position, position, nextPosition, body, null);
+            }
+
+            records.add(new OutboxRecord(position, nextPosition, body));
+            position = nextPosition;
+        }
+        return records;
+    }
+
+    public void awaitAppend(long position, long timeoutMs) {
+        waiter = Thread.currentThread();
+        try {
+            if (writePosition <= position) {
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(timeoutMs));
+            }
+        } finally {
+            waiter = null;
+        }
+    }
+
+    public void commit(long position) {
+        if (position <= ackedPosition) {
+            return;
+        }
+        writeCheckpoint(position);
+        ackedPosition = position;
+
+        long ackedSegmentIndex = segmentIndexOf(position);
+        for (Long index : List.copyOf(segments.keySet())) {
+            if (index < ackedSegmentIndex) {
+                segments.remove(index);
+                deleteSegment(index);
+            }
+        }
+    }
+
+    // 보낼 수 없는 레코드의 본문을 quarantine 디렉터리에 남긴다. 저널에서는 이후 commit 으로 지워진다.
+    public Path quarantine(long position, byte[] body) {
+        Path path = directory.resolve(QUARANTINE_DIRECTORY).resolve(String.format("%020d%s", position, QUARANTINE_SUFFIX));
+        try {
+            Files.createDirectories(path.getParent());
+            Files.write(path, body);
+            return path;
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Failed to quarantine outbox record. position=" + position, exception);
+        }
+    }
+
+    public long ackedPosition() {
+        return ackedPosition;
+    }
+
+    public long writePosition() {
+        return writePosition;
+    }
+
+    public long pendingBytes() {
+        return writePosition - ackedPosition;
+    }
+
+    @Override
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        if (fsyncPolicy != OutboxFsyncPolicy.NONE) {
+            forceActiveSegment();
+        }
+        segments.clear();
+    }
+
+    private void recover() throws IOException {
+        ackedPosition = readCheckpoint();
+        long ackedSegmentIndex = segmentIndexOf(ackedPosition);
+
+        long lastIndex = -1L;
+        for (long index : listSegmentIndexes()) {
+            if (index < ackedSegmentIndex) {
+                deleteSegment(index);
+            } else {
+                lastIndex = Math.max(lastIndex, index);
+            }
+        }
+
+        if (lastIndex < 0) {
+            writePosition = ackedPosition;
+            return;
+        }
+
+        // 마지막 세그먼트를 CRC 로 검증하며 끝까지 훑어, 중간에 끊긴 레코드 직전을 쓰기 위치로 삼는다.
+        long position = lastIndex == ackedSegmentIndex ? ackedPosition : lastIndex * segmentBytes;
+        MappedByteBuffer segment = segment(lastIndex, true);
+        CRC32 crc = new CRC32();
+        while (true) {
+            int offset = offsetOf(position);
+            if (segmentIndexOf(position) != lastIndex || offset + HEADER_BYTES > segmentBytes) {
+                break;
+            }
+            int length = segment.getInt(offset);
+            if (length <= 0 || offset + HEADER_BYTES + length > segmentBytes) {
+                break;
+            }
+            byte[] body = new byte[length];
+            segment.get(offset + HEADER_BYTES, body);
+            crc.reset();
+            crc.update(body);
+            if ((int) crc.getValue() != segment.getInt(offset + 4)) {
+                break;
+            }
+            position += HEADER_BYTES + length;
+        }
+        writePosition = position;
+        activeSegment = segment;
+        log.info("Outbox journal recovered. directory={}, ackedPosition={}, writePosition={}", directory, ackedPosition, writePosition);
+    }
+
+    private void rollFrom(long position, int offset) {
+        MappedByteBuffer segment = segment(segmentIndexOf(position), true);
+        if (offset + 4 <= segmentBytes) {
+            // 복구 이후 남아 있을 수 있는 이전 바이트를 끊어 읽기 측이 다음 세그먼트로 넘어가게 한다.
+            segment.putInt(offset, 0);
+        }
+        if (fsyncPolicy != OutboxFsyncPolicy.NONE) {
+            segment.force();
+        }
+    }
+
+    private MappedByteBuffer segment(long index, boolean create) {
+        MappedByteBuffer segment = segments.get(index);
+        if (segment != null) {
+            return segment;
+        }
+        Path path = segmentPath(index);
+        if (!create && !Files.exists(path)) {
+            return null;
+        }
+        return segments.computeIfAbsent(index, ignored -> map(path));
+    }
+
+    private MappedByteBuffer map(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Failed to map outbox segment. path=" + path, exception);
+        }
+    }
+
+    private void forceActiveSegment() {
+        MappedByteBuffer segment = activeSegment;
+        if (segment != null) {
+            segment.force();
+        }
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path checkpoint = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(checkpoint)) {
+            return 0L;
+        }
+        byte[] bytes = Files.readAllBytes(checkpoint);
+        return bytes.length == Long.BYTES ? ByteBuffer.wrap(bytes).getLong() : 0L;
+    }
+
+    private void writeCheckpoint(long position) {
+        Path checkpoint = directory.resolve(CHECKPOINT_FILE);
+        Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, position));
+            if (fsyncPolicy != OutboxFsyncPolicy.NONE) {
+                channel.force(true);
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Failed to write outbox checkpoint. position=" + position, exception);
+        }
+        try {
+            Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Failed to replace outbox checkpoint. position=" + position, exception);
+        }
+    }
+
+    private List<Long> listSegmentIndexes() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private void deleteSegment(long index) {
+        try {
+            Files.deleteIfExists(segmentPath(index));
+        } catch (IOException exception) {
+            log.warn("Failed to delete acked outbox segment. index={}", index, exception);
+        }
+    }
+
+    private Path segmentPath(long index) {
+        return directory.resolve(String.format("%020d%s", index, SEGMENT_SUFFIX));
+    }
+
+    private long segmentIndexOf(long position) {
+        return position / segmentBytes;
+    }
+
+    private int offsetOf(long position) {
+        return (int) (position % segmentBytes);
+    }
+
+    private long nextSegmentBase(long position) {
+        return (segmentIndexOf(position) + 1) * segmentBytes;
+    }
+}
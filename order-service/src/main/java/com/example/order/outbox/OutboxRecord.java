@@ -0,0 +1,8 @@
+package com.example.order.outbox;
+
+public record OutboxRecord(
+        long position,
+        long nextPosition,
+        byte[] body
+) {
+}
@@ -0,0 +1,207 @@
+package com.example.order.outbox;
+
+import com.example.order.exception.PoisonOutboxRecordException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+@Component
+@ConditionalOnProperty(name = "app.outbox.enabled", havingValue = "true")
+public class OutboxRelay implements SmartLifecycle, HealthIndicator {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxJournal outboxJournal;
+    private final OrderEventOutbox orderEventOutbox;
+    private final int batchSize;
+    private final long retryBackoffMs;
+    private final long idleWaitMs;
+    private final int maxRecordAttempts;
+    private final Counter poisonRecords;
+
+    private volatile boolean running;
+    private volatile Throwable failure;
+    private Thread worker;
+    private long poisonPosition = -1L;
+    private int poisonAttempts;
+
+    public OutboxRelay(
+            OutboxJournal outboxJournal,
+            OrderEventOutbox orderEventOutbox,
+            @Value("${app.outbox.relay.batch-size}") int batchSize,
+            @Value("${app.outbox.relay.retry-backoff-ms}") long retryBackoffMs,
+            @Value("${app.outbox.relay.idle-wait-ms}") long idleWaitMs,
+            @Value("${app.outbox.relay.max-record-attempts}") int maxRecordAttempts,
+            MeterRegistry meterRegistry
+    ) {
+        this.outboxJournal = outboxJournal;
+        this.orderEventOutbox = orderEventOutbox;
+        this.batchSize = batchSize;
+        this.retryBackoffMs = retryBackoffMs;
+        this.idleWaitMs = idleWaitMs;
+        this.maxRecordAttempts = Math.max(1, maxRecordAttempts);
+        this.poisonRecords = Counter.builder("outbox.relay.poison.records")
+                .description("Outbox records skipped and quarantined because they could not be relayed")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        failure = null;
+        worker = new Thread(this::drain, "outbox-relay");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread current = worker;
+        if (current == null) {
+            return;
+        }
+        current.interrupt();
+        try {
+            current.join(retryBackoffMs + 5000L);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // relay 스레드가 예외로 끝났으면 false. 그대로 두면 저널이 더는 비워지지 않으므로 health 도 DOWN 으로 보고한다.
+    @Override
+    public boolean isRunning() {
+        return running && failure == null;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = isRunning() ? Health.up() : Health.down();
+        if (failure != null) {
+            builder.withException(failure);
+        }
+        return builder
+                .withDetail("ackedPosition", outboxJournal.ackedPosition())
+                .withDetail("pendingBytes", outboxJournal.pendingBytes())
+                .withDetail("poisonRecords", (long) poisonRecords.count())
+                .build();
+    }
+
+    // 예상하지 못한 예외로 스레드가 끝나면 isRunning/health 에 드러나게 한다. 저널은 커밋된 위치부터 다음 기동 때 다시 보낸다.
+    private void drain() {
+        try {
+            relayLoop();
+        } catch (Throwable throwable) {
+            failure = throwable;
+            log.error("Outbox relay stopped unexpectedly. ackedPosition={}, pendingBytes={}", outboxJournal.ackedPosition(), outboxJournal.pendingBytes(), throwable);
+        }
+    }
+
+    private void relayLoop() {
+        long position = outboxJournal.ackedPosition();
+        while (running) {
+            try {
+                List<OutboxRecord> batch = outboxJournal.read(position, batchSize);
+                if (batch.isEmpty()) {
+                    outboxJournal.awaitAppend(position, idleWaitMs);
+                    continue;
+                }
+                position = relay(batch);
+                log.debug("Outbox batch relayed. records={}, ackedPosition={}, pendingBytes={}", batch.size(), position, outboxJournal.pendingBytes());
+            } catch (PoisonOutboxRecordException exception) {
+                position = skipOrRetry(exception);
+                if (position < 0) {
+                    return;
+                }
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception exception) {
+                // 브로커 장애 시 커밋된 위치부터 다시 보낸다. 중복 발행은 컨슈머의 eventId 멱등 처리로 흡수된다.
+                Throwable cause = exception instanceof ExecutionException && exception.getCause() != null ? exception.getCause() : exception;
+                log.warn(
+                        "Outbox relay failed. Retrying from ackedPosition={} in {}ms. pendingBytes={}",
+                        outboxJournal.ackedPosition(), retryBackoffMs, outboxJournal.pendingBytes(), cause
+                );
+                position = outboxJournal.ackedPosition();
+                if (!sleep(retryBackoffMs)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // 보낼 수 있는 앞쪽 레코드까지 보내고 커밋한다. 해석할 수 없는 레코드를 만나면 그 앞까지 커밋한 뒤 예외를 다시 던진다.
+    private long relay(List<OutboxRecord> batch) throws InterruptedException, ExecutionException {
+        List<CompletableFuture<?>> futures = new ArrayList<>(batch.size());
+        PoisonOutboxRecordException poison = null;
+        for (OutboxRecord record : batch) {
+            try {
+                futures.add(orderEventOutbox.relay(record));
+            } catch (PoisonOutboxRecordException exception) {
+                poison = exception;
+                break;
+            }
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get();
+
+        long position = outboxJournal.ackedPosition();
+        if (!futures.isEmpty()) {
+            position = batch.get(futures.size() - 1).nextPosition();
+            outboxJournal.commit(position);
+        }
+        if (poison != null) {
+            throw poison;
+        }
+        return position;
+    }
+
+    // 같은 레코드가 max-record-attempts 번 연속 실패하면 본문을 격리하고 건너뛴다. 그 전까지는 재시도 간격을 두고 다시 읽는다.
+    // 깨진 레코드는 항상 커밋 위치 바로 뒤에서 발견되므로, 건너뛸 때 nextPosition 을 바로 커밋해도 앞쪽 레코드를 잃지 않는다.
+    private long skipOrRetry(PoisonOutboxRecordException exception) {
+        poisonAttempts = exception.position() == poisonPosition ? poisonAttempts + 1 : 1;
+        poisonPosition = exception.position();
+        if (poisonAttempts < maxRecordAttempts) {
+            log.warn(
+                    "Outbox record could not be relayed. position={}, attempt={}/{}, retryInMs={}",
+                    exception.position(), poisonAttempts, maxRecordAttempts, retryBackoffMs, exception
+            );
+            return sleep(retryBackoffMs) ? outboxJournal.ackedPosition() : -1L;
+        }
+
+        Path quarantined = outboxJournal.quarantine(exception.position(), exception.body());
+        outboxJournal.commit(exception.nextPosition());
+        poisonRecords.increment();
+        log.error(
+                "Outbox record skipped after {} attempts. position={}, nextPosition={}, quarantined={}",
+                poisonAttempts, exception.position(), exception.nextPosition(), quarantined, exception
+        );
+        poisonAttempts = 0;
+        poisonPosition = -1L;
+        return exception.nextPosition();
+    }
+
+    private boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -2,56 +2,103 @@ package com.example.order.producer;
 
 import com.example.common.event.OrderCreatedEvent;
 import com.example.common.event.OrderShippedEvent;
+import com.example.common.publication.PublicationTracker;
 import com.example.order.exception.EventPublishException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class OrderEventProducer {
 
     private static final Logger log = LoggerFactory.getLogger(OrderEventProducer.class);
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final KafkaTemplate<String, Object> orderCreatedKafkaTemplate;
+    private final KafkaTemplate<String, Object> orderShippedKafkaTemplate;
+    private final PublicationTracker publicationTracker;
     private final String orderCreatedTopic;
     private final String orderShippedTopic;
+    private final MeterRegistry meterRegistry;
+    // outbox 모드에서는 relay 가 ack 될 때까지 같은 이벤트를 다시 보내므로, 전송 실패를 FAILED 로 끝내지 않고 PENDING 으로 둔다.
+    private final boolean retriedUntilAcked;
 
     public OrderEventProducer(
-            KafkaTemplate<String, Object> kafkaTemplate,
+            @Qualifier("orderCreatedKafkaTemplate") KafkaTemplate<String, Object> orderCreatedKafkaTemplate,
+            @Qualifier("orderShippedKafkaTemplate") KafkaTemplate<String, Object> orderShippedKafkaTemplate,
+            PublicationTracker publicationTracker,
             @Value("${app.kafka.topics.order-created}") String orderCreatedTopic,
-            @Value("${app.kafka.topics.order-shipped}") String orderShippedTopic
+            @Value("${app.kafka.topics.order-shipped}") String orderShippedTopic,
+            MeterRegistry meterRegistry,
+            @Value("${app.outbox.enabled:false}") boolean retriedUntilAcked
     ) {
-        this.kafkaTemplate = kafkaTemplate;
+        this.orderCreatedKafkaTemplate = orderCreatedKafkaTemplate;
+        this.orderShippedKafkaTemplate = orderShippedKafkaTemplate;
+        this.publicationTracker = publicationTracker;
         this.orderCreatedTopic = orderCreatedTopic;
         this.orderShippedTopic = orderShippedTopic;
+        this.meterRegistry = meterRegistry;
+        this.retriedUntilAcked = retriedUntilAcked;
+    }
+
+    public CompletableFuture<SendResult<String, Object>> sendOrderCreated(OrderCreatedEvent event) {
+        return send(orderCreatedKafkaTemplate, orderCreatedTopic, event.orderId(), event.eventId(), event, "order-created");
     }
 
-    public void sendOrderCreated(OrderCreatedEvent event) {
-        send(orderCreatedTopic, event.orderId(), event, "order-created");
+    public List<CompletableFuture<SendResult<String, Object>>> sendOrderCreatedBatch(List<OrderCreatedEvent> events) {
+        // ack 를 기다리지 않고 연속으로 send 해 프로듀서 버퍼에서 파티션별 배치로 묶이게 한다.
+        // 개별 레코드 send 실패는 배치 전체를 중단하지 않고 해당 future 만 실패로 돌려준다.
+        List<CompletableFuture<SendResult<String, Object>>> futures = new ArrayList<>(events.size());
+        for (OrderCreatedEvent event : events) {
+            try {
+                futures.add(send(orderCreatedKafkaTemplate, orderCreatedTopic, event.orderId(), event.eventId(), event, "order-created"));
+            } catch (EventPublishException exception) {
+                futures.add(CompletableFuture.failedFuture(exception));
+            }
+        }
+        return futures;
     }
 
-    public void sendOrderShipped(OrderShippedEvent event) {
-        send(orderShippedTopic, event.orderId(), event, "order-shipped");
+    public CompletableFuture<SendResult<String, Object>> sendOrderShipped(OrderShippedEvent event) {
+        return send(orderShippedKafkaTemplate, orderShippedTopic, event.orderId(), event.eventId(), event, "order-shipped");
     }
 
-    private void send(String topic, String key, Object event, String eventType) {
+    private CompletableFuture<SendResult<String, Object>> send(
+            KafkaTemplate<String, Object> kafkaTemplate,
+            String topic,
+            String key,
+            String eventId,
+            Object event,
+            String eventType
+    ) {
+        publicationTracker.register(eventId, topic);
         CompletableFuture<SendResult<String, Object>> future;
+        long started = System.nanoTime();
         try {
             future = kafkaTemplate.send(topic, key, event);
         } catch (Exception exception) {
+            recordFailure(eventId, exception);
             throw new EventPublishException("Order event[" + eventType  + "] publish failed. Verify Kafka bootstrap server/topic availability.", exception);
         }
 
         future.whenComplete((result, throwable) -> {
+            recordAckLatency(topic, started, result, throwable);
             if (throwable != null) {
+                recordFailure(eventId, throwable);
                 log.error("Failed to publish {} event. key={}", eventType, key, throwable);
                 return;
             }
+            publicationTracker.acked(eventId, result.getRecordMetadata().partition(), result.getRecordMetadata().offset());
             log.info(
                     "Published {} event. key={}, topic={}, partition={}, offset={}",
                     eventType,
@@ -61,5 +108,24 @@ public class OrderEventProducer {
                     result.getRecordMetadata().offset()
             );
         });
+        return future;
+    }
+
+    private void recordFailure(String eventId, Throwable throwable) {
+        if (!retriedUntilAcked) {
+            publicationTracker.failed(eventId, throwable);
+        }
+    }
+
+    // send 호출부터 브로커 ack(또는 실패)까지. 프로듀서 버퍼 대기(linger/batch)와 acks 설정에 따른 복제 대기가 모두 들어간다.
+    private void recordAckLatency(String topic, long started, SendResult<String, Object> result, Throwable throwable) {
+        Timer.builder("event.publish.ack.latency")
+                .description("Time from KafkaTemplate.send to the broker acknowledgement")
+                .tag("topic", topic)
+                .tag("partition", throwable == null ? String.valueOf(result.getRecordMetadata().partition()) : "unknown")
+                .tag("outcome", throwable == null ? "success" : "error")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
     }
 }
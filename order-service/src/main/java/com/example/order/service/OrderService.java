@@ -2,19 +2,44 @@ package com.example.order.service;
 
 import com.example.common.event.OrderCreatedEvent;
 import com.example.common.event.OrderShippedEvent;
+import com.example.common.id.TimeOrderedIdGenerator;
+import com.example.common.publication.PublicationState;
+import com.example.common.publication.PublicationStatus;
+import com.example.common.publication.PublicationTracker;
+import com.example.order.dto.CreateOrderBatchItemResult;
+import com.example.order.dto.CreateOrderBatchResponse;
 import com.example.order.dto.CreateOrderRequest;
 import com.example.order.dto.CreateOrderResponse;
 import com.example.order.dto.UpdateOrderStatusRequest;
 import com.example.order.dto.UpdateOrderStatusResponse;
+import com.example.order.exception.BatchSizeExceededException;
+import com.example.order.exception.EventPublishException;
 import com.example.order.exception.InvalidOrderStatusTransitionException;
+import com.example.order.exception.UnsupportedAwaitModeException;
+import com.example.order.outbox.OrderEventOutbox;
 import com.example.order.producer.OrderEventProducer;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.apache.kafka.clients.producer.RecordMetadata;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
-import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class OrderService {
@@ -26,14 +51,49 @@ public class OrderService {
     private static final Set<String> ALLOWED_TRANSITIONS = Set.of("20->25", "25->80");
 
     private final OrderEventProducer orderEventProducer;
+    private final OrderEventOutbox orderEventOutbox;
+    private final PublicationTracker publicationTracker;
+    private final Executor requestExecutor;
+    private final TimeOrderedIdGenerator idGenerator;
+    private final Validator validator;
+    private final int batchMaxSize;
+    private final long batchAckTimeoutMs;
+    private final long awaitDefaultTimeoutMs;
+    private final long awaitMaxTimeoutMs;
 
-    public OrderService(OrderEventProducer orderEventProducer) {
+    public OrderService(
+            OrderEventProducer orderEventProducer,
+            ObjectProvider<OrderEventOutbox> orderEventOutboxProvider,
+            PublicationTracker publicationTracker,
+            @Qualifier("requestExecutor") Executor requestExecutor,
+            TimeOrderedIdGenerator idGenerator,
+            Validator validator,
+            @Value("${app.order.batch.max-size}") int batchMaxSize,
+            @Value("${app.order.batch.ack-timeout-ms}") long batchAckTimeoutMs,
+            @Value("${app.publication.await-default-timeout-ms}") long awaitDefaultTimeoutMs,
+            @Value("${app.publication.await-max-timeout-ms}") long awaitMaxTimeoutMs
+    ) {
         this.orderEventProducer = orderEventProducer;
+        this.orderEventOutbox = orderEventOutboxProvider.getIfAvailable();
+        this.publicationTracker = publicationTracker;
+        this.requestExecutor = requestExecutor;
+        this.idGenerator = idGenerator;
+        this.validator = validator;
+        this.batchMaxSize = batchMaxSize;
+        this.batchAckTimeoutMs = batchAckTimeoutMs;
+        this.awaitDefaultTimeoutMs = awaitDefaultTimeoutMs;
+        this.awaitMaxTimeoutMs = awaitMaxTimeoutMs;
     }
 
-    public CreateOrderResponse createOrder(CreateOrderRequest request) {
-        String orderId = UUID.randomUUID().toString();
-        String eventId = UUID.randomUUID().toString();
+    public CompletableFuture<CreateOrderResponse> createOrderAsync(CreateOrderRequest request, String await, Long timeoutMs) {
+        Long awaitTimeoutMs = resolveAwaitTimeoutMs(await, timeoutMs);
+        return CompletableFuture.supplyAsync(() -> createOrder(request, awaitTimeoutMs), requestExecutor)
+                .thenCompose(Function.identity());
+    }
+
+    private CompletableFuture<CreateOrderResponse> createOrder(CreateOrderRequest request, Long awaitTimeoutMs) {
+        String orderId = idGenerator.nextString();
+        String eventId = idGenerator.nextString();
         Instant now = Instant.now();
 
         OrderCreatedEvent event = new OrderCreatedEvent(
@@ -46,13 +106,120 @@ public class OrderService {
                 now
         );
 
-        orderEventProducer.sendOrderCreated(event);
-        log.info("Order created and event published. orderId={}, eventId={}", orderId, eventId);
+        CompletableFuture<RecordMetadata> dispatched = dispatchOrderCreated(event);
+        if (awaitTimeoutMs != null) {
+            // await=ack 은 대기 시간 상한을 tracker 기준으로 적용하므로 send future 대신 tracker 완료에 연결한다.
+            String status = orderEventOutbox != null ? "ACCEPTED" : "PUBLISHED";
+            log.info("Order created and event {}. orderId={}, eventId={}", status, orderId, eventId);
+            return awaitPublicationAsync(new CreateOrderResponse(orderId, eventId, status, now, null, null), awaitTimeoutMs);
+        }
+        return dispatched.thenApply(metadata -> {
+            String status = metadata != null ? "PUBLISHED" : "ACCEPTED";
+            log.info("Order created and event {}. orderId={}, eventId={}", status, orderId, eventId);
+            return new CreateOrderResponse(
+                    orderId,
+                    eventId,
+                    status,
+                    now,
+                    metadata != null ? metadata.partition() : null,
+                    metadata != null ? metadata.offset() : null
+            );
+        });
+    }
+
+    public Optional<PublicationStatus> findPublication(String eventId) {
+        return publicationTracker.find(eventId);
+    }
 
-        return new CreateOrderResponse(orderId, eventId, "PUBLISHED", now);
+    public CompletableFuture<CreateOrderBatchResponse> createOrdersAsync(List<CreateOrderRequest> requests) {
+        return CompletableFuture.supplyAsync(() -> createOrders(requests), requestExecutor)
+                .thenCompose(Function.identity());
     }
 
-    public UpdateOrderStatusResponse updateOrderStatus(String orderId, UpdateOrderStatusRequest request) {
+    private CompletableFuture<CreateOrderBatchResponse> createOrders(List<CreateOrderRequest> requests) {
+        if (requests.size() > batchMaxSize) {
+            throw new BatchSizeExceededException(
+                    "Batch size exceeds limit. requested=" + requests.size() + ", max=" + batchMaxSize
+            );
+        }
+
+        Instant now = Instant.now();
+        CreateOrderBatchItemResult[] results = new CreateOrderBatchItemResult[requests.size()];
+        List<OrderCreatedEvent> events = new ArrayList<>(requests.size());
+        List<Integer> eventIndexes = new ArrayList<>(requests.size());
+
+        // 검증을 한 번에 끝내고 유효한 주문만 이벤트로 만들어, 잘못된 항목 하나가 배치 전체를 막지 않게 한다.
+        for (int index = 0; index < requests.size(); index++) {
+            CreateOrderRequest request = requests.get(index);
+            String violations = validate(request);
+            if (violations != null) {
+                results[index] = new CreateOrderBatchItemResult(index, null, null, "REJECTED", null, null, violations);
+                continue;
+            }
+
+            events.add(new OrderCreatedEvent(
+                    idGenerator.nextString(),
+                    idGenerator.nextString(),
+                    request.customerId(),
+                    request.customerEmail(),
+                    request.totalAmount(),
+                    request.currency(),
+                    now
+            ));
+            eventIndexes.add(index);
+        }
+
+        if (orderEventOutbox != null) {
+            for (int i = 0; i < events.size(); i++) {
+                int index = eventIndexes.get(i);
+                results[index] = appendToOutbox(index, events.get(i));
+            }
+            return CompletableFuture.completedFuture(summarize(results, now));
+        }
+
+        // 항목별 ack 를 요청 스레드에서 기다리지 않고, 기한 안에 끝나지 않은 항목은 PENDING 으로 채운 뒤 전체가 모이면 응답한다.
+        List<CompletableFuture<SendResult<String, Object>>> futures = orderEventProducer.sendOrderCreatedBatch(events);
+        CompletableFuture<?>[] items = new CompletableFuture<?>[events.size()];
+        for (int i = 0; i < events.size(); i++) {
+            int index = eventIndexes.get(i);
+            OrderCreatedEvent event = events.get(i);
+            items[i] = futures.get(i)
+                    .handle((result, throwable) -> ackResult(index, event, result, throwable))
+                    .completeOnTimeout(pendingResult(index, event), batchAckTimeoutMs, TimeUnit.MILLISECONDS)
+                    .thenAccept(item -> results[index] = item);
+        }
+        return CompletableFuture.allOf(items).thenApply(ignored -> summarize(results, now));
+    }
+
+    private CreateOrderBatchResponse summarize(CreateOrderBatchItemResult[] results, Instant now) {
+        int published = 0;
+        int rejected = 0;
+        int pending = 0;
+        for (CreateOrderBatchItemResult result : results) {
+            if ("PUBLISHED".equals(result.status()) || "ACCEPTED".equals(result.status())) {
+                published++;
+            } else if ("REJECTED".equals(result.status())) {
+                rejected++;
+            } else if ("PENDING".equals(result.status())) {
+                pending++;
+            }
+        }
+        // PENDING 은 기한 안에 ack 를 못 받았을 뿐 이후 발행될 수 있으므로 실패로 세지 않는다.
+        int failed = results.length - published - rejected - pending;
+        log.info(
+                "Order batch processed. requested={}, published={}, rejected={}, pending={}, failed={}",
+                results.length, published, rejected, pending, failed
+        );
+
+        return new CreateOrderBatchResponse(results.length, published, rejected, pending, failed, now, List.of(results));
+    }
+
+    public CompletableFuture<UpdateOrderStatusResponse> updateOrderStatusAsync(String orderId, UpdateOrderStatusRequest request) {
+        return CompletableFuture.supplyAsync(() -> updateOrderStatus(orderId, request), requestExecutor)
+                .thenCompose(Function.identity());
+    }
+
+    private CompletableFuture<UpdateOrderStatusResponse> updateOrderStatus(String orderId, UpdateOrderStatusRequest request) {
         String transition = request.previousStatus() + "->" + request.currentStatus();
         if (!ALLOWED_TRANSITIONS.contains(transition)) {
             throw new InvalidOrderStatusTransitionException(
@@ -71,8 +238,8 @@ public class OrderService {
         throw new InvalidOrderStatusTransitionException("Unsupported transition=" + transition);
     }
 
-    private UpdateOrderStatusResponse publishOrderShipped(String orderId, UpdateOrderStatusRequest request) {
-        String eventId = UUID.randomUUID().toString();
+    private CompletableFuture<UpdateOrderStatusResponse> publishOrderShipped(String orderId, UpdateOrderStatusRequest request) {
+        String eventId = idGenerator.nextString();
         Instant changedAt = Instant.now();
 
         OrderShippedEvent event = new OrderShippedEvent(
@@ -85,22 +252,147 @@ public class OrderService {
                 changedAt
         );
 
-        orderEventProducer.sendOrderShipped(event);
-        log.info(
-                "Order status changed and shipped event published. orderId={}, eventId={}, previousStatus={}, currentStatus={}",
-                orderId,
-                eventId,
-                request.previousStatus(),
-                request.currentStatus()
+        return dispatchOrderShipped(event).thenApply(metadata -> {
+            String status = metadata != null ? "PUBLISHED" : "ACCEPTED";
+            log.info(
+                    "Order status changed and shipped event {}. orderId={}, eventId={}, previousStatus={}, currentStatus={}",
+                    status,
+                    orderId,
+                    eventId,
+                    request.previousStatus(),
+                    request.currentStatus()
+            );
+
+            return new UpdateOrderStatusResponse(
+                    orderId,
+                    eventId,
+                    request.previousStatus(),
+                    request.currentStatus(),
+                    status,
+                    changedAt
+            );
+        });
+    }
+
+    private Long resolveAwaitTimeoutMs(String await, Long timeoutMs) {
+        if (await == null) {
+            return null;
+        }
+        if (!"ack".equalsIgnoreCase(await)) {
+            throw new UnsupportedAwaitModeException("Only await=ack is supported. requested=" + await);
+        }
+        long requested = timeoutMs != null ? timeoutMs : awaitDefaultTimeoutMs;
+        return Math.max(0L, Math.min(requested, awaitMaxTimeoutMs));
+    }
+
+    // ack 대기를 요청 스레드 블로킹 없이 tracker 의 완료 future 에 연결하고, 시간 초과 시 현재 상태로 응답한다.
+    private CompletableFuture<CreateOrderResponse> awaitPublicationAsync(CreateOrderResponse response, long timeoutMs) {
+        return publicationTracker.completion(response.eventId())
+                .map(completion -> completion
+                        .completeOnTimeout(null, timeoutMs, TimeUnit.MILLISECONDS)
+                        .thenApply(publication -> applyPublication(
+                                response,
+                                publication != null ? publication : publicationTracker.find(response.eventId()).orElse(null)
+                        )))
+                .orElseGet(() -> CompletableFuture.completedFuture(response));
+    }
+
+    private CreateOrderResponse applyPublication(CreateOrderResponse response, PublicationStatus publication) {
+        if (publication == null) {
+            return response;
+        }
+        if (publication.state() == PublicationState.FAILED) {
+            throw new EventPublishException(
+                    "Order event was not acknowledged by broker. eventId=" + response.eventId() + ", error=" + publication.error(), null
+            );
+        }
+        return new CreateOrderResponse(
+                response.orderId(),
+                response.eventId(),
+                publication.state().name(),
+                response.createdAt(),
+                publication.partition(),
+                publication.offset()
         );
+    }
 
-        return new UpdateOrderStatusResponse(
-                orderId,
-                eventId,
-                request.previousStatus(),
-                request.currentStatus(),
-                "PUBLISHED",
-                changedAt
+    // outbox 가 켜져 있으면 로컬 저널 기록까지만 요청 경로에서 처리하고(metadata 없이 완료), 브로커 전송은 relay 가 맡는다.
+    // 아니면 send future 가 브로커 ack 로 끝날 때 완료하고, 거절되면 EventPublishException 으로 실패시킨다.
+    private CompletableFuture<RecordMetadata> dispatchOrderCreated(OrderCreatedEvent event) {
+        if (orderEventOutbox != null) {
+            orderEventOutbox.appendOrderCreated(event);
+            return CompletableFuture.completedFuture(null);
+        }
+        return acknowledged(orderEventProducer.sendOrderCreated(event), event.eventId());
+    }
+
+    private CompletableFuture<RecordMetadata> dispatchOrderShipped(OrderShippedEvent event) {
+        if (orderEventOutbox != null) {
+            orderEventOutbox.appendOrderShipped(event);
+            return CompletableFuture.completedFuture(null);
+        }
+        return acknowledged(orderEventProducer.sendOrderShipped(event), event.eventId());
+    }
+
+    private CompletableFuture<RecordMetadata> acknowledged(CompletableFuture<SendResult<String, Object>> future, String eventId) {
+        return future.handle((result, throwable) -> {
+            if (throwable != null) {
+                throw new EventPublishException(
+                        "Order event was not acknowledged by broker. eventId=" + eventId, unwrap(throwable)
+                );
+            }
+            return result.getRecordMetadata();
+        });
+    }
+
+    private CreateOrderBatchItemResult appendToOutbox(int index, OrderCreatedEvent event) {
+        try {
+            orderEventOutbox.appendOrderCreated(event);
+            return new CreateOrderBatchItemResult(index, event.orderId(), event.eventId(), "ACCEPTED", null, null, null);
+        } catch (EventPublishException exception) {
+            return new CreateOrderBatchItemResult(index, event.orderId(), event.eventId(), "FAILED", null, null, exception.getMessage());
+        }
+    }
+
+    private String validate(CreateOrderRequest request) {
+        if (request == null) {
+            return "order must not be null";
+        }
+        Set<ConstraintViolation<CreateOrderRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private CreateOrderBatchItemResult ackResult(
+            int index,
+            OrderCreatedEvent event,
+            SendResult<String, Object> result,
+            Throwable throwable
+    ) {
+        if (throwable != null) {
+            return new CreateOrderBatchItemResult(
+                    index, event.orderId(), event.eventId(), "FAILED", null, null, unwrap(throwable).getMessage()
+            );
+        }
+        RecordMetadata metadata = result.getRecordMetadata();
+        return new CreateOrderBatchItemResult(
+                index, event.orderId(), event.eventId(), "PUBLISHED", metadata.partition(), metadata.offset(), null
         );
     }
+
+    private CreateOrderBatchItemResult pendingResult(int index, OrderCreatedEvent event) {
+        return new CreateOrderBatchItemResult(
+                index, event.orderId(), event.eventId(), "PENDING", null, null,
+                "Broker ack not received within " + batchAckTimeoutMs + "ms"
+        );
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+    }
 }
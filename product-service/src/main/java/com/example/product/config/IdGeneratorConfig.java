@@ -0,0 +1,15 @@
+package com.example.product.config;
+
+import com.example.common.id.TimeOrderedIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdGeneratorConfig {
+
+    @Bean
+    public TimeOrderedIdGenerator idGenerator(@Value("${app.id.node-id:-1}") int nodeId) {
+        return new TimeOrderedIdGenerator(nodeId >= 0 ? nodeId : TimeOrderedIdGenerator.defaultNodeId());
+    }
+}
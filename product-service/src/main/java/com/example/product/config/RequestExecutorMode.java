@@ -0,0 +1,7 @@
+package com.example.product.config;
+
+public enum RequestExecutorMode {
+    DIRECT,
+    PLATFORM,
+    VIRTUAL
+}
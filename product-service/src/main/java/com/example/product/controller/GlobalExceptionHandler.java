@@ -1,6 +1,7 @@
 package com.example.product.controller;
 
 import com.example.product.exception.EventPublishException;
+import com.example.product.exception.UnsupportedAwaitModeException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -26,6 +27,16 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(body);
     }
 
+    @ExceptionHandler(UnsupportedAwaitModeException.class)
+    public ResponseEntity<Map<String, Object>> handleUnsupportedAwaitMode(UnsupportedAwaitModeException exception) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", Instant.now());
+        body.put("status", HttpStatus.BAD_REQUEST.value());
+        body.put("error", "Unsupported await mode");
+        body.put("message", exception.getMessage());
+        return ResponseEntity.badRequest().body(body);
+    }
+
     @ExceptionHandler(EventPublishException.class)
     public ResponseEntity<Map<String, Object>> handleEventPublish(EventPublishException exception) {
         Map<String, Object> body = new HashMap<>();
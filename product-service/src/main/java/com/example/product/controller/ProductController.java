@@ -1,16 +1,23 @@
 package com.example.product.controller;
 
+import com.example.common.publication.PublicationStatus;
 import com.example.product.dto.CreateProductRequest;
 import com.example.product.dto.CreateProductResponse;
 import com.example.product.service.ProductService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
@@ -23,7 +30,18 @@ public class ProductController {
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public CreateProductResponse createProduct(@Valid @RequestBody CreateProductRequest request) {
-        return productService.createProduct(request);
+    public CompletableFuture<CreateProductResponse> createProduct(
+            @Valid @RequestBody CreateProductRequest request,
+            @RequestParam(name = "await", required = false) String await,
+            @RequestParam(name = "timeoutMs", required = false) Long timeoutMs
+    ) {
+        return productService.createProductAsync(request, await, timeoutMs);
+    }
+
+    @GetMapping("/events/{eventId}")
+    public ResponseEntity<PublicationStatus> getEventPublication(@PathVariable("eventId") String eventId) {
+        return productService.findPublication(eventId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 }
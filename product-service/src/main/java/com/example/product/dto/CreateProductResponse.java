@@ -6,6 +6,8 @@ public record CreateProductResponse(
         String productId,
         String eventId,
         String status,
-        Instant createdAt
+        Instant createdAt,
+        Integer partition,
+        Long offset
 ) {
 }
@@ -0,0 +1,8 @@
+package com.example.product.exception;
+
+public class UnsupportedAwaitModeException extends RuntimeException {
+
+    public UnsupportedAwaitModeException(String message) {
+        super(message);
+    }
+}
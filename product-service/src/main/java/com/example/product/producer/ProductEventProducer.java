@@ -1,7 +1,10 @@
 package com.example.product.producer;
 
 import com.example.common.event.ProductCreatedEvent;
+import com.example.common.publication.PublicationTracker;
 import com.example.product.exception.EventPublishException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,6 +13,7 @@ import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class ProductEventProducer {
@@ -17,29 +21,41 @@ public class ProductEventProducer {
     private static final Logger log = LoggerFactory.getLogger(ProductEventProducer.class);
 
     private final KafkaTemplate<String, ProductCreatedEvent> kafkaTemplate;
+    private final PublicationTracker publicationTracker;
     private final String productCreatedTopic;
+    private final MeterRegistry meterRegistry;
 
     public ProductEventProducer(
             KafkaTemplate<String, ProductCreatedEvent> kafkaTemplate,
-            @Value("${app.kafka.topics.product-created}") String productCreatedTopic
+            PublicationTracker publicationTracker,
+            @Value("${app.kafka.topics.product-created}") String productCreatedTopic,
+            MeterRegistry meterRegistry
     ) {
         this.kafkaTemplate = kafkaTemplate;
+        this.publicationTracker = publicationTracker;
         this.productCreatedTopic = productCreatedTopic;
+        this.meterRegistry = meterRegistry;
     }
 
-    public void sendProductCreated(ProductCreatedEvent event) {
+    public CompletableFuture<SendResult<String, ProductCreatedEvent>> sendProductCreated(ProductCreatedEvent event) {
+        publicationTracker.register(event.eventId(), productCreatedTopic);
         CompletableFuture<SendResult<String, ProductCreatedEvent>> future;
+        long started = System.nanoTime();
         try {
             future = kafkaTemplate.send(productCreatedTopic, event.productId(), event);
         } catch (Exception exception) {
+            publicationTracker.failed(event.eventId(), exception);
             throw new EventPublishException("Product event publish failed. Verify Kafka bootstrap server/topic availability.", exception);
         }
 
         future.whenComplete((result, throwable) -> {
+            recordAckLatency(productCreatedTopic, started, result, throwable);
             if (throwable != null) {
+                publicationTracker.failed(event.eventId(), throwable);
                 log.error("Failed to publish product event. productId={}, eventId={}", event.productId(), event.eventId(), throwable);
                 return;
             }
+            publicationTracker.acked(event.eventId(), result.getRecordMetadata().partition(), result.getRecordMetadata().offset());
             log.info(
                     "Published product event. productId={}, eventId={}, topic={}, partition={}, offset={}",
                     event.productId(),
@@ -49,5 +65,18 @@ public class ProductEventProducer {
                     result.getRecordMetadata().offset()
             );
         });
+        return future;
+    }
+
+    // send 호출부터 브로커 ack(또는 실패)까지. 프로듀서 버퍼 대기(linger/batch)와 acks 설정에 따른 복제 대기가 모두 들어간다.
+    private void recordAckLatency(String topic, long started, SendResult<String, ProductCreatedEvent> result, Throwable throwable) {
+        Timer.builder("event.publish.ack.latency")
+                .description("Time from KafkaTemplate.send to the broker acknowledgement")
+                .tag("topic", topic)
+                .tag("partition", throwable == null ? String.valueOf(result.getRecordMetadata().partition()) : "unknown")
+                .tag("outcome", throwable == null ? "success" : "error")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
     }
 }
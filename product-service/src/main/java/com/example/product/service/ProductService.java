@@ -1,15 +1,30 @@
 package com.example.product.service;
 
 import com.example.common.event.ProductCreatedEvent;
+import com.example.common.id.TimeOrderedIdGenerator;
+import com.example.common.publication.PublicationState;
+import com.example.common.publication.PublicationStatus;
+import com.example.common.publication.PublicationTracker;
 import com.example.product.dto.CreateProductRequest;
 import com.example.product.dto.CreateProductResponse;
+import com.example.product.exception.EventPublishException;
+import com.example.product.exception.UnsupportedAwaitModeException;
 import com.example.product.producer.ProductEventProducer;
+import org.apache.kafka.clients.producer.RecordMetadata;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
-import java.util.UUID;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 @Service
 public class ProductService {
@@ -17,14 +32,37 @@ public class ProductService {
     private static final Logger log = LoggerFactory.getLogger(ProductService.class);
 
     private final ProductEventProducer productEventProducer;
+    private final PublicationTracker publicationTracker;
+    private final Executor requestExecutor;
+    private final TimeOrderedIdGenerator idGenerator;
+    private final long awaitDefaultTimeoutMs;
+    private final long awaitMaxTimeoutMs;
 
-    public ProductService(ProductEventProducer productEventProducer) {
+    public ProductService(
+            ProductEventProducer productEventProducer,
+            PublicationTracker publicationTracker,
+            @Qualifier("requestExecutor") Executor requestExecutor,
+            TimeOrderedIdGenerator idGenerator,
+            @Value("${app.publication.await-default-timeout-ms}") long awaitDefaultTimeoutMs,
+            @Value("${app.publication.await-max-timeout-ms}") long awaitMaxTimeoutMs
+    ) {
         this.productEventProducer = productEventProducer;
+        this.publicationTracker = publicationTracker;
+        this.requestExecutor = requestExecutor;
+        this.idGenerator = idGenerator;
+        this.awaitDefaultTimeoutMs = awaitDefaultTimeoutMs;
+        this.awaitMaxTimeoutMs = awaitMaxTimeoutMs;
     }
 
-    public CreateProductResponse createProduct(CreateProductRequest request) {
-        String productId = UUID.randomUUID().toString();
-        String eventId = UUID.randomUUID().toString();
+    public CompletableFuture<CreateProductResponse> createProductAsync(CreateProductRequest request, String await, Long timeoutMs) {
+        Long awaitTimeoutMs = resolveAwaitTimeoutMs(await, timeoutMs);
+        return CompletableFuture.supplyAsync(() -> createProduct(request, awaitTimeoutMs), requestExecutor)
+                .thenCompose(Function.identity());
+    }
+
+    private CompletableFuture<CreateProductResponse> createProduct(CreateProductRequest request, Long awaitTimeoutMs) {
+        String productId = idGenerator.nextString();
+        String eventId = idGenerator.nextString();
         Instant now = Instant.now();
 
         ProductCreatedEvent event = new ProductCreatedEvent(
@@ -37,10 +75,68 @@ public class ProductService {
                 now
         );
 
-        productEventProducer.sendProductCreated(event);
+        CompletableFuture<SendResult<String, ProductCreatedEvent>> future = productEventProducer.sendProductCreated(event);
+        if (awaitTimeoutMs != null) {
+            // await=ack 은 대기 시간 상한을 tracker 기준으로 적용하므로 send future 대신 tracker 완료에 연결한다.
+            log.info("Product created and event published. productId={}, eventId={}", productId, eventId);
+            return awaitPublicationAsync(new CreateProductResponse(productId, eventId, "PUBLISHED", now, null, null), awaitTimeoutMs);
+        }
+        return future.handle((result, throwable) -> {
+            if (throwable != null) {
+                throw new EventPublishException(
+                        "Product event was not acknowledged by broker. eventId=" + eventId,
+                        throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable
+                );
+            }
+            log.info("Product created and event published. productId={}, eventId={}", productId, eventId);
+            RecordMetadata metadata = result.getRecordMetadata();
+            return new CreateProductResponse(productId, eventId, "PUBLISHED", now, metadata.partition(), metadata.offset());
+        });
+    }
 
-        log.info("Product created and event published. productId={}, eventId={}", productId, eventId);
+    public Optional<PublicationStatus> findPublication(String eventId) {
+        return publicationTracker.find(eventId);
+    }
 
-        return new CreateProductResponse(productId, eventId, "PUBLISHED", now);
+    private Long resolveAwaitTimeoutMs(String await, Long timeoutMs) {
+        if (await == null) {
+            return null;
+        }
+        if (!"ack".equalsIgnoreCase(await)) {
+            throw new UnsupportedAwaitModeException("Only await=ack is supported. requested=" + await);
+        }
+        long requested = timeoutMs != null ? timeoutMs : awaitDefaultTimeoutMs;
+        return Math.max(0L, Math.min(requested, awaitMaxTimeoutMs));
+    }
+
+    // ack 대기를 요청 스레드 블로킹 없이 tracker 의 완료 future 에 연결하고, 시간 초과 시 현재 상태로 응답한다.
+    private CompletableFuture<CreateProductResponse> awaitPublicationAsync(CreateProductResponse response, long timeoutMs) {
+        return publicationTracker.completion(response.eventId())
+                .map(completion -> completion
+                        .completeOnTimeout(null, timeoutMs, TimeUnit.MILLISECONDS)
+                        .thenApply(publication -> applyPublication(
+                                response,
+                                publication != null ? publication : publicationTracker.find(response.eventId()).orElse(null)
+                        )))
+                .orElseGet(() -> CompletableFuture.completedFuture(response));
+    }
+
+    private CreateProductResponse applyPublication(CreateProductResponse response, PublicationStatus publication) {
+        if (publication == null) {
+            return response;
+        }
+        if (publication.state() == PublicationState.FAILED) {
+            throw new EventPublishException(
+                    "Product event was not acknowledged by broker. eventId=" + response.eventId() + ", error=" + publication.error(), null
+            );
+        }
+        return new CreateProductResponse(
+                response.productId(),
+                response.eventId(),
+                publication.state().name(),
+                response.createdAt(),
+                publication.partition(),
+                publication.offset()
+        );
     }
 }